@@ -128,10 +128,14 @@ public class Config {
         return prop;
     }
 
+    /**
+     * @return the value of the property, or the default value of the key if it is not set
+     */
     public <T> T getProperty(ConfigKey<T> key) {
         String value = prop.getProperty(key.name());
 
         if (value == null) {
+            if (key.defaultValue() != null) return key.defaultValue();
             throw new RuntimeException(ErrorMessage.UNAVAILABLE_PROPERTY.getMessage(key.name(), CONFIG_FILE_PATH));
         }
 
@@ -17,6 +17,7 @@
 
 package grakn.core.common.config;
 
+import javax.annotation.Nullable;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -51,6 +52,9 @@ public class ConfigKey<T> {
 
     public static final ConfigKey<String> SERVER_HOST_NAME = key("server.host");
     public static final ConfigKey<Integer> GRPC_PORT = key("grpc.port", INT);
+    // keys added after the first releases have defaults, so that existing configuration files need not list them
+    public static final ConfigKey<String> TRANSACTION_EXECUTOR = key("grpc.transaction-executor", STRING, "platform");
+    public static final ConfigKey<Boolean> ANSWER_PREFETCH = key("grpc.answer-prefetch", BOOL, false);
 
     public static final ConfigKey<String> STORAGE_HOSTNAME = key("storage.hostname");
     public static final ConfigKey<String> STORAGE_BACKEND = key("storage.backend");
@@ -59,6 +63,18 @@ public class ConfigKey<T> {
     public static final ConfigKey<String> STORAGE_KEYSPACE = key("storage.cql.keyspace");
 
     public static final ConfigKey<Long> TYPE_SHARD_THRESHOLD = key("knowledge-base.type-shard-threshold", LONG);
+    public static final ConfigKey<Long> ATTRIBUTE_CACHE_MAX_BYTES = key("knowledge-base.attribute-cache-max-bytes", LONG, 67108864L);
+    public static final ConfigKey<Boolean> NATIVE_TRAVERSAL = key("knowledge-base.native-traversal", BOOL, false);
+    public static final ConfigKey<Integer> EXHAUSTIVE_PLANNING_MAX_VARS = key("knowledge-base.exhaustive-planning-max-vars", INT, 0);
+    public static final ConfigKey<Integer> REPLANNING_DIVERGENCE = key("knowledge-base.replanning-divergence", INT, 10);
+    public static final ConfigKey<Boolean> ORDERED_VALUE_INDEX = key("knowledge-base.ordered-value-index", BOOL, false);
+    public static final ConfigKey<Boolean> TOKEN_VALUE_INDEX = key("knowledge-base.token-value-index", BOOL, false);
+    public static final ConfigKey<Boolean> STATISTICS_COUNT = key("knowledge-base.statistics-count", BOOL, false);
+    public static final ConfigKey<Integer> GROUP_AGGREGATE_MAX_GROUPS = key("knowledge-base.group-aggregate-max-groups", INT, 100000);
+    public static final ConfigKey<Integer> WRITE_CHUNK_SIZE = key("knowledge-base.write-chunk-size", INT, 0);
+    public static final ConfigKey<Boolean> SHARED_REASONING_CACHE = key("knowledge-base.shared-reasoning-cache", BOOL, false);
+    public static final ConfigKey<Integer> REASONER_PARALLELISM = key("knowledge-base.reasoner-parallelism", INT, 0);
+    public static final ConfigKey<String> MATERIALISED_RULES = key("knowledge-base.materialised-rules", STRING, "");
     public static final ConfigKey<String> DATA_DIR = key("data-dir");
     public static final ConfigKey<String> LOG_DIR = key("log.dirs");
 
@@ -72,10 +88,20 @@ public class ConfigKey<T> {
      */
     private final KeyParser<T> parser;
 
+    /**
+     * The value of the property when it is not set, null if it has to be set.
+     */
+    private final T defaultValue;
+
 
     public ConfigKey(String value, KeyParser<T> parser) {
+        this(value, parser, null);
+    }
+
+    public ConfigKey(String value, KeyParser<T> parser, @Nullable T defaultValue) {
         this.name = value;
         this.parser = parser;
+        this.defaultValue = defaultValue;
     }
 
     public String name() {
@@ -86,6 +112,11 @@ public class ConfigKey<T> {
         return parser;
     }
 
+    @Nullable
+    public T defaultValue() {
+        return defaultValue;
+    }
+
     /**
      * Convert the value of the property into a string to store in a properties file
      */
@@ -108,4 +139,11 @@ public class ConfigKey<T> {
         return new ConfigKey<>(value, parser);
     }
 
+    /**
+     * Create a key with the given parser, which takes the given value when it is not set
+     */
+    public static <T> ConfigKey<T> key(String value, KeyParser<T> parser, T defaultValue) {
+        return new ConfigKey<>(value, parser, defaultValue);
+    }
+
 }
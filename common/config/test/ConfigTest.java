@@ -24,7 +24,9 @@ import org.junit.Rule;
 import org.junit.rules.ExpectedException;
 
 import java.io.InputStream;
+import java.util.Properties;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
 
 /**
@@ -55,4 +57,34 @@ public class ConfigTest {
     public void whenGettingExistingProperty_PropertyIsReturned(){
         assertNotNull(configuration.getProperty(ConfigKey.SERVER_HOST_NAME));
     }
+
+    @org.junit.Test
+    public void whenGettingPropertyWithDefaultAndPropertyIsUndefined_DefaultIsReturned() {
+        Config emptyConfiguration = Config.of(new Properties());
+
+        assertEquals("platform", emptyConfiguration.getProperty(ConfigKey.TRANSACTION_EXECUTOR));
+    }
+
+    @org.junit.Test
+    public void whenGettingPropertyWithDefaultAndPropertyIsDefined_PropertyIsReturned() {
+        Properties properties = new Properties();
+        properties.setProperty(ConfigKey.TRANSACTION_EXECUTOR.name(), "virtual");
+
+        assertEquals("virtual", Config.of(properties).getProperty(ConfigKey.TRANSACTION_EXECUTOR));
+    }
+
+    @org.junit.Test
+    public void whenGettingPropertiesAddedSinceTheFirstReleases_DefaultsMatchTheConfigurationFile() {
+        Config emptyConfiguration = Config.of(new Properties());
+        ConfigKey<?>[] keys = {
+                ConfigKey.TRANSACTION_EXECUTOR, ConfigKey.ANSWER_PREFETCH, ConfigKey.ATTRIBUTE_CACHE_MAX_BYTES,
+                ConfigKey.NATIVE_TRAVERSAL, ConfigKey.EXHAUSTIVE_PLANNING_MAX_VARS, ConfigKey.REPLANNING_DIVERGENCE,
+                ConfigKey.ORDERED_VALUE_INDEX, ConfigKey.TOKEN_VALUE_INDEX, ConfigKey.STATISTICS_COUNT,
+                ConfigKey.GROUP_AGGREGATE_MAX_GROUPS, ConfigKey.WRITE_CHUNK_SIZE, ConfigKey.SHARED_REASONING_CACHE,
+                ConfigKey.REASONER_PARALLELISM, ConfigKey.MATERIALISED_RULES
+        };
+        for (ConfigKey<?> key : keys) {
+            assertEquals(key.name(), configuration.getProperty(key), emptyConfiguration.getProperty(key));
+        }
+    }
 }
@@ -169,6 +169,9 @@ public enum ErrorMessage {
 
     AGGREGATE_ARGUMENT_NUM("aggregate '%s' takes %s arguments, but got %s"),
     UNKNOWN_AGGREGATE("unknown aggregate '%s'"),
+    GROUP_SPILL_FAILED("could not spill the groups of aggregate '%s' to disk"),
+    PARALLEL_RESOLUTION_INTERRUPTED("interrupted while waiting for the answers of disjuncts resolved in parallel"),
+    PARALLEL_RESOLUTION_CANCELLED("the disjuncts resolved in parallel were cancelled, as their transaction or answers were closed"),
 
     MATCH_INVALID("cannot match on property of type [%s]"),
 
@@ -219,6 +219,16 @@ public class AttributeTypeImpl<D> extends TypeImpl<AttributeType<D>, Attribute<D
         vertex().property(Schema.VertexProperty.OWNERSHIP_COUNT, count);
     }
 
+    @Override
+    public String valueHistogram() {
+        return vertex().property(Schema.VertexProperty.VALUE_HISTOGRAM);
+    }
+
+    @Override
+    public void writeValueHistogram(String histogram) {
+        vertex().property(Schema.VertexProperty.VALUE_HISTOGRAM, histogram);
+    }
+
     @Override
     void trackRolePlayers() {
         conceptNotificationChannel.trackAttributeInstancesRolesPlayed(this);
@@ -98,6 +98,20 @@ public class RoleImpl extends SchemaConceptImpl<Role> implements Role {
                 .flatMap(relation -> relation.castingsRelation(this));
     }
 
+    @Override
+    public long rolePlayerCount() {
+        Long count = vertex().property(Schema.VertexProperty.ROLE_PLAYER_COUNT);
+        if (count != null) {
+            return count;
+        }
+        return 0L;
+    }
+
+    @Override
+    public void writeRolePlayerCount(long count) {
+        vertex().property(Schema.VertexProperty.ROLE_PLAYER_COUNT, count);
+    }
+
     @Override
     boolean deletionAllowed() {
         return super.deletionAllowed() &&
@@ -207,6 +207,13 @@ public abstract class ThingImpl<T extends Thing, V extends Type> extends Concept
         attributeOwnership(attribute, true);
     }
 
+    @Override
+    public boolean isOwnershipInferred(Attribute attribute) {
+        return vertex().getEdgesOfType(Direction.OUT, Schema.EdgeLabel.ATTRIBUTE)
+                .filter(edge -> edge.target().equals(ConceptVertex.from(attribute).vertex()))
+                .anyMatch(edge -> edge.propertyBoolean(Schema.EdgeProperty.IS_INFERRED));
+    }
+
     private void attributeOwnership(Attribute attribute, boolean isInferred) {
         if (type().has().noneMatch(attribute.type()::equals)) {
             throw GraknConceptException.hasNotAllowed(this, attribute);
@@ -79,8 +79,13 @@ public class ConceptListenerImpl implements ConceptListener {
         Type type = thing.type();
         statistics.decrement(type);
         queryCache.ackDeletion(type);
+        transactionCache.instancesDeleted(type);
         conceptDeleted(thing);
         if(thing.isAttribute()) attributeDeleted(thing.asAttribute());
+        // the role players of a relation are detached together with its vertex, without notifying castingDeleted
+        if (thing.isRelation()) {
+            RelationImpl.from(thing.asRelation()).castingsRelation().forEach(casting -> statistics.decrementRolePlayer(casting.getRole()));
+        }
     }
 
     // Using a supplier instead of the concept avoids fetching the wrapping concept
@@ -88,6 +93,7 @@ public class ConceptListenerImpl implements ConceptListener {
     @Override
     public void relationEdgeDeleted(RelationType edgeTypeDeleted, boolean isInferredEdge, Supplier<Concept> wrappingConceptGetter) {
         statistics.decrement(edgeTypeDeleted);
+        transactionCache.instancesDeleted(edgeTypeDeleted);
         if (isInferredEdge) {
             Concept wrappingConcept = wrappingConceptGetter.get();
             if (wrappingConcept != null) {
@@ -120,6 +126,7 @@ public class ConceptListenerImpl implements ConceptListener {
             //creation of inferred concepts is an integral part of reasoning
             //hence we only acknowledge non-inferred insertions
             queryCache.ackInsertion();
+            transactionCache.instancesModified(thingType);
         }
 
         transactionCache.cacheConcept(thing);
@@ -141,6 +148,7 @@ public class ConceptListenerImpl implements ConceptListener {
         Label label = type.label();
         String index = Schema.generateAttributeIndex(label, value.toString());
         transactionCache.addNewAttribute(label, index, attribute.id());
+        statistics.incrementValue(label, value);
         thingCreated(attribute, isInferred);
         attributeManager.ackAttributeInsert(index, txId);
     }
@@ -149,6 +157,7 @@ public class ConceptListenerImpl implements ConceptListener {
         Type type = attribute.type();
         //Track the attribute by index
         String index = Schema.generateAttributeIndex(type.label(), attribute.value().toString());
+        statistics.decrementValue(type.label(), attribute.value());
         attributeManager.ackAttributeDelete(index, txId);
     }
 
@@ -174,6 +183,7 @@ public class ConceptListenerImpl implements ConceptListener {
 
         statistics.incrementOwnership(attribute.type());
         transactionCache.hasAttributeCreated(owner, attribute, isInferred);
+        if (!isInferred) ownershipModified(owner, attribute);
     }
 
     @Override
@@ -184,6 +194,17 @@ public class ConceptListenerImpl implements ConceptListener {
 
         statistics.decrementOwnership(attribute.type());
         transactionCache.hasAttributeDeleted(owner, attribute, isInferred);
+        if (!isInferred) ownershipDeleted(owner, attribute);
+    }
+
+    private void ownershipModified(Thing owner, Attribute<?> attribute) {
+        transactionCache.instancesModified(owner.type());
+        transactionCache.instancesModified(attribute.type());
+    }
+
+    private void ownershipDeleted(Thing owner, Attribute<?> attribute) {
+        transactionCache.instancesDeleted(owner.type());
+        transactionCache.instancesDeleted(attribute.type());
     }
 
     @Override
@@ -241,6 +262,8 @@ public class ConceptListenerImpl implements ConceptListener {
 
     @Override
     public void castingDeleted(Casting casting) {
+       statistics.decrementRolePlayer(casting.getRole());
+       transactionCache.instancesDeleted(casting.getRelationType());
        transactionCache.deleteCasting(casting);
     }
 
@@ -258,6 +281,8 @@ public class ConceptListenerImpl implements ConceptListener {
 
     @Override
     public void rolePlayerCreated(Casting casting) {
+        statistics.incrementRolePlayer(casting.getRole());
+        transactionCache.instancesModified(casting.getRelationType());
         transactionCache.trackForValidation(casting);
     }
 }
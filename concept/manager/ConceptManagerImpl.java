@@ -20,6 +20,7 @@ package grakn.core.concept.manager;
 
 import grakn.core.concept.impl.AttributeImpl;
 import grakn.core.concept.impl.AttributeTypeImpl;
+import grakn.core.concept.impl.ConceptVertex;
 import grakn.core.concept.impl.EntityImpl;
 import grakn.core.concept.impl.EntityTypeImpl;
 import grakn.core.concept.impl.RelationImpl;
@@ -376,6 +377,32 @@ public class ConceptManagerImpl implements ConceptManager {
         return concepts;
     }
 
+    @Override
+    @Nullable
+    public <D> Stream<Attribute<D>> getAttributesInOrder(AttributeType<D> attributeType) {
+        Schema.VertexProperty property = Schema.VertexProperty.ofValueType(attributeType.valueType());
+        Stream<VertexElement> vertices = elementFactory.getVerticesInOrder(property, attributeType.labelId().getValue());
+        if (vertices == null) return null;
+        return vertices.map(vertex -> this.<Attribute<D>>buildConcept(vertex));
+    }
+
+    @Override
+    public long countInstancesDirect(Type type) {
+        return elementFactory.getInstanceVertices(ConceptVertex.from(type).vertex()).count().next();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // values are stored as their value type serialises them
+    public <D> Stream<D> getValuesDirect(AttributeType<D> attributeType) {
+        AttributeType.ValueType<D> valueType = attributeType.valueType();
+        AttributeSerialiser<D, Object> serialiser = (AttributeSerialiser<D, Object>) AttributeSerialiser.of(valueType);
+        Schema.VertexProperty property = Schema.VertexProperty.ofValueType(valueType);
+        return elementFactory.getInstanceVertices(ConceptVertex.from(attributeType).vertex())
+                .values(property.name())
+                .toStream()
+                .map(serialiser::deserialise);
+    }
+
     @Override
     public <T extends Concept> T getConcept(ConceptId conceptId) {
         if (!Schema.validateConceptId(conceptId)) {
@@ -21,6 +21,7 @@ package grakn.core.concept.structure;
 import grakn.core.core.JanusTraversalSourceProvider;
 import grakn.core.core.Schema;
 import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.kb.concept.structure.EdgeElement;
 import grakn.core.kb.concept.structure.GraknElementException;
 import grakn.core.kb.concept.structure.Shard;
@@ -31,11 +32,15 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -66,6 +71,30 @@ public final class ElementFactory {
         return vertices.map(vertex -> buildVertexElement(vertex));
     }
 
+    /**
+     * @param valueProperty the property holding the values of the instances of the type
+     * @param typeLabelId   the label id of an attribute type
+     * @return the vertices of the direct instances of the type in increasing order of value, read lazily from the
+     * ordered index, or null if the values are not indexed in order
+     */
+    @Nullable
+    public Stream<VertexElement> getVerticesInOrder(Schema.VertexProperty valueProperty, Integer typeLabelId) {
+        Iterator<JanusGraphVertex> vertices = janusTx.orderedIndexQuery(valueProperty.name(), typeLabelId, null, null);
+        if (vertices == null) return null;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(vertices, Spliterator.ORDERED), false)
+                .map(this::buildVertexElement);
+    }
+
+    /**
+     * @return a traversal to the vertices of the direct instances of a type, through the shards of the type, which
+     * does not build concepts for them
+     */
+    public GraphTraversal<Vertex, Vertex> getInstanceVertices(VertexElement typeVertex) {
+        return traversalSourceProvider.getTinkerTraversal().V(typeVertex.element())
+                .in(Schema.EdgeLabel.SHARD.getLabel())
+                .in(Schema.EdgeLabel.ISA.getLabel());
+    }
+
     public Vertex getVertexWithId(String id) {
         Iterator<Vertex> vertices = traversalSourceProvider.getTinkerTraversal().V(id);
         if (vertices.hasNext()) {
@@ -56,6 +56,14 @@ public class JanusTraversalSourceProvider {
         return graphTraversalSource;
     }
 
+    /**
+     * @return the Janus transaction itself, for the traversals executed natively rather than through Gremlin
+     */
+    public JanusGraphTransaction janusGraphTransaction() {
+        checkThreadLocal();
+        return janusGraphTransaction;
+    }
+
     private void checkThreadLocal() {
         if (!createdInCurrentThread.get()) {
             throw new RuntimeException("Transaction is no longer in thread it originated in");
@@ -190,7 +190,7 @@ public final class Schema {
      */
     public enum VertexProperty {
         // Schema concept properties
-        SCHEMA_LABEL(String.class), LABEL_ID(Integer.class), INSTANCE_COUNT(Long.class), OWNERSHIP_COUNT(Long.class), TYPE_SHARD_CHECKPOINT(Long.class), IS_ABSTRACT(Boolean.class),
+        SCHEMA_LABEL(String.class), LABEL_ID(Integer.class), INSTANCE_COUNT(Long.class), OWNERSHIP_COUNT(Long.class), ROLE_PLAYER_COUNT(Long.class), VALUE_HISTOGRAM(String.class), TYPE_SHARD_CHECKPOINT(Long.class), IS_ABSTRACT(Boolean.class),
 
         // Attribute schema concept properties
         REGEX(String.class), VALUE_TYPE(String.class),
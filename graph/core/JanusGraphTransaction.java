@@ -22,6 +22,10 @@ import grakn.core.graph.graphdb.relations.RelationIdentifier;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Iterator;
+
 /**
  * Transaction defines a transactional context for a JanusGraph. Since JanusGraph is a transactional graph
  * database, all interactions with the graph are mitigated by a Transaction.
@@ -84,6 +88,46 @@ public interface JanusGraphTransaction extends Graph, SchemaManager {
      */
     JanusGraphIndexQuery indexQuery(String indexName, String query);
 
+    /**
+     * @return whether the ordered index is enabled and built, so that #orderedIndexQuery looks vertices up from it
+     */
+    boolean hasOrderedIndex();
+
+    /**
+     * @return whether the token index is enabled and built, so that #tokenIndexQuery looks vertices up from it
+     */
+    boolean hasTokenIndex();
+
+    /**
+     * Looks up vertices by a range of values of a property key kept in the ordered index, including the vertices
+     * modified in this transaction. As the bounds are widened to the data type of the key, vertices whose value is
+     * just outside the range may be returned too, so callers should test the values of the vertices. The vertices are
+     * returned in increasing order of value.
+     *
+     * @param key       name of the property key
+     * @param partition value of the partition key of the ordered index the vertices have
+     * @param lower     lowest value to look up, null if unbounded
+     * @param upper     highest value to look up, null if unbounded
+     * @return the vertices, or null if the values of the key are not indexed in order
+     */
+    @Nullable
+    Iterator<JanusGraphVertex> orderedIndexQuery(String key, Object partition, @Nullable Object lower, @Nullable Object upper);
+
+    /**
+     * Looks up vertices by substrings of the value of a string property key kept in the token index, including the
+     * vertices modified in this transaction. As the index is looked up by the trigrams of the substrings, ignoring
+     * case, vertices whose value does not contain the substrings may be returned too, so callers should test the
+     * values of the vertices.
+     *
+     * @param key        name of the property key
+     * @param partition  value of the partition key of the token index the vertices have
+     * @param substrings substrings the values must contain
+     * @return the vertices, or null if the values of the key are not indexed by trigram or the substrings are too short
+     * to look up
+     */
+    @Nullable
+    Iterator<JanusGraphVertex> tokenIndexQuery(String key, Object partition, Collection<String> substrings);
+
 
     JanusGraphMultiVertexQuery<? extends JanusGraphMultiVertexQuery> multiQuery(JanusGraphVertex... vertices);
 
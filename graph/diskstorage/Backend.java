@@ -89,6 +89,16 @@ public class Backend {
     public static final String EDGESTORE_NAME = "edgestore";
     public static final String INDEXSTORE_NAME = "graphindex";
     public static final String IDSTORE_NAME = "janusgraph_ids";
+    /**
+     * The ordered index keeps the values of some property keys in order, to look vertices up by ranges of values,
+     * see OrderedIndexSerializer.
+     */
+    public static final String ORDEREDINDEX_NAME = "orderedindex";
+    /**
+     * The token index maps the trigrams of some string property keys to the vertices with values containing them,
+     * to look vertices up by substrings of their values, see TokenIndexSerializer.
+     */
+    public static final String TOKENINDEX_NAME = "tokenindex";
 
     public static final String SYSTEM_TX_LOG_NAME = "txlog";
 
@@ -101,6 +111,8 @@ public class Backend {
     private final StoreFeatures storeFeatures;
     private final KCVSCache edgeStore;
     private final KCVSCache indexStore;
+    private final KCVSCache orderedIndexStore;
+    private final KCVSCache tokenIndexStore;
     private final KCVSCache txLogStore;
     private final KCVSConfiguration systemConfig;
     private final KCVSLogManager txLogManager;
@@ -154,6 +166,9 @@ public class Backend {
                 indexStore = new KCVSNoCache(indexStoreRaw);
             }
 
+            // ranges are read once per query, so they are not worth caching
+            orderedIndexStore = new KCVSNoCache(storeManager.openDatabase(ORDEREDINDEX_NAME));
+            tokenIndexStore = new KCVSNoCache(storeManager.openDatabase(TOKENINDEX_NAME));
             txLogStore = new KCVSNoCache(storeManager.openDatabase(SYSTEM_TX_LOG_NAME));
 
             //Open global configuration
@@ -271,7 +286,7 @@ public class Backend {
             indexTx.put(entry.getKey(), new IndexTransaction(entry.getValue(), indexKeyRetriever.get(entry.getKey()), configuration, maxWriteTime));
         }
 
-        return new BackendTransaction(cacheTx, configuration, storeFeatures, edgeStore, indexStore, txLogStore, maxReadTime, indexTx, threadPool);
+        return new BackendTransaction(cacheTx, configuration, storeFeatures, edgeStore, indexStore, orderedIndexStore, tokenIndexStore, txLogStore, maxReadTime, indexTx, threadPool);
     }
 
     public synchronized void close() {
@@ -282,6 +297,8 @@ public class Backend {
                 userLogManager.close();
                 edgeStore.close();
                 indexStore.close();
+                orderedIndexStore.close();
+                tokenIndexStore.close();
                 systemConfig.close();
                 //Indexes
                 for (IndexProvider index : indexes.values()) index.close();
@@ -313,6 +330,8 @@ public class Backend {
             userLogManager.close();
             edgeStore.close();
             indexStore.close();
+            orderedIndexStore.close();
+            tokenIndexStore.close();
             systemConfig.close();
             storeManager.clearStorage();
             storeManager.close();
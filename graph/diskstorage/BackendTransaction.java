@@ -69,6 +69,8 @@ public class BackendTransaction implements LoggableTransaction {
 
     private final KCVSCache edgeStore;
     private final KCVSCache indexStore;
+    private final KCVSCache orderedIndexStore;
+    private final KCVSCache tokenIndexStore;
     private final KCVSCache txLogStore;
 
     private final Duration maxReadTime;
@@ -80,13 +82,16 @@ public class BackendTransaction implements LoggableTransaction {
     private boolean cacheEnabled = true;
 
     public BackendTransaction(CacheTransaction storeTx, BaseTransactionConfig txConfig, StoreFeatures features,
-                              KCVSCache edgeStore, KCVSCache indexStore, KCVSCache txLogStore, Duration maxReadTime,
+                              KCVSCache edgeStore, KCVSCache indexStore, KCVSCache orderedIndexStore, KCVSCache tokenIndexStore,
+                              KCVSCache txLogStore, Duration maxReadTime,
                               Map<String, IndexTransaction> indexTx, Executor threadPool) {
         this.storeTx = storeTx;
         this.txConfig = txConfig;
         this.storeFeatures = features;
         this.edgeStore = edgeStore;
         this.indexStore = indexStore;
+        this.orderedIndexStore = orderedIndexStore;
+        this.tokenIndexStore = tokenIndexStore;
         this.txLogStore = txLogStore;
         this.maxReadTime = maxReadTime;
         this.indexTx = indexTx;
@@ -197,6 +202,28 @@ public class BackendTransaction implements LoggableTransaction {
         indexStore.mutateEntries(key, additions, deletions, storeTx);
     }
 
+    /**
+     * Applies the specified insertion and deletion mutations on the ordered index to the provided key.
+     *
+     * @param key       Key
+     * @param additions List of entries (column + value) to be added
+     * @param deletions List of columns to be removed
+     */
+    public void mutateOrderedIndex(StaticBuffer key, List<Entry> additions, List<Entry> deletions) throws BackendException {
+        orderedIndexStore.mutateEntries(key, additions, deletions, storeTx);
+    }
+
+    /**
+     * Applies the specified insertion and deletion mutations on the token index to the provided key.
+     *
+     * @param key       Key
+     * @param additions List of entries (column + value) to be added
+     * @param deletions List of columns to be removed
+     */
+    public void mutateTokenIndex(StaticBuffer key, List<Entry> additions, List<Entry> deletions) throws BackendException {
+        tokenIndexStore.mutateEntries(key, additions, deletions, storeTx);
+    }
+
     /* ###################################################
             Convenience Read Methods
      */
@@ -339,6 +366,34 @@ public class BackendTransaction implements LoggableTransaction {
 
     }
 
+    public EntryList orderedIndexQuery(KeySliceQuery query) {
+        return executeRead(new Callable<EntryList>() {
+            @Override
+            public EntryList call() throws Exception {
+                return orderedIndexStore.getSliceNoCache(query, storeTx);
+            }
+
+            @Override
+            public String toString() {
+                return "OrderedIndexQuery";
+            }
+        });
+    }
+
+    public EntryList tokenIndexQuery(KeySliceQuery query) {
+        return executeRead(new Callable<EntryList>() {
+            @Override
+            public EntryList call() throws Exception {
+                return tokenIndexStore.getSliceNoCache(query, storeTx);
+            }
+
+            @Override
+            public String toString() {
+                return "TokenIndexQuery";
+            }
+        });
+    }
+
     public Stream<String> indexQuery(String index, IndexQuery query) {
         IndexTransaction indexTx = getIndexTransaction(index);
         return executeRead(new Callable<Stream<String>>() {
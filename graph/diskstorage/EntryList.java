@@ -37,6 +37,15 @@ public interface EntryList extends List<Entry> {
      */
     int getByteSize();
 
+    /**
+     * Returns true if the entries of this list are fetched from the storage backend page by page as the list is read,
+     * rather than held in memory. Such lists must not be kept in caches, as caching them would hold on to the pages
+     * fetched and defeat the paging.
+     */
+    default boolean isPaged() {
+        return false;
+    }
+
 
     EmptyList EMPTY_LIST = new EmptyList();
 
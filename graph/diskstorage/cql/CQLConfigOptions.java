@@ -22,6 +22,8 @@ import grakn.core.graph.diskstorage.configuration.ConfigNamespace;
 import grakn.core.graph.diskstorage.configuration.ConfigOption;
 import grakn.core.graph.graphdb.configuration.GraphDatabaseConfiguration;
 
+import java.time.Duration;
+
 /**
  * Configuration options for the CQL storage backend. These are managed under the 'cql' namespace in the configuration.
  */
@@ -68,6 +70,16 @@ public interface CQLConfigOptions {
             ConfigOption.Type.MASKABLE,
             false);
 
+    // Group commit of un-logged batches
+    ConfigOption<Duration> GROUP_COMMIT_WINDOW = new ConfigOption<>(
+            CQL_NS,
+            "group-commit-window",
+            "Time (in ms) during which the mutations of concurrently committing transactions are collected and written " +
+                    "to Cassandra in shared un-logged batches. Zero commits every transaction on its own. " +
+                    "Only used when atomic batch mutation is disabled",
+            ConfigOption.Type.MASKABLE,
+            Duration.ZERO);
+
     // Replication
     ConfigOption<Integer> REPLICATION_FACTOR = new ConfigOption<>(
             CQL_NS,
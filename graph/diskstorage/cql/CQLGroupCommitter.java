@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import io.vavr.Tuple2;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Coalesces the mutations of concurrently committing transactions into shared un-logged batches,
+ * so that many small transactions share the round trips to Cassandra instead of paying one each.
+ * <p>
+ * The first transaction to commit after a group has been flushed opens a new group and leads it: it waits for
+ * the group window, during which other committing transactions join the group, then closes the group and executes
+ * the batches of all of its members, by partition key.
+ * The statements a transaction makes to a partition are cut into pieces of at most MAX_BATCH_STATEMENTS, and a batch
+ * holds whole pieces of one or more transactions up to that size. Statements keep the timestamps of their own transaction.
+ * <p>
+ * Each transaction only waits for the batches holding its own statements. When a batch shared with other transactions
+ * fails, each transaction retries its own piece of it in a batch of its own, so that it succeeds or fails on its own.
+ * Retries run on an executor of their own, as executing a batch may block on the requests in flight.
+ */
+class CQLGroupCommitter {
+
+    // upper bound on the statements of a batch, and on the statements of a transaction per batch
+    static final int MAX_BATCH_STATEMENTS = 256;
+
+    private final Function<BatchStatement, CompletionStage<?>> executor;
+    private final Runnable window;
+    private final Executor retryExecutor;
+    private final Map<ConsistencyLevel, Group> openGroups = new HashMap<>();
+
+    /**
+     * @param executor      executes a batch asynchronously, e.g. CQLStoreManager#executeAsyncOnSession
+     * @param window        time the leader of a group waits for other transactions to join it
+     * @param retryExecutor runs the retries of the pieces of failed shared batches
+     */
+    CQLGroupCommitter(Function<BatchStatement, CompletionStage<?>> executor, Duration window, Executor retryExecutor) {
+        this(executor, () -> park(window.toNanos()), retryExecutor);
+    }
+
+    /**
+     * @param window waits while the group of its leader is open for other transactions to join it
+     */
+    CQLGroupCommitter(Function<BatchStatement, CompletionStage<?>> executor, Runnable window, Executor retryExecutor) {
+        this.executor = executor;
+        this.window = window;
+        this.retryExecutor = retryExecutor;
+    }
+
+    private static void park(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * @param mutations        statements of one transaction, by the table and partition key they mutate
+     * @param consistencyLevel write consistency level of the transaction
+     * @return a future completing once all statements of the transaction are written
+     */
+    CompletableFuture<Void> commit(Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> mutations,
+                                   ConsistencyLevel consistencyLevel) {
+        Member member = new Member(mutations);
+        Group group;
+        boolean leader;
+        synchronized (openGroups) {
+            group = openGroups.get(consistencyLevel);
+            leader = group == null;
+            if (leader) {
+                group = new Group(consistencyLevel);
+                openGroups.put(consistencyLevel, group);
+            }
+            group.members.add(member);
+        }
+
+        if (leader) {
+            window.run();
+            synchronized (openGroups) {
+                openGroups.remove(consistencyLevel);
+            }
+            group.flush();
+        }
+        return member.written;
+    }
+
+    private static class Member {
+        private final Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> mutations;
+        private final List<CompletableFuture<Void>> pieces = new ArrayList<>();
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        Member(Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> mutations) {
+            this.mutations = mutations;
+        }
+    }
+
+    private static class Batch {
+        private final Map<Member, List<BatchableStatement<BoundStatement>>> pieces = new LinkedHashMap<>();
+        private int size = 0;
+
+        private void add(Member member, List<BatchableStatement<BoundStatement>> piece) {
+            pieces.put(member, piece);
+            size += piece.size();
+        }
+    }
+
+    private class Group {
+        private final ConsistencyLevel consistencyLevel;
+        // only mutated while holding the openGroups monitor, and read by the leader once the group is closed
+        private final List<Member> members = new ArrayList<>();
+
+        Group(ConsistencyLevel consistencyLevel) {
+            this.consistencyLevel = consistencyLevel;
+        }
+
+        private void flush() {
+            try {
+                for (List<Batch> partitionBatches : batchesByPartition().values()) {
+                    partitionBatches.forEach(this::execute);
+                }
+            } catch (RuntimeException e) {
+                members.forEach(member -> member.written.completeExceptionally(e));
+                return;
+            }
+
+            for (Member member : members) {
+                CompletableFuture.allOf(member.pieces.toArray(new CompletableFuture[]{})).whenComplete((result, exception) -> {
+                    if (exception == null) member.written.complete(null);
+                    else member.written.completeExceptionally(exception);
+                });
+            }
+        }
+
+        private void execute(Batch batch) {
+            List<BatchableStatement<BoundStatement>> statements = new ArrayList<>(batch.size);
+            batch.pieces.values().forEach(statements::addAll);
+            CompletableFuture<Void> execution = execute(statements);
+            if (batch.pieces.size() == 1) {
+                batch.pieces.keySet().forEach(member -> member.pieces.add(execution));
+                return;
+            }
+            // retries run off the driver's threads, as executing a batch may block on the requests in flight
+            batch.pieces.forEach((member, piece) -> member.pieces.add(execution
+                    .handle((result, exception) -> exception == null)
+                    .thenComposeAsync(written -> written ? CompletableFuture.completedFuture(null) : execute(piece), retryExecutor)));
+        }
+
+        private CompletableFuture<Void> execute(List<BatchableStatement<BoundStatement>> statements) {
+            return executor.apply(BatchStatement.newInstance(DefaultBatchType.UNLOGGED)
+                    .addAll(statements)
+                    .setConsistencyLevel(consistencyLevel))
+                    .toCompletableFuture()
+                    .thenApply(result -> null);
+        }
+
+        private Map<Tuple2<String, StaticBuffer>, List<Batch>> batchesByPartition() {
+            Map<Tuple2<String, StaticBuffer>, List<Batch>> partitions = new LinkedHashMap<>();
+            for (Member member : members) {
+                member.mutations.forEach((partition, statements) -> {
+                    List<Batch> batches = partitions.computeIfAbsent(partition, p -> new ArrayList<>());
+                    for (int from = 0; from < statements.size(); from += MAX_BATCH_STATEMENTS) {
+                        List<BatchableStatement<BoundStatement>> piece = statements.subList(from, Math.min(statements.size(), from + MAX_BATCH_STATEMENTS));
+                        Batch batch = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+                        if (batch == null || batch.size + piece.size() > MAX_BATCH_STATEMENTS) {
+                            batch = new Batch();
+                            batches.add(batch);
+                        }
+                        batch.add(member, piece);
+                    }
+                });
+            }
+            return partitions;
+        }
+    }
+}
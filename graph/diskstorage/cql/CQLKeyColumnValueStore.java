@@ -18,6 +18,7 @@
 package grakn.core.graph.diskstorage.cql;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
@@ -59,8 +60,12 @@ import io.vavr.control.Try;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
@@ -293,21 +298,81 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
         return this.tableName;
     }
 
+    /**
+     * Slices that fit in a single page are returned as a compact StaticArrayEntryList. Wider slices, such as the
+     * adjacency of supernodes, are returned as a CQLPagedEntryList which fetches further pages only as it is iterated,
+     * and resumes the slice from a later column when it is iterated again past the pages it keeps.
+     */
     @Override
     public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) {
-        ResultSet result = this.storeManager.executeOnSession(this.getSlice.bind()
-                .setByteBuffer(KEY_BINDING, query.getKey().asByteBuffer())
-                .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
-                .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
-                .setInt(LIMIT_BINDING, query.getLimit())
-                .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()));
-
-        return fromResultSet(result, this.getter);
+        ResultSet result = this.storeManager.executeOnSession(sliceStatement(query.getKey(), query.getSliceStart(), query.getSliceEnd(), query.getLimit(), txh));
+
+        if (result.isFullyFetched()) {
+            return fromResultSet(result, this.getter);
+        }
+        return new CQLPagedEntryList(result, this.getter, query.getLimit(),
+                (sliceStart, limit) -> this.storeManager.executeOnSession(sliceStatement(query.getKey(), sliceStart, query.getSliceEnd(), limit, txh)));
+    }
+
+    private BoundStatement sliceStatement(StaticBuffer key, StaticBuffer sliceStart, StaticBuffer sliceEnd, int limit, StoreTransaction txh) {
+        return this.getSlice.bind()
+                .setByteBuffer(KEY_BINDING, key.asByteBuffer())
+                .setByteBuffer(SLICE_START_BINDING, sliceStart.asByteBuffer())
+                .setByteBuffer(SLICE_END_BINDING, sliceEnd.asByteBuffer())
+                .setInt(LIMIT_BINDING, limit)
+                .setPageSize(this.pageSize)
+                .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel());
     }
 
+    /**
+     * Issues the slice query of every key asynchronously, so that all keys are fetched concurrently without
+     * blocking a thread per key. The number of requests in flight is bounded by the store manager.
+     */
     @Override
     public Map<StaticBuffer, EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException("The CQL backend does not support multi-key queries");
+        Map<StaticBuffer, CompletableFuture<List<Row>>> futureRows = new HashMap<>(keys.size());
+        for (StaticBuffer key : keys) {
+            CompletionStage<List<Row>> rows = this.storeManager.executeAsyncOnSession(this.getSlice.bind()
+                    .setByteBuffer(KEY_BINDING, key.asByteBuffer())
+                    .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                    .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                    .setInt(LIMIT_BINDING, query.getLimit())
+                    .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()))
+                    .thenCompose(resultSet -> allRows(resultSet, new ArrayList<>()));
+            futureRows.put(key, rows.toCompletableFuture());
+        }
+
+        Map<StaticBuffer, EntryList> result = new HashMap<>(keys.size());
+        for (Map.Entry<StaticBuffer, CompletableFuture<List<Row>>> entry : futureRows.entrySet()) {
+            try {
+                result.put(entry.getKey(), fromRows(entry.getValue().get(), this.getter));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PermanentBackendException("Interrupted while waiting for multi-key slice query", e);
+            } catch (ExecutionException e) {
+                throw EXCEPTION_MAPPER.apply(e.getCause());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collect the rows of the given page and of all the pages following it
+     */
+    private static CompletionStage<List<Row>> allRows(AsyncResultSet page, List<Row> rows) {
+        page.currentPage().forEach(rows::add);
+        if (!page.hasMorePages()) {
+            return CompletableFuture.completedFuture(rows);
+        }
+        return page.fetchNextPage().thenCompose(nextPage -> allRows(nextPage, rows));
+    }
+
+    private static EntryList fromRows(List<Row> rows, StaticArrayEntry.GetColVal<Tuple3<StaticBuffer, StaticBuffer, Row>, StaticBuffer> getter) {
+        return StaticArrayEntryList.ofStaticBuffer(() -> Iterator.ofAll(rows).map(row -> Tuple.of(
+                StaticArrayBuffer.of(row.getByteBuffer(COLUMN_COLUMN_NAME)),
+                StaticArrayBuffer.of(row.getByteBuffer(VALUE_COLUMN_NAME)),
+                row)),
+                getter);
     }
 
     private static EntryList fromResultSet(ResultSet resultSet, StaticArrayEntry.GetColVal<Tuple3<StaticBuffer, StaticBuffer, Row>, StaticBuffer> getter) {
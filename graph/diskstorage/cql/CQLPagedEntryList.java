@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.EntryList;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.util.StaticArrayBuffer;
+import grakn.core.graph.diskstorage.util.StaticArrayEntry;
+import grakn.core.graph.diskstorage.util.StaticArrayEntryList;
+import io.vavr.Tuple;
+import io.vavr.Tuple3;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static grakn.core.graph.diskstorage.cql.CQLKeyColumnValueStore.COLUMN_COLUMN_NAME;
+import static grakn.core.graph.diskstorage.cql.CQLKeyColumnValueStore.VALUE_COLUMN_NAME;
+
+/**
+ * An EntryList over a slice that spans more than one page of results, e.g. the adjacency of a supernode.
+ * <p>
+ * The rows are fetched page by page as the list is iterated. Only the first MAX_RETAINED_PAGES pages are kept once
+ * fetched, so that iterating the list again, as most readers of a slice only look at its first entries, is served from
+ * memory. Pages past them are streamed and dropped once consumed: the first iterator to reach them continues the result
+ * set of the original query, later ones resume the query after the last kept entry.
+ * <p>
+ * #size() and #getByteSize() count the entries in a streamed pass and remember the result. #get(int) past the kept
+ * pages reads from a cursor, so that reading the entries in order streams the slice once. The list is paged, see
+ * EntryList#isPaged(), so it is not kept in caches.
+ */
+class CQLPagedEntryList extends AbstractList<Entry> implements EntryList {
+
+    static final int MAX_RETAINED_PAGES = 4;
+
+    private final ResultSet resultSet;
+    private final Iterator<Row> rows;
+    private final StaticArrayEntry.GetColVal<Tuple3<StaticBuffer, StaticBuffer, Row>, StaticBuffer> getter;
+    private final int limit;
+    private final BiFunction<StaticBuffer, Integer, ResultSet> resume;
+
+    private final List<EntryList> retained = new ArrayList<>();
+    private int retainedEntries = 0;
+    private boolean exhausted = false;
+    private boolean resultSetContinued = false;
+
+    private int size = -1;
+    private int byteSize = -1;
+    private Iterator<Entry> cursor = null;
+    private int cursorIndex;
+
+    /**
+     * @param resultSet result set of the query, of which the first page has been fetched and more pages remain
+     * @param limit     the limit of the query
+     * @param resume    runs the query again from the given slice start with the given limit
+     */
+    CQLPagedEntryList(ResultSet resultSet, StaticArrayEntry.GetColVal<Tuple3<StaticBuffer, StaticBuffer, Row>, StaticBuffer> getter,
+                      int limit, BiFunction<StaticBuffer, Integer, ResultSet> resume) {
+        this.resultSet = resultSet;
+        this.rows = resultSet.iterator();
+        this.getter = getter;
+        this.limit = limit;
+        this.resume = resume;
+        retainedPage(0);
+    }
+
+    private static Tuple3<StaticBuffer, StaticBuffer, Row> columnValue(Row row) {
+        return Tuple.of(
+                StaticArrayBuffer.of(row.getByteBuffer(COLUMN_COLUMN_NAME)),
+                StaticArrayBuffer.of(row.getByteBuffer(VALUE_COLUMN_NAME)),
+                row);
+    }
+
+    /**
+     * @return the rows of the next page of the result set, fetching the page from the driver if it is not available
+     * yet, or null if the result set is exhausted
+     */
+    private EntryList nextPage(ResultSet pages, Iterator<Row> pageRows) {
+        // fetches the next page if the current one is consumed
+        if (!pageRows.hasNext()) return null;
+        int available = pages.getAvailableWithoutFetching();
+        return StaticArrayEntryList.ofStaticBuffer(Iterators.transform(Iterators.limit(pageRows, available), CQLPagedEntryList::columnValue), getter);
+    }
+
+    /**
+     * @return the kept page at the index, fetching pages up to it, or null if the slice has no such page or it is past
+     * the pages kept
+     */
+    private synchronized EntryList retainedPage(int index) {
+        while (retained.size() <= index) {
+            if (exhausted || retained.size() == MAX_RETAINED_PAGES) return null;
+            EntryList page = nextPage(resultSet, rows);
+            if (page == null) {
+                exhausted = true;
+                return null;
+            }
+            retained.add(page);
+            retainedEntries += page.size();
+        }
+        return retained.get(index);
+    }
+
+    /**
+     * @return the pages following the kept ones, read from the result set of the original query if no iterator has
+     * continued it yet, or else from the query resumed after the last kept entry
+     */
+    private synchronized Iterator<EntryList> streamedPages() {
+        if (exhausted) return Collections.emptyIterator();
+        ResultSet pages;
+        if (!resultSetContinued) {
+            resultSetContinued = true;
+            pages = resultSet;
+        } else {
+            // the kept pages already hold as many entries as the query asked for
+            if (retainedEntries >= limit) return Collections.emptyIterator();
+            EntryList lastPage = retained.get(retained.size() - 1);
+            pages = resume.apply(successor(lastPage.get(lastPage.size() - 1).getColumn()), limit - retainedEntries);
+        }
+        Iterator<Row> pageRows = pages == resultSet ? rows : pages.iterator();
+        return new AbstractIterator<EntryList>() {
+            @Override
+            protected EntryList computeNext() {
+                EntryList page = nextPage(pages, pageRows);
+                return page != null ? page : endOfData();
+            }
+        };
+    }
+
+    /**
+     * @return the smallest column following the given one, i.e. the column with a zero byte appended
+     */
+    private static StaticBuffer successor(StaticBuffer column) {
+        byte[] bytes = new byte[column.length() + 1];
+        System.arraycopy(column.as(StaticBuffer.ARRAY_FACTORY), 0, bytes, 0, column.length());
+        return StaticArrayBuffer.of(bytes);
+    }
+
+    private Iterator<EntryList> pages() {
+        return new AbstractIterator<EntryList>() {
+            private int index = 0;
+            private Iterator<EntryList> streamed = null;
+
+            @Override
+            protected EntryList computeNext() {
+                if (streamed == null) {
+                    EntryList page = retainedPage(index);
+                    if (page != null) {
+                        index++;
+                        return page;
+                    }
+                    streamed = streamedPages();
+                }
+                return streamed.hasNext() ? streamed.next() : endOfData();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Entry> iterator() {
+        return Iterators.concat(Iterators.transform(pages(), EntryList::iterator));
+    }
+
+    @Override
+    public Iterator<Entry> reuseIterator() {
+        return iterator();
+    }
+
+    @Override
+    public boolean isPaged() {
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    @Override
+    public synchronized Entry get(int index) {
+        if (index < 0) throw new IndexOutOfBoundsException(String.valueOf(index));
+        int offset = index;
+        for (int page = 0; retainedPage(page) != null; page++) {
+            EntryList retainedPage = retainedPage(page);
+            if (offset < retainedPage.size()) return retainedPage.get(offset);
+            offset -= retainedPage.size();
+        }
+        // entries past the kept pages are read in order from a cursor, which only restarts to go back
+        if (cursor == null || cursorIndex > index) {
+            cursor = Iterators.concat(Iterators.transform(streamedPages(), EntryList::iterator));
+            cursorIndex = retainedEntries;
+        }
+        while (cursorIndex < index && cursor.hasNext()) {
+            cursor.next();
+            cursorIndex++;
+        }
+        if (!cursor.hasNext()) throw new IndexOutOfBoundsException(String.valueOf(index));
+        cursorIndex++;
+        return cursor.next();
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            int entries = 0;
+            for (Iterator<EntryList> pages = pages(); pages.hasNext(); ) entries += pages.next().size();
+            size = entries;
+        }
+        return size;
+    }
+
+    @Override
+    public int getByteSize() {
+        if (byteSize < 0) {
+            int bytes = 0;
+            for (Iterator<EntryList> pages = pages(); pages.hasNext(); ) bytes += pages.next().getByteSize();
+            byteSize = bytes;
+        }
+        return byteSize;
+    }
+}
@@ -38,6 +38,7 @@ import com.datastax.oss.driver.internal.core.auth.PlainTextAuthProvider;
 import com.datastax.oss.driver.internal.core.ssl.DefaultSslEngineFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import grakn.core.graph.core.JanusGraphException;
 import grakn.core.graph.diskstorage.BackendException;
 import grakn.core.graph.diskstorage.BaseTransactionConfig;
@@ -57,6 +58,7 @@ import grakn.core.graph.diskstorage.keycolumnvalue.StoreFeatures;
 import grakn.core.graph.diskstorage.keycolumnvalue.StoreTransaction;
 import grakn.core.graph.diskstorage.util.time.TimestampProvider;
 import io.vavr.Tuple;
+import io.vavr.Tuple2;
 import io.vavr.collection.Array;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.Iterator;
@@ -66,14 +68,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -82,6 +88,7 @@ import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.truncate;
 import static com.datastax.oss.driver.api.querybuilder.SchemaBuilder.createKeyspace;
 import static com.datastax.oss.driver.api.querybuilder.SchemaBuilder.dropKeyspace;
 import static grakn.core.graph.diskstorage.cql.CQLConfigOptions.ATOMIC_BATCH_MUTATE;
+import static grakn.core.graph.diskstorage.cql.CQLConfigOptions.GROUP_COMMIT_WINDOW;
 import static grakn.core.graph.diskstorage.cql.CQLConfigOptions.KEYSPACE;
 import static grakn.core.graph.diskstorage.cql.CQLConfigOptions.LOCAL_DATACENTER;
 import static grakn.core.graph.diskstorage.cql.CQLConfigOptions.LOCAL_MAX_CONNECTIONS_PER_HOST;
@@ -124,6 +131,8 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
 
     private final String keyspace;
     private final boolean atomicBatch;
+    private final CQLGroupCommitter groupCommitter;
+    private final ExecutorService groupCommitRetries;
     private final TimestampProvider times;
 
     private CqlSession session;
@@ -140,6 +149,18 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         this.atomicBatch = configuration.get(ATOMIC_BATCH_MUTATE);
         this.times = configuration.get(TIMESTAMP_PROVIDER);
         this.semaphore = new Semaphore(configuration.get(MAX_REQUESTS_PER_CONNECTION));
+        Duration groupCommitWindow = configuration.get(GROUP_COMMIT_WINDOW);
+        if (groupCommitWindow.isZero() || this.atomicBatch) {
+            this.groupCommitRetries = null;
+            this.groupCommitter = null;
+        } else {
+            // retries wait for the semaphore, so they get threads of their own rather than the common pool's
+            this.groupCommitRetries = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("CQLGroupCommitRetry(" + this.keyspace + ")[%d]")
+                    .build());
+            this.groupCommitter = new CQLGroupCommitter(this::executeAsyncOnSession, groupCommitWindow, this.groupCommitRetries);
+        }
         this.session = initialiseSession();
 
         initialiseKeyspace();
@@ -160,7 +181,7 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         fb.keyConsistent(global, local);
         fb.locking(false);
         fb.optimisticLocking(true);
-        fb.multiQuery(false);
+        fb.multiQuery(true);
 
         String partitioner = this.session.getMetadata().getTokenMap().get().getPartitionerName();
         switch (partitioner.substring(partitioner.lastIndexOf('.') + 1)) {
@@ -287,7 +308,7 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         }
     }
 
-    private CompletionStage<AsyncResultSet> executeAsyncOnSession(Statement statement) {
+    CompletionStage<AsyncResultSet> executeAsyncOnSession(Statement statement) {
         try {
             this.semaphore.acquire();
             CompletionStage<AsyncResultSet> async = this.session.executeAsync(statement);
@@ -334,6 +355,7 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
 
     @Override
     public void close() {
+        if (this.groupCommitRetries != null) this.groupCommitRetries.shutdown();
         this.session.close();
     }
 
@@ -432,13 +454,14 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         sleepAfterWrite(commitTime);
     }
 
-    // Create an async un-logged batch per partition key
+    // Create an async un-logged batch per partition key, or hand them to the group committer to share batches with concurrent commits
     private void mutateManyUnlogged(Map<String, Map<StaticBuffer, KCVMutation>> mutations, StoreTransaction txh) throws BackendException {
         MaskedTimestamp commitTime = new MaskedTimestamp(txh);
         long deletionTime = commitTime.getDeletionTime(this.times);
         long additionTime = commitTime.getAdditionTime(this.times);
-        List<CompletableFuture<AsyncResultSet>> executionFutures = new ArrayList<>();
+        List<CompletableFuture<?>> executionFutures = new ArrayList<>();
         ConsistencyLevel consistencyLevel = getTransaction(txh).getWriteConsistencyLevel();
+        Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> partitionMutations = new LinkedHashMap<>();
 
         for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> tableNameAndMutations : mutations.entrySet()) {
             String tableName = tableNameAndMutations.getKey();
@@ -458,14 +481,21 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
                         keyMutations.getAdditions().stream().map(addition -> columnValueStore.insertColumn(key, addition, additionTime))
                 ).collect(Collectors.toList());
 
-                CompletableFuture<AsyncResultSet> future = executeAsyncOnSession(
-                        BatchStatement.newInstance(DefaultBatchType.UNLOGGED)
-                                .addAll(modifications)
-                                .setConsistencyLevel(consistencyLevel)
-                ).toCompletableFuture();
-                executionFutures.add(future);
+                if (this.groupCommitter != null) {
+                    partitionMutations.put(Tuple.of(tableName, key), modifications);
+                } else {
+                    CompletableFuture<AsyncResultSet> future = executeAsyncOnSession(
+                            BatchStatement.newInstance(DefaultBatchType.UNLOGGED)
+                                    .addAll(modifications)
+                                    .setConsistencyLevel(consistencyLevel)
+                    ).toCompletableFuture();
+                    executionFutures.add(future);
+                }
             }
         }
+        if (this.groupCommitter != null) {
+            executionFutures.add(this.groupCommitter.commit(partitionMutations, consistencyLevel));
+        }
 
         try {
             CompletableFuture.allOf(executionFutures.toArray(new CompletableFuture[]{})).get();
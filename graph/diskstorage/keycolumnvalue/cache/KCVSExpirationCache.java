@@ -20,7 +20,6 @@ package grakn.core.graph.diskstorage.keycolumnvalue.cache;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import grakn.core.graph.core.JanusGraphException;
 import grakn.core.graph.diskstorage.BackendException;
 import grakn.core.graph.diskstorage.EntryList;
 import grakn.core.graph.diskstorage.StaticBuffer;
@@ -88,17 +87,13 @@ public class KCVSExpirationCache extends KCVSCache {
             return store.getSlice(query, unwrapTx(txh));
         }
 
-        try {
-            return cache.get(query, () -> store.getSlice(query, unwrapTx(txh)));
-        } catch (Exception e) {
-            if (e instanceof JanusGraphException) {
-                throw (JanusGraphException) e;
-            } else if (e.getCause() instanceof JanusGraphException) {
-                throw (JanusGraphException) e.getCause();
-            } else {
-                throw new JanusGraphException(e);
-            }
+        EntryList result = cache.getIfPresent(query);
+        if (result == null) {
+            result = store.getSlice(query, unwrapTx(txh));
+            // paged results stream from the backend as they are read and are not held on to
+            if (!result.isPaged()) cache.put(query, result);
         }
+        return result;
     }
 
     @Override
@@ -236,6 +236,30 @@ public class GraphDatabaseConfiguration {
             "Whether to enable batch loading into the storage backend",
             ConfigOption.Type.LOCAL, false);
 
+    /**
+     * Property keys whose values are kept in order in the ordered index, to look vertices up by ranges of values,
+     * in the partition given by their value of the partition key
+     */
+    public static final ConfigOption<String[]> ORDERED_INDEX_KEYS = new ConfigOption<>(STORAGE_NS, "ordered-index-keys",
+            "Property keys whose values are indexed in order, so that vertices can be looked up by ranges of values",
+            ConfigOption.Type.LOCAL, String[].class);
+
+    public static final ConfigOption<String> ORDERED_INDEX_PARTITION_KEY = new ConfigOption<>(STORAGE_NS, "ordered-index-partition-key",
+            "Property key whose value partitions the ordered index. Vertices without it are not indexed in order",
+            ConfigOption.Type.LOCAL, String.class);
+
+    /**
+     * String property keys whose values are indexed by trigram in the token index, to look vertices up by substrings
+     * of their values, in the partition given by their value of the partition key
+     */
+    public static final ConfigOption<String[]> TOKEN_INDEX_KEYS = new ConfigOption<>(STORAGE_NS, "token-index-keys",
+            "String property keys whose values are indexed by trigram, so that vertices can be looked up by substrings of their values",
+            ConfigOption.Type.LOCAL, String[].class);
+
+    public static final ConfigOption<String> TOKEN_INDEX_PARTITION_KEY = new ConfigOption<>(STORAGE_NS, "token-index-partition-key",
+            "Property key whose value partitions the token index. Vertices without it are not indexed by trigram",
+            ConfigOption.Type.LOCAL, String.class);
+
     /**
      * Buffers graph mutations locally up to the specified number before persisting them against the storage backend.
      * Set to 0 to disable buffering. Buffering is disabled automatically if the storage backend does not support buffered mutations.
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.graphdb.database;
+
+import com.google.common.collect.AbstractIterator;
+import grakn.core.graph.core.PropertyKey;
+import grakn.core.graph.diskstorage.BackendTransaction;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.EntryList;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.keycolumnvalue.KeySliceQuery;
+import grakn.core.graph.diskstorage.util.BufferUtil;
+import grakn.core.graph.diskstorage.util.StaticArrayEntry;
+import grakn.core.graph.graphdb.database.serialize.DataOutput;
+import grakn.core.graph.graphdb.database.serialize.Serializer;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serializes the ordered index, which keeps the values of some property keys in order, so that vertices can be looked
+ * up by a range of values rather than only by equality, as with a composite index.
+ * <p>
+ * The index has one row per property key and value of the partition key (e.g. the type of the vertex), whose columns
+ * are the values of the property key in the byte order of OrderPreservingSerializer, each followed by the id of the
+ * vertex it belongs to. A range of values is therefore a slice of the columns of a single row, which the storage
+ * backend reads in order, see Backend#ORDEREDINDEX_NAME.
+ * <p>
+ * The bounds of a range are widened to the data type of the property key, so looking up a range may return vertices
+ * whose value is just outside of it: callers test the values of the vertices they are given.
+ */
+public class OrderedIndexSerializer extends ValueIndexSerializer {
+
+    // precedes every value, so that a range unbounded above ends before the next byte
+    private static final byte VALUE_PREFIX = 0;
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * @param keys         names of the property keys whose values are indexed in order
+     * @param partitionKey name of the property key whose value partitions the index, vertices without it are not indexed
+     */
+    public OrderedIndexSerializer(Serializer serializer, Set<String> keys, @Nullable String partitionKey) {
+        super(serializer, "ordered-index", keys, partitionKey);
+    }
+
+    @Override
+    protected List<Update> getUpdates(PropertyKey key, Object partition, Object value, long vertexId, boolean addition) {
+        return Collections.singletonList(new Update(getRow(key, partition), getEntry(key, value, vertexId), addition));
+    }
+
+    /**
+     * @param lower lowest value to look up, null if unbounded
+     * @param upper highest value to look up, null if unbounded
+     * @return the ids of the vertices with a value of the key within the bounds and the given partition value,
+     * in order of value, read lazily a page at a time
+     */
+    public Iterator<Long> query(BackendTransaction tx, PropertyKey key, Object partition, @Nullable Object lower, @Nullable Object upper) {
+        StaticBuffer row = getRow(key, partition);
+        StaticBuffer start = lower == null ? BufferUtil.zeroBuffer(1) : getValuePrefix(key, widen(key, lower, true));
+        StaticBuffer end = BufferUtil.nextBiggerBuffer(upper == null ? BufferUtil.zeroBuffer(1) : getValuePrefix(key, widen(key, upper, false)));
+
+        return new AbstractIterator<Long>() {
+            private StaticBuffer sliceStart = start;
+            private Iterator<Entry> page = Collections.emptyIterator();
+            private boolean exhausted = false;
+
+            @Override
+            protected Long computeNext() {
+                while (!page.hasNext()) {
+                    if (exhausted || sliceStart.compareTo(end) >= 0) return endOfData();
+                    EntryList entries = tx.orderedIndexQuery(new KeySliceQuery(row, sliceStart, end).setLimit(PAGE_SIZE));
+                    exhausted = entries.size() < PAGE_SIZE;
+                    if (!entries.isEmpty()) {
+                        sliceStart = BufferUtil.nextBiggerBuffer(entries.get(entries.size() - 1).getColumn());
+                    }
+                    page = entries.iterator();
+                }
+                StaticBuffer column = page.next().getColumn();
+                return column.getLong(column.length() - Long.BYTES);
+            }
+        };
+    }
+
+    private StaticBuffer getRow(PropertyKey key, Object partition) {
+        DataOutput out = serializer.getDataOutput(16);
+        out.putLong(key.longId());
+        out.writeClassAndObject(partition);
+        return out.getStaticBuffer();
+    }
+
+    private StaticBuffer getValuePrefix(PropertyKey key, Object value) {
+        DataOutput out = serializer.getDataOutput(16);
+        out.putByte(VALUE_PREFIX);
+        out.writeObjectByteOrder(value, key.dataType());
+        return out.getStaticBuffer();
+    }
+
+    private Entry getEntry(PropertyKey key, Object value, long vertexId) {
+        DataOutput out = serializer.getDataOutput(24);
+        out.putByte(VALUE_PREFIX);
+        out.writeObjectByteOrder(value, key.dataType());
+        out.putLong(vertexId);
+        StaticBuffer column = out.getStaticBuffer();
+        return new StaticArrayEntry(column, column.length());
+    }
+
+    /**
+     * Converts a bound to the data type of the key, rounding it outwards, so that the range it bounds is not narrowed
+     */
+    private static Object widen(PropertyKey key, Object bound, boolean lower) {
+        Class<?> dataType = key.dataType();
+        if (dataType.isInstance(bound) || !(bound instanceof Number)) return bound;
+
+        double value = ((Number) bound).doubleValue();
+        if (dataType.equals(Long.class)) {
+            return (long) (lower ? Math.floor(value) : Math.ceil(value));
+        } else if (dataType.equals(Integer.class)) {
+            double rounded = lower ? Math.floor(value) : Math.ceil(value);
+            return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, rounded));
+        } else if (dataType.equals(Double.class)) {
+            return lower ? Math.nextDown(value) : Math.nextUp(value);
+        } else if (dataType.equals(Float.class)) {
+            float rounded = (float) value;
+            return lower ? Math.nextDown(rounded) : Math.nextUp(rounded);
+        }
+        return bound;
+    }
+}
@@ -20,6 +20,7 @@ package grakn.core.graph.graphdb.database;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
@@ -39,6 +40,7 @@ import grakn.core.graph.diskstorage.EntryList;
 import grakn.core.graph.diskstorage.EntryMetaData;
 import grakn.core.graph.diskstorage.StaticBuffer;
 import grakn.core.graph.diskstorage.configuration.Configuration;
+import grakn.core.graph.diskstorage.configuration.backend.KCVSConfiguration;
 import grakn.core.graph.diskstorage.indexing.IndexEntry;
 import grakn.core.graph.diskstorage.indexing.IndexTransaction;
 import grakn.core.graph.diskstorage.keycolumnvalue.KeyColumnValueStore;
@@ -112,6 +114,8 @@ public class StandardJanusGraph implements JanusGraph {
     private static final Predicate<InternalRelation> SCHEMA_FILTER = internalRelation -> internalRelation.getType() instanceof BaseRelationType && internalRelation.getVertex(0) instanceof JanusGraphSchemaVertex;
     private static final Predicate<InternalRelation> NO_SCHEMA_FILTER = internalRelation -> !SCHEMA_FILTER.test(internalRelation);
     private static final Predicate<InternalRelation> NO_FILTER = internalRelation -> true;
+    // vertices whose value index entries are committed together when building the value indexes
+    private static final int VALUE_INDEX_BUILD_CHUNK = 10000;
 
     static {
         TraversalStrategies graphStrategies = TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone()
@@ -133,8 +137,12 @@ public class StandardJanusGraph implements JanusGraph {
 
     //Serializers
     private final IndexSerializer indexSerializer;
+    private final OrderedIndexSerializer orderedIndexSerializer;
+    private final TokenIndexSerializer tokenIndexSerializer;
     private final EdgeSerializer edgeSerializer;
     protected final StandardSerializer serializer;
+    private volatile boolean orderedIndexBuilt = false;
+    private volatile boolean tokenIndexBuilt = false;
 
     //Caches
     public final SliceQuery vertexExistenceQuery;
@@ -164,6 +172,17 @@ public class StandardJanusGraph implements JanusGraph {
         StoreFeatures storeFeatures = backend.getStoreFeatures();
         this.indexSerializer = new IndexSerializer(configuration.getConfiguration(), this.serializer, this.backend.getIndexInformation(), storeFeatures.isDistributed() && storeFeatures.isKeyOrdered());
         this.edgeSerializer = new EdgeSerializer(this.serializer);
+        Configuration storageConfig = configuration.getConfiguration();
+        this.orderedIndexSerializer = new OrderedIndexSerializer(this.serializer,
+                storageConfig.has(GraphDatabaseConfiguration.ORDERED_INDEX_KEYS) ?
+                        ImmutableSet.copyOf(storageConfig.get(GraphDatabaseConfiguration.ORDERED_INDEX_KEYS)) : ImmutableSet.of(),
+                storageConfig.has(GraphDatabaseConfiguration.ORDERED_INDEX_PARTITION_KEY) ?
+                        storageConfig.get(GraphDatabaseConfiguration.ORDERED_INDEX_PARTITION_KEY) : null);
+        this.tokenIndexSerializer = new TokenIndexSerializer(this.serializer,
+                storageConfig.has(GraphDatabaseConfiguration.TOKEN_INDEX_KEYS) ?
+                        ImmutableSet.copyOf(storageConfig.get(GraphDatabaseConfiguration.TOKEN_INDEX_KEYS)) : ImmutableSet.of(),
+                storageConfig.has(GraphDatabaseConfiguration.TOKEN_INDEX_PARTITION_KEY) ?
+                        storageConfig.get(GraphDatabaseConfiguration.TOKEN_INDEX_PARTITION_KEY) : null);
 
         // The following query is used by VertexConstructors(inside JanusTransaction) to check whether a vertex associated to a specific ID actually exists in the DB (and it's not a ghost)
         // Full explanation on why this query is used: https://github.com/thinkaurelius/titan/issues/214
@@ -245,6 +264,89 @@ public class StandardJanusGraph implements JanusGraph {
         return idManager;
     }
 
+    public OrderedIndexSerializer getOrderedIndexSerializer() {
+        return orderedIndexSerializer;
+    }
+
+    public TokenIndexSerializer getTokenIndexSerializer() {
+        return tokenIndexSerializer;
+    }
+
+    /**
+     * Adds the values stored before their property keys were indexed to the ordered and token indexes, the first time
+     * the graph is opened with them indexed. Values stored since are indexed as they are committed.
+     * <p>
+     * The entries are committed in chunks of VALUE_INDEX_BUILD_CHUNK vertices, so that the mutations held in memory are
+     * bounded whatever the size of the graph. The indexes are only marked as built once all chunks are committed, so a
+     * build that is interrupted starts over the next time the graph is opened, re-adding the entries already committed.
+     * <p>
+     * An index that is disabled is no longer maintained, so the record of it being built is removed, and it is built
+     * again once enabled. Until the indexes are built, #isOrderedIndexBuilt and #isTokenIndexBuilt are false, and the
+     * indexes are not looked up.
+     */
+    public void buildValueIndexes() {
+        KCVSConfiguration systemConfig = backend.getGlobalSystemConfig();
+        if (!orderedIndexSerializer.isEnabled()) systemConfig.remove(orderedIndexSerializer.getBuiltMarker());
+        if (!tokenIndexSerializer.isEnabled()) systemConfig.remove(tokenIndexSerializer.getBuiltMarker());
+        boolean buildOrdered = orderedIndexSerializer.isEnabled() && !isBuilt(systemConfig, orderedIndexSerializer);
+        boolean buildToken = tokenIndexSerializer.isEnabled() && !isBuilt(systemConfig, tokenIndexSerializer);
+        if (buildOrdered || buildToken) buildValueIndexes(systemConfig, buildOrdered, buildToken);
+        orderedIndexBuilt = orderedIndexSerializer.isEnabled();
+        tokenIndexBuilt = tokenIndexSerializer.isEnabled();
+    }
+
+    private void buildValueIndexes(KCVSConfiguration systemConfig, boolean buildOrdered, boolean buildToken) {
+        LOG.info("Building the value indexes");
+        StandardJanusGraphTx tx = (StandardJanusGraphTx) newTransaction();
+        BackendTransaction mutator = openBackendTransaction(tx);
+        try {
+            long vertices = 0;
+            // a single scan of the vertices fills both indexes
+            for (JanusGraphVertex vertex : tx.getVertices()) {
+                if (buildOrdered) {
+                    for (ValueIndexSerializer.Update update : orderedIndexSerializer.getEntries((InternalVertex) vertex)) {
+                        mutator.mutateOrderedIndex(update.getKey(), Lists.newArrayList(update.getEntry()), KCVSCache.NO_DELETIONS);
+                    }
+                }
+                if (buildToken) {
+                    for (ValueIndexSerializer.Update update : tokenIndexSerializer.getEntries((InternalVertex) vertex)) {
+                        mutator.mutateTokenIndex(update.getKey(), Lists.newArrayList(update.getEntry()), KCVSCache.NO_DELETIONS);
+                    }
+                }
+                if (++vertices % VALUE_INDEX_BUILD_CHUNK == 0) {
+                    mutator.commitStorage();
+                    mutator = openBackendTransaction(tx);
+                    LOG.debug("Indexed the values of {} vertices", vertices);
+                }
+            }
+            mutator.commitStorage();
+        } catch (BackendException e) {
+            throw new JanusGraphException("Could not build the value indexes", e);
+        } finally {
+            tx.rollback();
+        }
+        if (buildOrdered) systemConfig.set(orderedIndexSerializer.getBuiltMarker(), orderedIndexSerializer.getDefinition());
+        if (buildToken) systemConfig.set(tokenIndexSerializer.getBuiltMarker(), tokenIndexSerializer.getDefinition());
+    }
+
+    private static boolean isBuilt(KCVSConfiguration systemConfig, ValueIndexSerializer valueIndex) {
+        return valueIndex.getDefinition().equals(systemConfig.get(valueIndex.getBuiltMarker(), String.class));
+    }
+
+    /**
+     * @return whether the ordered index is enabled and has been built since the graph was opened, so can be looked up
+     */
+    public boolean isOrderedIndexBuilt() {
+        return orderedIndexBuilt;
+    }
+
+    /**
+     * @return whether the token index is enabled and has been built since the graph was opened, so can be looked up
+     */
+    public boolean isTokenIndexBuilt() {
+        return tokenIndexBuilt;
+    }
+
     public EdgeSerializer getEdgeSerializer() {
         return edgeSerializer;
     }
@@ -456,6 +558,8 @@ public class StandardJanusGraph implements JanusGraph {
         ListMultimap<Long, InternalRelation> mutations = ArrayListMultimap.create();
         ListMultimap<InternalVertex, InternalRelation> mutatedProperties = ArrayListMultimap.create();
         List<IndexSerializer.IndexUpdate> indexUpdates = Lists.newArrayList();
+        List<ValueIndexSerializer.Update> orderedIndexUpdates = Lists.newArrayList();
+        List<ValueIndexSerializer.Update> tokenIndexUpdates = Lists.newArrayList();
         //1) Collect deleted edges and their index updates and acquire edge locks
         for (InternalRelation del : Iterables.filter(deletedRelations, filter::test)) {
             Preconditions.checkArgument(del.isRemoved());
@@ -486,6 +590,8 @@ public class StandardJanusGraph implements JanusGraph {
         //3) Collect all index update for vertices
         for (InternalVertex v : mutatedProperties.keySet()) {
             indexUpdates.addAll(indexSerializer.getIndexUpdates(v, mutatedProperties.get(v)));
+            orderedIndexUpdates.addAll(orderedIndexSerializer.getUpdates(v, mutatedProperties.get(v)));
+            tokenIndexUpdates.addAll(tokenIndexSerializer.getUpdates(v, mutatedProperties.get(v)));
         }
         //4) Acquire index locks (deletions first)
         for (IndexSerializer.IndexUpdate update : indexUpdates) {
@@ -555,6 +661,20 @@ public class StandardJanusGraph implements JanusGraph {
                 }
             }
         }
+        for (ValueIndexSerializer.Update update : orderedIndexUpdates) {
+            if (update.isAddition()) {
+                mutator.mutateOrderedIndex(update.getKey(), Lists.newArrayList(update.getEntry()), KCVSCache.NO_DELETIONS);
+            } else {
+                mutator.mutateOrderedIndex(update.getKey(), KeyColumnValueStore.NO_ADDITIONS, Lists.newArrayList(update.getEntry()));
+            }
+        }
+        for (ValueIndexSerializer.Update update : tokenIndexUpdates) {
+            if (update.isAddition()) {
+                mutator.mutateTokenIndex(update.getKey(), Lists.newArrayList(update.getEntry()), KCVSCache.NO_DELETIONS);
+            } else {
+                mutator.mutateTokenIndex(update.getKey(), KeyColumnValueStore.NO_ADDITIONS, Lists.newArrayList(update.getEntry()));
+            }
+        }
         return new ModificationSummary(!mutations.isEmpty(), has2iMods);
     }
 
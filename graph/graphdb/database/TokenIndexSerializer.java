@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.graphdb.database;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import grakn.core.graph.core.PropertyKey;
+import grakn.core.graph.diskstorage.BackendTransaction;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.EntryList;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.keycolumnvalue.KeySliceQuery;
+import grakn.core.graph.diskstorage.util.BufferUtil;
+import grakn.core.graph.diskstorage.util.StaticArrayEntry;
+import grakn.core.graph.graphdb.database.serialize.DataOutput;
+import grakn.core.graph.graphdb.database.serialize.Serializer;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serializes the token index, an inverted index from the trigrams of the string values of some property keys to the
+ * vertices with those values, so that vertices can be looked up by a substring of their value rather than by scanning
+ * and testing all of them.
+ * <p>
+ * The index has one row per property key, value of the partition key and trigram, whose columns are the ids of the
+ * vertices whose value contains the trigram, in order of id, see Backend#TOKENINDEX_NAME. The vertices whose value
+ * contains a substring are therefore among those in the intersection of the rows of its trigrams, which is read by
+ * merging the rows in order.
+ * <p>
+ * Trigrams are taken case-insensitively, and a value containing all the trigrams of a substring need not contain the
+ * substring itself, so callers test the values of the vertices they are given.
+ */
+public class TokenIndexSerializer extends ValueIndexSerializer {
+
+    public static final int GRAM_LENGTH = 3;
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * @param keys         names of the string property keys whose values are indexed by trigram
+     * @param partitionKey name of the property key whose value partitions the index, vertices without it are not indexed
+     */
+    public TokenIndexSerializer(Serializer serializer, Set<String> keys, @Nullable String partitionKey) {
+        super(serializer, "token-index", keys, partitionKey);
+    }
+
+    @Override
+    protected List<Update> getUpdates(PropertyKey key, Object partition, Object value, long vertexId, boolean addition) {
+        if (!(value instanceof String)) return Collections.emptyList();
+        Entry entry = getEntry(vertexId);
+        List<Update> updates = new ArrayList<>();
+        for (String gram : grams((String) value)) {
+            updates.add(new Update(getRow(key, partition, gram), entry, addition));
+        }
+        return updates;
+    }
+
+    /**
+     * @param substrings substrings the values must contain, ignoring case
+     * @return the ids of the vertices with the given partition value whose value of the key may contain all the
+     * substrings, in order of id, read lazily a page at a time, or null if the substrings are too short to look up
+     */
+    @Nullable
+    public Iterator<Long> query(BackendTransaction tx, PropertyKey key, Object partition, Collection<String> substrings) {
+        Set<String> grams = new LinkedHashSet<>();
+        substrings.forEach(substring -> grams.addAll(grams(substring)));
+        if (grams.isEmpty()) return null;
+
+        List<PeekingIterator<Long>> postings = new ArrayList<>();
+        for (String gram : grams) {
+            postings.add(Iterators.peekingIterator(postings(tx, getRow(key, partition, gram))));
+        }
+        return intersection(postings);
+    }
+
+    /**
+     * @return the distinct trigrams of the value, with each character in the case regionMatches ignores case with
+     */
+    public static Set<String> grams(String value) {
+        char[] normalised = new char[value.length()];
+        for (int i = 0; i < normalised.length; i++) {
+            normalised[i] = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalised.length; i++) {
+            grams.add(new String(normalised, i, GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private Iterator<Long> postings(BackendTransaction tx, StaticBuffer row) {
+        // vertex ids are positive, so all of them are between these bounds
+        StaticBuffer start = BufferUtil.zeroBuffer(Long.BYTES);
+        StaticBuffer end = BufferUtil.oneBuffer(Long.BYTES);
+
+        return new AbstractIterator<Long>() {
+            private StaticBuffer sliceStart = start;
+            private Iterator<Entry> page = Collections.emptyIterator();
+            private boolean exhausted = false;
+
+            @Override
+            protected Long computeNext() {
+                while (!page.hasNext()) {
+                    if (exhausted) return endOfData();
+                    EntryList entries = tx.tokenIndexQuery(new KeySliceQuery(row, sliceStart, end).setLimit(PAGE_SIZE));
+                    exhausted = entries.size() < PAGE_SIZE;
+                    if (!entries.isEmpty()) {
+                        sliceStart = BufferUtil.nextBiggerBuffer(entries.get(entries.size() - 1).getColumn());
+                    }
+                    page = entries.iterator();
+                }
+                return page.next().getColumn().getLong(0);
+            }
+        };
+    }
+
+    /**
+     * @param postings ids in increasing order
+     * @return the ids in all of the postings, in increasing order
+     */
+    private static Iterator<Long> intersection(List<PeekingIterator<Long>> postings) {
+        return new AbstractIterator<Long>() {
+            @Override
+            protected Long computeNext() {
+                long candidate = Long.MIN_VALUE;
+                while (true) {
+                    boolean matched = true;
+                    for (PeekingIterator<Long> posting : postings) {
+                        while (posting.hasNext() && posting.peek() < candidate) posting.next();
+                        if (!posting.hasNext()) return endOfData();
+                        if (posting.peek() > candidate) {
+                            candidate = posting.peek();
+                            matched = false;
+                        }
+                    }
+                    if (matched) {
+                        postings.forEach(PeekingIterator::next);
+                        return candidate;
+                    }
+                }
+            }
+        };
+    }
+
+    private StaticBuffer getRow(PropertyKey key, Object partition, String gram) {
+        DataOutput out = serializer.getDataOutput(24);
+        out.putLong(key.longId());
+        out.writeClassAndObject(partition);
+        out.writeObjectNotNull(gram);
+        return out.getStaticBuffer();
+    }
+
+    private Entry getEntry(long vertexId) {
+        StaticBuffer column = BufferUtil.getLongBuffer(vertexId);
+        return new StaticArrayEntry(column, column.length());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.graphdb.database;
+
+import grakn.core.graph.core.JanusGraphVertexProperty;
+import grakn.core.graph.core.PropertyKey;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.graphdb.database.serialize.Serializer;
+import grakn.core.graph.graphdb.internal.InternalRelation;
+import grakn.core.graph.graphdb.internal.InternalVertex;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serializes an index of the values of some property keys kept in a store of its own, outside of the composite and
+ * mixed indexes of the schema, which is maintained on commit and looked up by its own kind of query.
+ * <p>
+ * The index is partitioned by the value of a partition key (e.g. the type of the vertex), so that a lookup reads only
+ * the vertices of one partition. Vertices without a value of the partition key are not indexed.
+ */
+public abstract class ValueIndexSerializer {
+
+    protected final Serializer serializer;
+    private final String name;
+    private final Set<String> keys;
+    private final String partitionKey;
+
+    /**
+     * @param name         name of the index, under which the system configuration records the index has been built
+     * @param keys         names of the property keys whose values are indexed
+     * @param partitionKey name of the property key whose value partitions the index
+     */
+    ValueIndexSerializer(Serializer serializer, String name, Set<String> keys, @Nullable String partitionKey) {
+        this.serializer = serializer;
+        this.name = name;
+        this.keys = partitionKey != null ? keys : Collections.emptySet();
+        this.partitionKey = partitionKey;
+    }
+
+    public boolean isIndexed(PropertyKey key) {
+        return keys.contains(key.name());
+    }
+
+    @Nullable
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
+    public boolean isEnabled() {
+        return !keys.isEmpty();
+    }
+
+    /**
+     * @return the name under which the system configuration records the definition the index has been built for
+     */
+    public String getBuiltMarker() {
+        return name + "-built";
+    }
+
+    /**
+     * @return the keys and partition key the index is built for, which the system configuration records once built
+     */
+    public String getDefinition() {
+        return keys.stream().sorted().collect(Collectors.joining(",")) + "/" + partitionKey;
+    }
+
+    /**
+     * @return the index entries of the values the vertex currently has
+     */
+    public List<Update> getEntries(InternalVertex vertex) {
+        List<Update> entries = new ArrayList<>();
+        PropertyKey partitionKey = vertex.tx().getPropertyKey(this.partitionKey);
+        Object partition = partitionKey != null ? vertex.valueOrNull(partitionKey) : null;
+        if (partition == null) return entries;
+        for (String keyName : keys) {
+            PropertyKey key = vertex.tx().getPropertyKey(keyName);
+            Object value = key != null ? vertex.valueOrNull(key) : null;
+            if (value != null) entries.addAll(getUpdates(key, partition, value, vertex.longId(), true));
+        }
+        return entries;
+    }
+
+    /**
+     * @param updatedProperties the properties of the vertex added or removed in a transaction
+     * @return the additions and deletions of index entries the properties result in
+     */
+    public List<Update> getUpdates(InternalVertex vertex, Collection<InternalRelation> updatedProperties) {
+        List<Update> updates = new ArrayList<>();
+        for (InternalRelation relation : updatedProperties) {
+            JanusGraphVertexProperty<?> property = (JanusGraphVertexProperty<?>) relation;
+            PropertyKey key = property.propertyKey();
+            if (!isIndexed(key)) continue;
+
+            Object partition = getPartition(vertex, relation.isRemoved(), updatedProperties);
+            if (partition == null) continue;
+            updates.addAll(getUpdates(key, partition, property.value(), vertex.longId(), relation.isNew()));
+        }
+        return updates;
+    }
+
+    /**
+     * @return the index entries to add or delete for a value of the key the vertex has
+     */
+    protected abstract List<Update> getUpdates(PropertyKey key, Object partition, Object value, long vertexId, boolean addition);
+
+    @Nullable
+    private Object getPartition(InternalVertex vertex, boolean removed, Collection<InternalRelation> updatedProperties) {
+        // the partition value may be updated together with the indexed value, e.g. when the vertex is created or removed
+        for (InternalRelation relation : updatedProperties) {
+            JanusGraphVertexProperty<?> property = (JanusGraphVertexProperty<?>) relation;
+            if (property.propertyKey().name().equals(partitionKey) && relation.isRemoved() == removed) {
+                return property.value();
+            }
+        }
+        if (vertex.isRemoved()) return null;
+        PropertyKey key = vertex.tx().getPropertyKey(partitionKey);
+        return key != null ? vertex.valueOrNull(key) : null;
+    }
+
+    public static class Update {
+        private final StaticBuffer key;
+        private final Entry entry;
+        private final boolean addition;
+
+        Update(StaticBuffer key, Entry entry, boolean addition) {
+            this.key = key;
+            this.entry = entry;
+            this.addition = addition;
+        }
+
+        public StaticBuffer getKey() {
+            return key;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public boolean isAddition() {
+            return addition;
+        }
+    }
+}
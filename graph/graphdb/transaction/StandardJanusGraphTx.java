@@ -21,6 +21,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import grakn.core.graph.core.Cardinality;
@@ -52,7 +53,9 @@ import grakn.core.graph.diskstorage.util.Hex;
 import grakn.core.graph.diskstorage.util.time.TimestampProvider;
 import grakn.core.graph.graphdb.database.EdgeSerializer;
 import grakn.core.graph.graphdb.database.IndexSerializer;
+import grakn.core.graph.graphdb.database.OrderedIndexSerializer;
 import grakn.core.graph.graphdb.database.StandardJanusGraph;
+import grakn.core.graph.graphdb.database.TokenIndexSerializer;
 import grakn.core.graph.graphdb.database.idassigner.IDPool;
 import grakn.core.graph.graphdb.database.serialize.AttributeHandler;
 import grakn.core.graph.graphdb.idmanagement.IDManager;
@@ -127,9 +130,11 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -1302,6 +1307,67 @@ public class StandardJanusGraphTx implements JanusGraphTransaction, TypeInspecto
         return new IndexQueryBuilder(this, indexSerializer, indexName, query);
     }
 
+    @Override
+    public boolean hasOrderedIndex() {
+        return graph.isOrderedIndexBuilt();
+    }
+
+    @Override
+    public boolean hasTokenIndex() {
+        return graph.isTokenIndexBuilt();
+    }
+
+    @Override
+    public Iterator<JanusGraphVertex> orderedIndexQuery(String keyName, Object partition, Object lower, Object upper) {
+        OrderedIndexSerializer orderedIndex = graph.getOrderedIndexSerializer();
+        PropertyKey key = getPropertyKey(keyName);
+        if (!graph.isOrderedIndexBuilt() || key == null || !orderedIndex.isIndexed(key)) return null;
+        Iterator<Long> vertexIds = orderedIndex.query(backendTransaction, key, partition, lower, upper);
+        // values of a key share its data type, vertices without a value any more go last
+        Comparator<JanusGraphVertex> byValue = Comparator.comparing(vertex -> (Comparable) vertex.valueOrNull(key),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        return withUpdatedVertices(key, orderedIndex.getPartitionKey(), partition, vertexIds, byValue);
+    }
+
+    @Override
+    public Iterator<JanusGraphVertex> tokenIndexQuery(String keyName, Object partition, Collection<String> substrings) {
+        TokenIndexSerializer tokenIndex = graph.getTokenIndexSerializer();
+        PropertyKey key = getPropertyKey(keyName);
+        if (!graph.isTokenIndexBuilt() || key == null || !tokenIndex.isIndexed(key)) return null;
+        Iterator<Long> vertexIds = tokenIndex.query(backendTransaction, key, partition, substrings);
+        if (vertexIds == null) return null;
+        return withUpdatedVertices(key, tokenIndex.getPartitionKey(), partition, vertexIds, null);
+    }
+
+    /**
+     * @param vertexIds the ids of the vertices with a value of the key looked up from a value index, as committed
+     * @param order     the order of the vertices looked up, or null if they are in no particular order
+     * @return the stored vertices whose value of the key is not updated in this transaction together with the vertices
+     * of the partition whose value is, which callers test, merged in order if there is one and preceding them if not
+     */
+    private Iterator<JanusGraphVertex> withUpdatedVertices(PropertyKey key, String partitionKeyName, Object partition,
+                                                           Iterator<Long> vertexIds, @Nullable Comparator<JanusGraphVertex> order) {
+        PropertyKey partitionKey = getPropertyKey(partitionKeyName);
+
+        // vertices whose values are updated in this transaction are only in the index once it commits
+        Set<JanusGraphVertex> updated = new HashSet<>();
+        for (JanusGraphRelation relation : addedRelations.getView(relation -> key.equals(relation.getType()))) {
+            updated.add(((JanusGraphVertexProperty) relation).element());
+        }
+        for (InternalRelation relation : deletedRelations.values()) {
+            if (key.equals(relation.getType())) updated.add(((JanusGraphVertexProperty) relation).element());
+        }
+        Iterator<JanusGraphVertex> stored = com.google.common.collect.Iterators.filter(
+                com.google.common.collect.Iterators.transform(vertexIds, vertexId -> (JanusGraphVertex) getInternalVertex(vertexId)),
+                vertex -> !vertex.isRemoved() && !updated.contains(vertex));
+        List<JanusGraphVertex> updatedInPartition = updated.stream()
+                .filter(vertex -> !vertex.isRemoved() && partitionKey != null && partition.equals(vertex.valueOrNull(partitionKey)))
+                .collect(Collectors.toList());
+        if (order == null) return com.google.common.collect.Iterators.concat(updatedInPartition.iterator(), stored);
+        updatedInPartition.sort(order);
+        return com.google.common.collect.Iterators.mergeSorted(ImmutableList.of(updatedInPartition.iterator(), stored), order);
+    }
+
     /*
      * ------------------------------------ Transaction State ------------------------------------
      */
@@ -68,7 +68,8 @@ public class CacheVertex extends StandardVertex {
             } else {
                 result = query.getSubset(superset.getKey(), superset.getValue());
             }
-            addToQueryCache(query, result);
+            // paged results stream from the backend as they are read and are not held on to
+            if (!result.isPaged()) addToQueryCache(query, result);
 
         }
         return result;
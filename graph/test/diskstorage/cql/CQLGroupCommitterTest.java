@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.util.StaticArrayBuffer;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class CQLGroupCommitterTest {
+
+    private static final ConsistencyLevel CONSISTENCY = DefaultConsistencyLevel.QUORUM;
+    private static final Tuple2<String, StaticBuffer> PARTITION = Tuple.of("edgestore", StaticArrayBuffer.of(new byte[]{1}));
+
+    private final List<BatchStatement> executed = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger retries = new AtomicInteger();
+    // the window of a group stays open until its member has joined it
+    private final CountDownLatch groupOpened = new CountDownLatch(1);
+    private final CountDownLatch memberJoined = new CountDownLatch(1);
+    private ExecutorService committers;
+    private ExecutorService retryExecutor;
+
+    @Before
+    public void setUp() {
+        committers = Executors.newSingleThreadExecutor();
+        retryExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        committers.shutdownNow();
+        retryExecutor.shutdownNow();
+    }
+
+    private CQLGroupCommitter committer(Predicate<BatchStatement> fails) {
+        return committer(() -> {
+            groupOpened.countDown();
+            try {
+                memberJoined.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, fails);
+    }
+
+    private CQLGroupCommitter committer(Runnable window, Predicate<BatchStatement> fails) {
+        return new CQLGroupCommitter(batch -> {
+            executed.add(batch);
+            CompletableFuture<Object> execution = new CompletableFuture<>();
+            if (fails.test(batch)) execution.completeExceptionally(new RuntimeException("batch failed"));
+            else execution.complete(null);
+            return execution;
+        }, window, task -> {
+            retries.incrementAndGet();
+            retryExecutor.execute(task);
+        });
+    }
+
+    private static Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> mutations(int statements) {
+        List<BatchableStatement<BoundStatement>> partitionStatements = new ArrayList<>();
+        for (int i = 0; i < statements; i++) partitionStatements.add(mock(BoundStatement.class));
+        Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> mutations = new HashMap<>();
+        mutations.put(PARTITION, partitionStatements);
+        return mutations;
+    }
+
+    private static boolean contains(BatchStatement batch, Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> mutations) {
+        for (BatchableStatement<?> statement : batch) {
+            if (mutations.get(PARTITION).contains(statement)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Commits the first mutations as the leader of a group on another thread, and the second as a member of its group
+     */
+    private List<CompletableFuture<Void>> commitTogether(CQLGroupCommitter committer,
+                                                         Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> first,
+                                                         Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> second) throws Exception {
+        Future<CompletableFuture<Void>> leader = committers.submit(() -> committer.commit(first, CONSISTENCY));
+        assertTrue(groupOpened.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> member = committer.commit(second, CONSISTENCY);
+        memberJoined.countDown();
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        written.add(leader.get(10, TimeUnit.SECONDS));
+        written.add(member);
+        return written;
+    }
+
+    @Test
+    public void whenTransactionsCommitWithinTheWindow_theyShareOneBatchPerPartition() throws Exception {
+        List<CompletableFuture<Void>> written = commitTogether(committer(batch -> false), mutations(3), mutations(2));
+
+        for (CompletableFuture<Void> future : written) future.get(10, TimeUnit.SECONDS);
+        assertEquals(1, executed.size());
+        assertEquals(5, executed.get(0).size());
+    }
+
+    @Test
+    public void whenTransactionExceedsTheBatchSize_itsStatementsAreSplitAcrossBatches() throws Exception {
+        int statements = CQLGroupCommitter.MAX_BATCH_STATEMENTS + 10;
+        committer(() -> {}, batch -> false).commit(mutations(statements), CONSISTENCY).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, executed.size());
+        assertEquals(CQLGroupCommitter.MAX_BATCH_STATEMENTS, executed.get(0).size());
+        assertEquals(10, executed.get(1).size());
+    }
+
+    @Test
+    public void whenPiecesDoNotFitTogether_eachGoesToItsOwnBatch() throws Exception {
+        int statements = CQLGroupCommitter.MAX_BATCH_STATEMENTS / 2 + 1;
+        List<CompletableFuture<Void>> written = commitTogether(committer(batch -> false), mutations(statements), mutations(statements));
+
+        for (CompletableFuture<Void> future : written) future.get(10, TimeUnit.SECONDS);
+        assertEquals(2, executed.size());
+        for (BatchStatement batch : executed) assertTrue(batch.size() <= CQLGroupCommitter.MAX_BATCH_STATEMENTS);
+    }
+
+    @Test
+    public void whenSharedBatchFails_eachTransactionRetriesItsOwnStatements() throws Exception {
+        List<CompletableFuture<Void>> written = commitTogether(committer(batch -> batch.size() == 5), mutations(3), mutations(2));
+
+        for (CompletableFuture<Void> future : written) future.get(10, TimeUnit.SECONDS);
+        assertEquals(3, executed.size());
+        assertEquals(5, executed.get(0).size());
+        assertEquals(2, retries.get());
+    }
+
+    @Test
+    public void whenRetriedStatementsFail_onlyTheirTransactionFails() throws Exception {
+        Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> failing = mutations(3);
+        Map<Tuple2<String, StaticBuffer>, List<BatchableStatement<BoundStatement>>> succeeding = mutations(2);
+        List<CompletableFuture<Void>> written = commitTogether(committer(batch -> contains(batch, failing)), failing, succeeding);
+
+        try {
+            written.get(0).get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("batch failed", e.getCause().getMessage());
+        }
+        written.get(1).get(10, TimeUnit.SECONDS);
+        assertFalse(written.get(1).isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import grakn.core.graph.diskstorage.BackendException;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.EntryList;
+import grakn.core.graph.diskstorage.EntryMetaData;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.configuration.Configuration;
+import grakn.core.graph.diskstorage.keycolumnvalue.SliceQuery;
+import grakn.core.graph.diskstorage.util.StaticArrayBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static grakn.core.graph.diskstorage.cql.CQLKeyColumnValueStore.COLUMN_COLUMN_NAME;
+import static grakn.core.graph.diskstorage.cql.CQLKeyColumnValueStore.KEY_COLUMN_NAME;
+import static grakn.core.graph.diskstorage.cql.CQLKeyColumnValueStore.VALUE_COLUMN_NAME;
+import static grakn.core.graph.graphdb.configuration.GraphDatabaseConfiguration.PAGE_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CQLKeyColumnValueStoreTest {
+
+    private static final String TABLE = "edgestore";
+
+    private CQLStoreManager storeManager;
+    private CQLTransaction transaction;
+    private CQLKeyColumnValueStore store;
+    private final Map<ByteBuffer, AsyncResultSet> slices = new HashMap<>();
+    private final Map<Object, ByteBuffer> boundKeys = new IdentityHashMap<>();
+
+    @Before
+    public void setUp() {
+        storeManager = mock(CQLStoreManager.class);
+        CqlSession session = mock(CqlSession.class);
+        Metadata metadata = mock(Metadata.class);
+        KeyspaceMetadata keyspace = mock(KeyspaceMetadata.class);
+        PreparedStatement prepared = mock(PreparedStatement.class);
+        Configuration configuration = mock(Configuration.class);
+
+        when(storeManager.getSession()).thenReturn(session);
+        when(storeManager.getKeyspaceName()).thenReturn("grakn");
+        when(storeManager.getMetaDataSchema(TABLE)).thenReturn(new EntryMetaData[0]);
+        when(session.getMetadata()).thenReturn(metadata);
+        when(metadata.getKeyspace(anyString())).thenReturn(Optional.of(keyspace));
+        when(keyspace.getTable(anyString())).thenReturn(Optional.of(mock(TableMetadata.class)));
+        when(session.prepare(any(SimpleStatement.class))).thenReturn(prepared);
+        // the setters of a bound statement return the statement itself, and the key bound to it is remembered
+        when(prepared.bind()).thenAnswer(bind -> mock(BoundStatement.class, invocation -> {
+            if (invocation.getMethod().getName().equals("setByteBuffer") && KEY_COLUMN_NAME.equals(invocation.getArgument(0))) {
+                boundKeys.put(invocation.getMock(), invocation.getArgument(1));
+            }
+            return invocation.getMethod().getReturnType().isInstance(invocation.getMock()) ? invocation.getMock() : null;
+        }));
+        when(storeManager.executeAsyncOnSession(any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(slices.get(boundKeys.get(invocation.getArgument(0)))));
+        when(configuration.get(PAGE_SIZE)).thenReturn(2);
+
+        transaction = mock(CQLTransaction.class);
+        store = new CQLKeyColumnValueStore(storeManager, TABLE, configuration, () -> {});
+    }
+
+    private static StaticBuffer buffer(int value) {
+        return StaticArrayBuffer.of(new byte[]{(byte) value});
+    }
+
+    private static Row row(int column, int value) {
+        Row row = mock(Row.class);
+        when(row.getByteBuffer(COLUMN_COLUMN_NAME)).thenAnswer(invocation -> ByteBuffer.wrap(new byte[]{(byte) column}));
+        when(row.getByteBuffer(VALUE_COLUMN_NAME)).thenAnswer(invocation -> ByteBuffer.wrap(new byte[]{(byte) value}));
+        return row;
+    }
+
+    /**
+     * @return the pages of rows, as a chain of result sets each fetching the next page
+     */
+    private static AsyncResultSet pages(List<List<Row>> pages) {
+        AsyncResultSet page = mock(AsyncResultSet.class);
+        when(page.currentPage()).thenReturn(pages.get(0));
+        when(page.hasMorePages()).thenReturn(pages.size() > 1);
+        if (pages.size() > 1) {
+            AsyncResultSet next = pages(pages.subList(1, pages.size()));
+            when(page.fetchNextPage()).thenReturn(CompletableFuture.completedFuture(next));
+        }
+        return page;
+    }
+
+    private static List<Integer> columns(EntryList entries) {
+        List<Integer> columns = new ArrayList<>();
+        for (Entry entry : entries) columns.add((int) entry.getColumn().getByte(0));
+        return columns;
+    }
+
+    @Test
+    public void whenSlicingManyKeys_everyPageOfEveryKeyIsRead() throws BackendException {
+        StaticBuffer wide = buffer(1);
+        StaticBuffer narrow = buffer(2);
+        StaticBuffer empty = buffer(3);
+        slices.put(wide.asByteBuffer(), pages(Arrays.asList(
+                Arrays.asList(row(1, 10), row(2, 20)),
+                Arrays.asList(row(3, 30), row(4, 40)),
+                Arrays.asList(row(5, 50)))));
+        slices.put(narrow.asByteBuffer(), pages(Arrays.asList(Arrays.asList(row(7, 70)))));
+        slices.put(empty.asByteBuffer(), pages(Collections.singletonList(Collections.emptyList())));
+
+        Map<StaticBuffer, EntryList> result = store.getSlice(Arrays.asList(wide, narrow, empty), new SliceQuery(buffer(0), buffer(100)), transaction);
+
+        assertEquals(3, result.size());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), columns(result.get(wide)));
+        assertEquals(Arrays.asList(7), columns(result.get(narrow)));
+        assertEquals(0, result.get(empty).size());
+        assertEquals(50, result.get(wide).get(4).getValueAs(StaticBuffer.STATIC_FACTORY).getByte(0));
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.EntryMetaData;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.util.StaticArrayBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static grakn.core.graph.diskstorage.cql.CQLKeyColumnValueStore.COLUMN_COLUMN_NAME;
+import static grakn.core.graph.diskstorage.cql.CQLKeyColumnValueStore.VALUE_COLUMN_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CQLPagedEntryListTest {
+
+    private static final int PAGE_SIZE = 2;
+    private static final CQLColValGetter GETTER = new CQLColValGetter(new EntryMetaData[0]);
+
+    private final List<StaticBuffer> resumedFrom = new ArrayList<>();
+    private final List<Integer> resumedLimits = new ArrayList<>();
+
+    /**
+     * A result set over the given columns which, like the driver, fetches a page only once the previous one is consumed
+     */
+    private static class PagedRows {
+        private final List<Integer> columns;
+        private final ResultSet resultSet = mock(ResultSet.class);
+        private int position = 0;
+        private int fetched = 0;
+
+        PagedRows(List<Integer> columns) {
+            this.columns = columns;
+            fetched = Math.min(PAGE_SIZE, columns.size());
+            when(resultSet.getAvailableWithoutFetching()).thenAnswer(invocation -> fetched - position);
+            when(resultSet.iterator()).thenReturn(new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    if (position == fetched && fetched < PagedRows.this.columns.size()) {
+                        fetched = Math.min(fetched + PAGE_SIZE, PagedRows.this.columns.size());
+                    }
+                    return position < fetched;
+                }
+
+                @Override
+                public Row next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return row(PagedRows.this.columns.get(position++));
+                }
+            });
+        }
+
+        int pagesFetched() {
+            return (fetched + PAGE_SIZE - 1) / PAGE_SIZE;
+        }
+    }
+
+    private static Row row(int column) {
+        Row row = mock(Row.class);
+        when(row.getByteBuffer(COLUMN_COLUMN_NAME)).thenAnswer(invocation -> ByteBuffer.wrap(new byte[]{(byte) column}));
+        when(row.getByteBuffer(VALUE_COLUMN_NAME)).thenAnswer(invocation -> ByteBuffer.wrap(new byte[]{(byte) -column}));
+        return row;
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> range = new ArrayList<>();
+        for (int i = from; i < to; i++) range.add(i);
+        return range;
+    }
+
+    private static List<Integer> columns(Iterable<Entry> entries) {
+        List<Integer> columns = new ArrayList<>();
+        for (Entry entry : entries) columns.add((int) entry.getColumn().getByte(0));
+        return columns;
+    }
+
+    /**
+     * @return a paged list over the columns, which resumes the slice with the columns from the resumed slice start
+     */
+    private CQLPagedEntryList pagedList(PagedRows rows, List<Integer> columns, int limit) {
+        return new CQLPagedEntryList(rows.resultSet, GETTER, limit, (sliceStart, remaining) -> {
+            resumedFrom.add(sliceStart);
+            resumedLimits.add(remaining);
+            List<Integer> resumed = new ArrayList<>();
+            for (int column : columns) {
+                if (StaticArrayBuffer.of(new byte[]{(byte) column}).compareTo(sliceStart) >= 0 && resumed.size() < remaining) {
+                    resumed.add(column);
+                }
+            }
+            return new PagedRows(resumed).resultSet;
+        });
+    }
+
+    @Test
+    public void whenIteratingAMultiPageRow_pagesAreFetchedAsTheyAreRead() {
+        List<Integer> columns = range(0, 12);
+        PagedRows rows = new PagedRows(columns);
+        CQLPagedEntryList entries = pagedList(rows, columns, Integer.MAX_VALUE);
+        assertEquals(1, rows.pagesFetched());
+
+        Iterator<Entry> iterator = entries.iterator();
+        for (int i = 0; i < 3; i++) assertEquals(i, iterator.next().getColumn().getByte(0));
+        assertEquals(2, rows.pagesFetched());
+
+        List<Integer> read = new ArrayList<>(Arrays.asList(0, 1, 2));
+        iterator.forEachRemaining(entry -> read.add((int) entry.getColumn().getByte(0)));
+        assertEquals(columns, read);
+        assertEquals(6, rows.pagesFetched());
+        assertTrue(resumedFrom.isEmpty());
+    }
+
+    @Test
+    public void whenIteratingAMultiPageRowAgain_theSliceResumesAfterTheRetainedPages() {
+        List<Integer> columns = range(0, 12);
+        PagedRows rows = new PagedRows(columns);
+        CQLPagedEntryList entries = pagedList(rows, columns, 20);
+
+        assertEquals(columns, columns(entries));
+        assertEquals(columns, columns(entries));
+
+        int retained = CQLPagedEntryList.MAX_RETAINED_PAGES * PAGE_SIZE;
+        assertEquals(1, resumedFrom.size());
+        // the slice resumes from the smallest column after the last retained one
+        assertEquals(StaticArrayBuffer.of(new byte[]{(byte) (retained - 1), 0}), resumedFrom.get(0));
+        assertEquals(Arrays.asList(20 - retained), resumedLimits);
+    }
+
+    @Test
+    public void whenARowFitsInTheRetainedPages_itIsNotQueriedAgain() {
+        List<Integer> columns = range(0, 5);
+        PagedRows rows = new PagedRows(columns);
+        CQLPagedEntryList entries = pagedList(rows, columns, Integer.MAX_VALUE);
+
+        assertEquals(columns, columns(entries));
+        assertEquals(columns, columns(entries));
+        assertEquals(5, entries.size());
+        assertEquals(4, entries.get(4).getColumn().getByte(0));
+        assertTrue(resumedFrom.isEmpty());
+    }
+
+    @Test
+    public void whenSizingAMultiPageRow_itIsCountedOnce() {
+        List<Integer> columns = range(0, 12);
+        PagedRows rows = new PagedRows(columns);
+        CQLPagedEntryList entries = pagedList(rows, columns, Integer.MAX_VALUE);
+
+        assertEquals(12, entries.size());
+        assertEquals(12, entries.size());
+        assertTrue(entries.getByteSize() > 0);
+        // the first pass continues the original query, and only the byte size needs another one
+        assertEquals(1, resumedFrom.size());
+    }
+
+    @Test
+    public void whenReadingAMultiPageRowByIndexInOrder_theRowIsStreamedOnce() {
+        List<Integer> columns = range(0, 12);
+        PagedRows rows = new PagedRows(columns);
+        CQLPagedEntryList entries = pagedList(rows, columns, Integer.MAX_VALUE);
+
+        for (int i = 0; i < columns.size(); i++) {
+            assertEquals(i, entries.get(i).getColumn().getByte(0));
+        }
+        assertEquals(6, rows.pagesFetched());
+        assertTrue(resumedFrom.isEmpty());
+    }
+
+    @Test
+    public void pagedListsAreReportedAsPaged() {
+        List<Integer> columns = range(0, 3);
+        assertTrue(pagedList(new PagedRows(columns), columns, Integer.MAX_VALUE).isPaged());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.graphdb.database;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import grakn.core.graph.core.PropertyKey;
+import grakn.core.graph.diskstorage.BackendTransaction;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.keycolumnvalue.KeySliceQuery;
+import grakn.core.graph.diskstorage.util.StaticArrayEntryList;
+import grakn.core.graph.graphdb.database.serialize.StandardSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OrderedIndexSerializerTest {
+
+    private static final String PARTITION = "person";
+
+    private final OrderedIndexSerializer serializer =
+            new OrderedIndexSerializer(new StandardSerializer(), ImmutableSet.of("age", "weight"), "label");
+    // the columns of each row of the index, in the byte order of the storage backend
+    private final Map<StaticBuffer, TreeMap<StaticBuffer, Entry>> rows = new HashMap<>();
+    private final List<KeySliceQuery> queries = new ArrayList<>();
+
+    private PropertyKey age;
+    private PropertyKey weight;
+    private BackendTransaction tx;
+
+    @Before
+    public void setUp() {
+        age = propertyKey(1, "age", Long.class);
+        weight = propertyKey(2, "weight", Double.class);
+        tx = mock(BackendTransaction.class);
+        when(tx.orderedIndexQuery(any())).thenAnswer(invocation -> {
+            KeySliceQuery query = invocation.getArgument(0);
+            queries.add(query);
+            TreeMap<StaticBuffer, Entry> columns = rows.getOrDefault(query.getKey(), new TreeMap<>());
+            List<Entry> slice = columns.subMap(query.getSliceStart(), query.getSliceEnd()).values().stream()
+                    .limit(query.hasLimit() ? query.getLimit() : Long.MAX_VALUE)
+                    .collect(Collectors.toList());
+            return StaticArrayEntryList.of(slice);
+        });
+    }
+
+    private static PropertyKey propertyKey(long id, String name, Class<?> dataType) {
+        PropertyKey key = mock(PropertyKey.class);
+        when(key.longId()).thenReturn(id);
+        when(key.name()).thenReturn(name);
+        doReturn(dataType).when(key).dataType();
+        return key;
+    }
+
+    private void index(PropertyKey key, Object partition, Object value, long vertexId) {
+        for (ValueIndexSerializer.Update update : serializer.getUpdates(key, partition, value, vertexId, true)) {
+            rows.computeIfAbsent(update.getKey(), row -> new TreeMap<>()).put(update.getEntry().getColumn(), update.getEntry());
+        }
+    }
+
+    private List<Long> query(PropertyKey key, Object partition, Object lower, Object upper) {
+        return Lists.newArrayList(serializer.query(tx, key, partition, lower, upper));
+    }
+
+    @Test
+    public void whenQueryingARange_verticesAreReturnedInOrderOfValue() {
+        index(age, PARTITION, 40L, 1);
+        index(age, PARTITION, 20L, 2);
+        index(age, PARTITION, 30L, 3);
+        index(age, PARTITION, 50L, 4);
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), query(age, PARTITION, 20L, 40L));
+        assertEquals(Arrays.asList(3L), query(age, PARTITION, 21L, 39L));
+    }
+
+    @Test
+    public void whenBoundsAreMissing_theRangeIsUnbounded() {
+        index(age, PARTITION, 40L, 1);
+        index(age, PARTITION, 20L, 2);
+        index(age, PARTITION, Long.MAX_VALUE, 3);
+
+        assertEquals(Arrays.asList(2L, 1L, 3L), query(age, PARTITION, null, null));
+        assertEquals(Arrays.asList(1L, 3L), query(age, PARTITION, 30L, null));
+        assertEquals(Arrays.asList(2L), query(age, PARTITION, null, 30L));
+    }
+
+    @Test
+    public void whenValuesAreNegative_theyPrecedePositiveValues() {
+        index(age, PARTITION, 5L, 1);
+        index(age, PARTITION, -5L, 2);
+        index(age, PARTITION, 0L, 3);
+        index(age, PARTITION, Long.MIN_VALUE, 4);
+        index(weight, PARTITION, 1.5, 5);
+        index(weight, PARTITION, -1.5, 6);
+
+        assertEquals(Arrays.asList(4L, 2L, 3L, 1L), query(age, PARTITION, null, null));
+        assertEquals(Arrays.asList(2L, 3L), query(age, PARTITION, -10L, 0L));
+        assertEquals(Arrays.asList(6L, 5L), query(weight, PARTITION, null, null));
+    }
+
+    @Test
+    public void whenBoundsHaveAnotherType_theyAreWidenedToTheTypeOfTheKey() {
+        index(age, PARTITION, 10L, 1);
+        index(age, PARTITION, 11L, 2);
+        index(age, PARTITION, 12L, 3);
+        index(weight, PARTITION, 10.0, 4);
+
+        // the bounds are rounded outwards, so the range may return values just outside of it, but is never narrowed
+        assertEquals(Arrays.asList(1L, 2L, 3L), query(age, PARTITION, 10.5, 11.5));
+        assertEquals(Arrays.asList(2L), query(age, PARTITION, 11.0, 11.0));
+        assertEquals(Arrays.asList(4L), query(weight, PARTITION, 10L, 10L));
+    }
+
+    @Test
+    public void whenRangeExceedsAPage_allVerticesAreReturnedAcrossPages() {
+        LongStream.range(0, 2500).forEach(value -> index(age, PARTITION, value, 10_000 + value));
+
+        List<Long> vertices = query(age, PARTITION, 100L, 2199L);
+        assertEquals(LongStream.rangeClosed(10_100, 12_199).boxed().collect(Collectors.toList()), vertices);
+        assertEquals(3, queries.size());
+        assertTrue(queries.stream().allMatch(query -> query.getLimit() == 1000));
+    }
+
+    @Test
+    public void whenPartitionsDiffer_theirValuesAreKeptApart() {
+        index(age, PARTITION, 30L, 1);
+        index(age, "company", 30L, 2);
+        index(weight, PARTITION, 30.0, 3);
+
+        assertEquals(Arrays.asList(1L), query(age, PARTITION, null, null));
+        assertEquals(Arrays.asList(2L), query(age, "company", null, null));
+        assertTrue(query(age, "animal", null, null).isEmpty());
+    }
+}
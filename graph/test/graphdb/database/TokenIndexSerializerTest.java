@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.graphdb.database;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import grakn.core.graph.core.PropertyKey;
+import grakn.core.graph.diskstorage.BackendTransaction;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.StaticBuffer;
+import grakn.core.graph.diskstorage.keycolumnvalue.KeySliceQuery;
+import grakn.core.graph.diskstorage.util.StaticArrayEntryList;
+import grakn.core.graph.graphdb.database.serialize.StandardSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TokenIndexSerializerTest {
+
+    private static final String PARTITION = "person";
+
+    private final TokenIndexSerializer serializer =
+            new TokenIndexSerializer(new StandardSerializer(), ImmutableSet.of("name"), "label");
+    // the columns of each row of the index, in the byte order of the storage backend
+    private final Map<StaticBuffer, TreeMap<StaticBuffer, Entry>> rows = new HashMap<>();
+    private final List<KeySliceQuery> queries = new ArrayList<>();
+
+    private PropertyKey name;
+    private BackendTransaction tx;
+
+    @Before
+    public void setUp() {
+        name = mock(PropertyKey.class);
+        when(name.longId()).thenReturn(1L);
+        when(name.name()).thenReturn("name");
+        doReturn(String.class).when(name).dataType();
+        tx = mock(BackendTransaction.class);
+        when(tx.tokenIndexQuery(any())).thenAnswer(invocation -> {
+            KeySliceQuery query = invocation.getArgument(0);
+            queries.add(query);
+            TreeMap<StaticBuffer, Entry> columns = rows.getOrDefault(query.getKey(), new TreeMap<>());
+            List<Entry> slice = columns.subMap(query.getSliceStart(), query.getSliceEnd()).values().stream()
+                    .limit(query.hasLimit() ? query.getLimit() : Long.MAX_VALUE)
+                    .collect(Collectors.toList());
+            return StaticArrayEntryList.of(slice);
+        });
+    }
+
+    private void index(Object partition, Object value, long vertexId) {
+        for (ValueIndexSerializer.Update update : serializer.getUpdates(name, partition, value, vertexId, true)) {
+            rows.computeIfAbsent(update.getKey(), row -> new TreeMap<>()).put(update.getEntry().getColumn(), update.getEntry());
+        }
+    }
+
+    private List<Long> query(Object partition, String... substrings) {
+        return Lists.newArrayList(serializer.query(tx, name, partition, Arrays.asList(substrings)));
+    }
+
+    @Test
+    public void whenTakingGrams_theyAreDistinctAndIgnoreCase() {
+        assertEquals(Arrays.asList("ban", "ana", "nan"), Lists.newArrayList(TokenIndexSerializer.grams("BaNaNa")));
+        assertEquals(Collections.emptySet(), TokenIndexSerializer.grams("ab"));
+    }
+
+    @Test
+    public void whenIndexingAValue_thereIsAnUpdatePerGram() {
+        assertEquals(3, serializer.getUpdates(name, PARTITION, "banana", 1, true).size());
+        assertEquals(0, serializer.getUpdates(name, PARTITION, "ab", 1, true).size());
+        assertTrue(serializer.getUpdates(name, PARTITION, 42L, 1, true).isEmpty());
+    }
+
+    @Test
+    public void whenQueryingASubstring_verticesWithAllItsGramsAreReturnedInOrderOfId() {
+        index(PARTITION, "Alice Smith", 30);
+        index(PARTITION, "Bob Smithson", 10);
+        index(PARTITION, "Carol Jones", 20);
+        // contains all the grams of "smith" without containing it
+        index(PARTITION, "smit mith", 40);
+
+        assertEquals(Arrays.asList(10L, 30L, 40L), query(PARTITION, "SMITH"));
+        assertEquals(Arrays.asList(10L), query(PARTITION, "smith", "bob"));
+        assertTrue(query(PARTITION, "smith", "carol").isEmpty());
+        assertTrue(query(PARTITION, "xyz").isEmpty());
+    }
+
+    @Test
+    public void whenSubstringsAreTooShort_theyCannotBeLookedUp() {
+        index(PARTITION, "Alice", 1);
+
+        assertNull(serializer.query(tx, name, PARTITION, Arrays.asList("al", "i")));
+        assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    public void whenPostingsExceedAPage_allVerticesAreReturnedAcrossPages() {
+        LongStream.rangeClosed(1, 2500).forEach(id -> index(PARTITION, id % 2 == 0 ? "even value" : "odd value", id));
+
+        List<Long> vertices = query(PARTITION, "even val");
+        assertEquals(LongStream.rangeClosed(1, 1250).map(id -> id * 2).boxed().collect(Collectors.toList()), vertices);
+        assertTrue(queries.stream().allMatch(query -> query.getLimit() == 1000));
+    }
+
+    @Test
+    public void whenPartitionsDiffer_theirValuesAreKeptApart() {
+        index(PARTITION, "grakn", 1);
+        index("company", "grakn labs", 2);
+
+        assertEquals(Arrays.asList(1L), query(PARTITION, "grakn"));
+        assertEquals(Arrays.asList(2L), query("company", "grakn"));
+        assertTrue(query("animal", "grakn").isEmpty());
+    }
+}
@@ -33,7 +33,7 @@ import static java.lang.Math.sqrt;
 
 public class AggregateExecutor {
 
-    private static Number getValue(ConceptMap answer, Variable var) {
+    static Number getValue(ConceptMap answer, Variable var) {
         Object value = answer.get(var).asAttribute().value();
 
         if (value instanceof Number) return (Number) value;
@@ -59,21 +59,53 @@ public class AggregateExecutor {
         }
     }
 
+    /**
+     * Aggregates the values of a variable already read from the answers, e.g. directly from the attributes of a type
+     */
+    static List<Numeric> aggregateValues(Stream<? extends Number> values, Graql.Token.Aggregate.Method method) {
+        switch (method) {
+            case COUNT:
+                return Collections.singletonList(new Numeric(values.count()));
+            case MAX:
+                return maxOf(values);
+            case MEAN:
+                return meanOf(values);
+            case MEDIAN:
+                return medianOf(values);
+            case MIN:
+                return minOf(values);
+            case STD:
+                return stdOf(values);
+            case SUM:
+                return sumOf(values);
+            default:
+                throw new IllegalArgumentException("Invalid Aggregate method");
+        }
+    }
+
     static List<Numeric> count(Stream<ConceptMap> answers) {
         return Collections.singletonList(new Numeric(answers.count()));
     }
 
     static List<Numeric> max(Stream<ConceptMap> answers, Variable var) {
+        return maxOf(answers.map(answer -> getValue(answer, var)));
+    }
+
+    private static List<Numeric> maxOf(Stream<? extends Number> values) {
         PrimitiveNumberComparator comparator = new PrimitiveNumberComparator();
-        Number number = answers.map(answer -> getValue(answer, var)).max(comparator).orElse(null);
+        Number number = values.max(comparator).orElse(null);
 
         if (number == null) return Collections.emptyList();
         else return Collections.singletonList( new Numeric(number));
     }
 
     static List<Numeric> mean(Stream<ConceptMap> answers, Variable var) {
-        double mean = answers
-                .mapToDouble(answer -> getValue(answer, var).doubleValue())
+        return meanOf(answers.map(answer -> getValue(answer, var)));
+    }
+
+    private static List<Numeric> meanOf(Stream<? extends Number> values) {
+        double mean = values
+                .mapToDouble(Number::doubleValue)
                 .average()
                 .orElse(Double.NaN);
 
@@ -85,8 +117,12 @@ public class AggregateExecutor {
     }
 
     static List<Numeric> median(Stream<ConceptMap> answers, Variable var) {
+        return medianOf(answers.map(a -> getValue(a, var)));
+    }
+
+    private static List<Numeric> medianOf(Stream<? extends Number> values) {
         MedianFinder medianFinder = new MedianFinder();
-        answers.map(a -> getValue(a, var)).forEach(medianFinder::addNum);
+        values.forEach(medianFinder::addNum);
 
         Number median = medianFinder.findMedian();
 
@@ -95,9 +131,12 @@ public class AggregateExecutor {
     }
 
     static List<Numeric> min(Stream<ConceptMap> answers, Variable var) {
+        return minOf(answers.map(answer -> getValue(answer, var)));
+    }
+
+    private static List<Numeric> minOf(Stream<? extends Number> values) {
         PrimitiveNumberComparator comparator = new PrimitiveNumberComparator();
-        Number number = answers
-                .map(answer -> getValue(answer, var))
+        Number number = values
                 .min(comparator)
                 .orElse(null);
 
@@ -106,9 +145,11 @@ public class AggregateExecutor {
     }
 
     static List<Numeric> std(Stream<ConceptMap> answers, Variable var) {
-        Stream<Double> numStream = answers.map(result -> result.get(var)
-                .<Number>asAttribute().value()
-                .doubleValue());
+        return stdOf(answers.map(result -> result.get(var).<Number>asAttribute().value()));
+    }
+
+    private static List<Numeric> stdOf(Stream<? extends Number> values) {
+        Stream<Double> numStream = values.map(Number::doubleValue);
 
         Iterable<Double> data = numStream::iterator;
 
@@ -134,16 +175,18 @@ public class AggregateExecutor {
     }
 
     static List<Numeric> sum(Stream<ConceptMap> answers, Variable var) {
+        return sumOf(answers.map(answer -> getValue(answer, var)));
+    }
+
+    private static List<Numeric> sumOf(Stream<? extends Number> values) {
         // initial value is set to null so that we can return null if there is no Answers to consume
-        Number number = answers
-                .map(answer -> getValue(answer, var))
-                .reduce(null, AggregateExecutor::addNumbers);
+        Number number = values.reduce(null, AggregateExecutor::addNumbers);
 
         if (number == null) return Collections.emptyList();
         else return Collections.singletonList(new Numeric(number));
     }
 
-    private static Number addNumbers(Number x, Number y) {
+    static Number addNumbers(Number x, Number y) {
         // if this method is called, then there is at least one number to apply SumAggregate to, thus we set x back to 0
         if (x == null) x = 0;
 
@@ -159,7 +202,7 @@ public class AggregateExecutor {
         }
     }
 
-    private static class MedianFinder {
+    static class MedianFinder {
         PriorityQueue<Number> maxHeap; //lower half
         PriorityQueue<Number> minHeap; //higher half
 
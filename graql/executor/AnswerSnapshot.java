@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor;
+
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.core.Schema;
+import grakn.core.kb.concept.api.Concept;
+import graql.lang.statement.Variable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A compact snapshot of answers, holding the vertex id of each concept of an answer in a primitive array per variable
+ * rather than the concept itself, i.e. 8 bytes per concept. Answers are rebuilt from the ids a chunk at a time, so
+ * only the concepts of one chunk are held at once.
+ * <p>
+ * All concepts are vertices, whose ids are positive, so 0 marks a variable an answer does not have.
+ */
+class AnswerSnapshot {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<Variable, long[]> columns = new LinkedHashMap<>();
+    private int capacity = INITIAL_CAPACITY;
+    private int size = 0;
+
+    static AnswerSnapshot of(Stream<ConceptMap> answers) {
+        AnswerSnapshot snapshot = new AnswerSnapshot();
+        answers.forEach(snapshot::add);
+        return snapshot;
+    }
+
+    void add(ConceptMap answer) {
+        if (size == capacity) {
+            capacity *= 2;
+            columns.replaceAll((var, column) -> Arrays.copyOf(column, capacity));
+        }
+        for (Map.Entry<Variable, Concept> entry : answer.map().entrySet()) {
+            long[] column = columns.computeIfAbsent(entry.getKey(), var -> new long[capacity]);
+            column[size] = vertexId(entry.getValue());
+        }
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param concepts looks a concept up by the id of its vertex
+     * @return the answers in the order they were added, in lists of at most the given size rebuilt as they are read
+     */
+    Stream<List<ConceptMap>> chunks(int chunkSize, LongFunction<Concept> concepts) {
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        return IntStream.range(0, chunks).mapToObj(chunk -> {
+            int end = Math.min(size, (chunk + 1) * chunkSize);
+            List<ConceptMap> answers = new ArrayList<>(end - chunk * chunkSize);
+            for (int answer = chunk * chunkSize; answer < end; answer++) {
+                Map<Variable, Concept> map = new HashMap<>();
+                for (Map.Entry<Variable, long[]> column : columns.entrySet()) {
+                    long vertexId = column.getValue()[answer];
+                    if (vertexId != 0) map.put(column.getKey(), concepts.apply(vertexId));
+                }
+                answers.add(new ConceptMap(map));
+            }
+            return answers;
+        });
+    }
+
+    static long vertexId(Concept concept) {
+        return Long.parseLong(Schema.elementId(concept.id()));
+    }
+}
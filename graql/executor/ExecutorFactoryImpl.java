@@ -19,6 +19,7 @@
 package grakn.core.graql.executor;
 
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
+import grakn.core.graql.reasoner.rule.MaterialisedRules;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.executor.ComputeExecutor;
 import grakn.core.kb.graql.executor.ExecutorFactory;
@@ -26,9 +27,13 @@ import grakn.core.kb.graql.executor.QueryExecutor;
 import grakn.core.kb.graql.executor.TraversalExecutor;
 import grakn.core.kb.graql.planning.gremlin.TraversalPlanFactory;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
+import grakn.core.kb.keyspace.StatisticsDelta;
 import grakn.core.kb.server.cache.ExplanationCache;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+
 
 public class ExecutorFactoryImpl implements ExecutorFactory {
 
@@ -39,14 +44,44 @@ public class ExecutorFactoryImpl implements ExecutorFactory {
     private TraversalExecutor traversalExecutor;
     private ReasonerQueryFactory reasonerQueryFactory;
     private ExplanationCache explanationCache;
+    private final StatisticsDelta statisticsDelta;
+    private final boolean statisticsCount;
+    private final int maxGroupsInMemory;
+    private final Path groupSpillDirectory;
+    private final int writeChunkSize;
+    private ParallelResolver parallelResolver;
+    private MaterialisedRules materialisedRules;
 
     public ExecutorFactoryImpl(ConceptManager conceptManager, HadoopGraph hadoopGraph, KeyspaceStatistics keyspaceStatistics, TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor, ExplanationCache explanationCache) {
+        this(conceptManager, hadoopGraph, keyspaceStatistics, traversalPlanFactory, traversalExecutor, explanationCache, null, false, 0, null, 0);
+    }
+
+    /**
+     * @param statisticsDelta     the changes the transaction makes to the statistics, only read if statisticsCount
+     * @param statisticsCount     whether aggregate counts are read from the statistics rather than counted from the
+     *                            instances
+     * @param maxGroupsInMemory   the number of groups a group aggregate accumulates in memory before spilling the
+     *                            answers of other groups to disk, 0 if it never spills
+     * @param groupSpillDirectory the directory group aggregates spill answers to, only null if they never spill
+     * @param writeChunkSize      the number of answers of the match of an insert or delete query written at a time
+     *                            from a compact snapshot of the answers, 0 if the answers are collected and written at
+     *                            once
+     */
+    public ExecutorFactoryImpl(ConceptManager conceptManager, HadoopGraph hadoopGraph, KeyspaceStatistics keyspaceStatistics,
+                               TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor,
+                               ExplanationCache explanationCache, @Nullable StatisticsDelta statisticsDelta, boolean statisticsCount,
+                               int maxGroupsInMemory, @Nullable Path groupSpillDirectory, int writeChunkSize) {
         this.conceptManager = conceptManager;
         this.hadoopGraph = hadoopGraph;
         this.keyspaceStatistics = keyspaceStatistics;
         this.traversalPlanFactory = traversalPlanFactory;
         this.traversalExecutor = traversalExecutor;
         this.explanationCache = explanationCache;
+        this.statisticsDelta = statisticsDelta;
+        this.statisticsCount = statisticsCount;
+        this.maxGroupsInMemory = maxGroupsInMemory;
+        this.groupSpillDirectory = groupSpillDirectory;
+        this.writeChunkSize = writeChunkSize;
     }
 
     @Override
@@ -56,11 +91,27 @@ public class ExecutorFactoryImpl implements ExecutorFactory {
 
     @Override
     public QueryExecutor transactional(boolean infer) {
-        return new QueryExecutorImpl(conceptManager, reasonerQueryFactory, explanationCache, infer);
+        TypeAggregateExecutor typeAggregateExecutor = new TypeAggregateExecutor(conceptManager, keyspaceStatistics, statisticsDelta, statisticsCount);
+        return new QueryExecutorImpl(conceptManager, reasonerQueryFactory, traversalPlanFactory, explanationCache, typeAggregateExecutor, maxGroupsInMemory, groupSpillDirectory, writeChunkSize, parallelResolver, materialisedRules != null, infer);
     }
 
     public void setReasonerQueryFactory(ReasonerQueryFactory reasonerQueryFactory) {
         this.reasonerQueryFactory = reasonerQueryFactory;
     }
 
+    /**
+     * @param parallelResolver resolves the disjuncts of the queries of the transaction in parallel
+     */
+    public void setParallelResolver(ParallelResolver parallelResolver) {
+        this.parallelResolver = parallelResolver;
+    }
+
+    /**
+     * @param materialisedRules the rules of the keyspace whose inferred facts are stored, which queries that do not infer
+     *                          leave out
+     */
+    public void setMaterialisedRules(MaterialisedRules materialisedRules) {
+        this.materialisedRules = materialisedRules;
+    }
+
 }
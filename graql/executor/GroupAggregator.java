@@ -0,0 +1,417 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.hash.Hashing;
+import grakn.core.concept.answer.AnswerGroup;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.Numeric;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.exception.GraqlQueryException;
+import graql.lang.Graql;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.lang.Math.sqrt;
+
+/**
+ * Aggregates answers per group as they stream in, keeping a running accumulator per group rather than the answers of
+ * each group. Only the value of the aggregated variable is read from an answer, so answers are released as soon as
+ * they are accumulated.
+ * <p>
+ * At most a given number of groups are accumulated in memory at once. Once there are as many, the values of answers in
+ * other groups are spilled to files on disk, partitioned by a hash of their group. When all answers have been read,
+ * the groups in memory are output and each partition is aggregated in turn, spilling again with another hash if it
+ * has too many groups itself. The files are kept in a directory of their own under the data directory of the server
+ * rather than the temporary directory of the system, which may be small or in memory.
+ */
+class GroupAggregator {
+
+    private static final int SPILL_PARTITIONS = 16;
+    // beyond this depth partitions are not split further, which only happens if the hashes of their groups collide
+    private static final int MAX_SPILL_DEPTH = 4;
+
+    private final ConceptManager conceptManager;
+    private final Graql.Token.Aggregate.Method method;
+    private final Variable var;
+    private final int maxGroupsInMemory;
+    private final Path spillDirectory;
+
+    /**
+     * @param var               the variable whose values are aggregated, null if answers are only counted
+     * @param maxGroupsInMemory the number of groups accumulated in memory before answers of other groups are spilled to
+     *                          disk, 0 if they are never spilled
+     * @param spillDirectory    the directory spilled answers are written to, created when first spilled to, only null
+     *                          if answers are never spilled
+     */
+    GroupAggregator(ConceptManager conceptManager, Graql.Token.Aggregate.Method method, @Nullable Variable var,
+                    int maxGroupsInMemory, @Nullable Path spillDirectory) {
+        if (maxGroupsInMemory > 0 && spillDirectory == null) {
+            throw new IllegalArgumentException("Spilling groups to disk requires a directory to spill them to");
+        }
+        this.conceptManager = conceptManager;
+        this.method = method;
+        this.var = var;
+        this.maxGroupsInMemory = maxGroupsInMemory;
+        this.spillDirectory = spillDirectory;
+    }
+
+    List<AnswerGroup<Numeric>> aggregate(Stream<ConceptMap> answers, Variable groupVar) {
+        Iterator<GroupedValue> values = answers
+                .map(answer -> {
+                    Concept group = answer.get(groupVar);
+                    Number value = method == Graql.Token.Aggregate.Method.COUNT ? null : AggregateExecutor.getValue(answer, var);
+                    return new GroupedValue(group.id(), group, value);
+                })
+                .iterator();
+
+        List<AnswerGroup<Numeric>> answerGroups = new ArrayList<>();
+        aggregate(values, 0, answerGroups);
+        return answerGroups;
+    }
+
+    private void aggregate(Iterator<GroupedValue> values, int depth, List<AnswerGroup<Numeric>> answerGroups) {
+        Map<ConceptId, Group> groups = new HashMap<>();
+        Spill spill = null;
+        try {
+            while (values.hasNext()) {
+                GroupedValue value = values.next();
+                Group group = groups.get(value.groupId);
+                if (group == null && (maxGroupsInMemory <= 0 || groups.size() < maxGroupsInMemory || depth >= MAX_SPILL_DEPTH)) {
+                    group = new Group(value.group, accumulator());
+                    groups.put(value.groupId, group);
+                }
+
+                if (group != null) {
+                    group.accumulator.add(value.value);
+                } else {
+                    if (spill == null) spill = new Spill(depth);
+                    spill.write(value);
+                }
+            }
+
+            groups.forEach((groupId, group) -> {
+                Concept owner = group.owner != null ? group.owner : conceptManager.getConcept(groupId);
+                answerGroups.add(new AnswerGroup<>(owner, group.accumulator.result()));
+            });
+            groups.clear();
+
+            if (spill != null) {
+                spill.close();
+                for (int partition = 0; partition < SPILL_PARTITIONS; partition++) {
+                    aggregate(spill.read(partition), depth + 1, answerGroups);
+                }
+            }
+        } catch (IOException e) {
+            throw GraqlQueryException.groupSpillFailed(method, e);
+        } finally {
+            if (spill != null) spill.delete();
+        }
+    }
+
+    private Accumulator accumulator() {
+        switch (method) {
+            case COUNT:
+                return new Count();
+            case MAX:
+                return new Extremum(true);
+            case MEAN:
+                return new Mean();
+            case MEDIAN:
+                return new Median();
+            case MIN:
+                return new Extremum(false);
+            case STD:
+                return new Std();
+            case SUM:
+                return new Sum();
+            default:
+                throw new IllegalArgumentException("Invalid Aggregate method");
+        }
+    }
+
+    private static class GroupedValue {
+        private final ConceptId groupId;
+        private final Concept group;
+        private final Number value;
+
+        /**
+         * @param group the concept of the group, null if it is read back from a spill
+         * @param value the value aggregated, null if answers are only counted
+         */
+        GroupedValue(ConceptId groupId, @Nullable Concept group, @Nullable Number value) {
+            this.groupId = groupId;
+            this.group = group;
+            this.value = value;
+        }
+    }
+
+    private static class Group {
+        private final Concept owner;
+        private final Accumulator accumulator;
+
+        Group(@Nullable Concept owner, Accumulator accumulator) {
+            this.owner = owner;
+            this.accumulator = accumulator;
+        }
+    }
+
+    /**
+     * Files the spilled values of a level of aggregation are partitioned into
+     */
+    private class Spill {
+        private final int depth;
+        private final Path[] files = new Path[SPILL_PARTITIONS];
+        private final DataOutputStream[] outputs = new DataOutputStream[SPILL_PARTITIONS];
+        private final DataInputStream[] inputs = new DataInputStream[SPILL_PARTITIONS];
+
+        Spill(int depth) throws IOException {
+            this.depth = depth;
+            Files.createDirectories(spillDirectory);
+            for (int partition = 0; partition < SPILL_PARTITIONS; partition++) {
+                files[partition] = Files.createTempFile(spillDirectory, "group-", ".spill");
+                outputs[partition] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(files[partition])));
+            }
+        }
+
+        void write(GroupedValue value) throws IOException {
+            // each level hashes differently, so that a partition is split when it is spilled again
+            int hash = Hashing.murmur3_32(depth).hashString(value.groupId.getValue(), StandardCharsets.UTF_8).asInt();
+            DataOutputStream output = outputs[Math.floorMod(hash, SPILL_PARTITIONS)];
+            output.writeUTF(value.groupId.getValue());
+            writeNumber(output, value.value);
+        }
+
+        void close() throws IOException {
+            for (DataOutputStream output : outputs) output.close();
+        }
+
+        /**
+         * @return the values spilled to the partition, whose file is closed once they are all read or the spill is deleted
+         */
+        Iterator<GroupedValue> read(int partition) throws IOException {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(files[partition])));
+            inputs[partition] = input;
+            return new AbstractIterator<GroupedValue>() {
+                @Override
+                protected GroupedValue computeNext() {
+                    try {
+                        String groupId;
+                        try {
+                            groupId = input.readUTF();
+                        } catch (EOFException e) {
+                            input.close();
+                            return endOfData();
+                        }
+                        return new GroupedValue(ConceptId.of(groupId), null, readNumber(input));
+                    } catch (IOException e) {
+                        throw GraqlQueryException.groupSpillFailed(method, e);
+                    }
+                }
+            };
+        }
+
+        void delete() {
+            for (int partition = 0; partition < SPILL_PARTITIONS; partition++) {
+                try {
+                    if (outputs[partition] != null) outputs[partition].close();
+                    if (inputs[partition] != null) inputs[partition].close();
+                    if (files[partition] != null) Files.deleteIfExists(files[partition]);
+                } catch (IOException e) {
+                    if (files[partition] != null) files[partition].toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    private static void writeNumber(DataOutputStream output, @Nullable Number value) throws IOException {
+        if (value == null) {
+            output.writeByte(0);
+        } else if (value instanceof Long) {
+            output.writeByte(1);
+            output.writeLong(value.longValue());
+        } else if (value instanceof Integer) {
+            output.writeByte(2);
+            output.writeInt(value.intValue());
+        } else if (value instanceof Float) {
+            output.writeByte(3);
+            output.writeFloat(value.floatValue());
+        } else {
+            output.writeByte(4);
+            output.writeDouble(value.doubleValue());
+        }
+    }
+
+    @Nullable
+    private static Number readNumber(DataInputStream input) throws IOException {
+        switch (input.readByte()) {
+            case 0:
+                return null;
+            case 1:
+                return input.readLong();
+            case 2:
+                return input.readInt();
+            case 3:
+                return input.readFloat();
+            default:
+                return input.readDouble();
+        }
+    }
+
+    /**
+     * The running state of an aggregate over the values of a group, producing the same result as AggregateExecutor
+     */
+    private interface Accumulator {
+        void add(@Nullable Number value);
+
+        List<Numeric> result();
+    }
+
+    private static class Count implements Accumulator {
+        private long count = 0;
+
+        @Override
+        public void add(@Nullable Number value) {
+            count++;
+        }
+
+        @Override
+        public List<Numeric> result() {
+            return Collections.singletonList(new Numeric(count));
+        }
+    }
+
+    private static class Sum implements Accumulator {
+        private Number sum = null;
+
+        @Override
+        public void add(@Nullable Number value) {
+            sum = AggregateExecutor.addNumbers(sum, value);
+        }
+
+        @Override
+        public List<Numeric> result() {
+            return sum == null ? Collections.emptyList() : Collections.singletonList(new Numeric(sum));
+        }
+    }
+
+    private static class Extremum implements Accumulator {
+        private final AggregateExecutor.PrimitiveNumberComparator comparator = new AggregateExecutor.PrimitiveNumberComparator();
+        private final boolean max;
+        private Number extremum = null;
+
+        Extremum(boolean max) {
+            this.max = max;
+        }
+
+        @Override
+        public void add(@Nullable Number value) {
+            if (extremum == null) {
+                extremum = value;
+            } else {
+                int comparison = comparator.compare(value, extremum);
+                if (max ? comparison > 0 : comparison < 0) extremum = value;
+            }
+        }
+
+        @Override
+        public List<Numeric> result() {
+            return extremum == null ? Collections.emptyList() : Collections.singletonList(new Numeric(extremum));
+        }
+    }
+
+    private static class Mean implements Accumulator {
+        private final DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+
+        @Override
+        public void add(@Nullable Number value) {
+            statistics.accept(value.doubleValue());
+        }
+
+        @Override
+        public List<Numeric> result() {
+            if (statistics.getCount() == 0) return Collections.emptyList();
+            return Collections.singletonList(new Numeric(statistics.getAverage()));
+        }
+    }
+
+    /**
+     * The median needs all of the values of a group, but only the values rather than the answers are kept
+     */
+    private static class Median implements Accumulator {
+        private final AggregateExecutor.MedianFinder medianFinder = new AggregateExecutor.MedianFinder();
+
+        @Override
+        public void add(@Nullable Number value) {
+            medianFinder.addNum(value);
+        }
+
+        @Override
+        public List<Numeric> result() {
+            Number median = medianFinder.findMedian();
+            return median == null ? Collections.emptyList() : Collections.singletonList(new Numeric(median));
+        }
+    }
+
+    /**
+     * Online algorithm to calculate unbiased sample standard deviation, as AggregateExecutor#std
+     */
+    private static class Std implements Accumulator {
+        private long n = 0;
+        private double mean = 0d;
+        private double M2 = 0d;
+
+        @Override
+        public void add(@Nullable Number value) {
+            double x = value.doubleValue();
+            n += 1;
+            double delta = x - mean;
+            mean += delta / (double) n;
+            double delta2 = x - mean;
+            M2 += delta * delta2;
+        }
+
+        @Override
+        public List<Numeric> result() {
+            if (n < 2) return Collections.emptyList();
+            return Collections.singletonList(new Numeric(sqrt(M2 / (double) (n - 1))));
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Sets;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.exception.GraqlQueryException;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.pattern.Disjunction;
+import graql.lang.pattern.Pattern;
+import graql.lang.query.MatchClause;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+
+/**
+ * Resolves the disjuncts of a match clause in parallel, each in a read transaction of its own opened by a worker of the
+ * keyspace, merging their answers in the order they arrive.
+ * <p>
+ * A transaction is bound to the thread that opened it, and the concepts, caches and resolution states of a transaction
+ * are not safe to share between threads, so the disjuncts cannot be resolved by several threads in the transaction of
+ * the query. Workers therefore pass the answers back as concept ids, which are looked up in the transaction of the query.
+ * Inferred concepts only exist in the transaction that inferred them, so a disjunct with an answer binding one is
+ * resolved again in the transaction of the query once the workers are done. Answers of a disjunct already passed back
+ * are then repeated, and removed by the distinct of the query.
+ * <p>
+ * The transactions of the workers read the keyspace as committed, so only read transactions, which hold no changes of
+ * their own, resolve their disjuncts in parallel. The workers open their transactions when they start, so they may
+ * read commits made since the transaction of the query was opened. Answers carry no explanations, so queries to be
+ * explained do not either.
+ * <p>
+ * The answers of the workers are queued until they are consumed, in a bounded queue which workers wait on once it is
+ * full. Workers stop, and their queued answers are dropped, when the answer stream is closed, when it fails or when
+ * the transaction of the query is closed.
+ */
+public class ParallelResolver {
+
+    static final int QUEUE_CAPACITY = 1024;
+    // how long a worker waits on a full queue before checking whether it is cancelled
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final Session session;
+    private final Transaction tx;
+    private final ConceptManager conceptManager;
+    private final ExecutorService workers;
+    private final Set<Cancellation> running = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param tx      the transaction the resolved answers are consumed in
+     * @param workers the workers of the keyspace, which resolve disjuncts in transactions of the session
+     */
+    public ParallelResolver(Session session, Transaction tx, ConceptManager conceptManager, ExecutorService workers) {
+        this.session = session;
+        this.tx = tx;
+        this.conceptManager = conceptManager;
+        this.workers = workers;
+    }
+
+    /**
+     * @param resolveLocally resolves a disjunct in the transaction of the query, for the disjuncts whose answers bind
+     *                       inferred concepts
+     * @return answers to the match clause over its variables, or null if it is not resolved in parallel
+     */
+    @Nullable
+    Stream<ConceptMap> resolve(MatchClause matchClause, Function<Conjunction<Pattern>, Stream<ConceptMap>> resolveLocally) {
+        if (!Transaction.Type.READ.equals(tx.type())) return null;
+        Disjunction<Conjunction<Pattern>> disjunction = matchClause.getPatterns().getNegationDNF();
+        // disjuncts are conjunctions, so the queries of the workers are never resolved in parallel themselves
+        if (disjunction.getPatterns().size() < 2) return null;
+
+        Set<Variable> bindingVars = matchClause.getPatterns().variables();
+        List<Conjunction<Pattern>> disjuncts = new ArrayList<>(disjunction.getPatterns());
+        Cancellation cancellation = new Cancellation(new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+        running.add(cancellation);
+        for (Conjunction<Pattern> disjunct : disjuncts) {
+            Set<Variable> vars = Sets.intersection(bindingVars, disjunct.variables()).immutableCopy();
+            cancellation.workers.add(workers.submit(() -> resolveDisjunct(disjunct, vars, cancellation)));
+        }
+
+        Iterator<ConceptMap> answers = new MergedAnswers(disjuncts.size(), cancellation, resolveLocally);
+        return StreamSupport.stream(spliteratorUnknownSize(answers, ORDERED), false)
+                .onClose(() -> cancel(cancellation));
+    }
+
+    /**
+     * Stops the workers still resolving disjuncts for the transaction, as it is closed
+     */
+    public void close() {
+        running.forEach(this::cancel);
+    }
+
+    private void cancel(Cancellation cancellation) {
+        cancellation.cancel();
+        running.remove(cancellation);
+    }
+
+    private void resolveDisjunct(Conjunction<Pattern> disjunct, Set<Variable> vars, Cancellation cancellation) {
+        if (cancellation.cancelled) return;
+        try (Transaction workerTx = session.transaction(Transaction.Type.READ)) {
+            Iterator<ConceptMap> answers = workerTx.stream(Graql.match(disjunct).get(vars), true).iterator();
+            while (answers.hasNext() && !cancellation.cancelled) {
+                Map<Variable, ConceptId> ids = new HashMap<>();
+                for (Map.Entry<Variable, Concept> entry : answers.next().map().entrySet()) {
+                    Concept concept = entry.getValue();
+                    if (concept.isThing() && concept.asThing().isInferred()) {
+                        cancellation.put(Result.resolveLocally(disjunct));
+                        return;
+                    }
+                    ids.put(entry.getKey(), concept.id());
+                }
+                cancellation.put(Result.answer(ids));
+            }
+        } catch (RuntimeException e) {
+            cancellation.put(Result.failure(e));
+        } finally {
+            cancellation.put(Result.done());
+        }
+    }
+
+    private class MergedAnswers extends AbstractIterator<ConceptMap> {
+        private final Cancellation cancellation;
+        private final Function<Conjunction<Pattern>, Stream<ConceptMap>> resolveLocally;
+        private final LinkedList<Conjunction<Pattern>> localDisjuncts = new LinkedList<>();
+        private Iterator<ConceptMap> localAnswers = Collections.emptyIterator();
+        private int workersRunning;
+
+        MergedAnswers(int workersRunning, Cancellation cancellation, Function<Conjunction<Pattern>, Stream<ConceptMap>> resolveLocally) {
+            this.workersRunning = workersRunning;
+            this.cancellation = cancellation;
+            this.resolveLocally = resolveLocally;
+        }
+
+        @Override
+        protected ConceptMap computeNext() {
+            while (workersRunning > 0) {
+                Result result = take();
+                if (result.done) {
+                    workersRunning--;
+                } else if (result.failure != null) {
+                    // the answers are incomplete, so the other workers are stopped rather than left to fill the queue
+                    cancel(cancellation);
+                    throw result.failure;
+                } else if (result.localDisjunct != null) {
+                    localDisjuncts.add(result.localDisjunct);
+                } else {
+                    ConceptMap answer = toAnswer(result.answer);
+                    if (answer != null) return answer;
+                }
+            }
+            running.remove(cancellation);
+            while (!localAnswers.hasNext() && !localDisjuncts.isEmpty()) {
+                localAnswers = resolveLocally.apply(localDisjuncts.removeFirst()).iterator();
+            }
+            return localAnswers.hasNext() ? localAnswers.next() : endOfData();
+        }
+
+        private Result take() {
+            try {
+                Result result;
+                do {
+                    // workers cancelled before they started never report they are done
+                    if (cancellation.cancelled) throw GraqlQueryException.parallelResolutionCancelled();
+                    result = cancellation.results.poll(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } while (result == null);
+                return result;
+            } catch (InterruptedException e) {
+                cancel(cancellation);
+                Thread.currentThread().interrupt();
+                throw GraqlQueryException.parallelResolutionInterrupted(e);
+            }
+        }
+
+        /**
+         * @return the answer in the transaction of the query, null if a concept of it has been deleted since
+         */
+        @Nullable
+        private ConceptMap toAnswer(Map<Variable, ConceptId> ids) {
+            Map<Variable, Concept> map = new HashMap<>();
+            for (Map.Entry<Variable, ConceptId> entry : ids.entrySet()) {
+                Concept concept = conceptManager.getConcept(entry.getValue());
+                if (concept == null) return null;
+                map.put(entry.getKey(), concept);
+            }
+            return new ConceptMap(map);
+        }
+    }
+
+    /**
+     * The state the workers resolving the disjuncts of a query share with the stream of its answers
+     */
+    private static class Cancellation {
+        private final BlockingQueue<Result> results;
+        private final List<Future<?>> workers = new CopyOnWriteArrayList<>();
+        private volatile boolean cancelled = false;
+
+        Cancellation(BlockingQueue<Result> results) {
+            this.results = results;
+        }
+
+        /**
+         * Queues a result, waiting while the queue is full, unless the workers are cancelled meanwhile
+         */
+        void put(Result result) {
+            try {
+                while (!cancelled) {
+                    if (results.offer(result, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Stops the workers, removing those not started yet, and drops the results queued, so that workers waiting on
+         * the queue return
+         */
+        void cancel() {
+            cancelled = true;
+            workers.forEach(worker -> worker.cancel(false));
+            results.clear();
+        }
+    }
+
+    private static class Result {
+        private final Map<Variable, ConceptId> answer;
+        private final Conjunction<Pattern> localDisjunct;
+        private final RuntimeException failure;
+        private final boolean done;
+
+        private Result(@Nullable Map<Variable, ConceptId> answer, @Nullable Conjunction<Pattern> localDisjunct,
+                       @Nullable RuntimeException failure, boolean done) {
+            this.answer = answer;
+            this.localDisjunct = localDisjunct;
+            this.failure = failure;
+            this.done = done;
+        }
+
+        static Result answer(Map<Variable, ConceptId> answer) {
+            return new Result(answer, null, null, false);
+        }
+
+        static Result resolveLocally(Conjunction<Pattern> disjunct) {
+            return new Result(null, disjunct, null, false);
+        }
+
+        static Result failure(RuntimeException failure) {
+            return new Result(null, null, failure, false);
+        }
+
+        static Result done() {
+            return new Result(null, null, null, true);
+        }
+    }
+}
@@ -19,26 +19,43 @@
 package grakn.core.graql.executor;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import grakn.core.concept.answer.Answer;
 import grakn.core.concept.answer.AnswerGroup;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.Numeric;
 import grakn.core.concept.answer.Void;
+import grakn.core.core.Schema;
 import grakn.core.graql.executor.property.PropertyExecutorFactoryImpl;
+import grakn.core.graql.planning.gremlin.fragment.InSubFragment;
+import grakn.core.graql.planning.gremlin.fragment.LabelFragment;
+import grakn.core.graql.planning.gremlin.fragment.OutSubFragment;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
 import grakn.core.graql.reasoner.query.ResolvableQuery;
+import grakn.core.kb.concept.api.Attribute;
+import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.exception.GraqlSemanticException;
 import grakn.core.kb.graql.executor.QueryExecutor;
 import grakn.core.kb.graql.executor.property.PropertyExecutor;
 import grakn.core.kb.graql.executor.property.PropertyExecutorFactory;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import grakn.core.kb.graql.planning.gremlin.GraqlTraversal;
+import grakn.core.kb.graql.planning.gremlin.TraversalPlanFactory;
 import grakn.core.kb.graql.reasoner.ReasonerCheckedException;
 import grakn.core.kb.server.cache.ExplanationCache;
 import graql.lang.Graql;
 import graql.lang.pattern.Conjunction;
 import graql.lang.pattern.Disjunction;
 import graql.lang.pattern.Pattern;
+import graql.lang.property.HasAttributeProperty;
+import graql.lang.property.IsaProperty;
 import graql.lang.property.NeqProperty;
 import graql.lang.property.ValueProperty;
 import graql.lang.property.VarProperty;
@@ -54,13 +71,19 @@ import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collector;
@@ -80,14 +103,34 @@ public class QueryExecutorImpl implements QueryExecutor {
     private ExplanationCache explanationCache;
     private final boolean infer;
     private ReasonerQueryFactory reasonerQueryFactory;
+    private final TraversalPlanFactory traversalPlanFactory;
+    private final TypeAggregateExecutor typeAggregateExecutor;
+    private final int maxGroupsInMemory;
+    private final Path groupSpillDirectory;
+    private final int writeChunkSize;
+    private final ParallelResolver parallelResolver;
+    private final boolean inferredFactsStored;
     private final PropertyExecutorFactory propertyExecutorFactory;
+    // attributes probed in order of value per answer wanted, before the rest of the answers are matched at once
+    private static final int PROBES_PER_ANSWER = 4;
+    private static final int MIN_PROBES = 16;
     private static final Logger LOG = LoggerFactory.getLogger(QueryExecutorImpl.class);
 
-    QueryExecutorImpl(ConceptManager conceptManager, ReasonerQueryFactory reasonerQueryFactory, ExplanationCache explanationCache, boolean infer) {
+    QueryExecutorImpl(ConceptManager conceptManager, ReasonerQueryFactory reasonerQueryFactory,
+                      TraversalPlanFactory traversalPlanFactory, ExplanationCache explanationCache, TypeAggregateExecutor typeAggregateExecutor, int maxGroupsInMemory,
+                      @Nullable Path groupSpillDirectory, int writeChunkSize,
+                      @Nullable ParallelResolver parallelResolver, boolean inferredFactsStored, boolean infer) {
         this.conceptManager = conceptManager;
         this.explanationCache = explanationCache;
         this.infer = infer;
         this.reasonerQueryFactory = reasonerQueryFactory;
+        this.traversalPlanFactory = traversalPlanFactory;
+        this.typeAggregateExecutor = typeAggregateExecutor;
+        this.maxGroupsInMemory = maxGroupsInMemory;
+        this.groupSpillDirectory = groupSpillDirectory;
+        this.writeChunkSize = writeChunkSize;
+        this.parallelResolver = parallelResolver;
+        this.inferredFactsStored = inferredFactsStored;
         propertyExecutorFactory = new PropertyExecutorFactoryImpl();
     }
 
@@ -103,7 +146,11 @@ public class QueryExecutorImpl implements QueryExecutor {
             Disjunction<Conjunction<Pattern>> disjunction = matchClause.getPatterns().getNegationDNF();
             ResolvableQuery resolvableQuery = reasonerQueryFactory.resolvable(disjunction, bindingVars);
 
-            return resolvableQuery.resolve(infer);
+            Stream<ConceptMap> answers = resolvableQuery.resolve(infer);
+            if (!infer && inferredFactsStored) {
+                answers = answers.filter(answer -> !bindsInferredFacts(answer, disjunction));
+            }
+            return answers;
         } catch (ReasonerCheckedException e) {
             LOG.debug(e.getMessage());
             answerStream = Stream.empty();
@@ -112,6 +159,31 @@ public class QueryExecutorImpl implements QueryExecutor {
         return answerStream;
     }
 
+    /**
+     * @return true if the answer binds an inferred instance, or an owner and attribute whose ownership the pattern
+     * requires and which is inferred
+     */
+    private static boolean bindsInferredFacts(ConceptMap answer, Disjunction<Conjunction<Pattern>> disjunction) {
+        for (Concept concept : answer.concepts()) {
+            if (concept.isThing() && concept.asThing().isInferred()) return true;
+        }
+        for (Conjunction<Pattern> conjunction : disjunction.getPatterns()) {
+            for (Statement statement : conjunction.statements()) {
+                Variable ownerVar = statement.var();
+                for (HasAttributeProperty has : statement.getProperties(HasAttributeProperty.class).collect(toList())) {
+                    Variable attributeVar = has.attribute().var();
+                    if (!answer.containsVar(ownerVar) || !answer.containsVar(attributeVar)) continue;
+                    Concept owner = answer.get(ownerVar);
+                    Concept attribute = answer.get(attributeVar);
+                    if (owner.isThing() && attribute.isAttribute() && owner.asThing().isOwnershipInferred(attribute.asAttribute())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     //TODO this should go into MatchClause
     private void validateClause(MatchClause matchClause) {
 
@@ -201,9 +273,15 @@ public class QueryExecutorImpl implements QueryExecutor {
             projectedVars.retainAll(insertVars);
 
             Stream<ConceptMap> answers = get(match.get(projectedVars), explain);
-            answerStream = answers
-                    .flatMap(answer -> WriteExecutorImpl.create(conceptManager, executors.build()).write(answer))
-                    .collect(toList()).stream();
+            if (writeChunkSize > 0 && !explain) {
+                AnswerSnapshot inserted = new AnswerSnapshot();
+                writeInChunks(AnswerSnapshot.of(answers), executors.build(), inserted);
+                answerStream = inserted.chunks(writeChunkSize, this::getConcept).flatMap(List::stream);
+            } else {
+                answerStream = answers
+                        .flatMap(answer -> WriteExecutorImpl.create(conceptManager, executors.build()).write(answer))
+                        .collect(toList()).stream();
+            }
         } else {
             answerStream = WriteExecutorImpl.create(conceptManager, executors.build()).write();
         }
@@ -225,17 +303,51 @@ public class QueryExecutorImpl implements QueryExecutor {
         }
 
         // note: NOT lazy, to avoid modifying the stream while reading
-        List<ConceptMap> toDelete = get(query.match().get()).collect(toList());
-        toDelete.forEach(answer -> {
-            WriteExecutorImpl.create(conceptManager, executors.build()).write(answer);
-        });
+        int deleted;
+        if (writeChunkSize > 0) {
+            AnswerSnapshot toDelete = AnswerSnapshot.of(get(query.match().get()));
+            writeInChunks(toDelete, executors.build(), null);
+            deleted = toDelete.size();
+        } else {
+            List<ConceptMap> toDelete = get(query.match().get()).collect(toList());
+            toDelete.forEach(answer -> {
+                WriteExecutorImpl.create(conceptManager, executors.build()).write(answer);
+            });
+            deleted = toDelete.size();
+        }
 
         // if we deleted anything, we clear the explanation cache
-        if (toDelete.size() > 0) {
+        if (deleted > 0) {
             explanationCache.clear();
         }
 
-        return new Void(String.format("Deleted facts from %s matched answers.", toDelete.size()));
+        return new Void(String.format("Deleted facts from %s matched answers.", deleted));
+    }
+
+    /**
+     * Writes the answers of the match of a write query a chunk at a time, rebuilding the concepts of each chunk from
+     * the snapshot, so that neither the answers matched nor the answers written are held as concepts all at once.
+     * Concepts deleted by the writes are kept, as later answers may refer to them and the writers expect them as they
+     * were matched.
+     *
+     * @param written the snapshot to add the answers written to, null if they are not returned
+     */
+    private void writeInChunks(AnswerSnapshot matched, ImmutableSet<PropertyExecutor.Writer> writers, @Nullable AnswerSnapshot written) {
+        Map<Long, Concept> deleted = new HashMap<>();
+        matched.chunks(writeChunkSize, vertexId -> deleted.containsKey(vertexId) ? deleted.get(vertexId) : getConcept(vertexId))
+                .forEach(chunk -> {
+                    for (ConceptMap answer : chunk) {
+                        Stream<ConceptMap> answers = WriteExecutorImpl.create(conceptManager, writers).write(answer);
+                        if (written != null) answers.forEach(written::add);
+                        answer.map().values().stream()
+                                .filter(Concept::isDeleted)
+                                .forEach(concept -> deleted.put(AnswerSnapshot.vertexId(concept), concept));
+                    }
+                });
+    }
+
+    private Concept getConcept(long vertexId) {
+        return conceptManager.getConcept(Schema.conceptIdFromVertexId(vertexId));
     }
 
     @Override
@@ -276,12 +388,13 @@ public class QueryExecutorImpl implements QueryExecutor {
 
     @Override
     public Stream<ConceptMap> get(GraqlGet query, boolean explain) {
-        //NB: we need distinct as projection can produce duplicates
-        Stream<ConceptMap> answers = match(query.match())
-                .map(ans -> ans.project(query.vars()))
-                .distinct();
-
-        answers = filter(query, answers);
+        Stream<ConceptMap> answers = orderedByIndex(query);
+        if (answers == null && !explain) {
+            answers = resolvedInParallel(query);
+        }
+        if (answers == null) {
+            answers = filter(query, project(query, query.match()));
+        }
         if (explain) {
             // record the explanations if the user indicated they will retrieved them
             answers = answers.peek(answer -> explanationCache.record(answer, answer.explanation()));
@@ -292,8 +405,157 @@ public class QueryExecutorImpl implements QueryExecutor {
         return answers;
     }
 
+    /**
+     * @return answers to the query with the disjuncts of its match resolved in parallel, or null if they are not
+     */
+    @Nullable
+    private Stream<ConceptMap> resolvedInParallel(GraqlGet query) {
+        if (parallelResolver == null || !infer) return null;
+        validateClause(query.match());
+        Stream<ConceptMap> answers = parallelResolver.resolve(query.match(), disjunct -> match(Graql.match(disjunct)));
+        if (answers == null) return null;
+        //NB: we need distinct as projection can produce duplicates, as can disjuncts resolved again locally
+        return filter(query, answers.map(ans -> ans.project(query.vars())).distinct());
+    }
+
+    private Stream<ConceptMap> project(GraqlGet query, MatchClause matchClause) {
+        //NB: we need distinct as projection can produce duplicates
+        return match(matchClause)
+                .map(ans -> ans.project(query.vars()))
+                .distinct();
+    }
+
+    /**
+     * Answers a query sorted in increasing order of an attribute and limited, by reading the attributes its variable may
+     * be in order of value from the ordered index and matching the query for one of them at a time, until enough answers
+     * are found. Only the answers with the lowest values are matched, rather than all answers being matched and sorted.
+     * If the attributes read first have too few answers, the answers with the other attributes are matched all at once
+     * and the lowest of them kept, so that the number of attributes probed one at a time is bounded.
+     * <p>
+     * Each probe matches the query from a single attribute, so it is only pushed down if the planner would start the
+     * query from the attributes anyway: otherwise the rest of the query is more selective, and matching it once is
+     * cheaper than matching it from every attribute probed.
+     * <p>
+     * Slices of the ordered index are only read in increasing order, so a decreasing order is not pushed down.
+     *
+     * @return the answers, or null if the query cannot be answered in order of the ordered index
+     */
+    @Nullable
+    private Stream<ConceptMap> orderedByIndex(GraqlGet query) {
+        if (!query.sort().isPresent() || !query.limit().isPresent()) return null;
+        if (query.sort().get().order() == Graql.Token.Order.DESC) return null;
+
+        Variable var = query.sort().get().var();
+        Disjunction<Conjunction<Pattern>> disjunction = query.match().getPatterns().getNegationDNF();
+        if (disjunction.getPatterns().size() != 1) return null;
+        Conjunction<Pattern> conjunction = Iterables.getOnlyElement(disjunction.getPatterns());
+        AttributeType<?> attributeType = sortedAttributeType(var, conjunction);
+        if (attributeType == null || !isPlannedFrom(var, conjunction)) return null;
+
+        // strings are sorted ignoring case, which the ordered index does not
+        AttributeType.ValueType<?> valueType = attributeType.valueType();
+        if (valueType == null || valueType.equals(AttributeType.ValueType.STRING) || valueType.equals(AttributeType.ValueType.BOOLEAN)) {
+            return null;
+        }
+        List<AttributeType<?>> attributeTypes = attributeType.subs().collect(toList());
+        // inferred attributes are not in the index
+        if (infer && attributeTypes.stream().anyMatch(type -> type.thenRules().findFirst().isPresent())) return null;
+
+        List<Iterator<Attribute<?>>> attributesInOrder = new ArrayList<>();
+        for (AttributeType<?> type : attributeTypes) {
+            Stream<? extends Attribute<?>> attributes = conceptManager.getAttributesInOrder(type);
+            if (attributes == null) return null;
+            attributesInOrder.add(attributes.map(attribute -> (Attribute<?>) attribute).iterator());
+        }
+
+        long offset = query.offset().orElse(0L);
+        long wanted = offset + query.limit().get();
+        long maxProbes = PROBES_PER_ANSWER * wanted + MIN_PROBES;
+        return Stream.of(query).flatMap(q -> {
+            // the attribute types share a value type, so their values are comparable
+            @SuppressWarnings("unchecked")
+            Comparator<Attribute<?>> byValue = (attribute1, attribute2) ->
+                    ((Comparable<Object>) attribute1.value()).compareTo(attribute2.value());
+            Iterator<Attribute<?>> attributes = Iterators.mergeSorted(attributesInOrder, byValue);
+
+            List<ConceptMap> answers = new ArrayList<>();
+            Set<ConceptId> probed = new HashSet<>();
+            while (attributes.hasNext() && answers.size() < wanted) {
+                if (probed.size() >= maxProbes) {
+                    // the values of the attributes not probed yet are not lower than those of the attributes probed
+                    Stream<ConceptMap> rest = project(query, query.match())
+                            .filter(answer -> !probed.contains(answer.get(var).id()));
+                    answers.addAll(topK(rest, sortComparator(query), wanted - answers.size()));
+                    break;
+                }
+                Attribute<?> attribute = attributes.next();
+                probed.add(attribute.id());
+                Pattern probe = Graql.and(query.match().getPatterns(), new Statement(var).id(attribute.id().getValue()));
+                // the answers of different probes differ in the attribute, so they are distinct from each other
+                project(query, Graql.match(probe))
+                        .limit(wanted - answers.size())
+                        .forEach(answers::add);
+            }
+            return answers.stream().skip(offset);
+        });
+    }
+
+    /**
+     * @return true if the plan of the statements of the conjunction reaches the variable before any other instance,
+     * i.e. it only looks up the types of the variable first
+     */
+    private boolean isPlannedFrom(Variable var, Conjunction<Pattern> conjunction) {
+        Set<Statement> statements = conjunction.getPatterns().stream()
+                .filter(pattern -> pattern instanceof Statement)
+                .map(pattern -> (Statement) pattern)
+                .collect(Collectors.toSet());
+        GraqlTraversal traversal = traversalPlanFactory.createTraversal(Graql.and(statements));
+        if (traversal.fragments().size() != 1) return false;
+
+        Set<Variable> typeVars = new HashSet<>();
+        for (Fragment fragment : Iterables.getOnlyElement(traversal.fragments())) {
+            if (fragment instanceof LabelFragment) {
+                typeVars.add(fragment.start());
+            } else if ((fragment instanceof InSubFragment || fragment instanceof OutSubFragment) && typeVars.contains(fragment.start())) {
+                typeVars.add(fragment.end());
+            } else {
+                return fragment.vars().contains(var)
+                        && fragment.vars().stream().allMatch(v -> v.equals(var) || typeVars.contains(v));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the attribute type a variable is constrained to by an `isa` or `has` statement of the conjunction, or
+     * null if it is not constrained to one
+     */
+    @Nullable
+    private AttributeType<?> sortedAttributeType(Variable var, Conjunction<Pattern> conjunction) {
+        String label = null;
+        for (Pattern pattern : conjunction.getPatterns()) {
+            if (!(pattern instanceof Statement)) continue;
+            Statement statement = (Statement) pattern;
+            if (statement.var().equals(var)) {
+                IsaProperty isa = statement.getProperty(IsaProperty.class).orElse(null);
+                if (isa != null && isa.type().getType().isPresent()) label = isa.type().getType().get();
+            }
+            for (HasAttributeProperty has : statement.getProperties(HasAttributeProperty.class).collect(toList())) {
+                if (has.attribute().var().equals(var)) label = has.type();
+            }
+            if (label != null) break;
+        }
+        if (label == null) return null;
+
+        SchemaConcept type = conceptManager.getSchemaConcept(Label.of(label));
+        return type != null && type.isAttributeType() ? type.asAttributeType() : null;
+    }
+
     @Override
     public Stream<Numeric> aggregate(GraqlGet.Aggregate query) {
+        List<Numeric> direct = typeAggregateExecutor.aggregate(query, infer);
+        if (direct != null) return direct.stream();
+
         Stream<ConceptMap> answers = get(query.query());
         switch (query.method()) {
             case COUNT:
@@ -322,9 +584,8 @@ public class QueryExecutorImpl implements QueryExecutor {
 
     @Override
     public Stream<AnswerGroup<Numeric>> get(GraqlGet.Group.Aggregate query) {
-        return get(get(query.group().query()), query.group().var(),
-                answers -> AggregateExecutor.aggregate(answers, query.method(), query.var())
-        ).stream();
+        GroupAggregator aggregator = new GroupAggregator(conceptManager, query.method(), query.var(), maxGroupsInMemory, groupSpillDirectory);
+        return aggregator.aggregate(get(query.group().query()), query.group().var()).stream();
     }
 
     private static <T extends Answer> List<AnswerGroup<T>> get(Stream<ConceptMap> answers, Variable groupVar,
@@ -339,22 +600,17 @@ public class QueryExecutorImpl implements QueryExecutor {
         return answerGroups;
     }
 
-    @SuppressWarnings("unchecked") // All attribute values are comparable value types
     private Stream<ConceptMap> filter(Filterable query, Stream<ConceptMap> answers) {
+        if (query.sort().isPresent() && query.limit().isPresent()) {
+            // only the answers up to the end of the limit need to be kept in order
+            Comparator<ConceptMap> comparator = sortComparator(query);
+            long offset = query.offset().orElse(0L);
+            long wanted = offset + query.limit().get();
+            Stream<ConceptMap> unsorted = answers;
+            return Stream.of(query).flatMap(q -> topK(unsorted, comparator, wanted).stream()).skip(offset);
+        }
         if (query.sort().isPresent()) {
-            Variable var = query.sort().get().var();
-            Comparator<ConceptMap> comparator = (map1, map2) -> {
-                Object val1 = map1.get(var).asAttribute().value();
-                Object val2 = map2.get(var).asAttribute().value();
-
-                if (val1 instanceof String) {
-                    return ((String) val1).compareToIgnoreCase((String) val2);
-                } else {
-                    return ((Comparable<? super Comparable>) val1).compareTo((Comparable<? super Comparable>) val2);
-                }
-            };
-            comparator = (query.sort().get().order() == Graql.Token.Order.DESC) ? comparator.reversed() : comparator;
-            answers = answers.sorted(comparator);
+            answers = answers.sorted(sortComparator(query));
         }
         if (query.offset().isPresent()) {
             answers = answers.skip(query.offset().get());
@@ -364,4 +620,59 @@ public class QueryExecutorImpl implements QueryExecutor {
         }
         return answers;
     }
+
+    @SuppressWarnings("unchecked") // All attribute values are comparable value types
+    private static Comparator<ConceptMap> sortComparator(Filterable query) {
+        Variable var = query.sort().get().var();
+        Comparator<ConceptMap> comparator = (map1, map2) -> {
+            Object val1 = map1.get(var).asAttribute().value();
+            Object val2 = map2.get(var).asAttribute().value();
+
+            if (val1 instanceof String) {
+                return ((String) val1).compareToIgnoreCase((String) val2);
+            } else {
+                return ((Comparable<? super Comparable>) val1).compareTo((Comparable<? super Comparable>) val2);
+            }
+        };
+        return (query.sort().get().order() == Graql.Token.Order.DESC) ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * Selects the first answers in the order of the comparator with a bounded heap holding the best answers seen so
+     * far, so that memory is bounded by the number of answers wanted and each answer costs a logarithm of it, rather
+     * than all answers being held and sorted. Equal answers keep the order they arrive in, as with a stable sort.
+     *
+     * @return the first answers in order
+     */
+    private static List<ConceptMap> topK(Stream<ConceptMap> answers, Comparator<ConceptMap> comparator, long wanted) {
+        if (wanted <= 0) return Collections.emptyList();
+        Comparator<RankedAnswer> order = Comparator.<RankedAnswer, ConceptMap>comparing(ranked -> ranked.answer, comparator)
+                .thenComparingLong(ranked -> ranked.arrival);
+        // the worst of the answers kept is at the head, to be replaced by a better one
+        PriorityQueue<RankedAnswer> heap = new PriorityQueue<>(order.reversed());
+
+        long arrival = 0;
+        Iterator<ConceptMap> iterator = answers.iterator();
+        while (iterator.hasNext()) {
+            ConceptMap answer = iterator.next();
+            // an answer equal to the worst kept arrived later, so it is worse
+            if (heap.size() >= wanted && comparator.compare(answer, heap.peek().answer) >= 0) continue;
+            heap.add(new RankedAnswer(answer, arrival++));
+            if (heap.size() > wanted) heap.poll();
+        }
+
+        List<RankedAnswer> ranked = new ArrayList<>(heap);
+        ranked.sort(order);
+        return ranked.stream().map(r -> r.answer).collect(toList());
+    }
+
+    private static class RankedAnswer {
+        private final ConceptMap answer;
+        private final long arrival;
+
+        RankedAnswer(ConceptMap answer, long arrival) {
+            this.answer = answer;
+            this.arrival = arrival;
+        }
+    }
 }
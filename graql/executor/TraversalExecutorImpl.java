@@ -34,7 +34,10 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -43,10 +46,17 @@ public class TraversalExecutorImpl implements TraversalExecutor {
 
     private TraversalPlanFactory traversalPlanFactory;
     private ConceptManager conceptManager;
+    // whether traversals are executed natively, rather than through Gremlin, whenever all their fragments allow it
+    private final boolean nativeTraversal;
 
     public TraversalExecutorImpl(TraversalPlanFactory traversalPlanFactory, ConceptManager conceptManager) {
+        this(traversalPlanFactory, conceptManager, false);
+    }
+
+    public TraversalExecutorImpl(TraversalPlanFactory traversalPlanFactory, ConceptManager conceptManager, boolean nativeTraversal) {
         this.traversalPlanFactory = traversalPlanFactory;
         this.conceptManager = conceptManager;
+        this.nativeTraversal = nativeTraversal;
     }
 
     @Override
@@ -60,6 +70,18 @@ public class TraversalExecutorImpl implements TraversalExecutor {
     @Override
     public Stream<ConceptMap> traverse(Conjunction<? extends Pattern> pattern, GraqlTraversal graqlTraversal) {
         Set<Variable> vars = Sets.filter(pattern.variables(), Variable::isReturned);
+        if (nativeTraversal) {
+            List<Variable> varList = new ArrayList<>(vars);
+            Stream<Vertex[]> bindings = graqlTraversal.nativeBindings(varList);
+            if (bindings != null) {
+                // answers are deduplicated on their vertices, so that concepts are only built for distinct answers
+                return bindings
+                        .map(Arrays::asList)
+                        .distinct()
+                        .map(vertices -> new ConceptMap(createAnswer(varList, vertices)));
+            }
+        }
+
         GraphTraversal<Vertex, Map<String, Vertex>> traversal = graqlTraversal.getGraphTraversal(vars);
 
         return traversal.toStream()
@@ -69,6 +91,21 @@ public class TraversalExecutorImpl implements TraversalExecutor {
                 .map(ConceptMap::new);
     }
 
+    /**
+     * @param vars     variables of interest
+     * @param vertices the vertices bound to the variables, in the same order
+     * @return a map of concepts where the key is the variable name
+     */
+    private Map<Variable, Concept> createAnswer(List<Variable> vars, List<Vertex> vertices) {
+        Map<Variable, Concept> map = new HashMap<>();
+        for (int i = 0; i < vars.size(); i++) {
+            Vertex vertex = vertices.get(i);
+            if (vertex == null) throw GraqlSemanticException.unexpectedResult(vars.get(i));
+            map.put(vars.get(i), conceptManager.buildConcept(vertex));
+        }
+        return map;
+    }
+
     /**
      * @param vars     set of variables of interest
      * @param elements a map of vertices and edges where the key is the variable name
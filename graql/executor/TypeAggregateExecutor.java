@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import grakn.core.concept.answer.Numeric;
+import grakn.core.core.Schema;
+import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.concept.api.Type;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import grakn.core.kb.keyspace.StatisticsDelta;
+import graql.lang.Graql;
+import graql.lang.pattern.Pattern;
+import graql.lang.property.IsaProperty;
+import graql.lang.query.GraqlGet;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates an aggregate over the instances of a type directly, when its query matches nothing but `$x isa <type>` and
+ * gets `$x`, so that no answers are resolved and no concepts are built for them. Counts are taken from the vertices of
+ * the instances or, where enabled, from the keyspace statistics, and numeric aggregates from the values stored on the
+ * vertices of the attributes.
+ * <p>
+ * The statistics are exact for the transaction once the changes it has made are added, but are shared by the keyspace,
+ * so they also include the transactions committed since it began. They are therefore only read when enabled.
+ * <p>
+ * Inferred instances are neither stored nor counted, so a query which infers is only evaluated directly if no rule
+ * concludes the types it aggregates.
+ */
+class TypeAggregateExecutor {
+
+    private static final Set<AttributeType.ValueType<?>> NUMERIC_VALUE_TYPES = ImmutableSet.of(
+            AttributeType.ValueType.DOUBLE, AttributeType.ValueType.FLOAT,
+            AttributeType.ValueType.INTEGER, AttributeType.ValueType.LONG
+    );
+
+    private final ConceptManager conceptManager;
+    private final KeyspaceStatistics keyspaceStatistics;
+    private final StatisticsDelta statisticsDelta;
+    private final boolean statisticsCount;
+
+    /**
+     * @param statisticsDelta the changes the transaction has made to the statistics, only read if statisticsCount
+     * @param statisticsCount whether counts are read from the statistics rather than counted from the vertices
+     */
+    TypeAggregateExecutor(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics,
+                          @Nullable StatisticsDelta statisticsDelta, boolean statisticsCount) {
+        if (statisticsCount && statisticsDelta == null) {
+            throw new IllegalArgumentException("Counting from the statistics requires the changes of the transaction to them");
+        }
+        this.conceptManager = conceptManager;
+        this.keyspaceStatistics = keyspaceStatistics;
+        this.statisticsDelta = statisticsDelta;
+        this.statisticsCount = statisticsCount;
+    }
+
+    /**
+     * @return the result of the aggregate, or null if its query cannot be evaluated directly
+     */
+    @Nullable
+    List<Numeric> aggregate(GraqlGet.Aggregate query, boolean infer) {
+        GraqlGet get = query.query();
+        if (get.sort().isPresent() || get.offset().isPresent() || get.limit().isPresent()) return null;
+
+        Set<Pattern> patterns = get.match().getPatterns().getPatterns();
+        if (patterns.size() != 1 || !(Iterables.getOnlyElement(patterns) instanceof Statement)) return null;
+        Statement statement = (Statement) Iterables.getOnlyElement(patterns);
+        IsaProperty isa = statement.getProperty(IsaProperty.class).orElse(null);
+        if (statement.properties().size() != 1 || isa == null || !isa.type().getType().isPresent()) return null;
+
+        Variable var = statement.var();
+        if (!get.vars().equals(Collections.singleton(var))) return null;
+        boolean count = query.method() == Graql.Token.Aggregate.Method.COUNT;
+        if (!count && !var.equals(query.var())) return null;
+
+        SchemaConcept schemaConcept = conceptManager.getSchemaConcept(Label.of(isa.type().getType().get()));
+        if (schemaConcept == null || !schemaConcept.isType()) return null;
+        Type type = schemaConcept.asType();
+        List<Type> types = isa.isExplicit() ? Collections.singletonList(type) : type.subs().collect(Collectors.toList());
+        if (infer && types.stream().anyMatch(t -> t.thenRules().findFirst().isPresent())) return null;
+
+        if (count) {
+            return Collections.singletonList(new Numeric(count(types)));
+        }
+        if (!type.isAttributeType() || !NUMERIC_VALUE_TYPES.contains(type.asAttributeType().valueType())) return null;
+
+        Stream<Number> values = types.stream()
+                .flatMap(attributeType -> conceptManager.getValuesDirect(attributeType.asAttributeType()))
+                .map(value -> (Number) value);
+        return AggregateExecutor.aggregateValues(values, query.method());
+    }
+
+    private long count(List<Type> types) {
+        long count = 0;
+        for (Type type : types) {
+            if (!statisticsCount) {
+                count += conceptManager.countInstancesDirect(type);
+            } else if (!Schema.MetaSchema.isMetaLabel(type.label())) {
+                // the statistics of meta types count the instances of their subtypes, they have none of their own
+                count += keyspaceStatistics.count(conceptManager, type.label()) + statisticsDelta.delta(type.label());
+            }
+        }
+        return count;
+    }
+}
@@ -64,6 +64,16 @@ class ConjunctionQuery {
      * @param patternConjunction a pattern containing no disjunctions to find in the graph
      */
     ConjunctionQuery(Conjunction<Statement> patternConjunction, ConceptManager conceptManager, PropertyExecutorFactory propertyExecutorFactory) {
+        this(patternConjunction, conceptManager, propertyExecutorFactory, false, false);
+    }
+
+    /**
+     * @param patternConjunction a pattern containing no disjunctions to find in the graph
+     * @param orderedIndex       whether the ordered value index is enabled and built, so ranges of values can start it
+     * @param tokenIndex         whether the token value index is enabled and built, so substrings of values can start it
+     */
+    ConjunctionQuery(Conjunction<Statement> patternConjunction, ConceptManager conceptManager, PropertyExecutorFactory propertyExecutorFactory,
+                     boolean orderedIndex, boolean tokenIndex) {
         statements = patternConjunction.getPatterns();
         this.propertyExecutorFactory = propertyExecutorFactory;
 
@@ -99,7 +109,7 @@ class ConjunctionQuery {
                 .collect(toSet());
 
         // Apply final optimisations
-        EquivalentFragmentSets.optimiseFragmentSets(initialEquivalentFragmentSets, conceptManager);
+        EquivalentFragmentSets.optimiseFragmentSets(initialEquivalentFragmentSets, conceptManager, orderedIndex, tokenIndex);
 
         this.equivalentFragmentSets = ImmutableSet.copyOf(initialEquivalentFragmentSets);
     }
@@ -0,0 +1,367 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning;
+
+import com.google.common.collect.Sets;
+import grakn.core.core.Schema;
+import grakn.core.graql.planning.gremlin.fragment.InIsaFragment;
+import grakn.core.graql.planning.gremlin.fragment.InSubFragment;
+import grakn.core.graql.planning.gremlin.fragment.LabelFragment;
+import grakn.core.graql.planning.gremlin.fragment.OutIsaFragment;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Plans a conjunction by searching all the orders its fragments can be executed in, rather than committing to a single
+ * spanning tree, keeping the cheapest plan for each set of visited variables (dynamic programming over variable sets).
+ * <p>
+ * A plan grows from one set of visited variables to a larger one by applying a fragment that visits new variables,
+ * either continuing from a visited variable or restarting the traversal, after which every other fragment whose
+ * variables have all been visited is applied as a filter, most selective first. Each step costs the rows it reads
+ * plus the rows it produces, estimated from the keyspace statistics with Fragment#estimatedFanOut, unless a fan-out
+ * has been observed for the fragment, see KeyspaceStatistics#observedFanOut.
+ * <p>
+ * The number of variable sets is exponential in the number of variables, so this is only used for small conjunctions,
+ * and to re-plan the fragments left to execute when the executor observes the plan was based on wrong estimates.
+ */
+class DynamicProgrammingPlanner {
+
+    private final ConceptManager conceptManager;
+    private final KeyspaceStatistics keyspaceStatistics;
+    private final long thingCount;
+
+    private final Map<Variable, Set<Label>> varTypes = new HashMap<>();
+    private final Set<Variable> typeVars = new HashSet<>();
+    private final Map<Fragment, Double> fanOuts = new HashMap<>();
+
+    /**
+     * @param fragments the fragments of the conjunction, from which the types of its variables are inferred
+     */
+    DynamicProgrammingPlanner(Collection<? extends Fragment> fragments, ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        this.conceptManager = conceptManager;
+        this.keyspaceStatistics = keyspaceStatistics;
+        this.thingCount = Math.max(1, keyspaceStatistics.count(conceptManager, Schema.MetaSchema.THING.getLabel()));
+        inferVarTypes(fragments);
+    }
+
+    /**
+     * @param allFragments           the fragments of the conjunction, including the inferred ones
+     * @param equivalentFragmentSets the fragment sets of the conjunction, of which the plan must contain one fragment each
+     * @param maxVars                the largest number of vertex variables to plan exhaustively, 0 to never plan exhaustively
+     * @return the cheapest plan found, or null if the conjunction has more than maxVars vertex variables
+     */
+    @Nullable
+    static List<Fragment> plan(Set<Fragment> allFragments, Set<EquivalentFragmentSet> equivalentFragmentSets,
+                               ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, int maxVars) {
+        if (maxVars <= 0 || vertexVars(allFragments).size() > maxVars) return null;
+
+        List<Set<Fragment>> groups = new ArrayList<>();
+        equivalentFragmentSets.forEach(set -> groups.add(set.fragments()));
+        // inferred fragments are not part of any set, but are planned like the greedy plan does
+        Set<Fragment> grouped = groups.stream().flatMap(Set::stream).collect(Collectors.toSet());
+        allFragments.stream().filter(fragment -> !grouped.contains(fragment)).forEach(fragment -> groups.add(Collections.singleton(fragment)));
+
+        DynamicProgrammingPlanner planner = new DynamicProgrammingPlanner(allFragments, conceptManager, keyspaceStatistics);
+        return planner.new Search(groups, Collections.emptySet(), Collections.emptyMap()).run();
+    }
+
+    /**
+     * Plans the fragments of the conjunction left to execute, once the others have been executed
+     *
+     * @param remaining       the fragments left to execute
+     * @param visited         the variables visited by the executed fragments
+     * @param observedFanOuts fan-outs observed for some of the remaining fragments, which replace their estimates
+     * @param maxVars         the largest number of vertex variables left to visit to plan exhaustively
+     * @return the remaining fragments in the cheapest order found, or null if too many variables are left to visit
+     */
+    @Nullable
+    List<Fragment> replan(List<? extends Fragment> remaining, Set<Variable> visited, Map<Fragment, Double> observedFanOuts, int maxVars) {
+        if (Sets.difference(vertexVars(remaining), visited).size() > maxVars) return null;
+        List<Set<Fragment>> groups = remaining.stream().map(Collections::<Fragment>singleton).collect(Collectors.toList());
+        return new Search(groups, visited, observedFanOuts).run();
+    }
+
+    /**
+     * @return the estimated number of rows the fragment produces per row it reads, once the given variables are visited
+     */
+    double estimatedFanOut(Fragment fragment, Set<Variable> visited) {
+        return factor(fragment, fragment.end() != null && visited.contains(fragment.end()), Collections.emptyMap());
+    }
+
+    /**
+     * Records a fan-out observed executing the fragment into the keyspace statistics, to correct future estimates
+     */
+    void recordObservedFanOut(Fragment fragment, double fanOut) {
+        keyspaceStatistics.recordObservedFanOut(fanOutKey(fragment), fanOut);
+    }
+
+    /**
+     * @return the key of the fan-outs observed for the fragment: its shape and the types it starts from
+     */
+    private String fanOutKey(Fragment fragment) {
+        Set<Label> startTypes = varTypes.get(fragment.start());
+        String types = startTypes == null ? "" : startTypes.stream().map(Label::getValue).sorted().collect(Collectors.joining(","));
+        return fragment.shape() + "{" + types + "}";
+    }
+
+    /**
+     * @param endVisited whether the end of the fragment, if any, is visited already
+     * @return the number of rows the fragment produces per row it reads
+     */
+    private double factor(Fragment fragment, boolean endVisited, Map<Fragment, Double> observedFanOuts) {
+        Double fanOut = observedFanOuts.get(fragment);
+        if (fanOut == null) {
+            fanOut = fanOuts.computeIfAbsent(fragment, f -> {
+                Double observed = keyspaceStatistics.observedFanOut(fanOutKey(f));
+                return observed != null ? observed : f.estimatedFanOut(conceptManager, keyspaceStatistics, varTypes.get(f.start()));
+            });
+        }
+        // with the end visited already, the fragment only checks it is one of the elements it leads to
+        return endVisited ? Math.min(1D, fanOut / domainSize(fragment.end())) : fanOut;
+    }
+
+    /**
+     * @return the number of elements the variable may be bound to, according to its types
+     */
+    private double domainSize(Variable var) {
+        Set<Label> types = varTypes.get(var);
+        if (types == null) return thingCount;
+        if (typeVars.contains(var)) return Math.max(1, types.size());
+        return Math.max(1, types.stream().mapToLong(type -> Math.max(0, keyspaceStatistics.count(conceptManager, type))).sum());
+    }
+
+    /**
+     * Infers the types of variables from the labels, subs and isas of the conjunction, to look up their statistics
+     */
+    private void inferVarTypes(Collection<? extends Fragment> fragments) {
+        for (Fragment fragment : fragments) {
+            if (fragment instanceof LabelFragment) {
+                varTypes.put(fragment.start(), ((LabelFragment) fragment).labels());
+                typeVars.add(fragment.start());
+            }
+        }
+        boolean inferred = true;
+        while (inferred) {
+            inferred = false;
+            for (Fragment fragment : fragments) {
+                Variable start = fragment.start();
+                Variable end = fragment.end();
+                if (end == null) continue;
+                if (fragment instanceof InSubFragment && typeVars.contains(start) && !varTypes.containsKey(end)) {
+                    varTypes.put(end, varTypes.get(start).stream()
+                            .flatMap(label -> conceptManager.getSchemaConcept(label).subs())
+                            .map(SchemaConcept::label)
+                            .collect(Collectors.toSet()));
+                    typeVars.add(end);
+                    inferred = true;
+                } else if (fragment instanceof InIsaFragment && typeVars.contains(start) && !varTypes.containsKey(end)) {
+                    varTypes.put(end, varTypes.get(start));
+                    inferred = true;
+                } else if (fragment instanceof OutIsaFragment && typeVars.contains(end) && !varTypes.containsKey(start)) {
+                    varTypes.put(start, varTypes.get(end));
+                    inferred = true;
+                }
+            }
+        }
+    }
+
+    private static Set<Variable> vertexVars(Collection<? extends Fragment> fragments) {
+        Set<Variable> vertexVars = new HashSet<>();
+        for (Fragment fragment : fragments) {
+            vertexVars.add(fragment.start());
+            if (fragment.end() != null) vertexVars.add(fragment.end());
+        }
+        return vertexVars;
+    }
+
+    private static boolean isSubset(long vars, long visited) {
+        return (vars & ~visited) == 0;
+    }
+
+    /**
+     * The search for the cheapest plan containing a fragment of each group, from a set of variables visited already
+     */
+    private class Search {
+        private final List<Set<Fragment>> groups;
+        private final Map<Fragment, Integer> groupOf = new HashMap<>();
+        private final Map<Variable, Integer> varIndex = new HashMap<>();
+        private final Set<Variable> initiallyVisited;
+        private final Map<Fragment, Double> observedFanOuts;
+
+        Search(List<Set<Fragment>> groups, Set<Variable> initiallyVisited, Map<Fragment, Double> observedFanOuts) {
+            this.groups = groups;
+            this.initiallyVisited = initiallyVisited;
+            this.observedFanOuts = observedFanOuts;
+            for (int group = 0; group < groups.size(); group++) {
+                for (Fragment fragment : groups.get(group)) {
+                    groupOf.putIfAbsent(fragment, group);
+                    fragment.vars().forEach(var -> varIndex.putIfAbsent(var, varIndex.size()));
+                    fragment.dependencies().forEach(var -> varIndex.putIfAbsent(var, varIndex.size()));
+                }
+            }
+            initiallyVisited.forEach(var -> varIndex.putIfAbsent(var, varIndex.size()));
+        }
+
+        @Nullable
+        List<Fragment> run() {
+            // variable sets are bit sets
+            if (varIndex.size() >= Long.SIZE) return null;
+
+            long initial = mask(initiallyVisited);
+            long allVars = (1L << varIndex.size()) - 1;
+            Map<Long, SubPlan> best = new HashMap<>();
+            // fragments whose variables are all visited already are applied first
+            best.put(initial, withFilters(0D, 1D, new ArrayList<>(), 0L, initial, -1));
+
+            // plans only grow, so sub-plans are final once all smaller variable sets have been extended
+            List<Set<Long>> varSetsBySize = new ArrayList<>();
+            for (int size = 0; size <= varIndex.size(); size++) varSetsBySize.add(new LinkedHashSet<>());
+            varSetsBySize.get(Long.bitCount(initial)).add(initial);
+
+            for (Set<Long> varSets : varSetsBySize) {
+                for (long visited : varSets) {
+                    SubPlan subPlan = best.get(visited);
+                    for (Fragment fragment : groupOf.keySet()) {
+                        SubPlan extended = extend(subPlan, visited, fragment);
+                        if (extended == null) continue;
+                        long extendedVisited = visited | mask(fragment.vars());
+                        SubPlan previous = best.get(extendedVisited);
+                        if (previous == null || extended.cost < previous.cost) {
+                            best.put(extendedVisited, extended);
+                            varSetsBySize.get(Long.bitCount(extendedVisited)).add(extendedVisited);
+                        }
+                    }
+                }
+            }
+
+            SubPlan plan = best.get(allVars);
+            return plan != null ? plan.fragments : null;
+        }
+
+        /**
+         * @return the sub-plan extended with the fragment followed by the filters it enables, or null if the fragment
+         * does not visit new variables, its dependencies have not been visited or its group has been planned already
+         */
+        @Nullable
+        private SubPlan extend(SubPlan subPlan, long visited, Fragment fragment) {
+            long fragmentVars = mask(fragment.vars());
+            if (isSubset(fragmentVars, visited) || !isSubset(mask(fragment.dependencies()), visited)) return null;
+            if (isPlanned(groups.get(groupOf.get(fragment)), visited)) return null;
+
+            double cost = subPlan.cost;
+            double rows = subPlan.rows;
+            if (isSubset(mask(fragment.start()), visited)) {
+                double outRows = rows * factor(fragment, visited);
+                cost += rows + outRows;
+                rows = outRows;
+            } else if (fragment.hasFixedFragmentCost()) {
+                // restart from the index
+                rows *= fragment.estimatedStartCount(conceptManager, keyspaceStatistics);
+                cost += rows;
+            } else {
+                // restart from all vertices
+                rows *= thingCount;
+                double outRows = rows * factor(fragment, visited);
+                cost += rows + outRows;
+                rows = outRows;
+            }
+
+            List<Fragment> fragments = new ArrayList<>(subPlan.fragments);
+            fragments.add(fragment);
+            return withFilters(cost, rows, fragments, visited, visited | fragmentVars, groupOf.get(fragment));
+        }
+
+        /**
+         * @param planned the group of the fragment just planned, or -1
+         * @return the sub-plan extended with a fragment of each group that can be planned once the variables are
+         * visited but could not be before, most selective first
+         */
+        private SubPlan withFilters(double cost, double rows, List<Fragment> fragments, long visited, long extendedVisited, int planned) {
+            List<Fragment> filters = new ArrayList<>();
+            for (int group = 0; group < groups.size(); group++) {
+                if (group == planned || isPlanned(groups.get(group), visited)) continue;
+                groups.get(group).stream()
+                        .filter(filter -> isApplicable(filter, extendedVisited))
+                        .min(Comparator.comparingDouble(filter -> factor(filter, extendedVisited)))
+                        .ifPresent(filters::add);
+            }
+            filters.sort(Comparator.comparingDouble(filter -> factor(filter, extendedVisited)));
+
+            for (Fragment filter : filters) {
+                cost += rows;
+                rows *= factor(filter, extendedVisited);
+                fragments.add(filter);
+            }
+            return new SubPlan(cost, rows, fragments);
+        }
+
+        private double factor(Fragment fragment, long visited) {
+            Variable end = fragment.end();
+            return DynamicProgrammingPlanner.this.factor(fragment, end != null && isSubset(mask(end), visited), observedFanOuts);
+        }
+
+        private boolean isApplicable(Fragment fragment, long visited) {
+            return isSubset(mask(fragment.vars()), visited) && isSubset(mask(fragment.dependencies()), visited);
+        }
+
+        private boolean isPlanned(Set<Fragment> group, long visited) {
+            return group.stream().anyMatch(fragment -> isApplicable(fragment, visited));
+        }
+
+        private long mask(Variable var) {
+            return 1L << varIndex.get(var);
+        }
+
+        private long mask(Set<Variable> vars) {
+            long mask = 0;
+            for (Variable var : vars) mask |= mask(var);
+            return mask;
+        }
+    }
+
+    private static class SubPlan {
+        private final double cost;
+        private final double rows;
+        private final List<Fragment> fragments;
+
+        private SubPlan(double cost, double rows, List<Fragment> fragments) {
+            this.cost = cost;
+            this.rows = rows;
+            this.fragments = fragments;
+        }
+    }
+}
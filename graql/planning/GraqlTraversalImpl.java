@@ -22,12 +22,17 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import grakn.core.core.JanusTraversalSourceProvider;
+import grakn.core.graql.planning.gremlin.fragment.FragmentImpl;
+import grakn.core.graql.planning.gremlin.fragment.TokenIndexFragment;
+import grakn.core.graql.planning.gremlin.fragment.ValueFragment;
 import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.gremlin.Fragment;
 import grakn.core.kb.graql.planning.gremlin.GraqlTraversal;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -36,13 +41,16 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectStep;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 
@@ -56,6 +64,8 @@ public class GraqlTraversalImpl implements GraqlTraversal {
     private final ImmutableSet<ImmutableList<? extends Fragment>> fragments;
     private JanusTraversalSourceProvider janusTraversalSourceProvider;
     private ConceptManager conceptManager;
+    private KeyspaceStatistics keyspaceStatistics;
+    private int replanningDivergence;
 
     // Just a pretend big number
     private static final long NUM_VERTICES_ESTIMATE = 10_000;
@@ -64,8 +74,21 @@ public class GraqlTraversalImpl implements GraqlTraversal {
 
     GraqlTraversalImpl(JanusTraversalSourceProvider janusTraversalSourceProvider, ConceptManager conceptManager,
                        Set<List<? extends Fragment>> fragments) {
+        this(janusTraversalSourceProvider, conceptManager, null, 0, fragments);
+    }
+
+    /**
+     * @param keyspaceStatistics   statistics the fragments were planned with, null to never re-plan them
+     * @param replanningDivergence factor by which a fan-out observed natively executing a fragment must diverge from
+     *                             its estimate to re-plan the fragments after it, 0 to never re-plan, see NativeTraversal
+     */
+    GraqlTraversalImpl(JanusTraversalSourceProvider janusTraversalSourceProvider, ConceptManager conceptManager,
+                       @Nullable KeyspaceStatistics keyspaceStatistics, int replanningDivergence,
+                       Set<List<? extends Fragment>> fragments) {
         this.janusTraversalSourceProvider = janusTraversalSourceProvider;
         this.conceptManager = conceptManager;
+        this.keyspaceStatistics = keyspaceStatistics;
+        this.replanningDivergence = replanningDivergence;
         // copy the fragments
         this.fragments = fragments.stream().map(ImmutableList::copyOf).collect(ImmutableSet.toImmutableSet());
     }
@@ -86,10 +109,19 @@ public class GraqlTraversalImpl implements GraqlTraversal {
         if (fragments().size() == 1) {
             // If there are no disjunctions, we don't need to union them and get a performance boost
             ImmutableList<? extends Fragment> list = Iterables.getOnlyElement(fragments());
-            return getConjunctionTraversal(janusTraversalSourceProvider.getTinkerTraversal().V(), vars, list);
+            Iterator<Vertex> starts = indexedStarts(list);
+            // the traversal starts from a single vertex, which the vertices looked up replace as they are read
+            GraphTraversal<Vertex, Vertex> start = starts == null ? janusTraversalSourceProvider.getTinkerTraversal().V() :
+                    janusTraversalSourceProvider.getTinkerTraversal().V().limit(1).flatMap(traverser -> starts);
+            return getConjunctionTraversal(start, vars, list);
         } else {
             Traversal[] traversals = fragments().stream()
-                    .map(list -> getConjunctionTraversal(__.V(), vars, list))
+                    .map(list -> {
+                        Iterator<Vertex> starts = indexedStarts(list);
+                        // the union below starts from a single vertex, which the vertices looked up replace
+                        GraphTraversal<Vertex, Vertex> start = starts == null ? __.V() : __.<Vertex>start().flatMap(traverser -> starts);
+                        return getConjunctionTraversal(start, vars, list);
+                    })
                     .toArray(Traversal[]::new);
 
             // This is a sneaky trick - we want to do a union but tinkerpop requires all traversals to start from
@@ -100,6 +132,32 @@ public class GraqlTraversalImpl implements GraqlTraversal {
         }
     }
 
+    @Override
+    @Nullable
+    public Stream<Vertex[]> nativeBindings(List<Variable> vars) {
+        if (!fragments().stream().allMatch(NativeTraversal::supports)) return null;
+
+        NativeTraversal traversal = new NativeTraversal(janusTraversalSourceProvider.janusGraphTransaction(), conceptManager,
+                keyspaceStatistics, replanningDivergence);
+        return fragments().stream().flatMap(list -> traversal.bindings(list, vars));
+    }
+
+    /**
+     * Gremlin cannot look values up from the ordered or token value indexes, so a conjunction starting from a range or
+     * a substring of values starts from the vertices looked up from the index instead of from all vertices
+     *
+     * @return the vertices to start the conjunction from, looked up lazily, or null to start from all vertices
+     */
+    @Nullable
+    private Iterator<Vertex> indexedStarts(List<? extends Fragment> fragmentList) {
+        if (fragmentList.isEmpty()) return null;
+        Fragment first = fragmentList.get(0);
+        if (!(first instanceof ValueFragment || first instanceof TokenIndexFragment)) return null;
+        Iterator<? extends Element> starts = ((FragmentImpl) first)
+                .startNative(janusTraversalSourceProvider.janusGraphTransaction(), conceptManager);
+        return starts == null ? null : Iterators.filter(starts, Vertex.class);
+    }
+
     /**
      * @param transform map defining id transform var -> new id
      * @return graql traversal with concept id transformed according to the provided transform
@@ -109,7 +167,8 @@ public class GraqlTraversalImpl implements GraqlTraversal {
         ImmutableList<Fragment> fragments = ImmutableList.copyOf(
                 Iterables.getOnlyElement(fragments()).stream().map(f -> f.transform(transform)).collect(Collectors.toList())
         );
-        return new GraqlTraversalImpl(janusTraversalSourceProvider, conceptManager, ImmutableSet.of(fragments));
+        return new GraqlTraversalImpl(janusTraversalSourceProvider, conceptManager, keyspaceStatistics, replanningDivergence,
+                ImmutableSet.of(fragments));
     }
 
     /**
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
+import grakn.core.graql.planning.gremlin.fragment.Bindings;
+import grakn.core.graql.planning.gremlin.fragment.FragmentImpl;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Executes the fragments of a conjunction directly against the Janus transaction, without building a Gremlin traversal.
+ * <p>
+ * Each fragment extends the rows produced by the fragments before it, in the same order and with the same semantics
+ * as GraqlTraversalImpl#getGraphTraversal: a fragment whose start has been visited continues from the element bound to
+ * it, and a fragment whose start has not restarts from the vertices it may start from.
+ * Rows flow through the fragments in batches, so that the adjacency of a whole batch of start vertices is read with
+ * one query per fragment, see FragmentImpl#prefetchNative.
+ * <p>
+ * When re-planning is enabled, the rows a fragment produces from the first batch are counted before any later
+ * fragment runs. If that fan-out diverges from the estimate the plan was made with by more than the re-planning
+ * divergence, it is recorded in the keyspace statistics, and the fragments left to execute are re-planned with
+ * DynamicProgrammingPlanner, using fan-outs probed on a sample of the rows produced so far.
+ * A conjunction is re-planned at most once, and rows already produced are kept, so no answer is lost or repeated.
+ */
+class NativeTraversal {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NativeTraversal.class);
+
+    private static final int BATCH_SIZE = 64;
+    private static final int PROBE_ROWS = 16;
+    private static final int MAX_REPLANNED_VARS = 10;
+    private static final int MAX_SAMPLE_ROWS = 64 * 1024;
+
+    private final JanusGraphTransaction tx;
+    private final ConceptManager conceptManager;
+    private final KeyspaceStatistics keyspaceStatistics;
+    private final int replanningDivergence;
+
+    NativeTraversal(JanusGraphTransaction tx, ConceptManager conceptManager) {
+        this(tx, conceptManager, null, 0);
+    }
+
+    /**
+     * @param keyspaceStatistics   statistics the plan was made with, null to never re-plan
+     * @param replanningDivergence factor by which an observed fan-out must diverge from its estimate for the rest of
+     *                             the plan to be re-planned, 0 to never re-plan
+     */
+    NativeTraversal(JanusGraphTransaction tx, ConceptManager conceptManager,
+                    @Nullable KeyspaceStatistics keyspaceStatistics, int replanningDivergence) {
+        this.tx = tx;
+        this.conceptManager = conceptManager;
+        this.keyspaceStatistics = keyspaceStatistics;
+        this.replanningDivergence = replanningDivergence;
+    }
+
+    /**
+     * @return whether all the fragments can be executed natively, as every FragmentImpl can
+     */
+    static boolean supports(Collection<? extends Fragment> fragments) {
+        return fragments.stream().allMatch(fragment -> fragment instanceof FragmentImpl);
+    }
+
+    /**
+     * @param fragments the fragments of a conjunction, in order of execution
+     * @param vars      the variables to return
+     * @return the vertices bound to the variables, in the order of the variables, for every match of the conjunction.
+     * A variable the conjunction does not visit, or that is bound to an edge rather than a vertex, is returned as null.
+     */
+    Stream<Vertex[]> bindings(List<? extends Fragment> fragments, List<Variable> vars) {
+        Map<Variable, Integer> slots = new HashMap<>();
+        for (Fragment fragment : fragments) {
+            fragment.vars().forEach(var -> slots.putIfAbsent(var, slots.size()));
+            fragment.dependencies().forEach(var -> slots.putIfAbsent(var, slots.size()));
+        }
+
+        DynamicProgrammingPlanner planner = keyspaceStatistics != null && replanningDivergence > 0 ?
+                new DynamicProgrammingPlanner(fragments, conceptManager, keyspaceStatistics) : null;
+        Iterator<Bindings> rows = execute(fragments, new HashSet<>(), Iterators.singletonIterator(new Bindings(slots)), planner);
+
+        // whatever the order fragments are executed in, they visit the same variables
+        Set<Variable> visited = new HashSet<>();
+        fragments.forEach(fragment -> visited.addAll(fragment.vars()));
+
+        // role player fragments bind edges to their edge variables, which are never returned as concepts
+        Iterator<Vertex[]> answers = Iterators.transform(rows, row -> vars.stream()
+                .map(var -> visited.contains(var) ? row.get(var) : null)
+                .map(element -> element instanceof Vertex ? (Vertex) element : null)
+                .toArray(Vertex[]::new));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(answers, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * @param visited the variables visited by the fragments executed already, extended as fragments are applied
+     * @param planner the planner to re-plan the fragments with if their estimates prove wrong, or null
+     */
+    private Iterator<Bindings> execute(List<? extends Fragment> fragments, Set<Variable> visited, Iterator<Bindings> rows,
+                                       @Nullable DynamicProgrammingPlanner planner) {
+        for (int i = 0; i < fragments.size(); i++) {
+            Fragment fragment = fragments.get(i);
+            boolean startVisited = visited.contains(fragment.start());
+            List<? extends Fragment> remaining = fragments.subList(i + 1, fragments.size());
+            // re-planning cannot improve on a single fragment left
+            if (planner != null && startVisited && remaining.size() >= 2) {
+                Set<Variable> visitedBefore = new HashSet<>(visited);
+                Iterator<Bindings> input = rows;
+                // deferred, so that nothing is read before the rows are asked for
+                return Iterators.concat(Iterators.transform(Iterators.singletonIterator(fragment),
+                        f -> executeAdaptively(f, remaining, visitedBefore, input, planner)));
+            }
+            rows = apply((FragmentImpl) fragment, startVisited, rows);
+            visited.addAll(fragment.vars());
+        }
+        return rows;
+    }
+
+    /**
+     * Applies the fragment to the first batch of rows, and re-plans the remaining fragments if the fan-out observed
+     * diverges from the estimate, before executing the rest of the plan over all the rows
+     */
+    private Iterator<Bindings> executeAdaptively(Fragment fragment, List<? extends Fragment> remaining, Set<Variable> visited,
+                                                 Iterator<Bindings> rows, DynamicProgrammingPlanner planner) {
+        List<Bindings> firstBatch = ImmutableList.copyOf(Iterators.limit(rows, BATCH_SIZE));
+        Iterator<Bindings> firstOutput = apply((FragmentImpl) fragment, true, firstBatch.iterator());
+        double estimated = planner.estimatedFanOut(fragment, visited);
+        int sampleLimit = sampleLimit(firstBatch.size(), estimated);
+        List<Bindings> sample = ImmutableList.copyOf(Iterators.limit(firstOutput, sampleLimit));
+
+        Iterator<Bindings> output = Iterators.concat(sample.iterator(), firstOutput, apply((FragmentImpl) fragment, true, rows));
+        Set<Variable> visitedAfter = new HashSet<>(visited);
+        visitedAfter.addAll(fragment.vars());
+        if (firstBatch.isEmpty()) return execute(remaining, visitedAfter, output, planner);
+
+        double observed = (double) sample.size() / firstBatch.size();
+        // a truncated sample only bounds the fan-out from below: it tells a fan-out above the estimate, but not its size
+        boolean truncated = sample.size() == sampleLimit;
+        if ((truncated && observed <= estimated) || !diverges(observed, estimated)) {
+            return execute(remaining, visitedAfter, output, planner);
+        }
+
+        if (!truncated) planner.recordObservedFanOut(fragment, observed);
+        List<Fragment> replanned = planner.replan(remaining, visitedAfter, probeFanOuts(remaining, visitedAfter, sample, planner), MAX_REPLANNED_VARS);
+        LOG.debug("Fan-out of {} observed as {} but estimated as {}, re-planned remaining fragments as {}",
+                fragment, observed, estimated, replanned);
+        return execute(replanned != null ? replanned : remaining, visitedAfter, output, null);
+    }
+
+    /**
+     * @return the number of rows to sample from the output of the first batch: one more than the fan-out estimated,
+     * multiplied by the re-planning divergence, would produce, so that a divergent fan-out is observed, up to
+     * MAX_SAMPLE_ROWS held in memory
+     */
+    private int sampleLimit(int batchSize, double estimated) {
+        double limit = Math.ceil(batchSize * replanningDivergence * Math.max(1, estimated)) + 1;
+        return (int) Math.min(MAX_SAMPLE_ROWS, Math.max(BATCH_SIZE * replanningDivergence, limit));
+    }
+
+    private boolean diverges(double observed, double estimated) {
+        // fan-outs below one row per batch cannot be told apart
+        double floor = 1D / BATCH_SIZE;
+        return Math.max(observed, estimated) > replanningDivergence * Math.max(floor, Math.min(observed, estimated));
+    }
+
+    /**
+     * @return the fan-outs of the fragments that could be applied next, observed on the first few sample rows, counting
+     * as many rows as #sampleLimit allows for the estimated fan-out
+     */
+    private Map<Fragment, Double> probeFanOuts(List<? extends Fragment> fragments, Set<Variable> visited, List<Bindings> sample,
+                                               DynamicProgrammingPlanner planner) {
+        Map<Fragment, Double> fanOuts = new HashMap<>();
+        if (sample.isEmpty()) return fanOuts;
+        List<Bindings> probeRows = sample.subList(0, Math.min(PROBE_ROWS, sample.size()));
+        for (Fragment fragment : fragments) {
+            if (!visited.contains(fragment.start()) || !visited.containsAll(fragment.dependencies())) continue;
+            int maxRows = sampleLimit(probeRows.size(), planner.estimatedFanOut(fragment, visited));
+            FragmentImpl fragmentImpl = (FragmentImpl) fragment;
+            fragmentImpl.prefetchNative(tx, startVertices(fragment, probeRows));
+            long rows = Iterators.size(Iterators.limit(Iterators.concat(Iterators.transform(probeRows.iterator(),
+                    row -> fragmentImpl.applyNative(row.get(fragment.start()), row, tx, conceptManager))), maxRows));
+            fanOuts.put(fragment, (double) rows / probeRows.size());
+        }
+        return fanOuts;
+    }
+
+    private Iterator<Bindings> apply(FragmentImpl fragment, boolean startVisited, Iterator<Bindings> rows) {
+        Iterator<List<Bindings>> batches = Iterators.partition(rows, BATCH_SIZE);
+        return Iterators.concat(Iterators.transform(batches, batch -> {
+            if (startVisited) fragment.prefetchNative(tx, startVertices(fragment, batch));
+            return Iterators.concat(Iterators.transform(batch.iterator(), row -> applyToRow(fragment, startVisited, row)));
+        }));
+    }
+
+    private Iterator<Bindings> applyToRow(FragmentImpl fragment, boolean startVisited, Bindings row) {
+        if (startVisited) {
+            return fragment.applyNative(row.get(fragment.start()), row, tx, conceptManager);
+        }
+
+        // restart when fragments are disconnected, from the vertices looked up by index if the fragment has one
+        Iterator<? extends Element> starts = fragment.startNative(tx, conceptManager);
+        if (starts == null) starts = tx.query().vertices().iterator();
+        return Iterators.concat(Iterators.transform(starts, start -> {
+            Bindings withStart = row.bind(fragment.start(), start);
+            if (withStart == null) return Collections.<Bindings>emptyIterator();
+            return fragment.applyNative(start, withStart, tx, conceptManager);
+        }));
+    }
+
+    private static List<JanusGraphVertex> startVertices(Fragment fragment, List<Bindings> batch) {
+        return batch.stream()
+                .map(row -> row.get(fragment.start()))
+                .filter(JanusGraphVertex.class::isInstance)
+                .map(JanusGraphVertex.class::cast)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
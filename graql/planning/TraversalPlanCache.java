@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import grakn.core.kb.keyspace.KeyspaceSchemaCache;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Caches traversal plans across the transactions of a keyspace, so that conjunctions of the same shape, i.e. differing
+ * only in their variable names, concept IDs and values, are only planned once.
+ * <p>
+ * A conjunction is keyed by the shapes of its fragments (see Fragment#shape()) together with canonical names of the
+ * variables they connect. The canonical name of a variable is refined over a few rounds from the fragments it takes
+ * part in and the canonical names of its neighbours, so it does not depend on the variable names of the query.
+ * A cached plan is the order of the keys of its fragments, which is replayed against the fragments of a new query.
+ * <p>
+ * A cached plan is discarded once the schema labels have changed, or once the number of instances in the keyspace has
+ * drifted by more than DRIFT_FACTOR since it was planned, as the statistics then may favour a different plan.
+ * It is also discarded once executors have observed fan-outs diverging from the estimates it was planned with,
+ * see KeyspaceStatistics#observedFanOutsVersion.
+ */
+public class TraversalPlanCache {
+
+    private static final int MAX_PLANS = 1000;
+    private static final int REFINEMENT_ROUNDS = 3;
+    private static final double DRIFT_FACTOR = 2D;
+
+    private final KeyspaceSchemaCache keyspaceSchemaCache;
+    private final Cache<String, CachedPlan> plans = CacheBuilder.newBuilder()
+            .maximumSize(MAX_PLANS)
+            .recordStats()
+            .build();
+
+    public TraversalPlanCache(KeyspaceSchemaCache keyspaceSchemaCache) {
+        this.keyspaceSchemaCache = keyspaceSchemaCache;
+    }
+
+    public CacheStats stats() {
+        return plans.stats();
+    }
+
+    /**
+     * @param fragments all the fragments the plan of a conjunction is built from
+     * @return the shape of the conjunction, used to look up and store its plan
+     */
+    Shape shape(Collection<Fragment> fragments) {
+        Map<Variable, String> canonicalVars = canonicalVars(fragments);
+        Map<Fragment, String> fragmentKeys = new HashMap<>();
+        fragments.forEach(fragment -> fragmentKeys.put(fragment, fragmentKey(fragment, canonicalVars, null)));
+        String key = fragmentKeys.values().stream().sorted().collect(Collectors.joining(";"));
+        return new Shape(key, fragmentKeys);
+    }
+
+    /**
+     * @param shape                  shape of the conjunction to plan
+     * @param equivalentFragmentSets the fragment sets of the conjunction, of which the plan must contain one fragment each
+     * @param instanceCount          current number of instances in the keyspace
+     * @param fanOutsVersion         current version of the fan-outs observed in the keyspace
+     * @return the cached plan for the shape made of the fragments of the conjunction, null if there is no valid one
+     */
+    @Nullable
+    List<Fragment> get(Shape shape, Set<EquivalentFragmentSet> equivalentFragmentSets, long instanceCount, long fanOutsVersion) {
+        CachedPlan cached = plans.getIfPresent(shape.key);
+        if (cached == null) return null;
+        if (cached.schemaVersion != keyspaceSchemaCache.version() || cached.fanOutsVersion != fanOutsVersion
+                || drifted(cached.instanceCount, instanceCount)) {
+            plans.invalidate(shape.key);
+            return null;
+        }
+
+        Map<String, Deque<Fragment>> fragmentsByKey = new HashMap<>();
+        shape.fragmentKeys.forEach((fragment, key) -> fragmentsByKey.computeIfAbsent(key, k -> new ArrayDeque<>()).add(fragment));
+        List<Fragment> plan = new ArrayList<>();
+        for (String key : cached.fragmentKeys) {
+            Deque<Fragment> candidates = fragmentsByKey.get(key);
+            if (candidates == null || candidates.isEmpty()) return null;
+            plan.add(candidates.poll());
+        }
+        // fragments with the same key are interchangeable for planning, but may not be when executing
+        return isExecutable(plan, equivalentFragmentSets) ? plan : null;
+    }
+
+    void put(Shape shape, List<Fragment> plan, Set<EquivalentFragmentSet> equivalentFragmentSets, long instanceCount, long fanOutsVersion) {
+        if (!shape.fragmentKeys.keySet().containsAll(plan) || !isExecutable(plan, equivalentFragmentSets)) return;
+        List<String> fragmentKeys = plan.stream().map(shape.fragmentKeys::get).collect(Collectors.toList());
+        plans.put(shape.key, new CachedPlan(fragmentKeys, keyspaceSchemaCache.version(), instanceCount, fanOutsVersion));
+    }
+
+    private static boolean drifted(long plannedCount, long currentCount) {
+        return Math.max(plannedCount, currentCount) > DRIFT_FACTOR * Math.max(1, Math.min(plannedCount, currentCount));
+    }
+
+    /**
+     * @return whether the plan visits the dependencies of each fragment first, and includes a fragment of every set
+     */
+    private static boolean isExecutable(List<Fragment> plan, Set<EquivalentFragmentSet> equivalentFragmentSets) {
+        Set<Variable> visited = new HashSet<>();
+        for (Fragment fragment : plan) {
+            if (!visited.containsAll(fragment.dependencies())) return false;
+            visited.addAll(fragment.vars());
+        }
+        Set<Fragment> planned = new HashSet<>(plan);
+        return equivalentFragmentSets.stream().allMatch(set -> set.stream().anyMatch(planned::contains));
+    }
+
+    private static Map<Variable, String> canonicalVars(Collection<Fragment> fragments) {
+        Map<Variable, String> canonicalVars = new HashMap<>();
+        fragments.forEach(fragment -> varsOf(fragment).forEach(var -> canonicalVars.put(var, "")));
+
+        for (int round = 0; round < REFINEMENT_ROUNDS; round++) {
+            Map<Variable, List<String>> neighbourhoods = new HashMap<>();
+            for (Fragment fragment : fragments) {
+                for (Variable var : varsOf(fragment)) {
+                    neighbourhoods.computeIfAbsent(var, v -> new ArrayList<>()).add(fragmentKey(fragment, canonicalVars, var));
+                }
+            }
+            Map<Variable, String> refined = new HashMap<>();
+            neighbourhoods.forEach((var, neighbourhood) -> {
+                String signature = canonicalVars.get(var) + neighbourhood.stream().sorted().collect(Collectors.joining(";"));
+                refined.put(var, Long.toHexString(Hashing.murmur3_128().hashString(signature, StandardCharsets.UTF_8).asLong()));
+            });
+            canonicalVars.putAll(refined);
+        }
+        return canonicalVars;
+    }
+
+    private static Set<Variable> varsOf(Fragment fragment) {
+        Set<Variable> vars = new HashSet<>(fragment.vars());
+        vars.addAll(fragment.dependencies());
+        return vars;
+    }
+
+    /**
+     * @param self the variable whose neighbourhood the key describes, rendered as "*", or null
+     * @return the shape of the fragment together with the canonical names of its start, end, other variables and dependencies
+     */
+    private static String fragmentKey(Fragment fragment, Map<Variable, String> canonicalVars, @Nullable Variable self) {
+        Variable end = fragment.end();
+        String otherVars = fragment.vars().stream()
+                .filter(var -> !var.equals(fragment.start()) && !var.equals(end))
+                .map(var -> canonicalName(var, canonicalVars, self))
+                .sorted().collect(Collectors.joining(","));
+        String dependencies = fragment.dependencies().stream()
+                .map(var -> canonicalName(var, canonicalVars, self))
+                .sorted().collect(Collectors.joining(","));
+        return fragment.shape() + "(" + canonicalName(fragment.start(), canonicalVars, self) + "," +
+                (end != null ? canonicalName(end, canonicalVars, self) : "") +
+                ",{" + otherVars + "},{" + dependencies + "})";
+    }
+
+    private static String canonicalName(Variable var, Map<Variable, String> canonicalVars, @Nullable Variable self) {
+        return var.equals(self) ? "*" : canonicalVars.get(var);
+    }
+
+    static class Shape {
+        private final String key;
+        private final Map<Fragment, String> fragmentKeys;
+
+        private Shape(String key, Map<Fragment, String> fragmentKeys) {
+            this.key = key;
+            this.fragmentKeys = fragmentKeys;
+        }
+    }
+
+    private static class CachedPlan {
+        private final List<String> fragmentKeys;
+        private final long schemaVersion;
+        private final long instanceCount;
+        private final long fanOutsVersion;
+
+        private CachedPlan(List<String> fragmentKeys, long schemaVersion, long instanceCount, long fanOutsVersion) {
+            this.fragmentKeys = fragmentKeys;
+            this.schemaVersion = schemaVersion;
+            this.instanceCount = instanceCount;
+            this.fanOutsVersion = fanOutsVersion;
+        }
+    }
+}
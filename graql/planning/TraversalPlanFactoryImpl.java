@@ -24,6 +24,8 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import grakn.common.util.Pair;
 import grakn.core.core.JanusTraversalSourceProvider;
+import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.graql.planning.gremlin.fragment.InIsaFragment;
 import grakn.core.graql.planning.gremlin.fragment.InSubFragment;
 import grakn.core.graql.planning.gremlin.fragment.LabelFragment;
@@ -51,6 +53,7 @@ import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -69,7 +72,7 @@ import static grakn.core.graql.planning.NodesUtil.nodeVisitedDependenciesFragmen
 import static grakn.core.graql.planning.RelationTypeInference.inferRelationTypes;
 
 /**
- * Class for generating greedy traversal plans
+ * Class for generating traversal plans: exhaustively for small conjunctions and greedily for the others
  */
 public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
 
@@ -81,15 +84,44 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
     private PropertyExecutorFactory propertyExecutorFactory;
     private final long shardingThreshold;
     private final KeyspaceStatistics keyspaceStatistics;
+    @Nullable private final TraversalPlanCache planCache;
+    private final int exhaustivePlanningMaxVars;
+    private final int replanningDivergence;
 
     public TraversalPlanFactoryImpl(JanusTraversalSourceProvider janusTraversalSourceProvider, ConceptManager conceptManager,
                                     PropertyExecutorFactory propertyExecutorFactory, long shardingThreshold,
                                     KeyspaceStatistics keyspaceStatistics) {
+        this(janusTraversalSourceProvider, conceptManager, propertyExecutorFactory, shardingThreshold, keyspaceStatistics, null);
+    }
+
+    /**
+     * @param planCache plans shared with the other transactions of the keyspace, null to plan every query afresh
+     */
+    public TraversalPlanFactoryImpl(JanusTraversalSourceProvider janusTraversalSourceProvider, ConceptManager conceptManager,
+                                    PropertyExecutorFactory propertyExecutorFactory, long shardingThreshold,
+                                    KeyspaceStatistics keyspaceStatistics, @Nullable TraversalPlanCache planCache) {
+        this(janusTraversalSourceProvider, conceptManager, propertyExecutorFactory, shardingThreshold, keyspaceStatistics, planCache, 0, 0);
+    }
+
+    /**
+     * @param planCache                 plans shared with the other transactions of the keyspace, null to plan every query afresh
+     * @param exhaustivePlanningMaxVars conjunctions with up to this many variables are planned exhaustively, see
+     *                                  DynamicProgrammingPlanner, and larger ones greedily
+     * @param replanningDivergence      factor by which a fan-out observed executing a plan natively must diverge from
+     *                                  its estimate to re-plan the rest of the plan, 0 to never re-plan
+     */
+    public TraversalPlanFactoryImpl(JanusTraversalSourceProvider janusTraversalSourceProvider, ConceptManager conceptManager,
+                                    PropertyExecutorFactory propertyExecutorFactory, long shardingThreshold,
+                                    KeyspaceStatistics keyspaceStatistics, @Nullable TraversalPlanCache planCache,
+                                    int exhaustivePlanningMaxVars, int replanningDivergence) {
         this.janusTraversalSourceProvider = janusTraversalSourceProvider;
         this.conceptManager = conceptManager;
         this.propertyExecutorFactory = propertyExecutorFactory;
         this.shardingThreshold = shardingThreshold;
         this.keyspaceStatistics = keyspaceStatistics;
+        this.planCache = planCache;
+        this.exhaustivePlanningMaxVars = exhaustivePlanningMaxVars;
+        this.replanningDivergence = replanningDivergence;
     }
 
     /**
@@ -101,16 +133,21 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
     public GraqlTraversal createTraversal(Pattern pattern) {
         Collection<Conjunction<Statement>> patterns = pattern.getDisjunctiveNormalForm().getPatterns();
 
+        // ranges and substrings of values only start a plan when they can be looked up from the value indexes
+        JanusGraphTransaction janusGraphTransaction = janusTraversalSourceProvider.janusGraphTransaction();
+        boolean orderedIndex = janusGraphTransaction.hasOrderedIndex();
+        boolean tokenIndex = janusGraphTransaction.hasTokenIndex();
         Set<List<? extends Fragment>> fragments = patterns.stream()
-                .map(conjunction -> new ConjunctionQuery(conjunction, conceptManager, propertyExecutorFactory))
+                .map(conjunction -> new ConjunctionQuery(conjunction, conceptManager, propertyExecutorFactory, orderedIndex, tokenIndex))
                 .map(this::planForConjunction)
                 .collect(ImmutableSet.toImmutableSet());
 
-        return new GraqlTraversalImpl(janusTraversalSourceProvider, conceptManager, fragments);
+        return new GraqlTraversalImpl(janusTraversalSourceProvider, conceptManager, keyspaceStatistics, replanningDivergence, fragments);
     }
 
     /**
-     * Create a plan using Edmonds' algorithm with greedy approach to execute a single conjunction
+     * Create a plan to execute a single conjunction, by searching all fragment orders if the conjunction is small
+     * enough, or else using Edmonds' algorithm with greedy approach
      *
      * @param query the conjunction query to find a traversal plan
      * @return a semi-optimal traversal plan to execute the given conjunction
@@ -127,6 +164,30 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         Set<Fragment> inferredFragments = inferRelationTypes(conceptManager, allFragments);
         allFragments.addAll(inferredFragments);
 
+        // reuse the plan of a previous query of the same shape, if its statistics have not drifted since
+        TraversalPlanCache.Shape shape = null;
+        long instanceCount = 0;
+        long fanOutsVersion = 0;
+        if (planCache != null) {
+            shape = planCache.shape(allFragments);
+            instanceCount = keyspaceStatistics.count(conceptManager, Schema.MetaSchema.THING.getLabel());
+            fanOutsVersion = keyspaceStatistics.observedFanOutsVersion();
+            List<Fragment> cachedPlan = planCache.get(shape, query.getEquivalentFragmentSets(), instanceCount, fanOutsVersion);
+            if (cachedPlan != null) {
+                LOG.trace("Cached Plan = {}", cachedPlan);
+                return cachedPlan;
+            }
+        }
+
+        // small conjunctions are planned by searching all their fragment orders, with costs from the statistics
+        List<Fragment> exhaustivePlan = DynamicProgrammingPlanner.plan(allFragments, query.getEquivalentFragmentSets(),
+                conceptManager, keyspaceStatistics, exhaustivePlanningMaxVars);
+        if (exhaustivePlan != null) {
+            LOG.trace("Exhaustive Plan = {}", exhaustivePlan);
+            if (planCache != null) planCache.put(shape, exhaustivePlan, query.getEquivalentFragmentSets(), instanceCount, fanOutsVersion);
+            return exhaustivePlan;
+        }
+
         // convert fragments into nodes - some fragments create virtual middle nodes to ensure the Janus edge is traversed
         ImmutableMap<NodeId, Node> queryGraphNodes = buildNodesWithDependencies(allFragments);
 
@@ -174,6 +235,7 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         }
 
         LOG.trace("Greedy Plan = {}", plan);
+        if (planCache != null) planCache.put(shape, plan, query.getEquivalentFragmentSets(), instanceCount, fanOutsVersion);
         return plan;
     }
 
@@ -18,14 +18,17 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
 
 class AbstractFragment extends FragmentImpl {
@@ -41,6 +44,11 @@ class AbstractFragment extends FragmentImpl {
         return traversal.has(Schema.VertexProperty.IS_ABSTRACT.name(), true);
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(Fragments.hasNative(start, Schema.VertexProperty.IS_ABSTRACT.name(), true), bindings);
+    }
+
     @Override
     public String name() {
         return "[abstract]";
@@ -18,22 +18,35 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
+import static grakn.core.core.Schema.EdgeProperty.RELATION_TYPE_LABEL_ID;
+import static grakn.core.core.Schema.EdgeProperty.ROLE_LABEL_ID;
 import static grakn.core.graql.planning.gremlin.fragment.Fragments.displayOptionalTypeLabels;
 import static java.util.stream.Collectors.toSet;
 
@@ -43,6 +56,10 @@ import static java.util.stream.Collectors.toSet;
  */
 abstract class AbstractRolePlayerFragment extends EdgeFragment {
 
+    // label ids of the roles and relation types, memoised by the native traversal
+    private Optional<Set<Integer>> roleIds = null;
+    private Optional<Set<Integer>> relationTypeIds = null;
+
     AbstractRolePlayerFragment(VarProperty varProperty, Variable start, Variable end) {
         super(varProperty, start, end);
     }
@@ -64,6 +81,13 @@ abstract class AbstractRolePlayerFragment extends EdgeFragment {
         return "[" + Schema.EdgeLabel.ROLE_PLAYER.getLabel() + ":" + edge().symbol() + roleString + rels + roles + "]";
     }
 
+    final String innerShape() {
+        String roleString = role() != null ? " role" : "";
+        String rels = displayOptionalTypeLabels("rels", relationTypeLabels());
+        String roles = displayOptionalTypeLabels("roles", roleLabels());
+        return "[" + Schema.EdgeLabel.ROLE_PLAYER.getLabel() + roleString + rels + roles + "]";
+    }
+
     @Override
     final ImmutableSet<Variable> otherVars() {
         ImmutableSet.Builder<Variable> builder = ImmutableSet.<Variable>builder().add(edge());
@@ -100,6 +124,59 @@ abstract class AbstractRolePlayerFragment extends EdgeFragment {
         }
     }
 
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        Set<Label> roles = roleLabels();
+        if (roles == null || startTypes == null || startTypes.isEmpty()) {
+            return super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+        }
+        // role players of the roles per relation, or relations per role player, depending on which side the start is
+        long rolePlayers = roles.stream().mapToLong(role -> keyspaceStatistics.countRolePlayers(conceptManager, role)).sum();
+        return (double) rolePlayers / Math.max(1, countInstances(conceptManager, keyspaceStatistics, startTypes));
+    }
+
+    /**
+     * Native counterpart of the role player traversals: follows the Schema.EdgeLabel#ROLE_PLAYER edges of the start
+     * in the given direction, binding the edge, the role and its supertypes if the role is a variable, and the end
+     */
+    final Iterator<Bindings> applyRolePlayerNative(Vertex start, Direction direction, Bindings bindings,
+                                                   JanusGraphTransaction tx, ConceptManager conceptManager) {
+        if (roleIds == null) roleIds = labelIdsNative(roleLabels(), conceptManager);
+        if (relationTypeIds == null) relationTypeIds = labelIdsNative(relationTypeLabels(), conceptManager);
+        Iterator<Edge> edges = Iterators.filter(start.edges(direction, Schema.EdgeLabel.ROLE_PLAYER.getLabel()),
+                edge -> hasLabelIdNative(edge, ROLE_LABEL_ID, roleIds) && hasLabelIdNative(edge, RELATION_TYPE_LABEL_ID, relationTypeIds));
+
+        return Iterators.concat(Iterators.transform(edges, edge -> {
+            Bindings withEdge = bindings.bind(edge(), edge);
+            if (withEdge == null) return Collections.<Bindings>emptyIterator();
+
+            Iterator<Bindings> withRole = Iterators.singletonIterator(withEdge);
+            Variable role = role();
+            if (role != null) {
+                Property<?> roleId = edge.property(ROLE_LABEL_ID.name());
+                if (!roleId.isPresent()) return Collections.<Bindings>emptyIterator();
+                Iterator<JanusGraphVertex> roleVertices = tx.query().has(Schema.VertexProperty.LABEL_ID.name(), roleId.value()).vertices().iterator();
+                Iterator<Vertex> roles = Fragments.outSubsNative(Iterators.transform(roleVertices, Vertex.class::cast));
+                withRole = Iterators.filter(Iterators.transform(roles, r -> withEdge.bind(role, r)), Objects::nonNull);
+            }
+
+            Vertex end = direction == Direction.IN ? edge.outVertex() : edge.inVertex();
+            return Iterators.filter(Iterators.transform(withRole, b -> b.bind(end(), end)), Objects::nonNull);
+        }));
+    }
+
+    // an empty optional when the labels are not restricted
+    private static Optional<Set<Integer>> labelIdsNative(@Nullable Set<Label> labels, ConceptManager conceptManager) {
+        if (labels == null) return Optional.empty();
+        return Optional.of(labels.stream().map(label -> conceptManager.convertToId(label).getValue()).collect(toSet()));
+    }
+
+    private static boolean hasLabelIdNative(Edge edge, Schema.EdgeProperty property, Optional<Set<Integer>> labelIds) {
+        if (!labelIds.isPresent()) return true;
+        Property<?> labelId = edge.property(property.name());
+        return labelId.isPresent() && labelIds.get().contains(labelId.value());
+    }
+
     /**
      * Optionally traverse from a Schema.EdgeLabel#ROLE_PLAYER edge to the Role it mentions, plus any super-types.
      *
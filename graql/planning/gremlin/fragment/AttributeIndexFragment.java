@@ -18,6 +18,7 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
@@ -25,6 +26,7 @@ import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
@@ -53,11 +55,26 @@ public class AttributeIndexFragment extends FragmentImpl {
         return traversal.has(INDEX.name(), attributeIndex());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(Fragments.hasNative(start, INDEX.name(), attributeIndex()), bindings);
+    }
+
+    @Override
+    public Iterator<? extends Element> startNative(JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return tx.query().has(INDEX.name(), attributeIndex()).vertices().iterator();
+    }
+
     @Override
     public String name() {
         return "[index:" + attributeIndex() + "]";
     }
 
+    @Override
+    public String shape() {
+        return "[index:" + attributeLabel() + "]";
+    }
+
     @Override
     public double internalFragmentCost() {
         return COST_NODE_INDEX;
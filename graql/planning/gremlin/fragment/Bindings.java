@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.fragment;
+
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * The elements bound to the variables of a query while it is natively executed, one slot per variable.
+ * Bindings are never modified: binding a variable copies them, so that bindings can be shared by the rows they extend.
+ */
+public class Bindings {
+
+    // slot of each variable, shared by all the bindings of a traversal
+    private final Map<Variable, Integer> slots;
+    private final Element[] elements;
+
+    public Bindings(Map<Variable, Integer> slots) {
+        this(slots, new Element[slots.size()]);
+    }
+
+    private Bindings(Map<Variable, Integer> slots, Element[] elements) {
+        this.slots = slots;
+        this.elements = elements;
+    }
+
+    @Nullable
+    public Element get(Variable var) {
+        return elements[slots.get(var)];
+    }
+
+    /**
+     * Binds a variable the same way a Gremlin traversal does: an unbound variable is bound to the element, and a bound
+     * variable only matches the element it is bound to
+     *
+     * @return bindings with the variable bound to the element, or null if it is bound to another element
+     */
+    @Nullable
+    public Bindings bind(Variable var, Element element) {
+        int slot = slots.get(var);
+        Element bound = elements[slot];
+        if (bound != null) return bound.equals(element) ? this : null;
+
+        Element[] extended = elements.clone();
+        extended[slot] = element;
+        return new Bindings(slots, extended);
+    }
+}
@@ -18,9 +18,13 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import grakn.common.util.Pair;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.gremlin.Fragment;
 import grakn.core.kb.graql.planning.spanningtree.graph.DirectedEdge;
@@ -33,12 +37,17 @@ import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -194,6 +203,11 @@ public abstract class FragmentImpl implements Fragment {
     }
 
 
+    @Override
+    public String shape() {
+        return name();
+    }
+
     /**
      * @param traversal the traversal to extend with this Fragment
      */
@@ -251,6 +265,47 @@ public abstract class FragmentImpl implements Fragment {
             GraphTraversal<Vertex, Vertex> traversal, ConceptManager conceptManager, Collection<Variable> vars);
 
 
+    /**
+     * Executes this fragment natively against the Janus transaction, matching what #applyTraversal does in Gremlin
+     *
+     * @param start    the element bound to the start of this fragment
+     * @param bindings the elements bound to the variables visited so far, including the start of this fragment
+     * @return the bindings extended with the end and other variables of this fragment, once for every match
+     */
+    public abstract Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager);
+
+    /**
+     * @return the elements the start of this fragment may be bound to, looked up by index, or null if there is no
+     * index to look them up by, in which case a native traversal starting from this fragment scans all vertices
+     */
+    @Nullable
+    public Iterator<? extends Element> startNative(JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return null;
+    }
+
+    /**
+     * Loads the adjacency #applyNative reads from each of the given start vertices at once, so that it is not read
+     * with one query per vertex
+     */
+    public void prefetchNative(JanusGraphTransaction tx, List<JanusGraphVertex> starts) {
+    }
+
+    static Iterator<Bindings> filterNative(boolean matches, Bindings bindings) {
+        return matches ? Iterators.singletonIterator(bindings) : Collections.emptyIterator();
+    }
+
+    Iterator<Bindings> bindEndNative(Iterator<? extends Element> ends, Bindings bindings) {
+        Variable end = Objects.requireNonNull(end());
+        return Iterators.filter(Iterators.transform(ends, element -> bindings.bind(end, element)), Objects::nonNull);
+    }
+
+    static void prefetchEdgesNative(JanusGraphTransaction tx, List<JanusGraphVertex> starts, Direction direction, String... labels) {
+        if (!starts.isEmpty()) {
+            // executing the multi-query caches the edges of every vertex in the transaction, where #applyNative finds them
+            tx.multiQuery(starts.toArray(new JanusGraphVertex[0])).direction(direction).labels(labels).edges();
+        }
+    }
+
     /**
      * A starting fragment is a fragment that can start a traversal.
      * If any other fragment is present that refers to the same variable, the starting fragment can be omitted.
@@ -288,6 +343,30 @@ public abstract class FragmentImpl implements Fragment {
         throw new UnsupportedOperationException("Fragment of type " + this.getClass() + " is not a fixed cost starting point - no esimated cost as a starting point.");
     }
 
+    /**
+     * Without statistics, the estimate is derived from the cost of the fragment, which is the logarithm of its fan-out
+     * for a fragment with an end, or of the fraction it lets through for a fragment without one
+     */
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        return end() != null ? Math.expm1(fragmentCost()) : Math.min(1D, Math.exp(fragmentCost()));
+    }
+
+    /**
+     * Index lookups mostly find a single element, e.g. by ID or by attribute value
+     */
+    @Override
+    public double estimatedStartCount(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        return 1D;
+    }
+
+    /**
+     * @return the number of instances of the given types, according to the statistics
+     */
+    static long countInstances(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, Set<Label> types) {
+        return types.stream().mapToLong(label -> Math.max(0, keyspaceStatistics.count(conceptManager, label))).sum();
+    }
+
     /**
      * If a fragment has fixed cost, the traversal is done using index. This makes the fragment a good starting point.
      * A plan should always start with these fragments when possible.
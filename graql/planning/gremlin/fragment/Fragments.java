@@ -19,6 +19,7 @@ package grakn.core.graql.planning.gremlin.fragment;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import grakn.core.core.Schema;
 import grakn.core.graql.planning.gremlin.value.ValueOperation;
 import grakn.core.kb.concept.api.AttributeType;
@@ -30,11 +31,17 @@ import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import static grakn.core.core.Schema.EdgeLabel.SUB;
@@ -124,7 +131,11 @@ public class Fragments {
     }
 
     public static Fragment value(VarProperty varProperty, Variable start, ValueOperation<?, ?> predicate) {
-        return new ValueFragment(varProperty, start, predicate);
+        return value(varProperty, start, predicate, false);
+    }
+
+    public static Fragment value(VarProperty varProperty, Variable start, ValueOperation<?, ?> predicate, boolean orderedIndex) {
+        return new ValueFragment(varProperty, start, predicate, orderedIndex);
     }
 
     public static Fragment isAbstract(VarProperty varProperty, Variable start) {
@@ -151,6 +162,11 @@ public class Fragments {
         return new AttributeIndexFragment(varProperty, start, label, attributeValue.toString());
     }
 
+    public static Fragment tokenIndex(
+            @Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> predicate, Set<String> substrings) {
+        return new TokenIndexFragment(varProperty, start, predicate, substrings);
+    }
+
 
     /**
      * Default unlimiteid depth sub-edge traversal
@@ -201,6 +217,61 @@ public class Fragments {
         )).unfold();
     }
 
+    /**
+     * Native counterpart of #outSubs(GraphTraversal, int): the vertex itself if it is a type, followed by its supertypes
+     */
+    static Iterator<Vertex> outSubsNative(Vertex vertex, int subTraversalDepth) {
+        return subsNative(vertex, Direction.OUT, subTraversalDepth);
+    }
+
+    /**
+     * Native counterpart of #inSubs(GraphTraversal, int): the vertex itself if it is a type, followed by its subtypes
+     */
+    static Iterator<Vertex> inSubsNative(Vertex vertex, int subTraversalDepth) {
+        return subsNative(vertex, Direction.IN, subTraversalDepth);
+    }
+
+    static Iterator<Vertex> outSubsNative(Iterator<Vertex> vertices) {
+        return Iterators.concat(Iterators.transform(vertices, vertex -> outSubsNative(vertex, TRAVERSE_ALL_SUB_EDGES)));
+    }
+
+    static Iterator<Vertex> inSubsNative(Iterator<Vertex> vertices) {
+        return Iterators.concat(Iterators.transform(vertices, vertex -> inSubsNative(vertex, TRAVERSE_ALL_SUB_EDGES)));
+    }
+
+    private static Iterator<Vertex> subsNative(Vertex vertex, Direction direction, int subTraversalDepth) {
+        List<Vertex> subs = new ArrayList<>();
+        if (!vertex.property(THING_TYPE_LABEL_ID.name()).isPresent() && !vertex.label().equals(Schema.BaseType.SHARD.name())) {
+            subs.add(vertex);
+        }
+        // like `until(loops().is(0)).repeat(...)`, a depth of 0 lets the vertex itself through the repeat
+        if (subTraversalDepth == 0) subs.add(vertex);
+
+        List<Vertex> reached = Collections.singletonList(vertex);
+        for (int loops = 0; loops != subTraversalDepth && !reached.isEmpty(); loops++) {
+            List<Vertex> next = new ArrayList<>();
+            reached.forEach(v -> v.vertices(direction, SUB.getLabel()).forEachRemaining(next::add));
+            subs.addAll(next);
+            reached = next;
+        }
+        return subs.iterator();
+    }
+
+    /**
+     * @return the vertices adjacent to any of the given vertices, the way `out(labels)` or `in(labels)` traverses them
+     */
+    static Iterator<Vertex> adjacentNative(Iterator<Vertex> vertices, Direction direction, String... labels) {
+        return Iterators.concat(Iterators.transform(vertices, vertex -> vertex.vertices(direction, labels)));
+    }
+
+    /**
+     * Native counterpart of `has(key, value)`
+     */
+    static boolean hasNative(Element element, String key, Object value) {
+        Property<?> property = element.property(key);
+        return property.isPresent() && property.value().equals(value);
+    }
+
 
     /**
      * A type-safe way to do `__.union(a, b)`, as `Fragments.union(ImmutableSet.of(a, b))`.
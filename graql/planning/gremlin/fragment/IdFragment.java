@@ -17,7 +17,10 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import com.google.common.collect.Iterators;
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.IdNode;
@@ -28,11 +31,13 @@ import graql.lang.property.IdProperty;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -58,6 +63,18 @@ class IdFragment extends FragmentImpl {
         return traversal.hasId(Schema.elementId(id()));
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(start.id().toString().equals(Schema.elementId(id())), bindings);
+    }
+
+    @Override
+    public Iterator<? extends Element> startNative(JanusGraphTransaction tx, ConceptManager conceptManager) {
+        if (!Schema.validateConceptId(id())) return Collections.emptyIterator();
+        JanusGraphVertex vertex = tx.getVertex(Long.parseLong(Schema.elementId(id())));
+        return vertex != null ? Iterators.singletonIterator(vertex) : Collections.emptyIterator();
+    }
+
     private ConceptId id() {
         return id;
     }
@@ -67,6 +84,11 @@ class IdFragment extends FragmentImpl {
         return "[id:" + id().getValue() + "]";
     }
 
+    @Override
+    public String shape() {
+        return "[id]";
+    }
+
     @Override
     public double internalFragmentCost() {
         return COST_NODE_INDEX;
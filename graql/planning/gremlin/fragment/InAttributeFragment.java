@@ -18,18 +18,29 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import com.google.common.collect.Iterators;
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
+import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Traverse from an attribute to the owners over the IN edge pointing at the attribute
@@ -64,6 +75,17 @@ public class InAttributeFragment extends EdgeFragment {
         return attributeToOwners(traversal);
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Iterator<Vertex> owners = Iterators.transform(((Vertex) start).edges(Direction.IN, Schema.EdgeLabel.ATTRIBUTE.getLabel()), Edge::outVertex);
+        return bindEndNative(owners, bindings);
+    }
+
+    @Override
+    public void prefetchNative(JanusGraphTransaction tx, List<JanusGraphVertex> starts) {
+        prefetchEdgesNative(tx, starts, Direction.IN, Schema.EdgeLabel.ATTRIBUTE.getLabel());
+    }
+
     private GraphTraversal<Vertex, Vertex> attributeToOwners(GraphTraversal<Vertex, Vertex> traversal) {
         GraphTraversal<Vertex, Edge> edgeTraversal = traversal.inE(Schema.EdgeLabel.ATTRIBUTE.getLabel());
         return edgeTraversal.outV();
@@ -79,4 +101,14 @@ public class InAttributeFragment extends EdgeFragment {
         // TODO - use COST_OWNERS_PER_ATTRIBUTE;
         return COST_RELATIONS_PER_INSTANCE;
     }
+
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        if (startTypes == null || startTypes.isEmpty()) {
+            return super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+        }
+        // the mean number of owners of an attribute of the attribute types the start may be an instance of
+        long ownerships = startTypes.stream().mapToLong(label -> keyspaceStatistics.countOwnerships(conceptManager, label)).sum();
+        return (double) ownerships / Math.max(1, countInstances(conceptManager, keyspaceStatistics, startTypes));
+    }
 }
@@ -17,21 +17,28 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
 import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.Set;
 
 import static grakn.core.core.Schema.EdgeLabel.ISA;
 import static grakn.core.core.Schema.EdgeLabel.SHARD;
@@ -56,16 +63,36 @@ public class InIsaFragment extends EdgeFragment {
         return traversal.in(SHARD.getLabel()).in(ISA.getLabel());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Iterator<Vertex> shards = ((Vertex) start).vertices(Direction.IN, SHARD.getLabel());
+        return bindEndNative(Fragments.adjacentNative(shards, Direction.IN, ISA.getLabel()), bindings);
+    }
+
     @Override
     public String name() {
         return start() + "<-[isa]-" + end();
     }
 
+    @Override
+    public String shape() {
+        return "<-[isa]-";
+    }
+
     @Override
     public double internalFragmentCost() {
         return COST_INSTANCES_PER_TYPE;
     }
 
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        if (startTypes == null || startTypes.isEmpty()) {
+            return super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+        }
+        // the mean number of direct instances of the types the start may be
+        return (double) countInstances(conceptManager, keyspaceStatistics, startTypes) / startTypes.size();
+    }
+
     @Override
     protected Node startNode() {
         return new SchemaNode(NodeId.of(NodeId.Type.VAR, start()));
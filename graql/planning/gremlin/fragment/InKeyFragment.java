@@ -19,6 +19,7 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
@@ -26,11 +27,14 @@ import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 
 public class InKeyFragment extends EdgeFragment {
 
@@ -59,6 +63,12 @@ public class InKeyFragment extends EdgeFragment {
         return Fragments.inSubs(traversal.in(Schema.EdgeLabel.KEY.getLabel()));
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Iterator<Vertex> owners = ((Vertex) start).vertices(Direction.IN, Schema.EdgeLabel.KEY.getLabel());
+        return bindEndNative(Fragments.inSubsNative(owners), bindings);
+    }
+
     @Override
     public String name() {
         return "<-[key]-";
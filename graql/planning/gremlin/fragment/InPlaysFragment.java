@@ -17,7 +17,9 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import com.google.common.collect.Iterators;
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
@@ -25,12 +27,16 @@ import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Objects;
 
 import static grakn.core.core.Schema.EdgeLabel.PLAYS;
@@ -64,6 +70,16 @@ class InPlaysFragment extends EdgeFragment {
         return Fragments.inSubs(traversal);
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Vertex role = (Vertex) start;
+        Iterator<Vertex> players = required() ?
+                Iterators.transform(Iterators.filter(role.edges(Direction.IN, PLAYS.getLabel()),
+                        edge -> edge.property(Schema.EdgeProperty.REQUIRED.name()).isPresent()), Edge::outVertex) :
+                role.vertices(Direction.IN, PLAYS.getLabel());
+        return bindEndNative(Fragments.inSubsNative(players), bindings);
+    }
+
     @Override
     public String name() {
         if (required()) {
@@ -17,6 +17,7 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
@@ -24,12 +25,15 @@ import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Objects;
 
 import static grakn.core.core.Schema.EdgeLabel.RELATES;
@@ -49,6 +53,11 @@ class InRelatesFragment extends EdgeFragment {
         return traversal.in(RELATES.getLabel());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return bindEndNative(((Vertex) start).vertices(Direction.IN, RELATES.getLabel()), bindings);
+    }
+
     @Override
     public String name() {
         return "<-[relates]-";
@@ -17,21 +17,27 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.gremlin.Fragment;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
 import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Fragment following in sub edges, potentially limited to some number of `sub` edges
@@ -61,6 +67,11 @@ public class InSubFragment extends EdgeFragment {
         return Fragments.inSubs(traversal, subTraversalDepthLimit());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return bindEndNative(Fragments.inSubsNative((Vertex) start, subTraversalDepthLimit()), bindings);
+    }
+
     @Override
     public String name() {
         if (subTraversalDepthLimit() == Fragments.TRAVERSE_ALL_SUB_EDGES) {
@@ -81,6 +92,16 @@ public class InSubFragment extends EdgeFragment {
         return COST_SUBTYPES_PER_TYPE;
     }
 
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        if (startTypes == null || startTypes.isEmpty()) {
+            return super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+        }
+        // the mean number of subtypes, including themselves, of the types the start may be, ignoring the depth limit
+        long subs = startTypes.stream().mapToLong(label -> conceptManager.getSchemaConcept(label).subs().count()).sum();
+        return Math.max(1D, (double) subs / startTypes.size());
+    }
+
     @Override
     protected Node startNode() {
         return new SchemaNode(NodeId.of(NodeId.Type.VAR, start()));
@@ -19,6 +19,8 @@ package grakn.core.graql.planning.gremlin.fragment;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
@@ -29,11 +31,14 @@ import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.Set;
 
@@ -47,6 +52,7 @@ import static java.util.stream.Collectors.toSet;
 
 public class LabelFragment extends FragmentImpl {
     private final ImmutableSet<Label> labels;
+    private Set<Integer> labelIds = null;
 
     LabelFragment(@Nullable VarProperty varProperty, Variable start, ImmutableSet<Label> labels) {
         super(varProperty, start);
@@ -62,8 +68,7 @@ public class LabelFragment extends FragmentImpl {
     public GraphTraversal<Vertex, Vertex> applyTraversalInner(
             GraphTraversal<Vertex, Vertex> traversal, ConceptManager conceptManager, Collection<Variable> vars) {
 
-        Set<Integer> labelIds =
-                labels().stream().map(label -> conceptManager.convertToId(label).getValue()).collect(toSet());
+        Set<Integer> labelIds = labelIds(conceptManager);
 
         if (labelIds.size() == 1) {
             int labelId = Iterables.getOnlyElement(labelIds);
@@ -73,6 +78,26 @@ public class LabelFragment extends FragmentImpl {
         }
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Property<?> labelId = start.property(LABEL_ID.name());
+        return filterNative(labelId.isPresent() && labelIds(conceptManager).contains(labelId.value()), bindings);
+    }
+
+    @Override
+    public Iterator<? extends Element> startNative(JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return Iterators.concat(Iterators.transform(labelIds(conceptManager).iterator(),
+                labelId -> tx.query().has(LABEL_ID.name(), labelId).vertices().iterator()));
+    }
+
+    private Set<Integer> labelIds(ConceptManager conceptManager) {
+        // memoised, as native traversals look the label IDs up for every vertex they test
+        if (labelIds == null) {
+            labelIds = labels().stream().map(label -> conceptManager.convertToId(label).getValue()).collect(toSet());
+        }
+        return labelIds;
+    }
+
     @Override
     public String name() {
         return "[label:" + labels().stream().map(Label::getValue).collect(joining(",")) + "]";
@@ -95,6 +120,12 @@ public class LabelFragment extends FragmentImpl {
         return Collections.singleton(new SchemaNode(startNodeId));
     }
 
+    @Override
+    public double estimatedStartCount(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        // the type vertices themselves, rather than their instances
+        return labels().size();
+    }
+
     @Override
     public double estimatedCostAsStartingPoint(ConceptManager conceptManager, KeyspaceStatistics statistics) {
         // there's only 1 label in this set, but sum anyway
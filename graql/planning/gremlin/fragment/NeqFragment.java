@@ -18,16 +18,19 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import com.google.common.collect.ImmutableSet;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.gremlin.Fragment;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
 
 /**
@@ -61,11 +64,21 @@ public class NeqFragment extends FragmentImpl {
         return traversal;
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(!start.equals(bindings.get(other())), bindings);
+    }
+
     @Override
     public String name() {
         return "[neq:" + other().symbol() + "]";
     }
 
+    @Override
+    public String shape() {
+        return "[neq]";
+    }
+
     @Override
     public double internalFragmentCost() {
         // This is arbitrary - we imagine about half the results are filtered out
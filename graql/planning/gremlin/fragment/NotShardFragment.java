@@ -18,15 +18,18 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
 
 class NotShardFragment extends FragmentImpl {
@@ -41,6 +44,11 @@ class NotShardFragment extends FragmentImpl {
         return traversal.not(__.hasLabel(Schema.BaseType.SHARD.name()));
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(!start.label().equals(Schema.BaseType.SHARD.name()), bindings);
+    }
+
     @Override
     public String name() {
         return "[not-shard]";
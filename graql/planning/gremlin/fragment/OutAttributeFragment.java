@@ -19,23 +19,34 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import static grakn.core.core.Schema.EdgeProperty.ATTRIBUTE_OWNED_LABEL_ID;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toSet;
 
 /**
@@ -44,6 +55,7 @@ import static java.util.stream.Collectors.toSet;
 public class OutAttributeFragment extends EdgeFragment {
     private final ImmutableSet<Label> attributeTypeLabels;
     private Variable edgeVariable;
+    private Set<Integer> typeIds = null;
 
     public OutAttributeFragment(VarProperty varProperty, Variable owner, Variable attribute, Variable edge, ImmutableSet<Label> attributeTypeLabels) {
         super(varProperty, owner, attribute);
@@ -72,6 +84,27 @@ public class OutAttributeFragment extends EdgeFragment {
         return edgeRelationTraversal(traversal, conceptManager);
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        if (typeIds == null) {
+            // memoised, as native traversals expand every owner with the same types
+            typeIds = attributeTypeLabels.stream()
+                    .flatMap(label -> conceptManager.getSchemaConcept(label).subs())
+                    .map(type -> conceptManager.convertToId(type.label()).getValue())
+                    .collect(toSet());
+        }
+        Iterator<Edge> edges = Iterators.filter(((Vertex) start).edges(Direction.OUT, Schema.EdgeLabel.ATTRIBUTE.getLabel()), edge -> {
+            Property<?> labelId = edge.property(ATTRIBUTE_OWNED_LABEL_ID.name());
+            return labelId.isPresent() && typeIds.contains(labelId.value());
+        });
+        return bindEndNative(Iterators.transform(edges, Edge::inVertex), bindings);
+    }
+
+    @Override
+    public void prefetchNative(JanusGraphTransaction tx, List<JanusGraphVertex> starts) {
+        prefetchEdgesNative(tx, starts, Direction.OUT, Schema.EdgeLabel.ATTRIBUTE.getLabel());
+    }
+
     private GraphTraversal<Vertex, Vertex> edgeRelationTraversal(GraphTraversal<Vertex, Vertex> traversal, ConceptManager conceptManager) {
         GraphTraversal<Vertex, Edge> edgeTraversal = traversal.outE(Schema.EdgeLabel.ATTRIBUTE.getLabel());
 
@@ -99,9 +132,27 @@ public class OutAttributeFragment extends EdgeFragment {
         return "-[has-xxx]->";
     }
 
+    @Override
+    public String shape() {
+        return "-[has-xxx:" + attributeTypeLabels.stream().map(Label::getValue).sorted().collect(joining(",")) + "]->";
+    }
+
     @Override
     public double internalFragmentCost() {
         // TODO - use COST_OWNERS_PER_ATTRIBUTE;
         return COST_ROLE_PLAYERS_PER_ROLE;
     }
+
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        if (startTypes == null || startTypes.isEmpty()) {
+            return super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+        }
+        // the number of ownerships of the attribute types, over the number of instances of the types the owner may be an instance of
+        long ownerships = attributeTypeLabels.stream()
+                .flatMap(label -> conceptManager.getSchemaConcept(label).subs())
+                .mapToLong(type -> keyspaceStatistics.countOwnerships(conceptManager, type.label()))
+                .sum();
+        return (double) ownerships / Math.max(1, countInstances(conceptManager, keyspaceStatistics, startTypes));
+    }
 }
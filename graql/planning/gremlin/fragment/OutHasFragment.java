@@ -19,6 +19,7 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
@@ -26,12 +27,15 @@ import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 
 /**
  * Fragment for traversing from a type, to the attribute types it can own
@@ -65,6 +69,12 @@ public class OutHasFragment extends EdgeFragment {
                 .out(Schema.EdgeLabel.HAS.getLabel(), Schema.EdgeLabel.KEY.getLabel());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Iterator<Vertex> types = Fragments.outSubsNative((Vertex) start, Fragments.TRAVERSE_ALL_SUB_EDGES);
+        return bindEndNative(Fragments.adjacentNative(types, Direction.OUT, Schema.EdgeLabel.HAS.getLabel(), Schema.EdgeLabel.KEY.getLabel()), bindings);
+    }
+
     @Override
     public String name() {
         return "-[has/key]->";
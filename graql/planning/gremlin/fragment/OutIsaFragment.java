@@ -17,6 +17,8 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
@@ -25,12 +27,16 @@ import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 import static grakn.core.core.Schema.EdgeLabel.ISA;
@@ -59,6 +65,17 @@ public class OutIsaFragment extends EdgeFragment {
         return traversal.out(ISA.getLabel()).out(SHARD.getLabel());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Iterator<Vertex> shards = ((Vertex) start).vertices(Direction.OUT, ISA.getLabel());
+        return bindEndNative(Fragments.adjacentNative(shards, Direction.OUT, SHARD.getLabel()), bindings);
+    }
+
+    @Override
+    public void prefetchNative(JanusGraphTransaction tx, List<JanusGraphVertex> starts) {
+        prefetchEdgesNative(tx, starts, Direction.OUT, ISA.getLabel());
+    }
+
 
     @Override
     public String name() {
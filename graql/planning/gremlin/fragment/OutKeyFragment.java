@@ -19,6 +19,7 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
@@ -26,11 +27,14 @@ import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 
 public class OutKeyFragment extends EdgeFragment {
 
@@ -61,6 +65,12 @@ public class OutKeyFragment extends EdgeFragment {
                 .out(Schema.EdgeLabel.KEY.getLabel());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        Iterator<Vertex> types = Fragments.outSubsNative((Vertex) start, Fragments.TRAVERSE_ALL_SUB_EDGES);
+        return bindEndNative(Fragments.adjacentNative(types, Direction.OUT, Schema.EdgeLabel.KEY.getLabel()), bindings);
+    }
+
     @Override
     public String name() {
         return "-[key]->";
@@ -18,17 +18,23 @@
 package grakn.core.graql.planning.gremlin.fragment;
 
 import com.google.common.collect.ImmutableSet;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 import static grakn.core.core.Schema.EdgeLabel.ROLE_PLAYER;
@@ -97,6 +103,16 @@ public class OutRolePlayerFragment extends AbstractRolePlayerFragment {
         ));
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return applyRolePlayerNative((Vertex) start, Direction.OUT, bindings, tx, conceptManager);
+    }
+
+    @Override
+    public void prefetchNative(JanusGraphTransaction tx, List<JanusGraphVertex> starts) {
+        prefetchEdgesNative(tx, starts, Direction.OUT, ROLE_PLAYER.getLabel());
+    }
+
     private GraphTraversal<Vertex, Vertex> relationTraversal(ConceptManager conceptManager, Collection<Variable> vars) {
         GraphTraversal<Vertex, Edge> edgeTraversal = __.outE(ROLE_PLAYER.getLabel()).as(edge().symbol());
 
@@ -114,6 +130,11 @@ public class OutRolePlayerFragment extends AbstractRolePlayerFragment {
         return "-" + innerName() + "->";
     }
 
+    @Override
+    public String shape() {
+        return "-" + innerShape() + "->";
+    }
+
     @Override
     public double internalFragmentCost() {
         return roleLabels() != null ? COST_ROLE_PLAYERS_PER_ROLE : COST_ROLE_PLAYERS_PER_RELATION;
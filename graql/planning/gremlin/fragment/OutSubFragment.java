@@ -17,6 +17,7 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.gremlin.Fragment;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
@@ -25,12 +26,14 @@ import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Objects;
 
 /**
@@ -61,6 +64,11 @@ public class OutSubFragment extends EdgeFragment {
         return Fragments.outSubs(traversal, this.subTraversalDepthLimit());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return bindEndNative(Fragments.outSubsNative((Vertex) start, subTraversalDepthLimit()), bindings);
+    }
+
     @Override
     public String name() {
         if (subTraversalDepthLimit() == Fragments.TRAVERSE_ALL_SUB_EDGES) {
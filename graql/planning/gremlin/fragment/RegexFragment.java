@@ -17,15 +17,18 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.manager.ConceptManager;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import graql.lang.util.StringUtil;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
 
 import static grakn.core.core.Schema.VertexProperty.REGEX;
@@ -48,11 +51,21 @@ class RegexFragment extends FragmentImpl {
         return traversal.has(REGEX.name(), regex());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(Fragments.hasNative(start, REGEX.name(), regex()), bindings);
+    }
+
     @Override
     public String name() {
         return "[regex:" + StringUtil.valueToString(regex()) + "]";
     }
 
+    @Override
+    public String shape() {
+        return "[regex]";
+    }
+
     @Override
     public double internalFragmentCost() {
         return COST_NODE_REGEX;
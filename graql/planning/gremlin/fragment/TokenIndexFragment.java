@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.fragment;
+
+import com.google.common.collect.Iterators;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import grakn.core.kb.keyspace.ValueHistogram;
+import graql.lang.property.VarProperty;
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static grakn.core.core.Schema.VertexProperty.VALUE_STRING;
+
+/**
+ * Tests a `contains` or `like` predicate on string attributes the same way as a ValueFragment, but can start from the
+ * attributes looked up from the token index by substrings every matching value contains, rather than from all vertices.
+ * The index may return attributes not matching the predicate, which #applyNative filters out.
+ */
+public class TokenIndexFragment extends FragmentImpl {
+
+    private final ValueOperation<?, ?> operation;
+    private final Set<String> substrings;
+
+    TokenIndexFragment(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> operation, Set<String> substrings) {
+        super(varProperty, start);
+        this.operation = operation;
+        this.substrings = substrings;
+    }
+
+    private ValueOperation<?, ?> predicate() {
+        return operation;
+    }
+
+    @Override
+    public GraphTraversal<Vertex, Vertex> applyTraversalInner(
+            GraphTraversal<Vertex, Vertex> traversal, ConceptManager conceptManager, Collection<Variable> vars) {
+        return predicate().apply(traversal);
+    }
+
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(predicate().testValueOf(start), bindings);
+    }
+
+    @Override
+    public Iterator<? extends Element> startNative(JanusGraphTransaction tx, ConceptManager conceptManager) {
+        List<Iterator<JanusGraphVertex>> lookups = new ArrayList<>();
+        for (AttributeType<?> attributeType : stringAttributeTypes(conceptManager)) {
+            Iterator<JanusGraphVertex> lookup = tx.tokenIndexQuery(VALUE_STRING.name(), attributeType.labelId().getValue(), substrings);
+            // the values are not indexed by trigram, so all vertices are scanned
+            if (lookup == null) return null;
+            lookups.add(lookup);
+        }
+        return Iterators.concat(lookups.iterator());
+    }
+
+    @Override
+    public String name() {
+        return "[token:" + predicate() + "]";
+    }
+
+    @Override
+    public String shape() {
+        return "[token:" + predicate().comparator() + "]";
+    }
+
+    @Override
+    public double internalFragmentCost() {
+        // Assume approximately half of values will satisfy a filter
+        return COST_NODE_UNSPECIFIC_PREDICATE;
+    }
+
+    /**
+     * The fragment is only planned when the token index is enabled and built, see TokenIndexFragmentSet
+     */
+    @Override
+    public boolean hasFixedFragmentCost() {
+        return true;
+    }
+
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        Double selectivity = startTypes == null ? null : selectivity(conceptManager, keyspaceStatistics, startTypes);
+        return selectivity != null ? selectivity : super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+    }
+
+    /**
+     * The lookup finds the attributes of all string attribute types containing the trigrams of the substrings
+     */
+    @Override
+    public double estimatedStartCount(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        Set<Label> attributeTypes = stringAttributeTypes(conceptManager).stream().map(SchemaConcept::label).collect(Collectors.toSet());
+        long attributes = countInstances(conceptManager, keyspaceStatistics, attributeTypes);
+        Double selectivity = selectivity(conceptManager, keyspaceStatistics, attributeTypes);
+        return attributes * (selectivity != null ? selectivity : Math.exp(COST_NODE_UNSPECIFIC_PREDICATE));
+    }
+
+    @Override
+    public double estimatedCostAsStartingPoint(ConceptManager conceptManager, KeyspaceStatistics statistics) {
+        long totalOwnerships = 0;
+        long totalAttributes = 0;
+        for (AttributeType<?> attributeType : stringAttributeTypes(conceptManager)) {
+            totalAttributes += statistics.count(conceptManager, attributeType.label());
+            totalOwnerships += statistics.countOwnerships(conceptManager, attributeType.label());
+        }
+
+        if (totalAttributes == 0) {
+            // short circuiting can be done quickly if starting here
+            return 0.0;
+        } else {
+            // the owners of all the attributes looked up
+            return (double) totalOwnerships / totalAttributes * estimatedStartCount(conceptManager, statistics);
+        }
+    }
+
+    /**
+     * @return the fraction of the values of the attribute types containing the substrings, weighted by their number of
+     * values, or null if the attribute types have no values histogrammed
+     */
+    @Nullable
+    private Double selectivity(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, Set<Label> attributeTypes) {
+        double matching = 0;
+        long values = 0;
+        for (Label attributeType : attributeTypes) {
+            ValueHistogram histogram = keyspaceStatistics.valueHistogram(conceptManager, attributeType);
+            if (histogram.isEmpty()) continue;
+            long count = histogram.count();
+            matching += count * histogram.containsSelectivity(substrings);
+            values += count;
+        }
+        return values > 0 ? matching / values : null;
+    }
+
+    private static List<AttributeType<?>> stringAttributeTypes(ConceptManager conceptManager) {
+        AttributeType<?> metaAttributeType = conceptManager.getMetaAttributeType();
+        return metaAttributeType.subs()
+                .filter(attributeType -> AttributeType.ValueType.STRING.equals(attributeType.valueType()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TokenIndexFragment that = (TokenIndexFragment) o;
+
+        return (Objects.equals(this.varProperty, that.varProperty) &&
+                this.start.equals(that.start()) &&
+                this.operation.equals(that.predicate()));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(varProperty, start, operation);
+    }
+}
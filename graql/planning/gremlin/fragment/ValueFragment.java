@@ -17,32 +17,48 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import com.google.common.collect.Iterators;
+import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
 import grakn.core.graql.planning.gremlin.value.ValueComparison;
 import grakn.core.graql.planning.gremlin.value.ValueOperation;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
+import grakn.core.kb.keyspace.ValueHistogram;
+import graql.lang.Graql;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ValueFragment extends FragmentImpl {
 
     private final ValueOperation<?, ?> operation;
+    private final boolean orderedIndex;
 
-    ValueFragment(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> operation) {
+    /**
+     * @param orderedIndex whether the ordered value index is enabled and built, so that a range can be looked up from it
+     */
+    ValueFragment(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> operation, boolean orderedIndex) {
         super(varProperty, start);
         this.operation = operation;
+        this.orderedIndex = orderedIndex;
     }
 
     /**
@@ -58,11 +74,50 @@ public class ValueFragment extends FragmentImpl {
         return predicate().apply(traversal);
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        if (operation instanceof ValueComparison.Variable) {
+            ValueComparison.Variable comparison = (ValueComparison.Variable) operation;
+            // the compared variable is a dependency, so it is bound before this fragment is applied
+            Element compared = bindings.get(comparison.value().var());
+            return filterNative(compared != null && comparison.testValueOf(start, compared), bindings);
+        }
+        return filterNative(predicate().testValueOf(start), bindings);
+    }
+
+    /**
+     * Looks the attributes with values in the range up from the ordered index of each attribute type whose values are
+     * comparable. The index may return values just outside the range, which #applyNative filters out.
+     */
+    @Override
+    public Iterator<? extends Element> startNative(JanusGraphTransaction tx, ConceptManager conceptManager) {
+        if (!isIndexedRange()) return null;
+        Object bound = predicate().valueSerialised();
+        Object lower = hasLowerBound() ? bound : null;
+        Object upper = hasUpperBound() ? bound : null;
+
+        List<Iterator<JanusGraphVertex>> ranges = new ArrayList<>();
+        for (AttributeType<?> attributeType : comparableAttributeTypes(conceptManager)) {
+            String valueProperty = Schema.VertexProperty.ofValueType(attributeType.valueType()).name();
+            Iterator<JanusGraphVertex> range = tx.orderedIndexQuery(valueProperty, attributeType.labelId().getValue(), lower, upper);
+            // the values are not indexed in order, so all vertices are scanned
+            if (range == null) return null;
+            ranges.add(range);
+        }
+        return Iterators.concat(ranges.iterator());
+    }
+
     @Override
     public String name() {
         return "[value:" + predicate() + "]";
     }
 
+    @Override
+    public String shape() {
+        // the kind of operation tells apart comparisons with variables and values of different value types
+        return "[value:" + predicate().comparator() + " " + predicate().getClass().getSimpleName() + "]";
+    }
+
     @Override
     public double internalFragmentCost() {
         if (predicate().isValueEquality()) {
@@ -73,9 +128,93 @@ public class ValueFragment extends FragmentImpl {
         }
     }
 
+    @Override
+    public double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes) {
+        if (startTypes == null || !isRange() || !ValueHistogram.supports(predicate().value())) {
+            return super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+        }
+        Double selectivity = rangeSelectivity(conceptManager, keyspaceStatistics, startTypes);
+        return selectivity != null ? selectivity : super.estimatedFanOut(conceptManager, keyspaceStatistics, startTypes);
+    }
+
+    /**
+     * A range looks up the attributes of all comparable attribute types with values within it
+     */
+    @Override
+    public double estimatedStartCount(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        if (!isIndexedRange()) return super.estimatedStartCount(conceptManager, keyspaceStatistics);
+
+        Set<Label> attributeTypes = comparableAttributeTypes(conceptManager).stream().map(SchemaConcept::label).collect(Collectors.toSet());
+        long attributes = countInstances(conceptManager, keyspaceStatistics, attributeTypes);
+        Double selectivity = ValueHistogram.supports(predicate().value()) ?
+                rangeSelectivity(conceptManager, keyspaceStatistics, attributeTypes) : null;
+        return attributes * (selectivity != null ? selectivity : Math.exp(COST_NODE_UNSPECIFIC_PREDICATE));
+    }
+
+    /**
+     * @return the fraction of the values of the attribute types within the range, weighted by their number of values,
+     * or null if the attribute types have no values histogrammed
+     */
+    @Nullable
+    private Double rangeSelectivity(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, Set<Label> attributeTypes) {
+        Object value = predicate().value();
+        double matching = 0;
+        long values = 0;
+        for (Label attributeType : attributeTypes) {
+            ValueHistogram histogram = keyspaceStatistics.valueHistogram(conceptManager, attributeType);
+            if (histogram.isEmpty()) continue;
+            long count = histogram.count();
+            matching += count * histogram.selectivity(hasLowerBound() ? value : null, hasUpperBound() ? value : null);
+            values += count;
+        }
+        return values > 0 ? matching / values : null;
+    }
+
+    /**
+     * Ranges of values can be looked up from the ordered value index, if it is enabled and built
+     */
     @Override
     public boolean hasFixedFragmentCost() {
-        return predicate().isValueEquality() && dependencies().isEmpty();
+        return (predicate().isValueEquality() || isIndexedRange()) && dependencies().isEmpty();
+    }
+
+    private boolean isIndexedRange() {
+        return orderedIndex && isRange();
+    }
+
+    private boolean isRange() {
+        return isRange(predicate());
+    }
+
+    /**
+     * @return whether the operation compares with a value, other than a boolean, from one side only, so that the values
+     * matching it are a range of the ordered value index
+     */
+    public static boolean isRange(ValueOperation<?, ?> operation) {
+        Graql.Token.Comparator comparator = operation.comparator();
+        boolean bounded = comparator.equals(Graql.Token.Comparator.GT) || comparator.equals(Graql.Token.Comparator.GTE)
+                || comparator.equals(Graql.Token.Comparator.LT) || comparator.equals(Graql.Token.Comparator.LTE);
+        return bounded && !(operation instanceof ValueComparison.Variable) && !(operation.value() instanceof Boolean);
+    }
+
+    private boolean hasLowerBound() {
+        Graql.Token.Comparator comparator = predicate().comparator();
+        return comparator.equals(Graql.Token.Comparator.GT) || comparator.equals(Graql.Token.Comparator.GTE);
+    }
+
+    private boolean hasUpperBound() {
+        Graql.Token.Comparator comparator = predicate().comparator();
+        return comparator.equals(Graql.Token.Comparator.LT) || comparator.equals(Graql.Token.Comparator.LTE);
+    }
+
+    private List<AttributeType<?>> comparableAttributeTypes(ConceptManager conceptManager) {
+        AttributeType.ValueType<?> valueType = AttributeType.ValueType.of(predicate().value().getClass());
+        if (valueType == null) return Collections.emptyList();
+        Set<AttributeType.ValueType<?>> valueTypes = valueType.comparableValueTypes();
+        AttributeType<?> metaAttributeType = conceptManager.getMetaAttributeType();
+        return metaAttributeType.subs()
+                .filter(attributeType -> attributeType.valueType() != null && valueTypes.contains(attributeType.valueType()))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -111,6 +250,9 @@ public class ValueFragment extends FragmentImpl {
         if (totalAttributes == 0) {
             // short circuiting can be done quickly if starting here
             return 0.0;
+        } else if (isIndexedRange()) {
+            // the owners of all the attributes within the range
+            return (double) totalOwnerships / totalAttributes * estimatedStartCount(conceptManager, statistics);
         } else {
             return (double) totalOwnerships / totalAttributes;
         }
@@ -125,11 +267,12 @@ public class ValueFragment extends FragmentImpl {
 
         return (Objects.equals(this.varProperty, that.varProperty) &&
                 this.start.equals(that.start()) &&
-                this.operation.equals(that.predicate()));
+                this.operation.equals(that.predicate()) &&
+                this.orderedIndex == that.orderedIndex);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(varProperty, start, operation);
+        return Objects.hash(varProperty, start, operation, orderedIndex);
     }
 }
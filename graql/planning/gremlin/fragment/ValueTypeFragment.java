@@ -17,15 +17,18 @@
 
 package grakn.core.graql.planning.gremlin.fragment;
 
+import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.manager.ConceptManager;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Objects;
 
 import static grakn.core.core.Schema.VertexProperty.VALUE_TYPE;
@@ -49,6 +52,11 @@ class ValueTypeFragment extends FragmentImpl {
         return traversal.has(VALUE_TYPE.name(), valueType().name());
     }
 
+    @Override
+    public Iterator<Bindings> applyNative(Element start, Bindings bindings, JanusGraphTransaction tx, ConceptManager conceptManager) {
+        return filterNative(Fragments.hasNative(start, VALUE_TYPE.name(), valueType().name()), bindings);
+    }
+
     @Override
     public String name() {
         return "[value:" + valueType().name() + "]";
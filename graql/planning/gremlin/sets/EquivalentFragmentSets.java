@@ -18,6 +18,7 @@
 package grakn.core.graql.planning.gremlin.sets;
 
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import grakn.core.graql.planning.gremlin.value.ValueOperation;
 import grakn.core.kb.concept.api.AttributeType;
@@ -179,13 +180,28 @@ public class EquivalentFragmentSets {
      */
     public static void optimiseFragmentSets(
             Collection<EquivalentFragmentSet> fragmentSets, ConceptManager conceptManager) {
+        optimiseFragmentSets(fragmentSets, conceptManager, false, false);
+    }
+
+    /**
+     * @param orderedIndex whether the ordered value index is enabled and built, so that ranges of values can be looked
+     *                     up from it, see ValueFragmentSet#ORDERED_INDEX_OPTIMISATION
+     * @param tokenIndex   whether the token value index is enabled and built, so that substrings of values can be looked
+     *                     up from it, see TokenIndexFragmentSet#TOKEN_INDEX_OPTIMISATION
+     */
+    public static void optimiseFragmentSets(Collection<EquivalentFragmentSet> fragmentSets, ConceptManager conceptManager,
+                                            boolean orderedIndex, boolean tokenIndex) {
+        ImmutableList.Builder<FragmentSetOptimisation> builder = ImmutableList.<FragmentSetOptimisation>builder().addAll(OPTIMISATIONS);
+        if (orderedIndex) builder.add(ValueFragmentSet.ORDERED_INDEX_OPTIMISATION);
+        if (tokenIndex) builder.add(TokenIndexFragmentSet.TOKEN_INDEX_OPTIMISATION);
+        Collection<FragmentSetOptimisation> optimisations = builder.build();
 
         // Repeatedly apply optimisations until they don't alter the query
         boolean changed = true;
 
         while (changed) {
             changed = false;
-            for (FragmentSetOptimisation optimisation : OPTIMISATIONS) {
+            for (FragmentSetOptimisation optimisation : optimisations) {
                 changed |= optimisation.apply(fragmentSets, conceptManager);
             }
         }
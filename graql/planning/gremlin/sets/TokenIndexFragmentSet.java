@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.sets;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import grakn.core.graql.planning.gremlin.fragment.Fragments;
+import grakn.core.graql.planning.gremlin.value.ValueComparison;
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import graql.lang.Graql;
+import graql.lang.property.VarProperty;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static grakn.core.graql.planning.gremlin.sets.EquivalentFragmentSets.fragmentSetOfType;
+
+/**
+ * A query can look string attributes up from the token index when the following criteria are met:
+ * <p>
+ * 1. There is a ValueFragmentSet with a `contains` or `like` predicate referring to a literal string.
+ * 2. Every value matching the predicate must contain a substring of at least three characters: the string itself for
+ * `contains`, or a run of literal characters outside of any group for `like`.
+ * <p>
+ * When these criteria are met, the ValueFragmentSet can be replaced with a TokenIndexFragmentSet, whose fragment tests
+ * the same predicate but can also start from the attributes whose values contain the trigrams of the substrings. The
+ * optimisation is only applied when the token index is enabled and built, see EquivalentFragmentSets#optimiseFragmentSets.
+ */
+public class TokenIndexFragmentSet extends EquivalentFragmentSetImpl {
+
+    private static final int MIN_SUBSTRING_LENGTH = 3;
+    // escapes of letters which match a class of characters or an empty string, so neither continue nor spoil a run
+    private static final String CLASS_OR_BOUNDARY_ESCAPES = "dDsSwWhHvVRXbBAGZz";
+
+    private final Variable var;
+    private final ValueOperation<?, ?> operation;
+    private final Set<String> substrings;
+
+    private TokenIndexFragmentSet(@Nullable VarProperty varProperty, Variable var, ValueOperation<?, ?> operation, Set<String> substrings) {
+        super(varProperty);
+        this.var = var;
+        this.operation = operation;
+        this.substrings = substrings;
+    }
+
+    @Override
+    public final Set<Fragment> fragments() {
+        return ImmutableSet.of(Fragments.tokenIndex(varProperty(), var, operation, substrings));
+    }
+
+    static final FragmentSetOptimisation TOKEN_INDEX_OPTIMISATION = (fragmentSets, conceptManager) -> {
+        Iterable<ValueFragmentSet> valueSets = fragmentSetOfType(ValueFragmentSet.class, fragmentSets)::iterator;
+
+        for (ValueFragmentSet valueSet : valueSets) {
+            Set<String> substrings = requiredSubstrings(valueSet.operation());
+            if (substrings.isEmpty()) continue;
+
+            fragmentSets.remove(valueSet);
+            fragmentSets.add(new TokenIndexFragmentSet(valueSet.varProperty(), valueSet.var(), valueSet.operation(), substrings));
+            return true;
+        }
+
+        return false;
+    };
+
+    /**
+     * @return substrings long enough to be looked up that every value matching the operation contains
+     */
+    private static Set<String> requiredSubstrings(ValueOperation<?, ?> operation) {
+        Set<String> substrings = new HashSet<>();
+        if (!(operation instanceof ValueComparison.String)) return substrings;
+
+        String value = (String) operation.value();
+        if (operation.comparator().equals(Graql.Token.Comparator.CONTAINS)) {
+            if (value.length() >= MIN_SUBSTRING_LENGTH) substrings.add(value);
+        } else if (operation.comparator().equals(Graql.Token.Comparator.LIKE)) {
+            substrings.addAll(literalRuns(value));
+        }
+        return substrings;
+    }
+
+    /**
+     * Conservatively finds the runs of literal characters a regular expression requires a match to contain: only
+     * characters outside of groups, not made optional by a quantifier. Regular expressions with alternatives, inline
+     * flags (which may ignore white space) or quoting are not analysed, nor are those with escapes of letters or digits
+     * other than character classes and boundaries, as they may stand for characters (e.g. hexadecimal, octal, unicode or
+     * control escapes) or refer to groups.
+     */
+    @VisibleForTesting
+    static Set<String> literalRuns(String regex) {
+        Set<String> runs = new HashSet<>();
+        if (regex.contains("|") || regex.contains("(?") || regex.contains("\\Q")) return runs;
+
+        StringBuilder run = new StringBuilder();
+        int depth = 0;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            int next = i + 1;
+            Character literal = null;
+            if (c == '\\' && next < regex.length()) {
+                char escaped = regex.charAt(next++);
+                if (!Character.isLetterOrDigit(escaped)) {
+                    literal = escaped;
+                } else if ((escaped == 'p' || escaped == 'P') && next < regex.length() && regex.charAt(next) == '{') {
+                    next = regex.indexOf('}', next) + 1;
+                    if (next == 0) return new HashSet<>();
+                } else if (CLASS_OR_BOUNDARY_ESCAPES.indexOf(escaped) < 0) {
+                    return new HashSet<>();
+                }
+            } else if (c == '[') {
+                next = endOfClass(regex, next);
+                if (next < 0) return new HashSet<>();
+            } else if (c == '{') {
+                // the bounds of a quantifier are not literal
+                next = regex.indexOf('}', next) + 1;
+                if (next == 0) return new HashSet<>();
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if ("^$.*+?}".indexOf(c) < 0) {
+                literal = c;
+            }
+
+            char quantifier = next < regex.length() ? regex.charAt(next) : 0;
+            boolean optional = quantifier == '*' || quantifier == '?' || quantifier == '{';
+            if (literal != null && depth == 0 && !optional) {
+                run.append(literal);
+                // a repeated character is followed by itself or by what follows, so the run cannot go on past it
+                if (quantifier == '+') addRun(runs, run);
+            } else {
+                addRun(runs, run);
+            }
+            i = next;
+        }
+        addRun(runs, run);
+        return runs;
+    }
+
+    /**
+     * @return the index just past the end of the character class whose contents start at the given index, or -1
+     */
+    private static int endOfClass(String regex, int start) {
+        int i = start;
+        if (i < regex.length() && regex.charAt(i) == '^') i++;
+        // a closing bracket first in the class is literal
+        if (i < regex.length() && regex.charAt(i) == ']') i++;
+        int depth = 1;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static void addRun(Set<String> runs, StringBuilder run) {
+        if (run.length() >= MIN_SUBSTRING_LENGTH) runs.add(run.toString());
+        run.setLength(0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof TokenIndexFragmentSet) {
+            TokenIndexFragmentSet that = (TokenIndexFragmentSet) o;
+            return (Objects.equals(this.varProperty(), that.varProperty()))
+                    && (this.var.equals(that.var))
+                    && (this.operation.equals(that.operation));
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(varProperty(), var, operation);
+    }
+}
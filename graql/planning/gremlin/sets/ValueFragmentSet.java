@@ -19,6 +19,7 @@ package grakn.core.graql.planning.gremlin.sets;
 
 import com.google.common.collect.ImmutableSet;
 import grakn.core.graql.planning.gremlin.fragment.Fragments;
+import grakn.core.graql.planning.gremlin.fragment.ValueFragment;
 import grakn.core.graql.planning.gremlin.value.ValueOperation;
 import grakn.core.kb.graql.planning.gremlin.Fragment;
 import graql.lang.property.VarProperty;
@@ -28,15 +29,23 @@ import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.Set;
 
+import static grakn.core.graql.planning.gremlin.sets.EquivalentFragmentSets.fragmentSetOfType;
+
 class ValueFragmentSet extends EquivalentFragmentSetImpl {
 
     private final Variable var;
     private final ValueOperation<?, ?> operation;
+    private final boolean orderedIndex;
 
     ValueFragmentSet(@Nullable VarProperty varProperty, Variable var, ValueOperation<?, ?> operation) {
+        this(varProperty, var, operation, false);
+    }
+
+    private ValueFragmentSet(@Nullable VarProperty varProperty, Variable var, ValueOperation<?, ?> operation, boolean orderedIndex) {
         super(varProperty);
         this.var = var;
         this.operation = operation;
+        this.orderedIndex = orderedIndex;
     }
 
     Variable var() {
@@ -49,9 +58,28 @@ class ValueFragmentSet extends EquivalentFragmentSetImpl {
 
     @Override
     public final Set<Fragment> fragments() {
-        return ImmutableSet.of(Fragments.value(varProperty(), var(), operation()));
+        return ImmutableSet.of(Fragments.value(varProperty(), var(), operation(), orderedIndex));
     }
 
+    /**
+     * When the ordered value index is enabled and built, a range of values can be looked up from it, so the
+     * ValueFragment of a range can start a traversal. The optimisation is only applied then, see
+     * EquivalentFragmentSets#optimiseFragmentSets.
+     */
+    static final FragmentSetOptimisation ORDERED_INDEX_OPTIMISATION = (fragmentSets, conceptManager) -> {
+        Iterable<ValueFragmentSet> valueSets = fragmentSetOfType(ValueFragmentSet.class, fragmentSets)::iterator;
+
+        for (ValueFragmentSet valueSet : valueSets) {
+            if (valueSet.orderedIndex || !ValueFragment.isRange(valueSet.operation())) continue;
+
+            fragmentSets.remove(valueSet);
+            fragmentSets.add(new ValueFragmentSet(valueSet.varProperty(), valueSet.var(), valueSet.operation(), true));
+            return true;
+        }
+
+        return false;
+    };
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -61,11 +89,12 @@ class ValueFragmentSet extends EquivalentFragmentSetImpl {
 
         return (Objects.equals(this.varProperty(), that.varProperty()) &&
                 this.var.equals(that.var()) &&
-                this.operation.equals(that.operation()));
+                this.operation.equals(that.operation()) &&
+                this.orderedIndex == that.orderedIndex);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(varProperty(), var, operation);
+        return Objects.hash(varProperty(), var, operation, orderedIndex);
     }
 }
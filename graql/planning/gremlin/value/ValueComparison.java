@@ -28,6 +28,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -193,6 +195,7 @@ public abstract class ValueComparison<T, U> extends ValueOperation<T, U> {
         private final java.lang.String gremlinVariable;
 
         private static final Map<Graql.Token.Comparator, Function<java.lang.String, P<java.lang.String>>> PREDICATES_VAR = varPredicates();
+        private static final Map<Graql.Token.Comparator, Function<Object, P<Object>>> PREDICATES_VALUE = valuePredicates();
         private static final java.lang.String[] VALUE_PROPERTIES = AttributeType.ValueType.values().stream()
                 .map(Schema.VertexProperty::ofValueType).distinct()
                 .map(Enum::name).toArray(java.lang.String[]::new);
@@ -211,6 +214,16 @@ public abstract class ValueComparison<T, U> extends ValueOperation<T, U> {
             return Collections.unmodifiableMap(predicates);
         }
 
+        private static Map<Graql.Token.Comparator, Function<Object, P<Object>>> valuePredicates() {
+            Map<Graql.Token.Comparator, Function<Object, P<Object>>> predicates = new HashMap<>();
+
+            predicates.putAll(comparablePredicates());
+            predicates.put(Graql.Token.Comparator.CONTAINS, v -> new P<>((value, substring) -> value instanceof java.lang.String
+                    && substring instanceof java.lang.String && containsIgnoreCase((java.lang.String) value, (java.lang.String) substring), v));
+
+            return Collections.unmodifiableMap(predicates);
+        }
+
         @Override
         public  java.lang.String valueSerialised() {
             return null;
@@ -240,6 +253,25 @@ public abstract class ValueComparison<T, U> extends ValueOperation<T, U> {
             ).select(gremlinVariable2);
             return traversal;
         }
+
+        /**
+         * Native counterpart of #apply(GraphTraversal): whether a value property of the element satisfies this
+         * comparison with the same value property of the element bound to the compared variable
+         */
+        public boolean testValueOf(Element element, Element compared) {
+            Function<Object, P<Object>> predicate = PREDICATES_VALUE.get(comparator());
+            if (predicate == null) {
+                throw new UnsupportedOperationException("Unsupported Variable Comparison: " + comparator());
+            }
+            for (java.lang.String property : VALUE_PROPERTIES) {
+                Property<?> value = element.property(property);
+                Property<?> comparedValue = compared.property(property);
+                if (value.isPresent() && comparedValue.isPresent() && predicate.apply(comparedValue.value()).test(value.value())) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
 
@@ -27,6 +27,8 @@ import graql.lang.property.ValueProperty;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -89,6 +91,19 @@ public abstract class ValueOperation<T, U> {
         return traversal.union(array);
     }
 
+    /**
+     * Native counterpart of #apply(GraphTraversal): whether the element has a value property, of any value type
+     * comparable to the value of this operation, that satisfies this operation
+     */
+    public boolean testValueOf(Element element) {
+        AttributeType.ValueType<?> valueType = AttributeType.ValueType.of(value().getClass());
+        for (AttributeType.ValueType<?> comparableValueType : valueType.comparableValueTypes()) {
+            Property<?> property = element.property(Schema.VertexProperty.ofValueType(comparableValueType).name());
+            if (property.isPresent() && predicate().test((U) property.value())) return true;
+        }
+        return false;
+    }
+
     public boolean test(Object otherValue) {
         if (this.value().getClass().isInstance(otherValue)) {
             // TODO: Remove this forced casting
@@ -19,6 +19,7 @@
 package grakn.core.graql.reasoner;
 
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.cache.IterationDelta;
 import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
 import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
 import grakn.core.graql.reasoner.query.ResolvableQuery;
@@ -53,6 +54,8 @@ public class ResolutionIterator extends ReasonerQueryIterator {
     private final QueryCache queryCache;
     private final Stack<ResolutionState> states = new Stack<>();
     private final ResolutionTree logTree;
+    //types gaining answers per iteration, tracked from the second iteration on if the query requires reiteration
+    private IterationDelta iterationDelta = null;
 
     private ConceptMap nextAnswer = null;
 
@@ -126,13 +129,16 @@ public class ResolutionIterator extends ReasonerQueryIterator {
     @Override
     public boolean hasNext() {
         if (nextAnswer != null) return true;
-        nextAnswer = findNextAnswer();
+        nextAnswer = findNextAnswerInIteration();
         if (nextAnswer != null) return true;
 
         //iter finished
         if (reiterate()) {
             long dAns = answers.size() - oldAns;
-            if (dAns != 0 || iter == 0) {
+            //rules are only refired if their bodies gained answers in the previous iteration (semi-naive evaluation),
+            //so an iteration finding no new answers to the query may still be followed by one that does
+            boolean cacheGainedAnswers = nextIteration();
+            if (dAns != 0 || iter == 0 || cacheGainedAnswers) {
                 LOG.debug("iter: {} answers: {} dAns = {} time = {}", iter, answers.size(), dAns, System.currentTimeMillis() - startTime);
                 iter++;
                 states.push(query.resolutionState(new ConceptMap(), new UnifierImpl(), null, new HashSet<>()));
@@ -148,6 +154,29 @@ public class ResolutionIterator extends ReasonerQueryIterator {
         return false;
     }
 
+    private ConceptMap findNextAnswerInIteration(){
+        if (iterationDelta == null) return findNextAnswer();
+        MultilevelSemanticCache queryCache = CacheCasting.queryCacheCast(this.queryCache);
+        queryCache.enterIteration(iterationDelta);
+        try {
+            return findNextAnswer();
+        } finally {
+            queryCache.exitIteration();
+        }
+    }
+
+    /**
+     * Ends the current iteration. Entries gaining answers are tracked from the second iteration on, which fires all rules.
+     * @return true if any cache entry gained answers in the iteration ended, or if that is not known
+     */
+    private boolean nextIteration(){
+        if (iterationDelta == null) {
+            iterationDelta = new IterationDelta();
+            return true;
+        }
+        return iterationDelta.nextIteration();
+    }
+
     private void finalise(){
         MultilevelSemanticCache queryCache = CacheCasting.queryCacheCast(this.queryCache);
         subGoalsCompleteOnFinalise.forEach(queryCache::ackCompleteness);
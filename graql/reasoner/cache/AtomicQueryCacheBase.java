@@ -25,7 +25,9 @@ import grakn.core.kb.graql.executor.ExecutorFactory;
 import grakn.core.kb.graql.executor.TraversalExecutor;
 import grakn.core.kb.graql.planning.gremlin.TraversalPlanFactory;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -101,6 +103,15 @@ public abstract class AtomicQueryCacheBase<
         }
     }
 
+    /**
+     * @return queries marked as complete
+     */
+    List<ReasonerAtomicQuery> getCompleteQueries(){
+        List<ReasonerAtomicQuery> queries = new ArrayList<>(completeQueries);
+        completeEntries.stream().map(this::keyToQuery).forEach(queries::add);
+        return queries;
+    }
+
     void clearQueryCompleteness(){
         dbCompleteQueries.clear();
         completeQueries.clear();
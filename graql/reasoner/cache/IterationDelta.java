@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.cache;
+
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Tracks the types of the cache entries which gained answers in the current and the previous iteration of a fixpoint
+ * evaluation, so that an iteration only fires the rules whose bodies may have gained answers in the previous one
+ * (semi-naive evaluation). A rule whose body gained no answers derives nothing new, and what it derived before is
+ * already in the cache.
+ * <p>
+ * An entry gaining answers marks its type together with its super and sub types, as the answers to the queries of all
+ * of them may depend on it. Until an iteration has been tracked, every rule is fired.
+ */
+public class IterationDelta {
+
+    private Set<Label> previous = null;
+    private boolean previousAnyType = false;
+    private Set<Label> current = new HashSet<>();
+    private final Set<Label> currentSources = new HashSet<>();
+    private boolean currentAnyType = false;
+
+    /**
+     * @param type type of the entry which gained answers, null if it has none, which marks all types
+     */
+    void ackNewAnswers(@Nullable SchemaConcept type) {
+        if (type == null) {
+            currentAnyType = true;
+        } else if (currentSources.add(type.label())) {
+            Stream.concat(type.sups(), type.subs()).map(SchemaConcept::label).forEach(current::add);
+        }
+    }
+
+    /**
+     * @param bodyTypes labels of the types of the atoms of a rule body
+     * @return true if the body may have gained answers in the previous iteration
+     */
+    boolean mayGainAnswers(Set<Label> bodyTypes) {
+        return previous == null || previousAnyType || !Collections.disjoint(previous, bodyTypes);
+    }
+
+    /**
+     * Ends the current iteration, making the types which gained answers in it the ones rules are fired for in the next.
+     *
+     * @return true if any entry gained answers in the iteration ended
+     */
+    public boolean nextIteration() {
+        boolean gained = currentAnyType || !current.isEmpty();
+        previous = current;
+        previousAnyType = currentAnyType;
+        current = new HashSet<>();
+        currentSources.clear();
+        currentAnyType = false;
+        return gained;
+    }
+}
@@ -34,6 +34,7 @@ import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -49,7 +50,15 @@ public class MultilevelSemanticCache extends SemanticCache<Equivalence.Wrapper<R
     private static final Logger LOG = LoggerFactory.getLogger(MultilevelSemanticCache.class);
 
     public MultilevelSemanticCache(TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor) {
-        super(traversalPlanFactory, traversalExecutor);
+        this(traversalPlanFactory, traversalExecutor, null);
+    }
+
+    /**
+     * @param sharedAnswers answers of complete queries shared across the transactions of the keyspace, null if they are not shared
+     */
+    public MultilevelSemanticCache(TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor,
+                                   @Nullable SharedAnswerCache sharedAnswers) {
+        super(traversalPlanFactory, traversalExecutor, sharedAnswers);
     }
 
     @Override public UnifierType unifierType() { return UnifierType.STRUCTURAL;}
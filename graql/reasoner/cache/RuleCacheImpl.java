@@ -22,6 +22,7 @@ import com.google.common.annotations.VisibleForTesting;
 import grakn.core.core.Schema;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
 import grakn.core.graql.reasoner.rule.InferenceRule;
+import grakn.core.graql.reasoner.rule.MaterialisedRules;
 import grakn.core.kb.concept.api.Concept;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.api.Rule;
@@ -30,8 +31,10 @@ import grakn.core.kb.concept.api.Type;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.reasoner.cache.RuleCache;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
+import grakn.core.kb.server.cache.TransactionCache;
 import graql.lang.pattern.Pattern;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -42,6 +45,8 @@ import java.util.stream.Stream;
 /**
  * Caches rules applicable to schema concepts and their conversion to InferenceRule object (parsing is expensive when large number of rules present).
  * NB: non-committed rules are also cached.
+ * Materialised rules whose facts are current in storage are not applicable, unless the transaction has modified the
+ * instances their facts depend on, in which case the facts in storage may be out of date.
  */
 public class RuleCacheImpl implements RuleCache {
 
@@ -57,9 +62,21 @@ public class RuleCacheImpl implements RuleCache {
     private Set<Rule> checkedRules = new HashSet<>();
     private ReasonerQueryFactory reasonerQueryFactory;
 
+    private final TransactionCache transactionCache;
+    private final MaterialisedRules materialisedRules;
+    private Set<Type> modifiedDependentTypes = null;
+    private int modifiedTypesCount = 0;
+
     public RuleCacheImpl(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        this(conceptManager, keyspaceStatistics, null, null);
+    }
+
+    public RuleCacheImpl(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics,
+                         @Nullable TransactionCache transactionCache, @Nullable MaterialisedRules materialisedRules) {
         this.conceptManager = conceptManager;
         this.keyspaceStatistics = keyspaceStatistics;
+        this.transactionCache = transactionCache;
+        this.materialisedRules = materialisedRules;
     }
 
     /*
@@ -155,10 +172,10 @@ public class RuleCacheImpl implements RuleCache {
      */
     @Override
     public Stream<Rule> getRulesWithType(Type type, boolean direct) {
-        if (type == null) return getRules();
+        if (type == null) return withoutStoredRules(getRules());
 
         Set<Rule> match = ruleMap.get(type);
-        if (match != null) return match.stream();
+        if (match != null) return withoutStoredRules(match.stream());
 
         Set<Rule> rules = new HashSet<>();
         getTypes(type, direct)
@@ -167,7 +184,30 @@ public class RuleCacheImpl implements RuleCache {
                 .forEach(rules::add);
         ruleMap.put(type, rules);
 
-        return rules.stream();
+        return withoutStoredRules(rules.stream());
+    }
+
+    private Stream<Rule> withoutStoredRules(Stream<Rule> rules) {
+        if (materialisedRules == null) return rules;
+        return rules.filter(rule -> !isReadFromStorage(rule));
+    }
+
+    /**
+     * @param rule to be checked
+     * @return true if the facts of the rule are read from storage rather than inferred
+     */
+    public boolean isReadFromStorage(Rule rule) {
+        if (materialisedRules == null
+                || !transactionCache.getModifiedRules().isEmpty()
+                || !materialisedRules.isCurrent(rule)) {
+            return false;
+        }
+        Set<Type> modifiedTypes = transactionCache.getModifiedInstanceTypes();
+        if (modifiedDependentTypes == null || modifiedTypes.size() != modifiedTypesCount) {
+            modifiedDependentTypes = MaterialisedRules.dependentTypes(modifiedTypes);
+            modifiedTypesCount = modifiedTypes.size();
+        }
+        return rule.thenTypes().noneMatch(modifiedDependentTypes::contains);
     }
 
     private boolean instancePresent(Type type){
@@ -231,6 +271,7 @@ public class RuleCacheImpl implements RuleCache {
         checkedTypes.clear();
         checkedRules.clear();
         unmatchableRules.clear();
+        modifiedDependentTypes = null;
     }
 
 
@@ -22,17 +22,37 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Sets;
 import grakn.common.util.Pair;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.Explanation;
+import grakn.core.graql.reasoner.ReasoningContext;
+import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.explanation.LookupExplanation;
+import grakn.core.graql.reasoner.explanation.RuleExplanation;
 import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.graql.reasoner.rule.InferenceRule;
 import grakn.core.graql.reasoner.rule.RuleUtils;
 import grakn.core.graql.reasoner.unifier.MultiUnifierImpl;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Rule;
 import grakn.core.kb.concept.api.SchemaConcept;
 import grakn.core.kb.concept.api.Type;
+import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.executor.TraversalExecutor;
 import grakn.core.kb.graql.planning.gremlin.TraversalPlanFactory;
 import grakn.core.kb.graql.reasoner.cache.CacheEntry;
 import grakn.core.kb.graql.reasoner.unifier.MultiUnifier;
+import graql.lang.Graql;
 import graql.lang.statement.Variable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -77,18 +97,196 @@ public abstract class SemanticCache<
     final private HashMultimap<SchemaConcept, QE> families = HashMultimap.create();
     final private HashMultimap<QE, QE> parents = HashMultimap.create();
 
+    //answers of complete queries shared across the transactions of the keyspace, null if they are not shared
+    @Nullable final private SharedAnswerCache sharedAnswers;
+    //versions of the shared answers and of the schema when this cache started reading them, -1 if it does not read them
+    private long sharedVersion = -1;
+    private long sharedSchemaVersion = -1;
+    final private Set<ReasonerAtomicQuery> sharedLookups = new HashSet<>();
+    //deltas of the fixpoint iterations being evaluated, innermost first
+    final private Deque<IterationDelta> iterationDeltas = new ArrayDeque<>();
+
     private static final Logger LOG = LoggerFactory.getLogger(SemanticCache.class);
 
-    SemanticCache(TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor) {
+    SemanticCache(TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor, @Nullable SharedAnswerCache sharedAnswers) {
         super(traversalPlanFactory, traversalExecutor);
+        this.sharedAnswers = sharedAnswers;
     }
 
     @Override
     public boolean isComplete(ReasonerAtomicQuery query){
         if (super.isComplete(query)) return true;
-        return getParents(query).stream()
+        boolean parentComplete = getParents(query).stream()
                 .filter(q -> query.isSubsumedBy(keyToQuery(q)))
                 .anyMatch(q -> super.isComplete(keyToQuery(q)));
+        return parentComplete || fetchSharedAnswers(query);
+    }
+
+    /**
+     * Tracks the entries gaining answers in the delta, and fires rules according to it, until #exitIteration().
+     * Iterations may be nested, in which case entries gaining answers are tracked in the deltas of all of them.
+     */
+    public void enterIteration(IterationDelta delta){
+        iterationDeltas.push(delta);
+    }
+
+    public void exitIteration(){
+        iterationDeltas.pop();
+    }
+
+    /**
+     * @param rule rule to be fired in the innermost iteration being evaluated
+     * @return false if the body of the rule has gained no answers in the previous iteration, so it would derive nothing new
+     */
+    public boolean mayGainAnswers(InferenceRule rule){
+        IterationDelta delta = iterationDeltas.peek();
+        if (delta == null || !rule.getBody().isPositive()) return true;
+        Set<Label> bodyTypes = new HashSet<>();
+        Iterator<Atom> atoms = rule.getBody().getAtoms(Atom.class).iterator();
+        while (atoms.hasNext()) {
+            SchemaConcept type = atoms.next().getSchemaConcept();
+            if (type == null) return true;
+            bodyTypes.add(type.label());
+        }
+        return delta.mayGainAnswers(bodyTypes);
+    }
+
+    private void ackNewAnswers(ReasonerAtomicQuery query){
+        if (iterationDeltas.isEmpty()) return;
+        SchemaConcept type = query.getAtom().getSchemaConcept();
+        iterationDeltas.forEach(delta -> delta.ackNewAnswers(type));
+    }
+
+    /**
+     * Starts reading the answers shared by the transactions of the keyspace, and publishing its own complete answers
+     * on #shareAnswers. Shared answers reflect the committed state of the keyspace, so only transactions which do not
+     * write may read them.
+     */
+    public void readSharedAnswers(){
+        if (sharedAnswers == null) return;
+        sharedVersion = sharedAnswers.version();
+        sharedSchemaVersion = sharedAnswers.schemaVersion();
+    }
+
+    /**
+     * Publishes the answers of the complete queries of this cache to the transactions of the keyspace, if it reads
+     * shared answers. Queries with answers containing concepts inferred in this transaction, which are not persisted,
+     * or with answers not explained by a lookup or a rule, are not shared.
+     * NB: reads the concepts of the answers, so the transaction must still be open
+     */
+    public void shareAnswers(){
+        if (sharedVersion < 0) return;
+        for (ReasonerAtomicQuery query : getCompleteQueries()) {
+            SchemaConcept schemaConcept = query.getAtom().getSchemaConcept();
+            CacheEntry<ReasonerAtomicQuery, SE> entry = getEntry(query);
+            if (schemaConcept == null || entry == null) continue;
+
+            List<SharedAnswerCache.Answer> answers = new ArrayList<>();
+            Iterator<ConceptMap> answerIterator = entryToAnswerStreamWithUnifier(query, entry).first().iterator();
+            boolean shareable = true;
+            while (shareable && answerIterator.hasNext()) {
+                SharedAnswerCache.Answer answer = toSharedAnswer(answerIterator.next());
+                if (answer != null) answers.add(answer);
+                shareable = answer != null;
+            }
+            if (!shareable) continue;
+
+            SharedAnswerCache.Entry sharedEntry = new SharedAnswerCache.Entry(
+                    Graql.and(query.getPattern().statements()),
+                    Collections.singleton(schemaConcept.label()),
+                    answers,
+                    sharedSchemaVersion);
+            sharedAnswers.put(query.hashCode(), sharedEntry, sharedVersion);
+        }
+    }
+
+    /**
+     * @param types types whose instances a commit has modified
+     * @param rules rules a commit has modified
+     * @return labels of the types whose shared answers the commit may change, as acknowledged by #ackCommit(Set)
+     */
+    public Set<Label> committedTypes(Set<Type> types, Set<Rule> rules){
+        if (sharedAnswers == null) return Collections.emptySet();
+        return Stream.concat(types.stream(), rules.stream().flatMap(Rule::thenTypes))
+                .flatMap(type -> RuleUtils.getDependentTypes(type).stream())
+                .flatMap(Type::sups)
+                .map(SchemaConcept::label)
+                .collect(toSet());
+    }
+
+    /**
+     * Acknowledges a commit to the shared answers, evicting the answers of the types it may have changed.
+     * @param types labels of types as returned by #committedTypes(Set, Set)
+     */
+    public void ackCommit(Set<Label> types){
+        if (sharedAnswers != null) sharedAnswers.ackCommit(types);
+    }
+
+    /**
+     * Records the answers shared by another transaction of a query alpha-equivalent to the provided one, if any,
+     * and acks the query as complete. Each query is only looked up once.
+     * @return true if shared answers were found
+     */
+    private boolean fetchSharedAnswers(ReasonerAtomicQuery query){
+        if (sharedVersion < 0 || !sharedLookups.add(query)) return false;
+        ReasoningContext ctx = query.context();
+        for (SharedAnswerCache.Entry sharedEntry : sharedAnswers.get(query.hashCode())) {
+            ReasonerAtomicQuery sharedQuery = ctx.queryFactory().atomic(sharedEntry.pattern());
+            if (!sharedQuery.equals(query)) continue;
+
+            Set<Variable> vars = sharedQuery.getVarNames();
+            Set<ConceptMap> answers = new HashSet<>();
+            for (SharedAnswerCache.Answer sharedAnswer : sharedEntry.answers()) {
+                ConceptMap answer = fromSharedAnswer(sharedAnswer, ctx.conceptManager());
+                if (answer == null || !answer.vars().equals(vars)) return false;
+                answers.add(answer);
+            }
+
+            CacheEntry<ReasonerAtomicQuery, SE> entry = getEntry(sharedQuery);
+            if (entry == null) {
+                addEntry(createEntry(sharedQuery, answers));
+            } else {
+                answers.forEach(answer -> record(sharedQuery, answer, entry, null));
+            }
+            ackCompleteness(sharedQuery);
+            ackCompleteness(query);
+            LOG.trace("Shared answers of query: {} recorded: {}", query, answers.size());
+            return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private static SharedAnswerCache.Answer toSharedAnswer(ConceptMap answer){
+        Explanation explanation = answer.explanation();
+        if (!explanation.isRuleExplanation() && !explanation.isLookupExplanation()) return null;
+        Map<Variable, ConceptId> concepts = new HashMap<>();
+        for (Map.Entry<Variable, Concept> e : answer.map().entrySet()) {
+            Concept concept = e.getValue();
+            if (concept.isThing() && concept.asThing().isInferred()) return null;
+            concepts.put(e.getKey(), concept.id());
+        }
+        Label rule = explanation.isRuleExplanation() ? ((RuleExplanation) explanation).getRule().label() : null;
+        return new SharedAnswerCache.Answer(concepts, rule);
+    }
+
+    /**
+     * NB: an inferred answer is explained by the rule it was inferred by, but not by the answers the rule was applied to
+     * @return the answer in this transaction, or null if any of its concepts no longer exist
+     */
+    @Nullable
+    private static ConceptMap fromSharedAnswer(SharedAnswerCache.Answer answer, ConceptManager conceptManager){
+        Map<Variable, Concept> concepts = new HashMap<>();
+        for (Map.Entry<Variable, ConceptId> e : answer.concepts().entrySet()) {
+            Concept concept = conceptManager.getConcept(e.getValue());
+            if (concept == null) return null;
+            concepts.put(e.getKey(), concept);
+        }
+        if (answer.rule() == null) return new ConceptMap(concepts, new LookupExplanation(), null);
+
+        SchemaConcept rule = conceptManager.getSchemaConcept(answer.rule());
+        if (rule == null || !rule.isRule()) return null;
+        return new ConceptMap(concepts, new RuleExplanation(rule.asRule()), null);
     }
 
     @Override
@@ -96,6 +294,7 @@ public abstract class SemanticCache<
         super.clear();
         families.clear();
         parents.clear();
+        sharedLookups.clear();
     }
 
     /**
@@ -219,6 +418,7 @@ public abstract class SemanticCache<
                         boolean propagateInferred = fetchInferred || parentComplete || child.getAtom().getVarName().isReturned();
                         boolean newAnswers = propagateAnswers(parentMatch, childMatch, propagateInferred);
                         newAnswersFound[0] = newAnswersFound[0] || newAnswers;
+                        if (newAnswers) ackNewAnswers(child);
 
                         boolean targetSubsumesParent = target.isSubsumedBy(keyToQuery(parent));
                         //since we compare queries structurally, freshly propagated answer might not necessarily answer
@@ -256,17 +456,21 @@ public abstract class SemanticCache<
             MultiUnifier multiUnifier = unifier == null? query.getMultiUnifier(equivalentQuery, unifierType()) : unifier;
             Set<Variable> cacheVars = equivalentQuery.getVarNames();
             //NB: this indexes answer according to all indices in the set
-            multiUnifier
+            long newAnswers = multiUnifier
                     .apply(answer)
                     .peek(ans -> validateAnswer(ans, equivalentQuery, cacheVars))
-                    .forEach(answerSet::add);
+                    .filter(answerSet::add)
+                    .count();
+            if (newAnswers != 0) ackNewAnswers(equivalentQuery);
             return match;
         }
+        ackNewAnswers(query);
         return addEntry(createEntry(query, Sets.newHashSet(answer)));
     }
 
     @Override
     public Pair<Stream<ConceptMap>, MultiUnifier> getAnswerStreamWithUnifier(ReasonerAtomicQuery query) {
+        if (!isDBComplete(query)) fetchSharedAnswers(query);
         CacheEntry<ReasonerAtomicQuery, SE> match = getEntry(query);
         boolean queryGround = query.isGround();
 
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.keyspace.KeyspaceSchemaCache;
+import graql.lang.pattern.Conjunction;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shares the answers of complete atomic queries, i.e. those a transaction has resolved fully including inferred
+ * answers, across the transactions of a keyspace, so that a transaction can reuse them without resolving the rules
+ * that conclude them again.
+ * <p>
+ * Entries are held independently of the transaction they were resolved in: a query by its pattern and its answers by
+ * the concept IDs they bind, together with the label of the rule an inferred answer was concluded by. They are looked
+ * up by the alpha-equivalence hash of a query, which is made of labels and concept IDs only.
+ * <p>
+ * Only read transactions publish their complete queries when they close, and only if no commit has happened since they
+ * began, as counted by #version. Each commit evicts the entries whose types depend on the types of the instances it
+ * touched, and entries are discarded once the schema labels have changed.
+ */
+public class SharedAnswerCache {
+
+    private static final int MAX_QUERIES = 10000;
+
+    private final KeyspaceSchemaCache keyspaceSchemaCache;
+    private final Cache<Integer, List<Entry>> entries = CacheBuilder.newBuilder()
+            .maximumSize(MAX_QUERIES)
+            .recordStats()
+            .build();
+    private long version = 0;
+
+    public SharedAnswerCache(KeyspaceSchemaCache keyspaceSchemaCache) {
+        this.keyspaceSchemaCache = keyspaceSchemaCache;
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    /**
+     * @return the number of commits acknowledged so far
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Acknowledges a commit, evicting the entries of the given types. It is acknowledged both before the commit is
+     * persisted, so that transactions which have read the state before it cannot publish afterwards, and after, to
+     * evict whatever was published in between.
+     *
+     * @param types labels of the types whose answers the commit may have changed
+     */
+    public synchronized void ackCommit(Set<Label> types) {
+        version++;
+        if (types.isEmpty()) return;
+        entries.asMap().replaceAll((hash, queries) -> {
+            ImmutableList.Builder<Entry> retained = ImmutableList.builder();
+            queries.stream().filter(entry -> Collections.disjoint(entry.types, types)).forEach(retained::add);
+            return retained.build();
+        });
+        entries.asMap().values().removeIf(List::isEmpty);
+    }
+
+    /**
+     * @param hash alpha-equivalence hash of the query looked up
+     * @return the entries of queries with the same hash, which the caller checks for alpha-equivalence
+     */
+    List<Entry> get(int hash) {
+        List<Entry> queries = entries.getIfPresent(hash);
+        if (queries == null) return Collections.emptyList();
+        long schemaVersion = keyspaceSchemaCache.version();
+        if (queries.stream().anyMatch(entry -> entry.schemaVersion != schemaVersion)) {
+            entries.invalidate(hash);
+            return Collections.emptyList();
+        }
+        return queries;
+    }
+
+    /**
+     * @param readVersion the version when the publishing transaction began
+     */
+    synchronized void put(int hash, Entry entry, long readVersion) {
+        if (readVersion != version || entry.schemaVersion != keyspaceSchemaCache.version()) return;
+        List<Entry> queries = entries.getIfPresent(hash);
+        ImmutableList.Builder<Entry> updated = ImmutableList.builder();
+        if (queries != null) {
+            queries.stream().filter(other -> !other.pattern.equals(entry.pattern)).forEach(updated::add);
+        }
+        entries.put(hash, updated.add(entry).build());
+    }
+
+    long schemaVersion() {
+        return keyspaceSchemaCache.version();
+    }
+
+    static class Entry {
+        private final Conjunction<Statement> pattern;
+        private final Set<Label> types;
+        private final List<Answer> answers;
+        private final long schemaVersion;
+
+        /**
+         * @param types labels of the types the answers of the query depend on
+         */
+        Entry(Conjunction<Statement> pattern, Set<Label> types, List<Answer> answers, long schemaVersion) {
+            this.pattern = pattern;
+            this.types = types;
+            this.answers = answers;
+            this.schemaVersion = schemaVersion;
+        }
+
+        Conjunction<Statement> pattern() { return pattern;}
+
+        List<Answer> answers() { return answers;}
+    }
+
+    static class Answer {
+        private final Map<Variable, ConceptId> concepts;
+        private final Label rule;
+
+        /**
+         * @param rule label of the rule the answer was inferred by, null if it was looked up
+         */
+        Answer(Map<Variable, ConceptId> concepts, @Nullable Label rule) {
+            this.concepts = concepts;
+            this.rule = rule;
+        }
+
+        Map<Variable, ConceptId> concepts() { return concepts;}
+
+        @Nullable
+        Label rule() { return rule;}
+    }
+}
@@ -20,14 +20,22 @@ package grakn.core.graql.reasoner.plan;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import grakn.core.core.Schema;
 import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.atom.predicate.VariablePredicate;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
 import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
@@ -60,6 +68,44 @@ public class ResolutionQueryPlan {
 
     public List<ReasonerQueryImpl> queries(){ return queryPlan;}
 
+    /**
+     * @return queries of the plan that may be hash joined with the answers accumulated before them, each with an estimate
+     * of the number of its answers without a substitution - all queries but the first without variable comparisons
+     * and not requiring decomposition, whose atoms have a type
+     */
+    public Map<ReasonerQueryImpl, Long> hashJoinCandidates(){
+        Map<ReasonerQueryImpl, Long> candidates = new IdentityHashMap<>();
+        queryPlan.stream()
+                .skip(1)
+                .filter(q -> !q.getAtoms(VariablePredicate.class).findFirst().isPresent())
+                .filter(q -> !q.requiresDecomposition())
+                .forEach(q -> {
+                    long estimate = estimatedAnswers(q);
+                    if (estimate >= 0) candidates.put(q, estimate);
+                });
+        return candidates;
+    }
+
+    /**
+     * estimate the number of answers to the query from the instance counts of the types of its atoms
+     * @return the lowest instance count of the atom types, -1 if no atom has a type
+     */
+    private static long estimatedAnswers(ReasonerQueryImpl query){
+        KeyspaceStatistics keyspaceStatistics = query.context().keyspaceStatistics();
+        ConceptManager conceptManager = query.context().conceptManager();
+        return query.getAtoms(Atom.class)
+                .map(Atom::getSchemaConcept)
+                .filter(Objects::nonNull)
+                .filter(SchemaConcept::isType)
+                .mapToLong(type -> type.subs()
+                        // the statistics of meta types count the instances of their subtypes, they have none of their own
+                        .filter(t -> !Schema.MetaSchema.isMetaLabel(t.label()))
+                        .mapToLong(t -> keyspaceStatistics.count(conceptManager, t.label()))
+                        .sum())
+                .min()
+                .orElse(-1);
+    }
+
     /**
      * compute the query resolution plan - list of queries ordered by their cost as computed by the graql traversal planner
      * @return list of prioritised queries
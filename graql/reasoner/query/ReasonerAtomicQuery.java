@@ -33,6 +33,7 @@ import grakn.core.graql.reasoner.atom.AtomicUtil;
 import grakn.core.graql.reasoner.atom.PropertyAtomicFactory;
 import grakn.core.graql.reasoner.atom.binary.TypeAtom;
 import grakn.core.graql.reasoner.atom.predicate.VariablePredicate;
+import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
 import grakn.core.graql.reasoner.cache.SemanticDifference;
 import grakn.core.graql.reasoner.rule.RuleUtils;
 import grakn.core.graql.reasoner.state.AnswerPropagatorState;
@@ -60,6 +61,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 
 /**
  * Base reasoner atomic query. An atomic query is a query constrained to having at most one rule-resolvable atom
@@ -275,16 +277,28 @@ public class ReasonerAtomicQuery extends ReasonerQueryImpl {
         return Iterators.concat(dbIterator, dbCompletionIterator, subGoalIterator, partialAtomicState);
     }
 
+    @Nullable
+    @Override
+    public Stream<ConceptMap> completeAnswerStream() {
+        if (getAtom().requiresDecomposition()) return null;
+        MultilevelSemanticCache queryCache = CacheCasting.queryCacheCast(context().queryCache());
+        if (isRuleResolvable() && !queryCache.isComplete(this)) return null;
+        return queryCache.getAnswerStream(this).map(a -> a.explain(a.explanation()));
+    }
+
     /**
      * Constructs an iterator of RuleStates this query can generate - rule states correspond to rules that can be applied to this query.
      * NB: we need this iterator to be fully lazy, hence we need to ensure that the base stream doesn't have any stateful ops.
      * @param parent parent state
      * @param visitedSubGoals set of visited sub goals
      * @return ruleState iterator corresponding to rules that are matchable with this query
+     * and whose bodies may have gained answers in the previous iteration
      */
     private Iterator<ResolutionState> ruleStateIterator(AnswerPropagatorState parent, Set<ReasonerAtomicQuery> visitedSubGoals) {
+        MultilevelSemanticCache queryCache = CacheCasting.queryCacheCast(context().queryCache());
         return RuleUtils
                 .stratifyRules(getAtom().getApplicableRules().collect(Collectors.toSet()))
+                .filter(queryCache::mayGainAnswers)
                 .flatMap(r -> r.getMultiUnifier(getAtom()).stream().map(unifier -> new Pair<>(r, unifier)))
                 .map(rulePair -> rulePair.first().subGoal(this.getAtom(), rulePair.second(), parent, visitedSubGoals))
                 .iterator();
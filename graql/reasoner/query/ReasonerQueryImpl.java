@@ -663,27 +663,42 @@ public class ReasonerQueryImpl extends ResolvableQuery {
             .collect(Collectors.toList());
     }
 
+    /**
+     * @return stream of db answers to this query, which must not be rule resolvable
+     */
+    private Stream<ConceptMap> dbAnswerStream(){
+        Set<Type> queryTypes = new HashSet<>(this.getVarTypeMap().values());
+        boolean fruitless = context().ruleCache().absentTypes(queryTypes);
+        if (fruitless) return Stream.empty();
+        return traversalExecutor.traverse(getPattern())
+                .map(ans -> new ConceptMap(ans.map(), new JoinExplanation(this.splitToPartialAnswers(ans)), this.withSubstitution(ans).getPattern()));
+    }
+
+    /**
+     * @return stream of all answers to this query if they can be obtained without resolving any rules - i.e. if the query
+     * is not rule resolvable or its answers are complete in the cache, null otherwise
+     */
+    @Nullable
+    public Stream<ConceptMap> completeAnswerStream(){
+        if (isRuleResolvable() || requiresDecomposition()) return null;
+        return dbAnswerStream();
+    }
+
     @Override
     public Iterator<ResolutionState> innerStateIterator(AnswerPropagatorState parent, Set<ReasonerAtomicQuery> subGoals){
         Iterator<AnswerState> dbIterator;
         Iterator<AnswerPropagatorState> subGoalIterator;
 
         if(!this.isRuleResolvable()) {
-            Set<Type> queryTypes = new HashSet<>(this.getVarTypeMap().values());
-            boolean fruitless = context().ruleCache().absentTypes(queryTypes);
-            if (fruitless) dbIterator = Collections.emptyIterator();
-            else {
-                dbIterator = traversalExecutor.traverse(getPattern())
-                        .map(ans -> new ConceptMap(ans.map(), new JoinExplanation(this.splitToPartialAnswers(ans)), this.withSubstitution(ans).getPattern()))
-                        .map(ans -> new AnswerState(ans, parent.getUnifier(), parent))
-                        .iterator();
-            }
+            dbIterator = dbAnswerStream()
+                    .map(ans -> new AnswerState(ans, parent.getUnifier(), parent))
+                    .iterator();
             subGoalIterator = Collections.emptyIterator();
         } else {
             dbIterator = Collections.emptyIterator();
 
             ResolutionQueryPlan queryPlan = new ResolutionQueryPlan(context().queryFactory(), this);
-            subGoalIterator = Iterators.singletonIterator(new JoinState(queryPlan.queries(), new ConceptMap(), parent.getUnifier(), parent, subGoals));
+            subGoalIterator = Iterators.singletonIterator(new JoinState(queryPlan, new ConceptMap(), parent.getUnifier(), parent, subGoals));
         }
 
         Iterator<ResolutionState> partialStateIterator = requiresDecomposition()?
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.rule;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Rule;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.concept.api.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * The rules of a keyspace whose inferred facts are kept in storage, shared by the transactions of the keyspace.
+ * <p>
+ * A rule is materialised if it and all rules its body depends on are listed, so that its facts only ever depend on
+ * data and on other stored facts. Its facts are maintained by the commits which touch instances they depend on, and
+ * the rule becomes current once a commit has maintained them. Transactions read the facts of current rules from storage
+ * rather than resolving them.
+ * <p>
+ * Commits touching instances the rules depend on are counted by #version. A commit which began before another such
+ * commit finished may have maintained facts without the changes of the other, so the rules it maintained are not
+ * current until they are rederived. Changes to the rules make all rules not current.
+ * <p>
+ * Commits only maintain the rules which are current. The others are rederived by #rederive, in a transaction of its
+ * own run by a thread of the keyspace, so that no commit of a user rederives all rules.
+ * <p>
+ * Commits touching instances the rules depend on hold the maintenance lock from when they start maintaining until
+ * they are acknowledged or fail, so that two commits never delete and rederive the same facts at once, which could
+ * store a fact twice, and so that a rederivation which began before such a commit does not make its rules current.
+ */
+public class MaterialisedRules {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MaterialisedRules.class);
+
+    private final Set<Label> labels;
+    private final Set<Label> current = new HashSet<>();
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+    private final ExecutorService rederivationWorker = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("rule-rederivation-%d").setDaemon(true).build());
+    private long version = 0;
+    // true if rules may not be current and no rederivation has started since
+    private boolean stale = true;
+    private boolean rederiving = false;
+
+    /**
+     * @param labels labels of the rules listed as materialised
+     */
+    public MaterialisedRules(Set<Label> labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * @param property comma separated rule labels
+     * @return the labels listed
+     */
+    public static Set<Label> labels(String property) {
+        return Arrays.stream(property.split(","))
+                .map(String::trim)
+                .filter(label -> !label.isEmpty())
+                .map(Label::of)
+                .collect(toSet());
+    }
+
+    /**
+     * @return true if the rule and all rules its body depends on are listed
+     */
+    public boolean isMaterialised(Rule rule) {
+        return dependencies(rule).stream().allMatch(dependency -> labels.contains(dependency.label()));
+    }
+
+    /**
+     * @return true if the facts of the rule in storage are maintained up to the last commit
+     */
+    public synchronized boolean isCurrent(Rule rule) {
+        return current.contains(rule.label());
+    }
+
+    /**
+     * @return the number of commits which touched instances the rules depend on so far
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Waits for the commits of the keyspace maintaining rules to be acknowledged, then starts maintaining them
+     */
+    public void lockMaintenance() {
+        maintenanceLock.lock();
+    }
+
+    /**
+     * Lets the next commit maintain rules, once this thread's commit is acknowledged or has failed
+     */
+    public void unlockMaintenance() {
+        maintenanceLock.unlock();
+    }
+
+    /**
+     * @param readVersion   the version when the committing transaction began
+     * @param maintained    labels of the rules whose facts the commit maintained
+     * @param rulesModified true if the commit changed rules
+     * @param affected      true if the commit touched instances the rules depend on
+     */
+    public synchronized void ackCommit(long readVersion, Set<Label> maintained, boolean rulesModified, boolean affected) {
+        if (rulesModified) {
+            current.clear();
+            stale = true;
+            version++;
+            return;
+        }
+        if (!affected) return;
+        if (readVersion == version) {
+            current.addAll(maintained);
+        } else if (!maintained.isEmpty()) {
+            current.removeAll(maintained);
+            stale = true;
+        }
+        version++;
+    }
+
+    /**
+     * Runs the rederivation of the rules which are not current in the rederivation thread, unless all rules have been
+     * rederived since they last became not current, or a rederivation is running already. A rederivation which leaves
+     * rules not current, as a commit raced it, is run again; one which fails is run again after the next commit.
+     *
+     * @param rederivation rederives the rules which are not current in a transaction of its own, and commits it
+     */
+    public void rederive(Runnable rederivation) {
+        synchronized (this) {
+            if (!stale || rederiving) return;
+            stale = false;
+            rederiving = true;
+        }
+        try {
+            rederivationWorker.execute(() -> {
+                boolean failed = true;
+                try {
+                    rederivation.run();
+                    failed = false;
+                } catch (RuntimeException e) {
+                    LOG.warn("Rederiving materialised rules failed, they are resolved until a later commit rederives them", e);
+                } finally {
+                    synchronized (this) {
+                        rederiving = false;
+                        if (failed) stale = true;
+                    }
+                }
+                if (!failed) rederive(rederivation);
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                rederiving = false;
+                stale = true;
+            }
+        }
+    }
+
+    /**
+     * Stops the rederivation thread once the keyspace is closed, leaving the rules not current
+     */
+    public void shutdown() {
+        rederivationWorker.shutdownNow();
+    }
+
+    /**
+     * @return the rule together with the rules which conclude the types of its body, transitively
+     */
+    public static Set<Rule> dependencies(Rule rule) {
+        Set<Rule> dependencies = new HashSet<>();
+        Stack<Rule> rules = new Stack<>();
+        rules.push(rule);
+        while (!rules.isEmpty()) {
+            Rule dependency = rules.pop();
+            if (dependencies.add(dependency)) {
+                Stream.concat(dependency.whenPositiveTypes(), dependency.whenNegativeTypes())
+                        .flatMap(Type::subs)
+                        .flatMap(SchemaConcept::thenRules)
+                        .forEach(rules::push);
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * @return the types whose instances rules may conclude differently once instances of the given types change,
+     * including the given types
+     */
+    public static Set<Type> dependentTypes(Collection<Type> types) {
+        Set<Type> dependentTypes = new HashSet<>();
+        Stack<Type> toVisit = new Stack<>();
+        types.forEach(toVisit::push);
+        while (!toVisit.isEmpty()) {
+            Type type = toVisit.pop();
+            if (dependentTypes.add(type)) {
+                type.sups()
+                        .flatMap(SchemaConcept::whenRules)
+                        .flatMap(Rule::thenTypes)
+                        .forEach(toVisit::push);
+            }
+        }
+        return dependentTypes;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.state;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Hash indexes of the answers to the queries of a join, shared by all JoinStates of the join.
+ * <p>
+ * A JoinState resolves its query once per answer accumulated before it, with that answer as the substitution. When all
+ * answers to the query can be obtained without resolving rules, they can instead be fetched once and indexed by the
+ * variables shared with the accumulated answers, so that each accumulated answer is joined by a lookup.
+ * <p>
+ * Whether to index is decided while the join runs: a query is indexed once it has been resolved with substitutions
+ * as many times as, weighted by the cost of resolving it relative to reading an indexed answer, the estimate of the
+ * number of its answers. Joins with few accumulated answers therefore keep resolving with substitutions, which is
+ * cheaper than reading all answers, and an index is built at most at the cost of the resolutions it replaces. An index
+ * that would hold more than a maximum number of answers is abandoned.
+ */
+class JoinIndexes {
+
+    // the cost of resolving a query with a substitution in terms of reading an indexed answer
+    private static final long PROBE_COST = 16;
+    private static final int MAX_INDEXED_ANSWERS = 100000;
+
+    private final Map<ReasonerQueryImpl, Long> estimates;
+    private final Map<ReasonerQueryImpl, QueryIndex> indexes = new IdentityHashMap<>();
+
+    /**
+     * @param estimates queries which may be indexed, each with an estimate of the number of its answers
+     */
+    JoinIndexes(Map<ReasonerQueryImpl, Long> estimates) {
+        this.estimates = estimates;
+    }
+
+    static JoinIndexes empty() {
+        return new JoinIndexes(new IdentityHashMap<>());
+    }
+
+    /**
+     * @param query query of the join
+     * @param sub   answer accumulated before the query
+     * @return answers to the query compatible with the substitution, null if the query is not indexed and has to be
+     * resolved with the substitution
+     */
+    @Nullable
+    Iterator<ConceptMap> probe(ReasonerQueryImpl query, ConceptMap sub) {
+        Long estimate = estimates.get(query);
+        if (estimate == null) return null;
+        return indexes.computeIfAbsent(query, q -> new QueryIndex(estimate)).probe(query, sub);
+    }
+
+    private static class QueryIndex {
+        private long probes = 0;
+        private long buildCost;
+        private boolean abandoned = false;
+        private List<ConceptMap> answers = null;
+        private final Map<Set<Variable>, Multimap<ConceptMap, ConceptMap>> answersByJoinVars = new HashMap<>();
+
+        QueryIndex(long estimate) {
+            this.buildCost = estimate;
+        }
+
+        @Nullable
+        Iterator<ConceptMap> probe(ReasonerQueryImpl query, ConceptMap sub) {
+            if (abandoned) return null;
+            if (answers == null) {
+                probes++;
+                if (probes * PROBE_COST < buildCost || !build(query)) return null;
+            }
+            Set<Variable> joinVars = Sets.intersection(sub.vars(), query.getVarNames()).immutableCopy();
+            Multimap<ConceptMap, ConceptMap> index = answersByJoinVars.computeIfAbsent(joinVars, vars -> {
+                Multimap<ConceptMap, ConceptMap> answersByProjection = ArrayListMultimap.create();
+                answers.forEach(answer -> answersByProjection.put(answer.project(vars), answer));
+                return answersByProjection;
+            });
+            return index.get(sub.project(joinVars)).iterator();
+        }
+
+        private boolean build(ReasonerQueryImpl query) {
+            Stream<ConceptMap> answerStream = query.completeAnswerStream();
+            if (answerStream == null) {
+                //answers may become complete as resolution proceeds, try again once as many probes have happened
+                buildCost = 2 * probes * PROBE_COST;
+                return false;
+            }
+            List<ConceptMap> built = new ArrayList<>();
+            Iterator<ConceptMap> iterator = answerStream.iterator();
+            while (iterator.hasNext()) {
+                if (built.size() == MAX_INDEXED_ANSWERS) {
+                    abandoned = true;
+                    return false;
+                }
+                built.add(iterator.next());
+            }
+            answers = built;
+            return true;
+        }
+    }
+}
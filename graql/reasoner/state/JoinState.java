@@ -19,9 +19,11 @@
 package grakn.core.graql.reasoner.state;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.Explanation;
 import grakn.core.graql.reasoner.explanation.JoinExplanation;
+import grakn.core.graql.reasoner.plan.ResolutionQueryPlan;
 import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
 import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
 import grakn.core.graql.reasoner.utils.AnswerUtil;
@@ -39,19 +41,46 @@ import java.util.stream.Collectors;
 public class JoinState extends AnswerPropagatorState<ReasonerQueryImpl> {
 
     private final LinkedList<ReasonerQueryImpl> subQueries;
+    private final JoinIndexes indexes;
 
     public JoinState(List<ReasonerQueryImpl> qs,
                      ConceptMap sub,
                      Unifier u,
                      AnswerPropagatorState parent,
                      Set<ReasonerAtomicQuery> subGoals) {
+        this(qs, JoinIndexes.empty(), sub, u, parent, subGoals);
+    }
+
+    /**
+     * Join state of a query plan, which hash joins the queries of the plan that are candidates for it once that is
+     * cheaper than resolving them with each accumulated answer.
+     */
+    public JoinState(ResolutionQueryPlan plan,
+                     ConceptMap sub,
+                     Unifier u,
+                     AnswerPropagatorState parent,
+                     Set<ReasonerAtomicQuery> subGoals) {
+        this(plan.queries(), new JoinIndexes(plan.hashJoinCandidates()), sub, u, parent, subGoals);
+    }
+
+    private JoinState(List<ReasonerQueryImpl> qs,
+                      JoinIndexes indexes,
+                      ConceptMap sub,
+                      Unifier u,
+                      AnswerPropagatorState parent,
+                      Set<ReasonerAtomicQuery> subGoals) {
         super(Iterables.getFirst(qs, null), sub, u, parent, subGoals);
         this.subQueries = new LinkedList<>(qs);
+        this.indexes = indexes;
         subQueries.removeFirst();
     }
 
     @Override
     protected Iterator<ResolutionState> generateChildStateIterator() {
+        Iterator<ConceptMap> indexedAnswers = indexes.probe(getQuery(), getSubstitution());
+        if (indexedAnswers != null) {
+            return Iterators.<ConceptMap, ResolutionState>transform(indexedAnswers, ans -> new AnswerState(ans, getUnifier(), this));
+        }
         //NB: we need lazy resolutionState initialisation here, otherwise they are marked as visited before visit happens
         return getQuery().expandedStates(getSubstitution(), getUnifier(), this, getVisitedSubGoals()).iterator();
     }
@@ -77,7 +106,7 @@ public class JoinState extends AnswerPropagatorState<ReasonerQueryImpl> {
         if (answer.isEmpty()) return null;
         //NB: if we know that it is a final answer we pass it directly to the conjunctive query
         if (subQueries.isEmpty()) return new AnswerState(answer, getUnifier(), getParentState());
-        return new JoinState(subQueries, answer, getUnifier(), getParentState(), getVisitedSubGoals());
+        return new JoinState(subQueries, indexes, answer, getUnifier(), getParentState(), getVisitedSubGoals());
     }
 
     @Override
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graql.executor;
+
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import graql.lang.statement.Variable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AnswerSnapshotTest {
+
+    private static final Variable X = new Variable("x");
+    private static final Variable Y = new Variable("y");
+
+    private final Map<Long, Concept> concepts = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        for (long i = 1; i <= 10; i++) {
+            Concept concept = mock(Concept.class);
+            when(concept.id()).thenReturn(ConceptId.of("V" + i));
+            concepts.put(i, concept);
+        }
+    }
+
+    private ConceptMap answer(long x, long y) {
+        Map<Variable, Concept> map = new HashMap<>();
+        map.put(X, concepts.get(x));
+        if (y != 0) map.put(Y, concepts.get(y));
+        return new ConceptMap(map);
+    }
+
+    private List<ConceptMap> read(AnswerSnapshot snapshot, int chunkSize) {
+        return snapshot.chunks(chunkSize, concepts::get).flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Test
+    public void whenSnapshottingAnswers_theyAreRebuiltInOrder() {
+        List<ConceptMap> answers = new ArrayList<>();
+        for (long i = 1; i <= 7; i++) answers.add(answer(i, 11 - i));
+
+        AnswerSnapshot snapshot = AnswerSnapshot.of(answers.stream());
+
+        assertEquals(7, snapshot.size());
+        assertEquals(answers, read(snapshot, 3));
+    }
+
+    @Test
+    public void whenReadingInChunks_chunksHoldAtMostTheChunkSize() {
+        AnswerSnapshot snapshot = new AnswerSnapshot();
+        for (long i = 1; i <= 7; i++) snapshot.add(answer(i, i));
+
+        List<Integer> chunkSizes = snapshot.chunks(3, concepts::get).map(List::size).collect(Collectors.toList());
+
+        assertEquals(3, chunkSizes.size());
+        assertEquals(3, (int) chunkSizes.get(0));
+        assertEquals(3, (int) chunkSizes.get(1));
+        assertEquals(1, (int) chunkSizes.get(2));
+    }
+
+    @Test
+    public void whenAnAnswerMissesAVariable_itIsRebuiltWithoutIt() {
+        // the column of y is only created by the second answer, so the first answer has no id in it
+        List<ConceptMap> answers = new ArrayList<>();
+        answers.add(answer(1, 0));
+        answers.add(answer(2, 3));
+        answers.add(answer(4, 0));
+
+        List<ConceptMap> rebuilt = read(AnswerSnapshot.of(answers.stream()), 10);
+
+        assertEquals(answers, rebuilt);
+        assertFalse(rebuilt.get(0).containsVar(Y));
+        assertFalse(rebuilt.get(2).containsVar(Y));
+    }
+
+    @Test
+    public void whenAddingMoreAnswersThanTheInitialCapacity_allAreKept() {
+        List<ConceptMap> answers = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) answers.add(answer(i % 10 + 1, i % 3 == 0 ? 0 : (i + 5) % 10 + 1));
+
+        AnswerSnapshot snapshot = AnswerSnapshot.of(answers.stream());
+
+        assertEquals(answers.size(), snapshot.size());
+        assertEquals(answers, read(snapshot, 1000));
+    }
+
+    @Test
+    public void whenSnapshotIsEmpty_noChunksAreRead() {
+        AnswerSnapshot snapshot = new AnswerSnapshot();
+
+        assertEquals(0, snapshot.size());
+        assertEquals(0, snapshot.chunks(3, concepts::get).count());
+    }
+
+    @Test
+    public void vertexIdIsParsedFromTheConceptId() {
+        assertEquals(7L, AnswerSnapshot.vertexId(concepts.get(7L)));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graql.executor;
+
+import grakn.core.concept.answer.AnswerGroup;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.Numeric;
+import grakn.core.kb.concept.api.Attribute;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.manager.ConceptManager;
+import graql.lang.Graql;
+import graql.lang.statement.Variable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GroupAggregatorTest {
+
+    private static final Variable GROUP = new Variable("group");
+    private static final Variable VALUE = new Variable("value");
+    private static final int GROUPS = 200;
+    private static final int ANSWERS_PER_GROUP = 5;
+
+    private final Map<ConceptId, Concept> groups = new HashMap<>();
+    private ConceptManager conceptManager;
+    private Path spillDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        conceptManager = mock(ConceptManager.class);
+        // groups spilled to disk are read back by id
+        when(conceptManager.getConcept(any(ConceptId.class))).thenAnswer(invocation -> groups.get(invocation.<ConceptId>getArgument(0)));
+        for (int i = 0; i < GROUPS; i++) {
+            Concept group = mock(Concept.class);
+            when(group.id()).thenReturn(ConceptId.of("V" + i));
+            groups.put(group.id(), group);
+        }
+        spillDirectory = Files.createTempDirectory("group-aggregator-test").resolve("group-spill");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(spillDirectory.getParent())) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private List<ConceptMap> answers() {
+        List<ConceptMap> answers = new ArrayList<>();
+        // answers of the groups are interleaved, so that every group is still open when the groups in memory run out
+        for (int answer = 0; answer < ANSWERS_PER_GROUP; answer++) {
+            for (int i = 0; i < GROUPS; i++) {
+                Attribute<Long> attribute = mock(Attribute.class);
+                when(attribute.value()).thenReturn((long) (i * answer - answer));
+                Concept value = mock(Concept.class);
+                doReturn(attribute).when(value).asAttribute();
+                Map<Variable, Concept> map = new HashMap<>();
+                map.put(GROUP, groups.get(ConceptId.of("V" + i)));
+                map.put(VALUE, value);
+                answers.add(new ConceptMap(map));
+            }
+        }
+        return answers;
+    }
+
+    private Map<ConceptId, List<Numeric>> aggregate(Graql.Token.Aggregate.Method method, int maxGroupsInMemory) {
+        GroupAggregator aggregator = new GroupAggregator(conceptManager, method, VALUE, maxGroupsInMemory, spillDirectory);
+        List<AnswerGroup<Numeric>> answerGroups = aggregator.aggregate(answers().stream(), GROUP);
+        assertEquals(GROUPS, answerGroups.size());
+        return answerGroups.stream().collect(Collectors.toMap(group -> group.owner().id(), AnswerGroup::answers));
+    }
+
+    private Map<ConceptId, List<Numeric>> expected(Graql.Token.Aggregate.Method method) {
+        Map<ConceptId, List<ConceptMap>> answersPerGroup = new HashMap<>();
+        for (ConceptMap answer : answers()) {
+            answersPerGroup.computeIfAbsent(answer.get(GROUP).id(), id -> new ArrayList<>()).add(answer);
+        }
+        Map<ConceptId, List<Numeric>> expected = new HashMap<>();
+        answersPerGroup.forEach((id, answers) -> expected.put(id, AggregateExecutor.aggregate(answers.stream(), method, VALUE)));
+        return expected;
+    }
+
+    @Test
+    public void whenGroupsFitInMemory_theyAreAggregatedWithoutSpilling() {
+        for (Graql.Token.Aggregate.Method method : Graql.Token.Aggregate.Method.values()) {
+            assertEquals(method.toString(), expected(method), aggregate(method, GROUPS));
+        }
+        assertFalse(Files.exists(spillDirectory));
+    }
+
+    @Test
+    public void whenGroupsExceedMemory_theyAreSpilledAndAggregatedTheSame() {
+        for (Graql.Token.Aggregate.Method method : Graql.Token.Aggregate.Method.values()) {
+            assertEquals(method.toString(), expected(method), aggregate(method, 20));
+        }
+        assertTrue(Files.exists(spillDirectory));
+    }
+
+    @Test
+    public void whenPartitionsExceedMemory_theyAreSpilledAgain() {
+        // 200 groups in 16 partitions leave more than 2 groups in each, so partitions are split a level further
+        assertEquals(expected(Graql.Token.Aggregate.Method.SUM), aggregate(Graql.Token.Aggregate.Method.SUM, 2));
+        assertEquals(expected(Graql.Token.Aggregate.Method.MEDIAN), aggregate(Graql.Token.Aggregate.Method.MEDIAN, 1));
+    }
+
+    @Test
+    public void whenAggregatingIsDone_noSpillFilesAreLeft() throws IOException {
+        aggregate(Graql.Token.Aggregate.Method.COUNT, 20);
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void whenAnswersFailWhileSpilling_noSpillFilesAreLeft() throws IOException {
+        GroupAggregator aggregator = new GroupAggregator(conceptManager, Graql.Token.Aggregate.Method.COUNT, VALUE, 20, spillDirectory);
+        Stream<ConceptMap> answers = Stream.concat(
+                answers().stream(),
+                IntStream.range(0, 1).<ConceptMap>mapToObj(i -> {
+                    throw new IllegalStateException("answer failed");
+                }));
+        try {
+            aggregator.aggregate(answers, GROUP);
+            fail();
+        } catch (IllegalStateException e) {
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenSpillingWithoutADirectory_throw() {
+        new GroupAggregator(conceptManager, Graql.Token.Aggregate.Method.COUNT, VALUE, 20, null);
+    }
+}
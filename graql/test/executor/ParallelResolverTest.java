@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.executor;
+
+import com.google.common.collect.ImmutableMap;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Thing;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.exception.GraqlQueryException;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.pattern.Pattern;
+import graql.lang.query.GraqlGet;
+import graql.lang.query.MatchClause;
+import graql.lang.statement.Variable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParallelResolverTest {
+
+    private static final Variable X = new Variable("x");
+    private static final MatchClause MATCH = Graql.match(Graql.parsePattern("{$x isa a;} or {$x isa b;};"));
+
+    // answers of the disjuncts of the match clause, by the type they are of
+    private final Map<String, Stream<ConceptMap>> disjunctAnswers = new HashMap<>();
+    private final Map<ConceptId, Concept> concepts = new HashMap<>();
+    private final List<Transaction> workerTransactions = new CopyOnWriteArrayList<>();
+
+    private Transaction tx;
+    private ExecutorService workers;
+    private ParallelResolver resolver;
+
+    @Before
+    public void setUp() {
+        tx = mock(Transaction.class);
+        when(tx.type()).thenReturn(Transaction.Type.READ);
+        Session session = mock(Session.class);
+        when(session.transaction(Transaction.Type.READ)).thenAnswer(invocation -> {
+            Transaction workerTx = mock(Transaction.class);
+            when(workerTx.stream(any(GraqlGet.class), eq(true))).thenAnswer(streamInvocation -> {
+                String query = streamInvocation.getArgument(0).toString();
+                return disjunctAnswers.get(query.contains("isa a") ? "a" : "b");
+            });
+            workerTransactions.add(workerTx);
+            return workerTx;
+        });
+        ConceptManager conceptManager = mock(ConceptManager.class);
+        when(conceptManager.getConcept(any(ConceptId.class))).thenAnswer(invocation -> concepts.get(invocation.<ConceptId>getArgument(0)));
+
+        workers = Executors.newFixedThreadPool(2);
+        resolver = new ParallelResolver(session, tx, conceptManager, workers);
+    }
+
+    @After
+    public void tearDown() {
+        workers.shutdownNow();
+    }
+
+    private Concept concept(String id, boolean inferred) {
+        Concept concept;
+        if (inferred) {
+            Thing thing = mock(Thing.class);
+            when(thing.isThing()).thenReturn(true);
+            when(thing.asThing()).thenReturn(thing);
+            when(thing.isInferred()).thenReturn(true);
+            concept = thing;
+        } else {
+            concept = mock(Concept.class);
+        }
+        when(concept.id()).thenReturn(ConceptId.of(id));
+        concepts.put(ConceptId.of(id), concept);
+        return concept;
+    }
+
+    private static ConceptMap answer(Concept concept) {
+        return new ConceptMap(ImmutableMap.of(X, concept));
+    }
+
+    private static Function<Conjunction<Pattern>, Stream<ConceptMap>> noLocalResolution() {
+        return disjunct -> {
+            fail("No disjunct is expected to be resolved in the transaction of the query");
+            return Stream.empty();
+        };
+    }
+
+    @Test
+    public void whenResolvingInParallel_answersAreThoseOfResolvingTheDisjunctsInTurn() {
+        List<ConceptMap> aAnswers = IntStream.range(0, 10).mapToObj(i -> answer(concept("a" + i, false))).collect(Collectors.toList());
+        List<ConceptMap> bAnswers = IntStream.range(0, 10).mapToObj(i -> answer(concept("b" + i, false))).collect(Collectors.toList());
+        disjunctAnswers.put("a", aAnswers.stream());
+        disjunctAnswers.put("b", bAnswers.stream());
+
+        Set<ConceptMap> sequential = Stream.concat(aAnswers.stream(), bAnswers.stream()).collect(Collectors.toSet());
+        List<ConceptMap> parallel = resolver.resolve(MATCH, noLocalResolution()).collect(Collectors.toList());
+
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals(sequential, new HashSet<>(parallel));
+        workerTransactions.forEach(workerTx -> verify(workerTx, timeout(1000)).close());
+    }
+
+    @Test
+    public void whenADisjunctInfersConcepts_itIsResolvedInTheTransactionOfTheQuery() {
+        ConceptMap looked = answer(concept("a0", false));
+        ConceptMap inferred = answer(concept("b0", true));
+        disjunctAnswers.put("a", Stream.of(looked));
+        disjunctAnswers.put("b", Stream.of(inferred));
+
+        List<Conjunction<Pattern>> localDisjuncts = new ArrayList<>();
+        List<ConceptMap> answers = resolver.resolve(MATCH, disjunct -> {
+            localDisjuncts.add(disjunct);
+            return Stream.of(inferred);
+        }).collect(Collectors.toList());
+
+        assertEquals(2, answers.size());
+        assertEquals(new HashSet<>(Arrays.asList(looked, inferred)), new HashSet<>(answers));
+        assertEquals(1, localDisjuncts.size());
+        assertTrue(localDisjuncts.get(0).toString().contains("isa b"));
+    }
+
+    @Test
+    public void whenAnswersAreNotConsumed_workersWaitOnceTheQueueIsFull() throws InterruptedException {
+        Concept concept = concept("a0", false);
+        int answerCount = 3 * ParallelResolver.QUEUE_CAPACITY;
+        AtomicInteger produced = new AtomicInteger();
+        disjunctAnswers.put("a", IntStream.range(0, answerCount).mapToObj(i -> answer(concept)).peek(answer -> produced.incrementAndGet()));
+        disjunctAnswers.put("b", Stream.empty());
+
+        Stream<ConceptMap> answers = resolver.resolve(MATCH, noLocalResolution());
+        waitUntil(() -> produced.get() >= ParallelResolver.QUEUE_CAPACITY - 1);
+        Thread.sleep(500);
+        // the queue holds at most its capacity, and the worker waits to queue one more answer
+        assertTrue(produced.get() <= ParallelResolver.QUEUE_CAPACITY + 1);
+
+        assertEquals(answerCount, answers.count());
+        assertEquals(answerCount, produced.get());
+    }
+
+    @Test
+    public void whenTheTransactionIsClosed_workersStopAndTheAnswersFail() throws InterruptedException {
+        Concept concept = concept("a0", false);
+        AtomicInteger produced = new AtomicInteger();
+        disjunctAnswers.put("a", IntStream.range(0, 3 * ParallelResolver.QUEUE_CAPACITY).mapToObj(i -> answer(concept)).peek(answer -> produced.incrementAndGet()));
+        disjunctAnswers.put("b", Stream.empty());
+
+        Stream<ConceptMap> answers = resolver.resolve(MATCH, noLocalResolution());
+        waitUntil(() -> produced.get() >= ParallelResolver.QUEUE_CAPACITY - 1);
+        resolver.close();
+
+        workerTransactions.forEach(workerTx -> verify(workerTx, timeout(1000)).close());
+        int producedWhenClosed = produced.get();
+        try {
+            answers.count();
+            fail("Answers of a query of a closed transaction are expected to fail");
+        } catch (GraqlQueryException e) {
+            assertEquals(producedWhenClosed, produced.get());
+        }
+    }
+
+    @Test
+    public void whenTheAnswerStreamIsClosed_workersNotStartedYetNeverStart() throws InterruptedException {
+        workers.shutdownNow();
+        workers = Executors.newSingleThreadExecutor();
+        ConceptMap answer = answer(concept("a0", false));
+        Session session = mock(Session.class);
+        AtomicInteger started = new AtomicInteger();
+        when(session.transaction(Transaction.Type.READ)).thenAnswer(invocation -> {
+            started.incrementAndGet();
+            Transaction workerTx = mock(Transaction.class);
+            // the first worker holds the single thread until it is cancelled
+            when(workerTx.stream(any(GraqlGet.class), eq(true))).thenReturn(Stream.generate(() -> answer));
+            return workerTx;
+        });
+        resolver = new ParallelResolver(session, tx, mock(ConceptManager.class), workers);
+
+        Stream<ConceptMap> answers = resolver.resolve(MATCH, noLocalResolution());
+        waitUntil(() -> started.get() == 1);
+        answers.close();
+        Thread.sleep(500);
+
+        assertEquals(1, started.get());
+    }
+
+    @Test
+    public void whenTheTransactionWrites_disjunctsAreNotResolvedInParallel() {
+        when(tx.type()).thenReturn(Transaction.Type.WRITE);
+        assertNull(resolver.resolve(MATCH, noLocalResolution()));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out waiting for the workers");
+            Thread.sleep(10);
+        }
+    }
+}
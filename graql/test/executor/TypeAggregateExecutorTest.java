@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.executor;
+
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.Numeric;
+import grakn.core.kb.concept.api.Attribute;
+import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Rule;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import grakn.core.kb.keyspace.StatisticsDelta;
+import graql.lang.Graql;
+import graql.lang.query.GraqlGet;
+import graql.lang.statement.Variable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class TypeAggregateExecutorTest {
+
+    private static final Variable X = new Variable("x");
+    private static final Label AGE = Label.of("age");
+    private static final Label CHILD_AGE = Label.of("child-age");
+
+    // the values of the attributes of the type and of its subtype
+    private final List<Long> ages = Arrays.asList(42L, 7L, 19L, 7L, 63L);
+    private final List<Long> childAges = Arrays.asList(3L, 11L, 5L);
+
+    private ConceptManager conceptManager;
+    private KeyspaceStatistics keyspaceStatistics;
+    private StatisticsDelta statisticsDelta;
+    private AttributeType<Long> age;
+    private AttributeType<Long> childAge;
+
+    @Before
+    public void setUp() {
+        conceptManager = mock(ConceptManager.class);
+        keyspaceStatistics = mock(KeyspaceStatistics.class);
+        statisticsDelta = mock(StatisticsDelta.class);
+        age = attributeType(AGE);
+        childAge = attributeType(CHILD_AGE);
+        doAnswer(invocation -> Stream.of(age, childAge)).when(age).subs();
+        doAnswer(invocation -> Stream.of(childAge)).when(childAge).subs();
+        doReturn(age).when(conceptManager).getSchemaConcept(AGE);
+        doAnswer(invocation -> ages.stream()).when(conceptManager).getValuesDirect(age);
+        doAnswer(invocation -> childAges.stream()).when(conceptManager).getValuesDirect(childAge);
+        when(conceptManager.countInstancesDirect(age)).thenReturn((long) ages.size());
+        when(conceptManager.countInstancesDirect(childAge)).thenReturn((long) childAges.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AttributeType<Long> attributeType(Label label) {
+        AttributeType<Long> attributeType = mock(AttributeType.class);
+        when(attributeType.label()).thenReturn(label);
+        when(attributeType.isType()).thenReturn(true);
+        when(attributeType.isAttributeType()).thenReturn(true);
+        doReturn(attributeType).when(attributeType).asType();
+        doReturn(attributeType).when(attributeType).asAttributeType();
+        doReturn(AttributeType.ValueType.LONG).when(attributeType).valueType();
+        doAnswer(invocation -> Stream.empty()).when(attributeType).thenRules();
+        return attributeType;
+    }
+
+    /**
+     * @return the aggregate of the answers the instance scan would match, one per attribute
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Numeric> scanned(List<Long> values, Graql.Token.Aggregate.Method method) {
+        List<ConceptMap> answers = values.stream().map(value -> {
+            Attribute<Long> attribute = mock(Attribute.class);
+            when(attribute.value()).thenReturn(value);
+            Concept concept = mock(Concept.class);
+            doReturn(attribute).when(concept).asAttribute();
+            return new ConceptMap(Collections.singletonMap(X, concept));
+        }).collect(Collectors.toList());
+        switch (method) {
+            case COUNT:
+                return AggregateExecutor.count(answers.stream());
+            case MAX:
+                return AggregateExecutor.max(answers.stream(), X);
+            case MEAN:
+                return AggregateExecutor.mean(answers.stream(), X);
+            case MEDIAN:
+                return AggregateExecutor.median(answers.stream(), X);
+            case MIN:
+                return AggregateExecutor.min(answers.stream(), X);
+            case STD:
+                return AggregateExecutor.std(answers.stream(), X);
+            case SUM:
+                return AggregateExecutor.sum(answers.stream(), X);
+            default:
+                throw new IllegalArgumentException("Invalid Aggregate method");
+        }
+    }
+
+    private static GraqlGet.Aggregate query(String query) {
+        return Graql.parse(query).asGetAggregate();
+    }
+
+    @Test
+    public void whenAggregatingTheValuesOfAType_theResultsAreTheSameAsTheInstanceScan() {
+        TypeAggregateExecutor executor = new TypeAggregateExecutor(conceptManager, keyspaceStatistics, statisticsDelta, false);
+        List<Long> allAges = Stream.concat(ages.stream(), childAges.stream()).collect(Collectors.toList());
+        for (Graql.Token.Aggregate.Method method : Graql.Token.Aggregate.Method.values()) {
+            String aggregate = method == Graql.Token.Aggregate.Method.COUNT ? "count;" : method + " $x;";
+            assertEquals(aggregate, scanned(allAges, method), executor.aggregate(query("match $x isa age; get $x; " + aggregate), false));
+            assertEquals(aggregate, scanned(ages, method), executor.aggregate(query("match $x isa! age; get $x; " + aggregate), false));
+        }
+    }
+
+    @Test
+    public void whenStatisticsCountIsOff_staleStatisticsAreNotReadAndTheInstancesAreCounted() {
+        // statistics shared by the keyspace may include transactions committed since this one began
+        when(keyspaceStatistics.count(any(), any(Label.class))).thenReturn(1000L);
+        TypeAggregateExecutor executor = new TypeAggregateExecutor(conceptManager, keyspaceStatistics, statisticsDelta, false);
+
+        List<Numeric> count = executor.aggregate(query("match $x isa age; get $x; count;"), false);
+
+        assertEquals(Collections.singletonList(new Numeric(ages.size() + childAges.size())), count);
+        verifyZeroInteractions(keyspaceStatistics, statisticsDelta);
+    }
+
+    @Test
+    public void whenStatisticsCountIsOn_theCountIsTheStatisticsWithTheChangesOfTheTransaction() {
+        when(keyspaceStatistics.count(conceptManager, AGE)).thenReturn(5L);
+        when(keyspaceStatistics.count(conceptManager, CHILD_AGE)).thenReturn(3L);
+        when(statisticsDelta.delta(AGE)).thenReturn(2L);
+        when(statisticsDelta.delta(CHILD_AGE)).thenReturn(-1L);
+        TypeAggregateExecutor executor = new TypeAggregateExecutor(conceptManager, keyspaceStatistics, statisticsDelta, true);
+
+        assertEquals(Collections.singletonList(new Numeric(9L)), executor.aggregate(query("match $x isa age; get $x; count;"), false));
+    }
+
+    @Test
+    public void whenTheQueryIsNotOnlyTheInstancesOfAType_itFallsBackToTheInstanceScan() {
+        TypeAggregateExecutor executor = new TypeAggregateExecutor(conceptManager, keyspaceStatistics, statisticsDelta, false);
+
+        assertNull(executor.aggregate(query("match $x isa age; get $x; limit 3; sum $x;"), false));
+        assertNull(executor.aggregate(query("match $x isa age, has name $n; get $x; count;"), false));
+        assertNull(executor.aggregate(query("match $x isa age; $y isa age; get $x, $y; count;"), false));
+    }
+
+    @Test
+    public void whenARuleInfersInstancesOfTheType_itFallsBackToTheInstanceScanWhenInferring() {
+        doAnswer(invocation -> Stream.of(mock(Rule.class))).when(childAge).thenRules();
+        TypeAggregateExecutor executor = new TypeAggregateExecutor(conceptManager, keyspaceStatistics, statisticsDelta, false);
+        GraqlGet.Aggregate count = query("match $x isa age; get $x; count;");
+
+        assertNull(executor.aggregate(count, true));
+        assertEquals(Collections.singletonList(new Numeric(ages.size() + childAges.size())), executor.aggregate(count, false));
+    }
+}
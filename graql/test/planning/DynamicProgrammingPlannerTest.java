@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graql.planning;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import graql.lang.statement.Variable;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DynamicProgrammingPlannerTest {
+
+    private static final long THINGS = 1000;
+
+    private final Variable x = new Variable("x");
+    private final Variable y = new Variable("y");
+    private final Variable z = new Variable("z");
+
+    private ConceptManager conceptManager;
+    private KeyspaceStatistics keyspaceStatistics;
+
+    @Before
+    public void setUp() {
+        conceptManager = mock(ConceptManager.class);
+        keyspaceStatistics = mock(KeyspaceStatistics.class);
+        when(keyspaceStatistics.count(any(), any(Label.class))).thenReturn(THINGS);
+        // mocks answer 0 rather than null for a Double, which would read as an observed fan-out
+        when(keyspaceStatistics.observedFanOut(anyString())).thenReturn(null);
+    }
+
+    /**
+     * @param startCount the number of elements the fragment starts from when it restarts from an index, or 0 if it
+     *                   cannot
+     */
+    private Fragment fragment(String shape, Variable start, @Nullable Variable end, Set<Variable> dependencies,
+                              double fanOut, long startCount) {
+        Fragment fragment = mock(Fragment.class);
+        when(fragment.shape()).thenReturn(shape);
+        when(fragment.start()).thenReturn(start);
+        when(fragment.end()).thenReturn(end);
+        when(fragment.vars()).thenReturn(end != null ? ImmutableSet.of(start, end) : ImmutableSet.of(start));
+        when(fragment.dependencies()).thenReturn(dependencies);
+        when(fragment.estimatedFanOut(any(), any(), any())).thenReturn(fanOut);
+        when(fragment.hasFixedFragmentCost()).thenReturn(startCount > 0);
+        when(fragment.estimatedStartCount(any(), any())).thenReturn((double) startCount);
+        return fragment;
+    }
+
+    private static Set<EquivalentFragmentSet> sets(Fragment... fragments) {
+        return ImmutableList.copyOf(fragments).stream().map(fragment -> {
+            EquivalentFragmentSet set = mock(EquivalentFragmentSet.class);
+            when(set.fragments()).thenReturn(ImmutableSet.of(fragment));
+            return set;
+        }).collect(Collectors.toSet());
+    }
+
+    private List<Fragment> plan(int maxVars, Fragment... fragments) {
+        return DynamicProgrammingPlanner.plan(ImmutableSet.copyOf(fragments), sets(fragments), conceptManager, keyspaceStatistics, maxVars);
+    }
+
+    @Test
+    public void whenAFragmentStartsFromAnIndex_thePlanStartsFromIt() {
+        Fragment edge = fragment("-[edge]->", x, y, ImmutableSet.of(), 100, 0);
+        Fragment index = fragment("[index]", x, null, ImmutableSet.of(), 1, 1);
+
+        assertEquals(ImmutableList.of(index, edge), plan(5, edge, index));
+    }
+
+    @Test
+    public void whenConjunctionHasMoreVariablesThanTheMaximum_itIsNotPlanned() {
+        Fragment edge = fragment("-[edge]->", x, y, ImmutableSet.of(), 100, 0);
+        Fragment index = fragment("[index]", x, null, ImmutableSet.of(), 1, 1);
+
+        assertNull(plan(1, edge, index));
+    }
+
+    @Test
+    public void whenExhaustivePlanningIsDisabled_nothingIsPlanned() {
+        Fragment index = fragment("[index]", x, null, ImmutableSet.of(), 1, 1);
+
+        assertNull(plan(0, index));
+    }
+
+    @Test
+    public void whenAFragmentHasDependencies_itIsPlannedAfterThem() {
+        Fragment indexX = fragment("[index-x]", x, null, ImmutableSet.of(), 1, 1);
+        Fragment edge = fragment("-[edge]->", x, y, ImmutableSet.of(), 100, 0);
+        Fragment indexZ = fragment("[index-z]", z, null, ImmutableSet.of(), 1, 1);
+        // cheapest to start from, but only once z is visited
+        Fragment dependent = fragment("[dependent]", y, null, ImmutableSet.of(z), 1, 1);
+
+        List<Fragment> plan = plan(5, indexX, edge, indexZ, dependent);
+
+        assertEquals(4, plan.size());
+        assertTrue(plan.containsAll(ImmutableList.of(indexX, edge, indexZ, dependent)));
+        assertTrue(plan.indexOf(indexZ) < plan.indexOf(dependent));
+    }
+
+    @Test
+    public void whenReplanning_theMostSelectiveFragmentIsExecutedFirst() {
+        Fragment wide = fragment("-[wide]->", x, y, ImmutableSet.of(), 100, 0);
+        Fragment narrow = fragment("-[narrow]->", x, z, ImmutableSet.of(), 1, 0);
+        DynamicProgrammingPlanner planner = new DynamicProgrammingPlanner(ImmutableList.of(wide, narrow), conceptManager, keyspaceStatistics);
+
+        List<Fragment> plan = planner.replan(ImmutableList.of(wide, narrow), ImmutableSet.of(x), ImmutableMap.of(), 5);
+
+        assertEquals(ImmutableList.of(narrow, wide), plan);
+    }
+
+    @Test
+    public void whenReplanningWithObservedFanOuts_theyReplaceTheEstimates() {
+        Fragment wide = fragment("-[wide]->", x, y, ImmutableSet.of(), 100, 0);
+        Fragment narrow = fragment("-[narrow]->", x, z, ImmutableSet.of(), 1, 0);
+        DynamicProgrammingPlanner planner = new DynamicProgrammingPlanner(ImmutableList.of(wide, narrow), conceptManager, keyspaceStatistics);
+
+        List<Fragment> plan = planner.replan(ImmutableList.of(wide, narrow), ImmutableSet.of(x), ImmutableMap.of(narrow, 1000D), 5);
+
+        assertEquals(ImmutableList.of(wide, narrow), plan);
+    }
+
+    @Test
+    public void whenAFanOutHasBeenObservedInTheKeyspace_itReplacesTheEstimate() {
+        when(keyspaceStatistics.observedFanOut("-[narrow]->{}")).thenReturn(1000D);
+        Fragment wide = fragment("-[wide]->", x, y, ImmutableSet.of(), 100, 0);
+        Fragment narrow = fragment("-[narrow]->", x, z, ImmutableSet.of(), 1, 0);
+        DynamicProgrammingPlanner planner = new DynamicProgrammingPlanner(ImmutableList.of(wide, narrow), conceptManager, keyspaceStatistics);
+
+        assertEquals(1000D, planner.estimatedFanOut(narrow, ImmutableSet.of(x)), 0);
+        assertEquals(ImmutableList.of(wide, narrow), planner.replan(ImmutableList.of(wide, narrow), ImmutableSet.of(x), ImmutableMap.of(), 5));
+    }
+
+    @Test
+    public void whenTheEndOfAFragmentIsVisited_itsFanOutIsTheChanceOfReachingIt() {
+        Fragment edge = fragment("-[edge]->", x, y, ImmutableSet.of(), 100, 0);
+        DynamicProgrammingPlanner planner = new DynamicProgrammingPlanner(ImmutableList.of(edge), conceptManager, keyspaceStatistics);
+
+        assertEquals(100D, planner.estimatedFanOut(edge, ImmutableSet.of(x)), 0);
+        assertEquals(100D / THINGS, planner.estimatedFanOut(edge, ImmutableSet.of(x, y)), 1e-9);
+    }
+
+    @Test
+    public void whenRecordingAnObservedFanOut_itIsKeyedByTheShapeOfTheFragment() {
+        Fragment edge = fragment("-[edge]->", x, y, ImmutableSet.of(), 100, 0);
+        DynamicProgrammingPlanner planner = new DynamicProgrammingPlanner(ImmutableList.of(edge), conceptManager, keyspaceStatistics);
+
+        planner.recordObservedFanOut(edge, 5D);
+
+        verify(keyspaceStatistics).recordObservedFanOut("-[edge]->{}", 5D);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.planning;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graql.planning.gremlin.fragment.Bindings;
+import grakn.core.graql.planning.gremlin.fragment.FragmentImpl;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class NativeTraversalTest {
+
+    private static final int DIVERGENCE = 10;
+    private static final int FAN_OUT = 100;
+
+    private final Variable x = new Variable("x");
+    private final Variable y = new Variable("y");
+    private final Variable z = new Variable("z");
+
+    private final JanusGraphTransaction tx = mock(JanusGraphTransaction.class);
+    private final ConceptManager conceptManager = mock(ConceptManager.class);
+    private KeyspaceStatistics keyspaceStatistics;
+
+    private final List<Vertex> xs = Arrays.asList(mock(Vertex.class), mock(Vertex.class));
+    private final Map<Element, List<Vertex>> ysOfX = new HashMap<>();
+    private final Set<Element> selectedYs = new HashSet<>();
+    private final Vertex zVertex = mock(Vertex.class);
+    private final AtomicInteger yzApplications = new AtomicInteger();
+
+    private List<Fragment> plan;
+
+    @Before
+    public void setUp() {
+        keyspaceStatistics = mock(KeyspaceStatistics.class);
+        when(keyspaceStatistics.count(any(), any(Label.class))).thenReturn(1000L);
+        // mocks answer 0 rather than null for a Double, which would read as an observed fan-out
+        when(keyspaceStatistics.observedFanOut(anyString())).thenReturn(null);
+
+        for (Vertex xVertex : xs) {
+            List<Vertex> ys = new ArrayList<>();
+            for (int i = 0; i < FAN_OUT; i++) {
+                Vertex yVertex = mock(Vertex.class);
+                ys.add(yVertex);
+                if (i % 5 == 0) selectedYs.add(yVertex);
+            }
+            ysOfX.put(xVertex, ys);
+        }
+
+        // all fragments are estimated to let every row through, but `wide` leads to FAN_OUT ys from each x, of which
+        // `selective` only lets a fifth through
+        FragmentImpl startX = fragment("[start]", x, null, (start, row) -> Iterators.singletonIterator(row));
+        doAnswer(invocation -> xs.iterator()).when(startX).startNative(any(), any());
+        FragmentImpl wide = fragment("-[wide]->", x, y, (start, row) ->
+                Iterators.transform(ysOfX.get(start).iterator(), yVertex -> row.bind(y, yVertex)));
+        FragmentImpl yz = fragment("-[yz]->", y, z, (start, row) -> {
+            yzApplications.incrementAndGet();
+            return Iterators.singletonIterator(row.bind(z, zVertex));
+        });
+        FragmentImpl selective = fragment("[selective]", y, null, (start, row) ->
+                selectedYs.contains(start) ? Iterators.singletonIterator(row) : Collections.emptyIterator());
+        plan = ImmutableList.of(startX, wide, yz, selective);
+    }
+
+    private static FragmentImpl fragment(String name, Variable start, @Nullable Variable end,
+                                         BiFunction<Element, Bindings, Iterator<Bindings>> applyNative) {
+        FragmentImpl fragment = mock(FragmentImpl.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        doReturn(name).when(fragment).name();
+        doReturn(start).when(fragment).start();
+        doReturn(end).when(fragment).end();
+        doReturn(1D).when(fragment).estimatedFanOut(any(), any(), any());
+        doAnswer(invocation -> applyNative.apply(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(fragment).applyNative(any(), any(), any(), any());
+        return fragment;
+    }
+
+    private Set<List<Vertex>> answers(NativeTraversal traversal) {
+        return traversal.bindings(plan, ImmutableList.of(x, y, z)).map(Arrays::asList).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void whenAnObservedFanOutDiverges_theRestOfThePlanIsReplannedAndTheAnswersStayTheSame() {
+        Set<List<Vertex>> expected = answers(new NativeTraversal(tx, conceptManager));
+        int yzApplicationsAsPlanned = yzApplications.getAndSet(0);
+
+        Set<List<Vertex>> replanned = answers(new NativeTraversal(tx, conceptManager, keyspaceStatistics, DIVERGENCE));
+
+        assertEquals(xs.size() * FAN_OUT / 5, expected.size());
+        assertEquals(expected, replanned);
+        verify(keyspaceStatistics).recordObservedFanOut(eq("-[wide]->{}"), eq((double) FAN_OUT));
+        // the selective filter now runs before `yz`, which is only applied to the rows it lets through, and the probes
+        assertEquals(xs.size() * FAN_OUT, yzApplicationsAsPlanned);
+        assertTrue(yzApplications.get() < yzApplicationsAsPlanned / 2);
+    }
+
+    @Test
+    public void whenObservedFanOutsMatchTheEstimates_thePlanIsKept() {
+        ysOfX.replaceAll((xVertex, ys) -> ys.subList(0, 1));
+        selectedYs.addAll(ysOfX.values().stream().flatMap(List::stream).collect(Collectors.toSet()));
+
+        Set<List<Vertex>> answers = answers(new NativeTraversal(tx, conceptManager, keyspaceStatistics, DIVERGENCE));
+
+        assertEquals(xs.size(), answers.size());
+        verify(keyspaceStatistics, never()).recordObservedFanOut(anyString(), any(Double.class));
+        assertEquals(xs.size(), yzApplications.get());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graql.planning;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import grakn.core.graql.planning.gremlin.fragment.Fragments;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import grakn.core.kb.keyspace.KeyspaceSchemaCache;
+import graql.lang.statement.Variable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TraversalPlanCacheTest {
+
+    private static final long INSTANCES = 1000;
+
+    private KeyspaceSchemaCache keyspaceSchemaCache;
+    private TraversalPlanCache cache;
+
+    @Before
+    public void setUp() {
+        keyspaceSchemaCache = new KeyspaceSchemaCache();
+        cache = new TraversalPlanCache(keyspaceSchemaCache);
+    }
+
+    /**
+     * @return the fragments of `$thing id ...; $thing isa $type; $type type <label>;`, in the order of a plan
+     */
+    private static ImmutableList<Fragment> fragments(String thing, String type, String id, String label) {
+        Variable thingVar = new Variable(thing);
+        Variable typeVar = new Variable(type);
+        return ImmutableList.of(
+                Fragments.id(null, thingVar, ConceptId.of(id)),
+                Fragments.outIsa(null, thingVar, typeVar),
+                Fragments.label(null, typeVar, ImmutableSet.of(Label.of(label))));
+    }
+
+    private static Set<EquivalentFragmentSet> sets(List<Fragment> fragments) {
+        return fragments.stream().map(fragment -> {
+            EquivalentFragmentSet set = mock(EquivalentFragmentSet.class);
+            when(set.fragments()).thenReturn(ImmutableSet.of(fragment));
+            when(set.stream()).thenAnswer(invocation -> ImmutableSet.of(fragment).stream());
+            return set;
+        }).collect(Collectors.toSet());
+    }
+
+    private void put(List<Fragment> plan) {
+        cache.put(cache.shape(plan), plan, sets(plan), INSTANCES, 0);
+    }
+
+    private List<Fragment> get(List<Fragment> fragments, long instanceCount, long fanOutsVersion) {
+        return cache.get(cache.shape(fragments), sets(fragments), instanceCount, fanOutsVersion);
+    }
+
+    @Test
+    public void whenConjunctionDiffersInVariablesAndIds_thePlanIsReplayedAgainstItsFragments() {
+        put(fragments("x", "t", "V1", "person"));
+
+        ImmutableList<Fragment> fragments = fragments("y", "s", "V2", "person");
+        // the fragments are looked up in any order, and the plan puts them back in the order it was planned in
+        assertEquals(fragments, get(fragments.reverse(), INSTANCES, 0));
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void whenConjunctionDiffersInRegex_thePlanIsReplayedAgainstItsFragments() {
+        Variable type = new Variable("t");
+        put(ImmutableList.of(
+                Fragments.label(null, type, ImmutableSet.of(Label.of("name"))),
+                Fragments.regex(null, type, "[a-z]+")));
+
+        ImmutableList<Fragment> fragments = ImmutableList.of(
+                Fragments.label(null, type, ImmutableSet.of(Label.of("name"))),
+                Fragments.regex(null, type, "[A-Z]+"));
+        // the plan is shared, but holds the regex of the conjunction it is replayed against
+        assertEquals(fragments, get(fragments.reverse(), INSTANCES, 0));
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void whenConjunctionDiffersInLabels_thereIsNoPlan() {
+        put(fragments("x", "t", "V1", "person"));
+
+        assertNull(get(fragments("x", "t", "V1", "company"), INSTANCES, 0));
+    }
+
+    @Test
+    public void whenSchemaChanges_thePlanIsDiscarded() {
+        List<Fragment> plan = fragments("x", "t", "V1", "person");
+        put(plan);
+
+        keyspaceSchemaCache.overwriteCache(ImmutableMap.of());
+
+        assertNull(get(plan, INSTANCES, 0));
+    }
+
+    @Test
+    public void whenInstanceCountDrifts_thePlanIsDiscarded() {
+        List<Fragment> plan = fragments("x", "t", "V1", "person");
+        put(plan);
+
+        assertEquals(plan, get(plan, 2 * INSTANCES, 0));
+        assertNull(get(plan, 2 * INSTANCES + 1, 0));
+        // once discarded, the plan is not found even for the count it was planned with
+        assertNull(get(plan, INSTANCES, 0));
+    }
+
+    @Test
+    public void whenObservedFanOutsChange_thePlanIsDiscarded() {
+        List<Fragment> plan = fragments("x", "t", "V1", "person");
+        put(plan);
+
+        assertNull(get(plan, INSTANCES, 1));
+    }
+
+    @Test
+    public void whenPlanDoesNotVisitDependenciesFirst_itIsNotCached() {
+        Variable x = new Variable("x");
+        Variable y = new Variable("y");
+        Fragment neq = Fragments.neq(null, x, y);
+        Fragment idX = Fragments.id(null, x, ConceptId.of("V1"));
+        Fragment idY = Fragments.id(null, y, ConceptId.of("V2"));
+        List<Fragment> plan = ImmutableList.of(idX, neq, idY);
+
+        put(plan);
+
+        assertNull(get(plan, INSTANCES, 0));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graql.planning.gremlin.sets;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import graql.lang.property.ValueProperty;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static graql.lang.Graql.var;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class TokenIndexFragmentSetTest {
+
+    @Test
+    public void whenTheTokenIndexIsOff_substringsAreNotLookedUpNorStartThePlan() {
+        EquivalentFragmentSet fragmentSet = optimisedFragmentSet(var("x").contains("grakn"), false);
+
+        assertFalse(fragmentSet instanceof TokenIndexFragmentSet);
+        assertFalse(Iterables.getOnlyElement(fragmentSet.fragments()).hasFixedFragmentCost());
+    }
+
+    @Test
+    public void whenTheTokenIndexIsOn_substringsAreLookedUpAndStartThePlan() {
+        EquivalentFragmentSet fragmentSet = optimisedFragmentSet(var("x").like("^abc.*def$"), true);
+
+        assertTrue(fragmentSet instanceof TokenIndexFragmentSet);
+        assertTrue(Iterables.getOnlyElement(fragmentSet.fragments()).hasFixedFragmentCost());
+    }
+
+    @Test
+    public void whenTheTokenIndexIsOn_substringsTooShortAreNotLookedUp() {
+        assertFalse(optimisedFragmentSet(var("x").contains("ab"), true) instanceof TokenIndexFragmentSet);
+    }
+
+    private static EquivalentFragmentSet optimisedFragmentSet(Statement statement, boolean tokenIndex) {
+        ValueOperation<?, ?> operation = ValueOperation.of(statement.getProperty(ValueProperty.class).get().operation());
+        Collection<EquivalentFragmentSet> fragmentSets = Sets.newHashSet(EquivalentFragmentSets.value(null, new Variable("x"), operation));
+        EquivalentFragmentSets.optimiseFragmentSets(fragmentSets, mock(ConceptManager.class), false, tokenIndex);
+        return Iterables.getOnlyElement(fragmentSets);
+    }
+
+    @Test
+    public void whenRegexIsLiteral_theWholeRegexIsARun() {
+        assertEquals(ImmutableSet.of("grakn"), TokenIndexFragmentSet.literalRuns("grakn"));
+        assertEquals(ImmutableSet.of("a.b"), TokenIndexFragmentSet.literalRuns("a\\.b"));
+    }
+
+    @Test
+    public void whenRegexHasWildcardsAndClasses_theRunsBetweenThemAreFound() {
+        assertEquals(ImmutableSet.of("abc", "def"), TokenIndexFragmentSet.literalRuns("^abc.*def$"));
+        assertEquals(ImmutableSet.of("abc", "def"), TokenIndexFragmentSet.literalRuns("abc[xyz]def"));
+        assertEquals(ImmutableSet.of("abc", "def"), TokenIndexFragmentSet.literalRuns("abc\\d+def"));
+        assertEquals(ImmutableSet.of("abc", "def"), TokenIndexFragmentSet.literalRuns("abc\\bdef"));
+        assertEquals(ImmutableSet.of("abc", "def"), TokenIndexFragmentSet.literalRuns("abc\\p{Lu}def"));
+    }
+
+    @Test
+    public void whenCharactersAreOptionalOrGrouped_theyEndTheRun() {
+        assertEquals(ImmutableSet.of("abc"), TokenIndexFragmentSet.literalRuns("abcd?ef"));
+        assertEquals(ImmutableSet.of("abc"), TokenIndexFragmentSet.literalRuns("abcd*"));
+        assertEquals(ImmutableSet.of("abc"), TokenIndexFragmentSet.literalRuns("abcd{0,2}"));
+        assertEquals(ImmutableSet.of("abc", "ghi"), TokenIndexFragmentSet.literalRuns("abc(def)ghi"));
+        // a repeated character may be followed by itself, so the run ends with it
+        assertEquals(ImmutableSet.of("abc", "def"), TokenIndexFragmentSet.literalRuns("abc+def"));
+    }
+
+    @Test
+    public void whenRunsAreTooShort_noneAreFound() {
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("ab.cd"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns(".*"));
+    }
+
+    @Test
+    public void whenRegexHasAlternativesFlagsOrQuoting_itIsNotAnalysed() {
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc|def"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("(?i)abcdef"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("\\Qabc.def\\E"));
+    }
+
+    @Test
+    public void whenRegexEscapesCharacters_itIsNotAnalysed() {
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc\\x41def"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("caf\\u00e9s"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc\\0101def"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc\\cJdef"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc\\tdef"));
+    }
+
+    @Test
+    public void whenRegexRefersToGroups_itIsNotAnalysed() {
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("(x)abc\\1def"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc\\k<name>def"));
+    }
+
+    @Test
+    public void whenRegexIsMalformed_noRunsAreFound() {
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc[def"));
+        assertEquals(Collections.emptySet(), TokenIndexFragmentSet.literalRuns("abc{2"));
+    }
+}
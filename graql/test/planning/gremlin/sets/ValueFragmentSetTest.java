@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.planning.gremlin.sets;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graql.planning.gremlin.fragment.FragmentImpl;
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import graql.lang.property.ValueProperty;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+import org.junit.Test;
+
+import java.util.Collection;
+
+import static graql.lang.Graql.var;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class ValueFragmentSetTest {
+
+    private static final Variable x = new Variable("x");
+
+    private final ConceptManager conceptManager = mock(ConceptManager.class);
+
+    @Test
+    public void whenTheOrderedIndexIsOff_aRangeHasNoFixedCostAndIsNotLookedUp() {
+        JanusGraphTransaction tx = mock(JanusGraphTransaction.class);
+        Fragment fragment = optimisedFragment(var("x").gt(10), false);
+
+        assertFalse(fragment.hasFixedFragmentCost());
+        assertNull(((FragmentImpl) fragment).startNative(tx, conceptManager));
+        verifyZeroInteractions(tx);
+    }
+
+    @Test
+    public void whenTheOrderedIndexIsOn_aRangeHasAFixedCost() {
+        assertTrue(optimisedFragment(var("x").gt(10), true).hasFixedFragmentCost());
+        assertTrue(optimisedFragment(var("x").lte("abc"), true).hasFixedFragmentCost());
+    }
+
+    @Test
+    public void whenComparingWithAVariable_theRangeIsNotLookedUp() {
+        assertFalse(optimisedFragment(var("x").gt(var("y")), true).hasFixedFragmentCost());
+    }
+
+    @Test
+    public void whenComparingForEquality_theFixedCostDoesNotDependOnTheOrderedIndex() {
+        assertTrue(optimisedFragment(var("x").val(10), false).hasFixedFragmentCost());
+        assertTrue(optimisedFragment(var("x").val(10), true).hasFixedFragmentCost());
+    }
+
+    private Fragment optimisedFragment(Statement statement, boolean orderedIndex) {
+        ValueOperation<?, ?> operation = ValueOperation.of(statement.getProperty(ValueProperty.class).get().operation());
+        Collection<EquivalentFragmentSet> fragmentSets = Sets.newHashSet(EquivalentFragmentSets.value(null, x, operation));
+        EquivalentFragmentSets.optimiseFragmentSets(fragmentSets, conceptManager, orderedIndex, false);
+        return Iterables.getOnlyElement(Iterables.getOnlyElement(fragmentSets).fragments());
+    }
+}
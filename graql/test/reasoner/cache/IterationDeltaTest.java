@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graql.reasoner.cache;
+
+import com.google.common.collect.ImmutableSet;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IterationDeltaTest {
+
+    private final Label person = Label.of("person");
+    private final Label employee = Label.of("employee");
+    private final Label manager = Label.of("manager");
+    private final Label company = Label.of("company");
+
+    private SchemaConcept employeeType;
+    private IterationDelta delta;
+
+    @Before
+    public void setUp() {
+        SchemaConcept personType = type(person);
+        employeeType = type(employee);
+        SchemaConcept managerType = type(manager);
+        // a type is its own super and sub type
+        when(employeeType.sups()).thenAnswer(invocation -> Stream.of(employeeType, personType));
+        when(employeeType.subs()).thenAnswer(invocation -> Stream.of(employeeType, managerType));
+        delta = new IterationDelta();
+    }
+
+    private static SchemaConcept type(Label label) {
+        SchemaConcept type = mock(SchemaConcept.class);
+        when(type.label()).thenReturn(label);
+        return type;
+    }
+
+    @Test
+    public void beforeTheFirstIteration_everyRuleMayGainAnswers() {
+        assertTrue(delta.mayGainAnswers(ImmutableSet.of(company)));
+        delta.ackNewAnswers(employeeType);
+        assertTrue(delta.mayGainAnswers(ImmutableSet.of(company)));
+    }
+
+    @Test
+    public void whenATypeGainedAnswers_rulesOverItsSuperAndSubTypesMayGainAnswers() {
+        delta.ackNewAnswers(employeeType);
+        assertTrue(delta.nextIteration());
+
+        assertTrue(delta.mayGainAnswers(ImmutableSet.of(employee)));
+        assertTrue(delta.mayGainAnswers(ImmutableSet.of(person)));
+        assertTrue(delta.mayGainAnswers(ImmutableSet.of(manager, company)));
+        assertFalse(delta.mayGainAnswers(ImmutableSet.of(company)));
+    }
+
+    @Test
+    public void whenAnEntryWithoutATypeGainedAnswers_everyRuleMayGainAnswers() {
+        delta.ackNewAnswers(null);
+        assertTrue(delta.nextIteration());
+
+        assertTrue(delta.mayGainAnswers(ImmutableSet.of(company)));
+    }
+
+    @Test
+    public void whenNothingGainedAnswers_theIterationReportsNoGainAndNoRuleMayGainAnswers() {
+        assertFalse(delta.nextIteration());
+
+        assertFalse(delta.mayGainAnswers(ImmutableSet.of(employee)));
+    }
+
+    @Test
+    public void typesOnlyCountForTheIterationAfterTheyGainedAnswers() {
+        delta.ackNewAnswers(employeeType);
+        delta.nextIteration();
+        assertFalse(delta.nextIteration());
+
+        assertFalse(delta.mayGainAnswers(ImmutableSet.of(employee)));
+
+        // a type gaining answers again is tracked again
+        delta.ackNewAnswers(employeeType);
+        assertTrue(delta.nextIteration());
+        assertTrue(delta.mayGainAnswers(ImmutableSet.of(person)));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.reasoner.cache;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.keyspace.KeyspaceSchemaCache;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.statement.Statement;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SharedAnswerCacheTest {
+
+    private static final int HASH = 42;
+
+    private KeyspaceSchemaCache schemaCache;
+    private SharedAnswerCache sharedCache;
+
+    @Before
+    public void setUp() {
+        schemaCache = mock(KeyspaceSchemaCache.class);
+        when(schemaCache.version()).thenReturn(0L);
+        sharedCache = new SharedAnswerCache(schemaCache);
+    }
+
+    @Test
+    public void whenAnswersArePublished_laterTransactionsReadThem() {
+        long readVersion = sharedCache.version();
+        SharedAnswerCache.Entry entry = entry("person");
+        sharedCache.put(HASH, entry, readVersion);
+
+        List<SharedAnswerCache.Entry> entries = sharedCache.get(HASH);
+        assertEquals(Collections.singletonList(entry), entries);
+        assertEquals(ConceptId.of("V1"), entries.get(0).answers().get(0).concepts().get(Graql.var("x").var()));
+        assertTrue(sharedCache.get(HASH + 1).isEmpty());
+    }
+
+    @Test
+    public void whenAnswersOfTheSamePatternArePublishedAgain_theyReplaceTheEarlierOnes() {
+        SharedAnswerCache.Entry first = entry("person");
+        SharedAnswerCache.Entry second = entry("person");
+        SharedAnswerCache.Entry other = entry("company");
+        sharedCache.put(HASH, first, 0);
+        sharedCache.put(HASH, other, 0);
+        sharedCache.put(HASH, second, 0);
+
+        assertEquals(Sets.newHashSet(other, second), Sets.newHashSet(sharedCache.get(HASH)));
+    }
+
+    @Test
+    public void whenACommitHappensAfterATransactionBegan_itsAnswersAreNotPublished() {
+        long readVersion = sharedCache.version();
+        sharedCache.ackCommit(Collections.emptySet());
+        assertEquals(readVersion + 1, sharedCache.version());
+
+        sharedCache.put(HASH, entry("person"), readVersion);
+        assertTrue(sharedCache.get(HASH).isEmpty());
+
+        sharedCache.put(HASH, entry("person"), sharedCache.version());
+        assertEquals(1, sharedCache.get(HASH).size());
+    }
+
+    @Test
+    public void whenACommitTouchesTheTypesOfAnEntry_theEntryIsEvicted() {
+        SharedAnswerCache.Entry person = entry("person");
+        SharedAnswerCache.Entry company = entry("company");
+        sharedCache.put(HASH, person, 0);
+        sharedCache.put(HASH + 1, company, 0);
+
+        sharedCache.ackCommit(Collections.singleton(Label.of("person")));
+
+        assertTrue(sharedCache.get(HASH).isEmpty());
+        assertEquals(Collections.singletonList(company), sharedCache.get(HASH + 1));
+    }
+
+    @Test
+    public void whenTheSchemaChanges_entriesAreDiscarded() {
+        sharedCache.put(HASH, entry("person"), 0);
+        when(schemaCache.version()).thenReturn(1L);
+
+        assertTrue(sharedCache.get(HASH).isEmpty());
+
+        //entries read under the previous schema are not published either
+        sharedCache.put(HASH, entry("person", 0L), 0);
+        assertTrue(sharedCache.get(HASH).isEmpty());
+    }
+
+    private SharedAnswerCache.Entry entry(String type) {
+        return entry(type, schemaCache.version());
+    }
+
+    private static SharedAnswerCache.Entry entry(String type, long schemaVersion) {
+        Conjunction<Statement> conjunction = Graql.and(Graql.var("x").isa(type));
+        Set<Label> types = Collections.singleton(Label.of(type));
+        SharedAnswerCache.Answer answer = new SharedAnswerCache.Answer(ImmutableMap.of(Graql.var("x").var(), ConceptId.of("V1")), null);
+        return new SharedAnswerCache.Entry(conjunction, types, Collections.singletonList(answer), schemaVersion);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graql.reasoner.state;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import grakn.core.kb.concept.api.Concept;
+import graql.lang.statement.Variable;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JoinIndexesTest {
+
+    private static final Variable X = new Variable("x");
+    private static final Variable Y = new Variable("y");
+    private static final Variable Z = new Variable("z");
+
+    // an estimate of 32 answers is worth indexing once the query has been resolved with 2 substitutions
+    private static final long ESTIMATE = 32;
+
+    private final Concept a = mock(Concept.class);
+    private final Concept b = mock(Concept.class);
+    private final Concept c = mock(Concept.class);
+
+    private ReasonerQueryImpl query;
+    private List<ConceptMap> answers;
+    private JoinIndexes indexes;
+
+    @Before
+    public void setUp() {
+        query = mock(ReasonerQueryImpl.class);
+        when(query.getVarNames()).thenReturn(ImmutableSet.of(X, Y));
+        answers = Lists.newArrayList(
+                new ConceptMap(ImmutableMap.of(X, a, Y, b)),
+                new ConceptMap(ImmutableMap.of(X, a, Y, c)),
+                new ConceptMap(ImmutableMap.of(X, b, Y, c)));
+        when(query.completeAnswerStream()).thenAnswer(invocation -> answers.stream());
+        Map<ReasonerQueryImpl, Long> estimates = new IdentityHashMap<>();
+        estimates.put(query, ESTIMATE);
+        indexes = new JoinIndexes(estimates);
+    }
+
+    private static ConceptMap sub(Variable var, Concept concept) {
+        return new ConceptMap(ImmutableMap.of(var, concept, Z, mock(Concept.class)));
+    }
+
+    private static List<ConceptMap> list(Iterator<ConceptMap> iterator) {
+        List<ConceptMap> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+
+    @Test
+    public void whenQueryHasNoEstimate_itIsNeverIndexed() {
+        ReasonerQueryImpl other = mock(ReasonerQueryImpl.class);
+
+        for (int i = 0; i < 10; i++) assertNull(indexes.probe(other, sub(X, a)));
+        assertNull(JoinIndexes.empty().probe(query, sub(X, a)));
+        verify(other, times(0)).completeAnswerStream();
+    }
+
+    @Test
+    public void whenQueryHasBeenResolvedAsOftenAsItsEstimateIsWorth_itIsIndexed() {
+        assertNull(indexes.probe(query, sub(X, a)));
+
+        Iterator<ConceptMap> probed = indexes.probe(query, sub(X, a));
+        assertNotNull(probed);
+        assertEquals(answers.subList(0, 2), list(probed));
+        assertEquals(answers.subList(2, 3), list(indexes.probe(query, sub(X, b))));
+        assertTrue(list(indexes.probe(query, sub(X, c))).isEmpty());
+        verify(query, times(1)).completeAnswerStream();
+    }
+
+    @Test
+    public void whenProbingWithDifferentJoinVariables_answersAreLookedUpByTheSharedOnes() {
+        indexes.probe(query, sub(X, a));
+        indexes.probe(query, sub(X, a));
+
+        assertEquals(answers.subList(1, 3), list(indexes.probe(query, sub(Y, c))));
+        assertEquals(answers.subList(1, 2), list(indexes.probe(query, new ConceptMap(ImmutableMap.of(X, a, Y, c)))));
+        // a substitution sharing no variable with the query joins with all of its answers
+        assertEquals(answers, list(indexes.probe(query, new ConceptMap(ImmutableMap.of(Z, a)))));
+    }
+
+    @Test
+    public void whenAnswersAreNotCompleteYet_indexingIsRetriedAfterAsManyProbesAgain() {
+        doReturn(null).when(query).completeAnswerStream();
+        assertNull(indexes.probe(query, sub(X, a)));
+        assertNull(indexes.probe(query, sub(X, a)));
+        verify(query, times(1)).completeAnswerStream();
+
+        doAnswer(invocation -> answers.stream()).when(query).completeAnswerStream();
+        assertNull(indexes.probe(query, sub(X, a)));
+        assertEquals(answers.subList(0, 2), list(indexes.probe(query, sub(X, a))));
+        verify(query, times(2)).completeAnswerStream();
+    }
+
+    @Test
+    public void whenQueryHasTooManyAnswers_theIndexIsAbandoned() {
+        doAnswer(invocation -> IntStream.range(0, 100001).mapToObj(i -> new ConceptMap(ImmutableMap.of(X, a, Y, b))))
+                .when(query).completeAnswerStream();
+
+        for (int i = 0; i < 10; i++) assertNull(indexes.probe(query, sub(X, a)));
+        verify(query, times(1)).completeAnswerStream();
+    }
+}
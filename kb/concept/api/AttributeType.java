@@ -224,6 +224,14 @@ public interface AttributeType<D> extends Type {
     long ownershipCount();
     void writeOwnershipCount(long count);
 
+    /**
+     * @return the encoded histogram of the values of this type that is saved as a property on this concept, null if none was saved
+     */
+    @Nullable
+    String valueHistogram();
+
+    void writeValueHistogram(String histogram);
+
     //------------------------------------- Other ---------------------------------
     @SuppressWarnings("unchecked")
     @Deprecated
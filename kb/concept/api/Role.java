@@ -89,6 +89,16 @@ public interface Role extends SchemaConcept {
     @CheckReturnValue
     Stream<Type> players();
 
+    /**
+     * Retrieve the number of role players of this Role that is saved as a property on this concept
+     */
+    long rolePlayerCount();
+
+    /**
+     * Store the number of role players of this Role as a property on this concept
+     */
+    void writeRolePlayerCount(long count);
+
     //------------------------------------- Other ---------------------------------
     @Deprecated
     @CheckReturnValue
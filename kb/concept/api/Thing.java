@@ -111,6 +111,11 @@ public interface Thing extends Concept {
      */
     void attributeInferred(Attribute attribute);
 
+    /**
+     * @return true if this Thing owns the attribute through an inferred ownership
+     */
+    boolean isOwnershipInferred(Attribute attribute);
+
 
     //------------------------------------- Other ---------------------------------
     @Deprecated
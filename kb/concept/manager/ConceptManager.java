@@ -41,7 +41,9 @@ import graql.lang.pattern.Pattern;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import javax.annotation.Nullable;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface ConceptManager {
 
@@ -82,6 +84,24 @@ public interface ConceptManager {
 
     Set<Concept> getConcepts(Schema.VertexProperty key, Object value);
 
+    /**
+     * @return the direct instances of the attribute type in increasing order of value, or null if their values are not
+     * indexed in order
+     */
+    @Nullable
+    <D> Stream<Attribute<D>> getAttributesInOrder(AttributeType<D> attributeType);
+
+    /**
+     * @return the number of direct instances of the type, counted from their vertices without building concepts
+     */
+    long countInstancesDirect(Type type);
+
+    /**
+     * @return the values of the direct instances of the attribute type, read from their vertices without building
+     * concepts
+     */
+    <D> Stream<D> getValuesDirect(AttributeType<D> attributeType);
+
     // TODO these should not be here, overexposed interface or incorrect location
     LabelId convertToId(Label label);
     VertexElement addTypeVertex(LabelId id, Label label, Schema.BaseType baseType);
@@ -27,12 +27,14 @@ import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.api.Relation;
 import grakn.core.kb.concept.api.Role;
 import grakn.core.kb.concept.api.Thing;
+import graql.lang.Graql;
 import graql.lang.query.GraqlQuery;
 import graql.lang.statement.Statement;
 import graql.lang.statement.Variable;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
+import java.io.IOException;
 
 /**
  * Runtime exception signalling illegal states of the system encountered during query processing.
@@ -58,6 +60,18 @@ public class GraqlQueryException extends GraknException {
         return new GraqlQueryException(ErrorMessage.ROLE_ID_IS_NOT_ROLE.getMessage(var.toString()));
     }
 
+    public static GraqlQueryException groupSpillFailed(Graql.Token.Aggregate.Method method, IOException cause) {
+        return new GraqlQueryException(ErrorMessage.GROUP_SPILL_FAILED.getMessage(method), cause);
+    }
+
+    public static GraqlQueryException parallelResolutionInterrupted(InterruptedException cause) {
+        return new GraqlQueryException(ErrorMessage.PARALLEL_RESOLUTION_INTERRUPTED.getMessage(), cause);
+    }
+
+    public static GraqlQueryException parallelResolutionCancelled() {
+        return new GraqlQueryException(ErrorMessage.PARALLEL_RESOLUTION_CANCELLED.getMessage());
+    }
+
     @CheckReturnValue
     public static GraqlQueryException unreachableStatement(Exception cause) {
         return unreachableStatement(null, cause);
@@ -20,6 +20,7 @@ package grakn.core.kb.graql.planning.gremlin;
 
 import grakn.common.util.Pair;
 import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.DirectedEdge;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
@@ -111,6 +112,12 @@ public interface Fragment {
      */
     String name();
 
+    /**
+     * The shape of the fragment: its name without any variables, concept IDs or values, so that the fragments of
+     * queries differing only in those have the same shapes. Schema labels are part of the shape.
+     */
+    String shape();
+
     /**
      * A starting fragment is a fragment that can start a traversal.
      * If any other fragment is present that refers to the same variable, the starting fragment can be omitted.
@@ -136,6 +143,20 @@ public interface Fragment {
      */
     double estimatedCostAsStartingPoint(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics);
 
+    /**
+     * Estimate, using statistics where they apply, how many elements this fragment leads to from each element bound to
+     * its start or, for a fragment without an end, the fraction of the elements bound to its start it lets through
+     *
+     * @param startTypes labels of the types the start is, if it is a type, or is an instance of, if it is a thing,
+     *                   or null if they are not known
+     */
+    double estimatedFanOut(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics, @Nullable Set<Label> startTypes);
+
+    /**
+     * Estimate how many elements a fragment with a fixed cost looks up by index when it starts a traversal
+     */
+    double estimatedStartCount(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics);
+
     /**
      * If a fragment has fixed cost, the traversal is done using index. This makes the fragment a good starting point.
      * A plan should always start with these fragments when possible.
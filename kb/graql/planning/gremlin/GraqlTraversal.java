@@ -26,8 +26,11 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface GraqlTraversal {
 
@@ -43,6 +46,16 @@ public interface GraqlTraversal {
      */
     GraphTraversal<Vertex, Map<String, Vertex>> getGraphTraversal(Set<Variable> vars);
 
+    /**
+     * Executes this traversal natively against the transaction, rather than through its {@code GraphTraversal}.
+     *
+     * @param vars the variables to return
+     * @return the vertices bound to the variables, in the order of the variables, for every match, or null if some
+     * fragment of this traversal cannot be executed natively
+     */
+    @Nullable
+    Stream<Vertex[]> nativeBindings(List<Variable> vars);
+
     /**
      * @param transform map defining id transform var -> new id
      * @return graql traversal with concept id transformed according to the provided transform
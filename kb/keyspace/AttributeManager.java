@@ -23,7 +23,9 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.Cache;
 import grakn.core.kb.concept.api.ConceptId;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 /**
  * When loading concurrently, we want to minimise the amount of locking needed for correctness and consistency.
@@ -38,6 +40,9 @@ import java.util.Set;
  * When about to commit, each transaction polls the AttributeManager if it needs to use a lock during commit.
  * If the AttributeManager finds at least two transactions with a shared attribute, it will advise the competing transactions
  * to use a lock when committing.
+ *
+ * Locks are striped by attribute index, so that committing transactions only serialise with transactions
+ * that share an attribute index with them, rather than with every other locking transaction of the keyspace.
  */
 public interface AttributeManager {
 
@@ -48,6 +53,12 @@ public interface AttributeManager {
     boolean requiresLock(String txId);
     boolean isAttributeEphemeral(String index);
 
+    /**
+     * @param indices attribute indices a transaction is about to commit mutations of
+     * @return the locks guarding the given indices, in a consistent order in which they must be acquired
+     */
+    Iterable<Lock> commitLocks(Collection<String> indices);
+
     @VisibleForTesting
     boolean lockCandidatesPresent();
 
@@ -36,6 +36,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class KeyspaceSchemaCache {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final Map<Label, LabelId> cachedLabels;
+    private volatile long version = 0;
 
     public KeyspaceSchemaCache() {
         cachedLabels = new ConcurrentHashMap<>();
@@ -67,6 +68,7 @@ public class KeyspaceSchemaCache {
             lock.writeLock().lock();
             cachedLabels.clear();
             cachedLabels.putAll(modifiedLabelCache);
+            version++;
         } finally {
             lock.writeLock().unlock();
         }
@@ -82,6 +84,13 @@ public class KeyspaceSchemaCache {
     }
 
 
+    /**
+     * @return a number that changes every time the cached labels are overwritten, i.e. every time the schema labels change
+     */
+    public long version() {
+        return version;
+    }
+
     public boolean isEmpty(){
         return cachedLabels.isEmpty();
     }
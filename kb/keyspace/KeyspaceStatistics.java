@@ -21,11 +21,44 @@ package grakn.core.kb.keyspace;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
 
+import javax.annotation.Nullable;
+
 /**
  * Store a shared map of statistics attached to each type
+ * <p>
+ * As attributes are unique per type and value, the instance count of an attribute type is also its number of distinct values.
  */
 public interface KeyspaceStatistics {
     long count(ConceptManager conceptManager, Label label);
     long countOwnerships(ConceptManager conceptManager, Label attributeOwned);
+
+    /**
+     * @return the number of role players playing the given role, across all relations
+     */
+    long countRolePlayers(ConceptManager conceptManager, Label role);
+
+    /**
+     * @return the histogram of the values of the given attribute type, empty if its values are not numeric or dates.
+     * The histogram is shared and must not be modified
+     */
+    ValueHistogram valueHistogram(ConceptManager conceptManager, Label attributeType);
+
+    /**
+     * Observed fan-outs correct the estimates of the query planner where the statistics describe the data poorly,
+     * e.g. when it is skewed. They are learnt from the queries executed, and only kept in memory.
+     *
+     * @param fragmentKey the kind of fragment and the types it starts from
+     * @return the fan-out observed executing such fragments where it diverged from the estimate, null if there is none
+     */
+    @Nullable
+    Double observedFanOut(String fragmentKey);
+
+    void recordObservedFanOut(String fragmentKey, double fanOut);
+
+    /**
+     * @return a version incremented whenever an observed fan-out is recorded, so that plans can tell they are stale
+     */
+    long observedFanOutsVersion();
+
     void commit(ConceptManager conceptManager, StatisticsDelta statisticsDelta);
 }
@@ -21,7 +21,9 @@ package grakn.core.kb.keyspace;
 import com.google.common.annotations.VisibleForTesting;
 import grakn.core.kb.concept.api.Label;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 /**
  * When loading concurrently, we want to minimise the amount of locking needed for correctness and consistency.
@@ -35,6 +37,8 @@ import java.util.Set;
  * When a transaction is about to commit, it polls the ShardManager if it needs to use a lock during commit.
  * If the ShardManager finds at least two transactions with a shared shard vertex request, it will advise
  * the competing transaction to use a lock when committing.
+ *
+ * Locks are striped by type label, so that only transactions sharding the same types serialise their commits.
  */
 public interface ShardManager {
 
@@ -42,6 +46,12 @@ public interface ShardManager {
     void ackCommit(Set<Label> labels, String txId);
     boolean requiresLock(String txId);
 
+    /**
+     * @param labels types a transaction is about to create shards for
+     * @return the locks guarding the given types, in a consistent order in which they must be acquired
+     */
+    Iterable<Lock> commitLocks(Collection<Label> labels);
+
     Long getEphemeralShardCount(Label type);
     void updateEphemeralShardCount(Label type, Long count);
 
@@ -20,6 +20,7 @@ package grakn.core.kb.keyspace;
 
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Role;
 import grakn.core.kb.concept.api.Type;
 
 import java.util.HashMap;
@@ -40,7 +41,20 @@ public interface StatisticsDelta {
      */
     void decrementAttribute(Label label);
 
+    void incrementRolePlayer(Role role);
+    void decrementRolePlayer(Role role);
+
+    /**
+     * Record a value of an attribute type having been inserted, for the value histogram of the attribute type
+     */
+    void incrementValue(Label attributeType, Object value);
+    void decrementValue(Label attributeType, Object value);
+
     HashMap<Label, Long> instanceDeltas();
 
     HashMap<Label, Long> ownershipDeltas();
+
+    HashMap<Label, Long> rolePlayerDeltas();
+
+    HashMap<Label, ValueHistogram> valueDeltas();
 }
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.kb.keyspace;
+
+import javax.annotation.Nullable;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A compact histogram of the values of an attribute type, used to estimate the selectivity of range and substring
+ * predicates.
+ * <p>
+ * Numeric values are counted in BUCKETS fixed-width buckets spanning the smallest and largest values observed. The width
+ * of the buckets is the smallest power of two, and their bounds the multiples of it, for which BUCKETS buckets span the
+ * observed values. The buckets are therefore a function of the observed range: as it widens, adjacent buckets are
+ * merged exactly rather than re-estimated, and histograms of different ranges are merged exactly too.
+ * Within a bucket, values are assumed to be spread uniformly over the part of the bucket within the observed range.
+ * <p>
+ * Numeric and date attribute values are histogrammed by value, dates by their epoch milliseconds.
+ * String attribute values are histogrammed by the trigrams they contain instead, in a count-min sketch: a few rows of
+ * counters, each trigram counted in one counter per row chosen by a different hash, so that the smallest of its
+ * counters over-estimates the number of values containing it by no more than the values sharing all its counters.
+ * As attributes are unique per type and value, the counts are counts of distinct values.
+ */
+public class ValueHistogram {
+
+    static final int BUCKETS = 64;
+    private static final int GRAM_LENGTH = 3;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 256;
+    // exponent of the smallest positive double, and bits of precision of the significand of doubles
+    private static final int MIN_EXPONENT = Double.MIN_EXPONENT - 52;
+    private static final int PRECISION = 52;
+
+    private long[] counts = new long[BUCKETS];
+    // observed range of the numeric values, empty while min > max
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    // the buckets span [origin * 2^exponent, (origin + BUCKETS) * 2^exponent), as determined by the observed range
+    private int exponent = 0;
+    private long origin = 0;
+    private final long[] gramCounts = new long[SKETCH_DEPTH * SKETCH_WIDTH];
+    private long strings = 0;
+
+    /**
+     * @return whether the selectivity of ranges of values of the given class can be estimated
+     */
+    public static boolean supports(Object value) {
+        return value instanceof Number || value instanceof LocalDateTime;
+    }
+
+    /**
+     * @return whether values of the given class are histogrammed, by value or by trigram
+     */
+    public static boolean records(Object value) {
+        return supports(value) || value instanceof String;
+    }
+
+    public void add(Object value, long count) {
+        if (value instanceof String) {
+            strings += count;
+            for (String gram : grams((String) value)) {
+                for (int row = 0; row < SKETCH_DEPTH; row++) {
+                    gramCounts[cell(row, gram)] += count;
+                }
+            }
+            return;
+        }
+        Double number = numeric(value);
+        if (number == null || Double.isNaN(number) || Double.isInfinite(number)) return;
+        include(number, number);
+        counts[(int) (index(number, exponent) - origin)] += count;
+    }
+
+    public void merge(ValueHistogram delta) {
+        if (delta.min <= delta.max) {
+            include(delta.min, delta.max);
+            for (int i = 0; i < BUCKETS; i++) {
+                if (delta.counts[i] == 0) continue;
+                counts[(int) (coarsen(delta.origin + i, exponent - delta.exponent) - origin)] += delta.counts[i];
+            }
+        }
+        for (int i = 0; i < gramCounts.length; i++) {
+            gramCounts[i] += delta.gramCounts[i];
+        }
+        strings += delta.strings;
+    }
+
+    public long count() {
+        return Arrays.stream(counts).sum() + strings;
+    }
+
+    public boolean isEmpty() {
+        return strings == 0 && Arrays.stream(counts).allMatch(count -> count == 0)
+                && Arrays.stream(gramCounts).allMatch(count -> count == 0);
+    }
+
+    /**
+     * Estimates the fraction of string values containing all of the substrings, ignoring case, as the fraction
+     * containing the rarest of their trigrams
+     *
+     * @return estimated fraction of values containing the substrings, 1 if nothing is known about the values or the
+     * substrings are too short to have trigrams
+     */
+    public double containsSelectivity(Collection<String> substrings) {
+        if (strings <= 0) return 1.0;
+        double selectivity = 1.0;
+        for (String substring : substrings) {
+            for (String gram : grams(substring)) {
+                long estimate = Long.MAX_VALUE;
+                for (int row = 0; row < SKETCH_DEPTH; row++) {
+                    estimate = Math.min(estimate, gramCounts[cell(row, gram)]);
+                }
+                selectivity = Math.min(selectivity, (double) Math.max(0, estimate) / strings);
+            }
+        }
+        return selectivity;
+    }
+
+    /**
+     * Estimates the fraction of values within a range, assuming values are spread uniformly within each bucket,
+     * over the part of it within the observed range
+     *
+     * @param lower lower bound of the range, null if unbounded
+     * @param upper upper bound of the range, null if unbounded
+     * @return estimated fraction of values in [lower, upper], 1 if nothing is known about the values
+     */
+    public double selectivity(@Nullable Object lower, @Nullable Object upper) {
+        long total = Arrays.stream(counts).sum();
+        if (total <= 0) return 1.0;
+        Double from = lower == null ? null : numeric(lower);
+        Double to = upper == null ? null : numeric(upper);
+        if ((lower != null && from == null) || (upper != null && to == null)) return 1.0;
+
+        double matching = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] <= 0) continue;
+            double bucketLower = Math.max(min, Math.scalb((double) (origin + i), exponent));
+            double bucketUpper = Math.min(max, Math.scalb((double) (origin + i + 1), exponent));
+            double overlapLower = from == null ? bucketLower : Math.max(bucketLower, from);
+            double overlapUpper = to == null ? bucketUpper : Math.min(bucketUpper, to);
+            if (overlapUpper < overlapLower) continue;
+            double width = bucketUpper - bucketLower;
+            matching += width == 0 ? counts[i] : counts[i] * (overlapUpper - overlapLower) / width;
+        }
+        return Math.min(1.0, matching / total);
+    }
+
+    /**
+     * @return the histogram in its persisted form: the observed range as l:min and u:max, comma-separated
+     * bucket:count pairs of the non-empty buckets, followed by the number of strings as s:count and the non-zero
+     * trigram counters as g[counter]:count
+     */
+    public String encode() {
+        StringBuilder encoded = new StringBuilder();
+        if (min <= max) {
+            encoded.append("l:").append(min).append(",u:").append(max);
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) continue;
+            if (encoded.length() > 0) encoded.append(',');
+            encoded.append(i).append(':').append(counts[i]);
+        }
+        if (strings != 0) {
+            if (encoded.length() > 0) encoded.append(',');
+            encoded.append("s:").append(strings);
+        }
+        for (int i = 0; i < gramCounts.length; i++) {
+            if (gramCounts[i] == 0) continue;
+            if (encoded.length() > 0) encoded.append(',');
+            encoded.append('g').append(i).append(':').append(gramCounts[i]);
+        }
+        return encoded.toString();
+    }
+
+    public static ValueHistogram decode(@Nullable String encoded) {
+        ValueHistogram histogram = new ValueHistogram();
+        if (encoded == null || encoded.isEmpty()) return histogram;
+        for (String bucket : encoded.split(",")) {
+            int separator = bucket.indexOf(':');
+            String number = bucket.substring(separator + 1);
+            if (bucket.startsWith("l")) {
+                histogram.min = Double.parseDouble(number);
+            } else if (bucket.startsWith("u")) {
+                histogram.max = Double.parseDouble(number);
+            } else if (bucket.startsWith("s")) {
+                histogram.strings = Long.parseLong(number);
+            } else if (bucket.startsWith("g")) {
+                histogram.gramCounts[Integer.parseInt(bucket.substring(1, separator))] = Long.parseLong(number);
+            } else {
+                histogram.counts[Integer.parseInt(bucket.substring(0, separator))] = Long.parseLong(number);
+            }
+        }
+        if (histogram.min <= histogram.max) {
+            histogram.exponent = exponent(histogram.min, histogram.max);
+            histogram.origin = index(histogram.min, histogram.exponent);
+        }
+        return histogram;
+    }
+
+    /**
+     * Widens the observed range to include the given one, merging the buckets of the narrower range
+     */
+    private void include(double lower, double upper) {
+        if (lower >= min && upper <= max) return;
+        double newMin = Math.min(min, lower);
+        double newMax = Math.max(max, upper);
+        int newExponent = exponent(newMin, newMax);
+        long newOrigin = index(newMin, newExponent);
+        long[] merged = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] == 0) continue;
+            merged[(int) (coarsen(origin + i, newExponent - exponent) - newOrigin)] += counts[i];
+        }
+        counts = merged;
+        min = newMin;
+        max = newMax;
+        exponent = newExponent;
+        origin = newOrigin;
+    }
+
+    /**
+     * @return the exponent of the smallest power of two width of BUCKETS buckets spanning the range. Widths start
+     * from the precision of the largest value in the range, so that the bucket indices of its values fit a long.
+     */
+    private static int exponent(double lower, double upper) {
+        double magnitude = Math.max(Math.abs(lower), Math.abs(upper));
+        int exponent = Math.max(MIN_EXPONENT, Math.getExponent(magnitude) - PRECISION);
+        while (Math.floor(Math.scalb(upper, -exponent)) - Math.floor(Math.scalb(lower, -exponent)) >= BUCKETS) {
+            exponent++;
+        }
+        return exponent;
+    }
+
+    /**
+     * @return the index of the bucket of width 2^exponent holding the value, counting from the bucket starting at 0
+     */
+    private static long index(double value, int exponent) {
+        return (long) Math.floor(Math.scalb(value, -exponent));
+    }
+
+    /**
+     * @return the index of the bucket holding the given one once buckets are widened by a factor 2^factorExponent
+     */
+    private static long coarsen(long index, int factorExponent) {
+        if (factorExponent >= Long.SIZE - 1) return index < 0 ? -1 : 0;
+        return index >> factorExponent;
+    }
+
+    /**
+     * @return the distinct trigrams of the value, ignoring case the same way as `contains`
+     */
+    private static Set<String> grams(String value) {
+        char[] normalised = new char[value.length()];
+        for (int i = 0; i < normalised.length; i++) {
+            normalised[i] = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalised.length; i++) {
+            grams.add(new String(normalised, i, GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static int cell(int row, String gram) {
+        // String#hashCode is specified, so counters keep their meaning once persisted
+        int hash = gram.hashCode() * (0x9E3779B1 + 2 * row);
+        hash ^= hash >>> 16;
+        return row * SKETCH_WIDTH + (hash & (SKETCH_WIDTH - 1));
+    }
+
+    @Nullable
+    private static Double numeric(Object value) {
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof LocalDateTime) return (double) ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+        return null;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.kb.keyspace;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ValueHistogramTest {
+
+    private static final double DELTA = 0.01;
+
+    private static ValueHistogram histogramOf(long from, long to) {
+        ValueHistogram histogram = new ValueHistogram();
+        for (long value = from; value <= to; value++) {
+            histogram.add(value, 1);
+        }
+        return histogram;
+    }
+
+    @Test
+    public void whenValuesAreUniform_rangeSelectivityIsProportionalToTheRange() {
+        ValueHistogram histogram = histogramOf(0, 999);
+
+        assertEquals(0.1, histogram.selectivity(0L, 99L), DELTA);
+        assertEquals(0.5, histogram.selectivity(500L, null), DELTA);
+        assertEquals(0.25, histogram.selectivity(250.0, 499.5), DELTA);
+        assertEquals(1.0, histogram.selectivity(null, null), DELTA);
+    }
+
+    @Test
+    public void whenValuesAreFarFromZero_bucketsSpanTheObservedValuesOnly() {
+        ValueHistogram histogram = histogramOf(1_000_000, 1_000_999);
+
+        assertEquals(0.1, histogram.selectivity(1_000_000L, 1_000_099L), DELTA);
+        assertEquals(0.0, histogram.selectivity(0L, 999_999L), DELTA);
+    }
+
+    @Test
+    public void whenValuesAreNegative_rangeSelectivityAccountsForThem() {
+        ValueHistogram histogram = histogramOf(-500, 499);
+
+        assertEquals(0.5, histogram.selectivity(null, -1L), DELTA);
+        assertEquals(0.1, histogram.selectivity(-50L, 49L), DELTA);
+    }
+
+    @Test
+    public void whenAllValuesAreEqual_rangesIncludingTheValueSelectAll() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.add(5L, 3);
+
+        assertEquals(1.0, histogram.selectivity(5L, 5L), 0);
+        assertEquals(0.0, histogram.selectivity(6L, null), 0);
+        assertEquals(3, histogram.count());
+    }
+
+    @Test
+    public void whenRangeWidens_countsAreKept() {
+        ValueHistogram histogram = histogramOf(1, 100);
+        histogram.add(10_000L, 1);
+
+        assertEquals(101, histogram.count());
+        assertEquals(1.0 / 101, histogram.selectivity(5_000L, 20_000L), DELTA);
+        assertEquals(100.0 / 101, histogram.selectivity(null, 1_000L), DELTA);
+    }
+
+    @Test
+    public void whenHistogramsAreMerged_resultIsTheHistogramOfAllValues() {
+        ValueHistogram merged = histogramOf(0, 499);
+        ValueHistogram delta = histogramOf(500, 999);
+        delta.add(10_000L, 1);
+        merged.merge(delta);
+
+        ValueHistogram direct = histogramOf(0, 999);
+        direct.add(10_000L, 1);
+
+        assertEquals(direct.encode(), merged.encode());
+    }
+
+    @Test
+    public void whenDeletionsAreMerged_countsReturnToZero() {
+        ValueHistogram histogram = histogramOf(0, 99);
+        ValueHistogram deletions = new ValueHistogram();
+        for (long value = 0; value <= 99; value++) {
+            deletions.add(value, -1);
+        }
+        histogram.merge(deletions);
+
+        assertTrue(histogram.isEmpty());
+        assertEquals(0, histogram.count());
+        assertEquals(1.0, histogram.selectivity(0L, 10L), 0);
+    }
+
+    @Test
+    public void whenHistogramIsEncoded_decodingRestoresIt() {
+        ValueHistogram histogram = histogramOf(-20, 3000);
+        histogram.add(0.125, 2);
+        histogram.add("grakn", 1);
+
+        ValueHistogram decoded = ValueHistogram.decode(histogram.encode());
+
+        assertEquals(histogram.encode(), decoded.encode());
+        assertEquals(histogram.count(), decoded.count());
+        assertEquals(histogram.selectivity(100L, 200L), decoded.selectivity(100L, 200L), 0);
+        assertEquals(histogram.containsSelectivity(Collections.singleton("rak")), decoded.containsSelectivity(Collections.singleton("rak")), 0);
+    }
+
+    @Test
+    public void whenValuesAreDates_rangeSelectivityUsesTheirInstants() {
+        ValueHistogram histogram = new ValueHistogram();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int day = 0; day < 100; day++) {
+            histogram.add(start.plusDays(day), 1);
+        }
+
+        assertEquals(0.1, histogram.selectivity(start, start.plusDays(9).plusHours(23)), 0.02);
+    }
+
+    @Test
+    public void whenHistogramIsEmpty_selectivityIsUnknown() {
+        ValueHistogram histogram = ValueHistogram.decode(null);
+
+        assertTrue(histogram.isEmpty());
+        assertEquals(1.0, histogram.selectivity(0L, 1L), 0);
+        assertEquals("", histogram.encode());
+    }
+}
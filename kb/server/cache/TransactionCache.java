@@ -85,6 +85,11 @@ public class TransactionCache {
     // after commit
     private Set<String> removedAttributes = new HashSet<>();
     private Set<String> modifiedKeyIndices = new HashSet<>();
+    // Types whose instances, ownerships or role players have been created or deleted, so that answers shared across
+    // transactions which depend on them can be evicted on commit
+    private final Set<Type> modifiedInstanceTypes = new HashSet<>();
+    // Types whose instances, ownerships or role players have been deleted, so that facts concluded from them can be retracted
+    private final Set<Type> deletedInstanceTypes = new HashSet<>();
 
     public TransactionCache(KeyspaceSchemaCache keyspaceSchemaCache) {
         this.keyspaceSchemaCache = keyspaceSchemaCache;
@@ -342,6 +347,23 @@ public class TransactionCache {
         return newShards;
     }
 
+    public void instancesModified(Type type) {
+        modifiedInstanceTypes.add(type);
+    }
+
+    public Set<Type> getModifiedInstanceTypes() {
+        return modifiedInstanceTypes;
+    }
+
+    public void instancesDeleted(Type type) {
+        instancesModified(type);
+        deletedInstanceTypes.add(type);
+    }
+
+    public Set<Type> getDeletedInstanceTypes() {
+        return deletedInstanceTypes;
+    }
+
     //--------------------------------------- Concepts Needed For Validation -------------------------------------------
     public Set<Thing> getModifiedThings() {
         return modifiedThings;
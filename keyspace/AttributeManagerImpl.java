@@ -21,30 +21,54 @@ package grakn.core.keyspace;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
 import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.keyspace.AttributeManager;
 
+import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
+/**
+ * The attributesCommitted cache is what lets bulk loads deduplicate attributes without looking their index up
+ * in the storage backend, so it is bounded by its estimated footprint in bytes rather than by a number of entries,
+ * and evicts the least recently used indices once full. Its hit, miss and eviction counts are recorded
+ * and available through attributesCommitted().stats().
+ */
 public class AttributeManagerImpl implements AttributeManager {
-    private final static int TIMEOUT_MINUTES_ATTRIBUTES_CACHE = 2;
-    private final static int ATTRIBUTES_CACHE_MAX_SIZE = 10000;
+    public final static long DEFAULT_ATTRIBUTES_CACHE_MAX_BYTES = 64 * 1024 * 1024;
+    private final static int COMMIT_LOCK_STRIPES = 1024;
+    // approximate footprint of a cache entry and of the two Strings it holds, excluding their characters
+    private final static int ATTRIBUTES_CACHE_ENTRY_OVERHEAD_BYTES = 160;
 
     private final Cache<String, ConceptId> attributesCommitted;
     //we track txs that insert an attribute with given index
     private final ConcurrentHashMap<String, Set<String>> attributesEphemeral;
     private final Set<String> lockCandidates;
+    private final Striped<Lock> commitLocks;
 
     public AttributeManagerImpl(){
+        this(DEFAULT_ATTRIBUTES_CACHE_MAX_BYTES);
+    }
+
+    /**
+     * @param attributesCacheMaxBytes upper bound on the estimated memory taken by the attributesCommitted cache
+     */
+    public AttributeManagerImpl(long attributesCacheMaxBytes){
         this.attributesCommitted = CacheBuilder.newBuilder()
-                .expireAfterAccess(TIMEOUT_MINUTES_ATTRIBUTES_CACHE, TimeUnit.MINUTES)
-                .maximumSize(ATTRIBUTES_CACHE_MAX_SIZE)
+                .maximumWeight(attributesCacheMaxBytes)
+                .<String, ConceptId>weigher(AttributeManagerImpl::weigh)
+                .recordStats()
                 .build();
 
         this.attributesEphemeral = new ConcurrentHashMap<>();
         this.lockCandidates = ConcurrentHashMap.newKeySet();
+        this.commitLocks = Striped.lock(COMMIT_LOCK_STRIPES);
+    }
+
+    private static int weigh(String index, ConceptId conceptId) {
+        return ATTRIBUTES_CACHE_ENTRY_OVERHEAD_BYTES + 2 * (index.length() + conceptId.getValue().length());
     }
 
     @Override
@@ -102,6 +126,12 @@ public class AttributeManagerImpl implements AttributeManager {
         return lockCandidates.contains(txId);
     }
 
+    @Override
+    public Iterable<Lock> commitLocks(Collection<String> indices) {
+        //bulkGet returns the stripes ordered by stripe index, so concurrent callers cannot acquire them in conflicting orders
+        return commitLocks.bulkGet(indices);
+    }
+
     @Override
     public boolean lockCandidatesPresent() {
         return !lockCandidates.isEmpty();
@@ -21,15 +21,19 @@ package grakn.core.keyspace;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Concept;
 import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
 import grakn.core.kb.concept.api.Type;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
 import grakn.core.kb.keyspace.StatisticsDelta;
+import grakn.core.kb.keyspace.ValueHistogram;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -44,15 +48,32 @@ import java.util.concurrent.ConcurrentHashMap;
  * We also store the total count of all concepts the same was as any other schema concept, but on the meta
  * concept types. Note that this is different from the other instance counts as it DOES include counts of all subtypes. The
  * other counts on user-defined schema concepts are for for that concrete type only
+ * <p>
+ * Roles record the number of their role players, from which the planner can derive mean fan-outs between relations
+ * and their role players, and attribute types record a ValueHistogram of their values, stored encoded as a single
+ * vertex property, from which the planner can estimate the selectivity of range and substring predicates.
+ * Histograms are replaced rather than mutated on commit, so that readers never observe a partially merged one.
+ * <p>
+ * Fan-outs observed by the traversal executor where they diverged from the estimates of the planner are kept in memory,
+ * see #observedFanOut(String); they describe how queries see the data rather than the data itself, so are not persisted.
  */
 public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
 
+    // bounds the observed fan-outs, of which there is at most one per kind of fragment and types it starts from
+    private static final int MAX_OBSERVED_FAN_OUTS = 10_000;
+
     private ConcurrentHashMap<Label, Long> instanceCountsCache;
     private ConcurrentHashMap<Label, Long> ownershipCountsCache;
+    private ConcurrentHashMap<Label, Long> rolePlayerCountsCache;
+    private ConcurrentHashMap<Label, ValueHistogram> valueHistogramsCache;
+    private final ConcurrentHashMap<String, Double> observedFanOuts = new ConcurrentHashMap<>();
+    private final AtomicLong observedFanOutsVersion = new AtomicLong();
 
     public KeyspaceStatisticsImpl() {
         instanceCountsCache = new ConcurrentHashMap<>();
         ownershipCountsCache = new ConcurrentHashMap<>();
+        rolePlayerCountsCache = new ConcurrentHashMap<>();
+        valueHistogramsCache = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -69,6 +90,35 @@ public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
         return ownershipCountsCache.get(owner);
     }
 
+    @Override
+    public long countRolePlayers(ConceptManager conceptManager, Label role) {
+        return rolePlayerCountsCache.computeIfAbsent(role, l -> retrieveRolePlayerCount(conceptManager, l));
+    }
+
+    @Override
+    public ValueHistogram valueHistogram(ConceptManager conceptManager, Label attributeType) {
+        return valueHistogramsCache.computeIfAbsent(attributeType, l -> retrieveValueHistogram(conceptManager, l));
+    }
+
+    @Nullable
+    @Override
+    public Double observedFanOut(String fragmentKey) {
+        return observedFanOuts.get(fragmentKey);
+    }
+
+    @Override
+    public void recordObservedFanOut(String fragmentKey, double fanOut) {
+        if (observedFanOuts.size() >= MAX_OBSERVED_FAN_OUTS && !observedFanOuts.containsKey(fragmentKey)) return;
+        // average with the previous observation, so that a single unrepresentative query does not dominate
+        observedFanOuts.merge(fragmentKey, fanOut, (prior, observed) -> (prior + observed) / 2);
+        observedFanOutsVersion.incrementAndGet();
+    }
+
+    @Override
+    public long observedFanOutsVersion() {
+        return observedFanOutsVersion.get();
+    }
+
     @Override
     public void commit(ConceptManager conceptManager, StatisticsDelta statisticsDelta) {
         HashMap<Label, Long> deltaMap = statisticsDelta.instanceDeltas();
@@ -104,8 +154,37 @@ public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
                     );
                 });
 
-        persist(conceptManager, instanceLabelsToPersist, ownershipLabelsToPersist);
+        Set<Label> rolePlayerLabelsToPersist = new HashSet<>();
+        statisticsDelta.rolePlayerDeltas().entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .forEach(entry -> {
+                    Label role = entry.getKey();
+                    Long delta = entry.getValue();
+                    rolePlayerLabelsToPersist.add(role);
+                    rolePlayerCountsCache.compute(role, (k, prior) ->
+                            prior == null ?
+                                    retrieveRolePlayerCount(conceptManager, role) + delta :
+                                    prior + delta
+                    );
+                });
+
+        Set<Label> histogramLabelsToPersist = new HashSet<>();
+        statisticsDelta.valueDeltas().entrySet().stream()
+                .filter(e -> !e.getValue().isEmpty())
+                .forEach(entry -> {
+                    Label attributeType = entry.getKey();
+                    ValueHistogram delta = entry.getValue();
+                    histogramLabelsToPersist.add(attributeType);
+                    valueHistogramsCache.compute(attributeType, (k, prior) -> {
+                        ValueHistogram updated = new ValueHistogram();
+                        updated.merge(prior == null ? retrieveValueHistogram(conceptManager, attributeType) : prior);
+                        updated.merge(delta);
+                        return updated;
+                    });
+                });
 
+        persist(conceptManager, instanceLabelsToPersist, ownershipLabelsToPersist);
+        persistRolePlayersAndValues(conceptManager, rolePlayerLabelsToPersist, histogramLabelsToPersist);
     }
 
     private void persist(ConceptManager conceptManager, Set<Label> labelsToPersist, Set<Label> ownershipLabelsToPersist) {
@@ -139,6 +218,28 @@ public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
         }
     }
 
+    private void persistRolePlayersAndValues(ConceptManager conceptManager, Set<Label> rolePlayerLabelsToPersist, Set<Label> histogramLabelsToPersist) {
+        for (Label label : rolePlayerLabelsToPersist) {
+            rolePlayerCountsCache.compute(label, (lab, count) -> {
+                SchemaConcept role = conceptManager.getSchemaConcept(lab);
+                if (role != null && role.isRole()) {
+                    role.asRole().writeRolePlayerCount(count);
+                }
+                return count;
+            });
+        }
+
+        for (Label label : histogramLabelsToPersist) {
+            valueHistogramsCache.compute(label, (lab, histogram) -> {
+                AttributeType<?> attributeType = conceptManager.getAttributeType(lab.toString());
+                if (attributeType != null) {
+                    attributeType.writeValueHistogram(histogram.encode());
+                }
+                return histogram;
+            });
+        }
+    }
+
     /**
      * Effectively a cache miss - retrieves the value from the janus vertex
      * Note that the count property doesn't exist on a label until a commit places a non-zero count on the vertex
@@ -164,4 +265,20 @@ public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
         AttributeType<?> attributeType = conceptManager.getAttributeType(attribute.toString());
         return attributeType.ownershipCount();
     }
+
+    private long retrieveRolePlayerCount(ConceptManager conceptManager, Label role) {
+        SchemaConcept schemaConcept = conceptManager.getSchemaConcept(role);
+        if (schemaConcept == null || !schemaConcept.isRole()) {
+            return 0;
+        }
+        return schemaConcept.asRole().rolePlayerCount();
+    }
+
+    private ValueHistogram retrieveValueHistogram(ConceptManager conceptManager, Label attribute) {
+        AttributeType<?> attributeType = conceptManager.getAttributeType(attribute.toString());
+        if (attributeType == null) {
+            return new ValueHistogram();
+        }
+        return ValueHistogram.decode(attributeType.valueHistogram());
+    }
 }
@@ -20,20 +20,25 @@ package grakn.core.keyspace;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.keyspace.ShardManager;
 
+import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 public class ShardManagerImpl implements ShardManager {
     private final static int TIMEOUT_MINUTES_ATTRIBUTES_CACHE = 2;
     private final static int ATTRIBUTES_CACHE_MAX_SIZE = 10000;
+    private final static int COMMIT_LOCK_STRIPES = 1024;
 
     private final Cache<Label, Long> shardsEphemeral;
     private final ConcurrentHashMap<Label, Set<String>> shardRequests;
     private final Set<String> lockCandidates;
+    private final Striped<Lock> commitLocks;
 
     public ShardManagerImpl(){
         this.shardsEphemeral = CacheBuilder.newBuilder()
@@ -42,6 +47,7 @@ public class ShardManagerImpl implements ShardManager {
                 .build();
         this.shardRequests = new ConcurrentHashMap<>();
         this.lockCandidates = ConcurrentHashMap.newKeySet();
+        this.commitLocks = Striped.lock(COMMIT_LOCK_STRIPES);
     }
 
 
@@ -88,6 +94,12 @@ public class ShardManagerImpl implements ShardManager {
         return lockCandidates.contains(txId);
     }
 
+    @Override
+    public Iterable<Lock> commitLocks(Collection<Label> labels) {
+        //bulkGet returns the stripes ordered by stripe index, so concurrent callers cannot acquire them in conflicting orders
+        return commitLocks.bulkGet(labels);
+    }
+
     @Override
     public boolean lockCandidatesPresent(){
         return !lockCandidates.isEmpty();
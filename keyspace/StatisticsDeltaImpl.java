@@ -24,8 +24,10 @@ import grakn.core.kb.concept.api.EntityType;
 import grakn.core.kb.concept.api.GraknConceptException;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.api.RelationType;
+import grakn.core.kb.concept.api.Role;
 import grakn.core.kb.concept.api.Type;
 import grakn.core.kb.keyspace.StatisticsDelta;
+import grakn.core.kb.keyspace.ValueHistogram;
 
 import java.util.HashMap;
 
@@ -39,6 +41,8 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
 
     private HashMap<Label, Long> instanceDeltas;
     private HashMap<Label, Long> ownershipDeltas;
+    private HashMap<Label, Long> rolePlayerDeltas;
+    private HashMap<Label, ValueHistogram> valueDeltas;
 
     // keep these outside of the hashmap to avoid a large number of hash() method calls
     private long thingCount = 0;
@@ -49,6 +53,8 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
     public StatisticsDeltaImpl() {
         instanceDeltas = new HashMap<>();
         ownershipDeltas = new HashMap<>();
+        rolePlayerDeltas = new HashMap<>();
+        valueDeltas = new HashMap<>();
     }
 
     @Override
@@ -121,6 +127,34 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
         attributeCount--;
     }
 
+    @Override
+    public void incrementRolePlayer(Role role) {
+        Label label = role.label();
+        Long currentCount = rolePlayerDeltas.getOrDefault(label, 0L);
+        rolePlayerDeltas.put(label, currentCount + 1);
+    }
+
+    @Override
+    public void decrementRolePlayer(Role role) {
+        Label label = role.label();
+        Long currentCount = rolePlayerDeltas.getOrDefault(label, 0L);
+        rolePlayerDeltas.put(label, currentCount - 1);
+    }
+
+    @Override
+    public void incrementValue(Label attributeType, Object value) {
+        if (ValueHistogram.records(value)) {
+            valueDeltas.computeIfAbsent(attributeType, label -> new ValueHistogram()).add(value, 1);
+        }
+    }
+
+    @Override
+    public void decrementValue(Label attributeType, Object value) {
+        if (ValueHistogram.records(value)) {
+            valueDeltas.computeIfAbsent(attributeType, label -> new ValueHistogram()).add(value, -1);
+        }
+    }
+
     @Override
     public HashMap<Label, Long> instanceDeltas() {
         // copy the meta type counts into the map on retrieval
@@ -143,4 +177,14 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
     public HashMap<Label, Long> ownershipDeltas() {
         return ownershipDeltas;
     }
+
+    @Override
+    public HashMap<Label, Long> rolePlayerDeltas() {
+        return rolePlayerDeltas;
+    }
+
+    @Override
+    public HashMap<Label, ValueHistogram> valueDeltas() {
+        return valueDeltas;
+    }
 }
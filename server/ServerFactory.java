@@ -30,6 +30,7 @@ import grakn.core.server.rpc.MigrateService;
 import grakn.core.server.rpc.OpenRequest;
 import grakn.core.server.rpc.ServerOpenRequest;
 import grakn.core.server.rpc.SessionService;
+import grakn.core.server.rpc.TransactionExecutorFactory;
 import grakn.core.server.session.HadoopGraphFactory;
 import grakn.core.server.session.JanusGraphFactory;
 import grakn.core.server.session.SessionFactory;
@@ -149,7 +150,13 @@ public class ServerFactory {
         int grpcPort = config.getProperty(ConfigKey.GRPC_PORT);
         OpenRequest requestOpener = new ServerOpenRequest(sessionFactory);
 
-        SessionService sessionService = new SessionService(requestOpener);
+        TransactionExecutorFactory.Mode executorMode = TransactionExecutorFactory.Mode.of(config.getProperty(ConfigKey.TRANSACTION_EXECUTOR));
+        TransactionExecutorFactory executorFactory = new TransactionExecutorFactory(executorMode);
+        LOG.info("Transactions will run on {} threads", executorFactory.mode().name().toLowerCase());
+
+        boolean prefetchAnswers = config.getProperty(ConfigKey.ANSWER_PREFETCH);
+
+        SessionService sessionService = new SessionService(requestOpener, executorFactory, prefetchAnswers);
 
         MigrateService migrateService = new MigrateService(sessionFactory);
 
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.server.rpc;
+
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.protocol.session.ConceptProto;
+import io.grpc.Status;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes which facets of a concept are attached to the concepts of query answers, so that clients
+ * do not need to follow every answer up with ConceptMethod requests.
+ * <p>
+ * Clients select facets with a comma-separated list under the PROJECTION_METADATA_KEY of the request metadata,
+ * e.g. "label,type,value". "none" only ships concept IDs and base types. When no projection is requested,
+ * every facet is attached, as ConceptMap answers always did.
+ * <p>
+ * A projection lives as long as the answer stream it was requested for and memoises the response of every
+ * type it has shipped, so that the labels of types are only read once per stream rather than once per answer.
+ */
+public class AnswerProjection {
+
+    public static final String PROJECTION_METADATA_KEY = "projection";
+
+    public enum Facet {
+        /**
+         * Label of schema concepts
+         */
+        LABEL,
+        /**
+         * Type of things, together with its label
+         */
+        TYPE,
+        /**
+         * Whether a thing is inferred
+         */
+        INFERRED,
+        /**
+         * Value and value type of attributes
+         */
+        VALUE
+    }
+
+    private final Set<Facet> facets;
+    private final Map<ConceptId, ConceptProto.Concept> types = new HashMap<>();
+
+    private AnswerProjection(Set<Facet> facets) {
+        this.facets = facets;
+    }
+
+    public static AnswerProjection all() {
+        return new AnswerProjection(EnumSet.allOf(Facet.class));
+    }
+
+    public static AnswerProjection of(Map<String, String> metadata) {
+        return of(metadata.get(PROJECTION_METADATA_KEY));
+    }
+
+    static AnswerProjection of(@Nullable String projection) {
+        if (projection == null) return all();
+
+        Set<Facet> facets = EnumSet.noneOf(Facet.class);
+        for (String facet : projection.split(",")) {
+            String name = facet.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty() || name.equals("NONE")) continue;
+            try {
+                facets.add(Facet.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                throw ResponseBuilder.exception(Status.INVALID_ARGUMENT.withDescription("Unrecognised projection facet " + facet));
+            }
+        }
+        return new AnswerProjection(facets);
+    }
+
+    public Set<Facet> facets() {
+        return Collections.unmodifiableSet(facets);
+    }
+
+    boolean includes(Facet facet) {
+        return facets.contains(facet);
+    }
+
+    /**
+     * @return the response for the given type, built once per projection
+     */
+    ConceptProto.Concept type(Concept type) {
+        return types.computeIfAbsent(type.id(), id -> ResponseBuilder.Concept.conceptPrefilled(type, this));
+    }
+}
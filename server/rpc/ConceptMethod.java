@@ -17,7 +17,11 @@
 
 package grakn.core.server.rpc;
 
+import com.google.common.collect.Streams;
+import grakn.core.concept.impl.ConceptVertex;
 import grakn.core.core.AttributeSerialiser;
+import grakn.core.core.Schema;
+import grakn.core.graph.graphdb.internal.InternalVertex;
 import grakn.core.kb.concept.api.Concept;
 import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.api.Entity;
@@ -27,10 +31,14 @@ import grakn.protocol.session.ConceptProto;
 import grakn.protocol.session.SessionProto;
 import grakn.protocol.session.SessionProto.Transaction;
 import graql.lang.pattern.Pattern;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -40,9 +48,13 @@ import java.util.stream.Stream;
  */
 public class ConceptMethod {
 
+    // Response metadata marking the end of the responses of one concept in a batch of concepts, see #iterBatch.
+    // The value is the ID of the concept whose responses ended.
+    public static final String BATCH_GROUP_END_METADATA_KEY = "batch-group-end";
+
     public static void run(Concept concept, ConceptProto.Method.Req req,
                                       SessionService.Iterators iterators, grakn.core.kb.server.Transaction tx, Consumer<Transaction.Res> responseSender) {
-        ConceptHolder con = new ConceptHolder(concept, tx, iterators, responseSender, null);
+        ConceptHolder con = new ConceptHolder(concept, tx, iterator -> iterators.startBatchIterating(iterator, null), responseSender);
         switch (req.getReqCase()) {
             // Concept methods
             case CONCEPT_DELETE_REQ:
@@ -166,7 +178,86 @@ public class ConceptMethod {
     public static void iter(Concept concept, ConceptProto.Method.Iter.Req req,
                             SessionService.Iterators iterators, grakn.core.kb.server.Transaction tx, Consumer<Transaction.Res> responseSender, Transaction.Iter.Req.Options options)
     {
-        ConceptHolder con = new ConceptHolder(concept, tx, iterators, responseSender, options);
+        ConceptHolder con = new ConceptHolder(concept, tx, iterator -> iterators.startBatchIterating(iterator, options), responseSender);
+        iter(con, req);
+    }
+
+    /**
+     * Evaluate the same iterator method over many concepts in a single request.
+     * The responses of each concept are streamed consecutively, in the order in which the concepts are given,
+     * and are each followed by a group end marker: an empty method response carrying the concept's ID under
+     * BATCH_GROUP_END_METADATA_KEY in its metadata. Responses of all concepts share one batching iterator.
+     * <p>
+     * Before evaluating a method that walks the edges of instances, the edges it walks of all concepts are fetched in a
+     * single multi-vertex storage query, so the per-concept evaluations are served from the transaction's vertex caches.
+     */
+    public static void iterBatch(List<Concept> concepts, ConceptProto.Method.Iter.Req req,
+                                 SessionService.Iterators iterators, grakn.core.kb.server.Transaction tx, Consumer<Transaction.Res> responseSender, Transaction.Iter.Req.Options options) {
+        prefetchAdjacency(concepts, req);
+
+        Stream<Transaction.Res> responses = concepts.stream().flatMap(concept -> {
+            List<Iterator<Transaction.Res>> conceptResponses = new ArrayList<>(1);
+            iter(new ConceptHolder(concept, tx, conceptResponses::add, responseSender), req);
+            Stream<Transaction.Res> groupResponses = conceptResponses.stream()
+                    .flatMap(Streams::stream);
+            return Stream.concat(groupResponses, Stream.of(batchGroupEnd(concept)));
+        });
+        iterators.startBatchIterating(responses.iterator(), options);
+    }
+
+    private static Transaction.Res batchGroupEnd(Concept concept) {
+        return ResponseBuilder.Transaction.Iter.conceptMethod(ConceptProto.Method.Iter.Res.getDefaultInstance())
+                .toBuilder()
+                .putMetadata(BATCH_GROUP_END_METADATA_KEY, concept.id().getValue())
+                .build();
+    }
+
+    /**
+     * Loads the edges the method walks from each of the concepts. Methods on schema concepts are served from the
+     * schema caches and methods whose edges are not known up front are evaluated without prefetching.
+     */
+    private static void prefetchAdjacency(List<Concept> concepts, ConceptProto.Method.Iter.Req req) {
+        Direction direction;
+        Schema.EdgeLabel label;
+        switch (req.getReqCase()) {
+            case THING_KEYS_ITER_REQ:
+            case THING_ATTRIBUTES_ITER_REQ:
+                direction = Direction.OUT;
+                label = Schema.EdgeLabel.ATTRIBUTE;
+                break;
+            case THING_RELATIONS_ITER_REQ:
+            case THING_ROLES_ITER_REQ:
+                direction = Direction.IN;
+                label = Schema.EdgeLabel.ROLE_PLAYER;
+                break;
+            case RELATION_ROLEPLAYERSMAP_ITER_REQ:
+            case RELATION_ROLEPLAYERS_ITER_REQ:
+                direction = Direction.OUT;
+                label = Schema.EdgeLabel.ROLE_PLAYER;
+                break;
+            case ATTRIBUTE_OWNERS_ITER_REQ:
+                direction = Direction.IN;
+                label = Schema.EdgeLabel.ATTRIBUTE;
+                break;
+            default:
+                return;
+        }
+
+        List<InternalVertex> vertices = concepts.stream()
+                .filter(concept -> concept instanceof ConceptVertex)
+                .map(concept -> ConceptVertex.from(concept).vertex().element())
+                .filter(vertex -> vertex instanceof InternalVertex)
+                .map(vertex -> (InternalVertex) vertex)
+                .collect(Collectors.toList());
+        if (vertices.size() < 2) return;
+
+        vertices.get(0).tx().multiQuery().addAllVertices(vertices)
+                .direction(direction)
+                .labels(label.getLabel())
+                .edges();
+    }
+
+    private static void iter(ConceptHolder con, ConceptProto.Method.Iter.Req req) {
         switch (req.getReqCase()) {
             // SchemaConcept methods
             case SCHEMACONCEPT_SUPS_ITER_REQ:
@@ -243,16 +334,18 @@ public class ConceptMethod {
 
         private grakn.core.kb.concept.api.Concept concept;
         private grakn.core.kb.server.Transaction tx;
-        private SessionService.Iterators iterators;
+        private Consumer<Iterator<Transaction.Res>> iteratorSender;
         private Consumer<Transaction.Res> responseSender;
-        private Transaction.Iter.Req.Options options;
 
-        ConceptHolder(grakn.core.kb.concept.api.Concept concept, grakn.core.kb.server.Transaction tx, SessionService.Iterators iterators, Consumer<Transaction.Res> responseSender, Transaction.Iter.Req.Options options) {
+        ConceptHolder(grakn.core.kb.concept.api.Concept concept, grakn.core.kb.server.Transaction tx, Consumer<Iterator<Transaction.Res>> iteratorSender, Consumer<Transaction.Res> responseSender) {
             this.concept = concept;
             this.tx = tx;
-            this.iterators = iterators;
+            this.iteratorSender = iteratorSender;
             this.responseSender = responseSender;
-            this.options = options;
+        }
+
+        private void iterate(Iterator<Transaction.Res> responses) {
+            iteratorSender.accept(responses);
         }
 
         private grakn.core.kb.concept.api.Concept convert(ConceptProto.Concept protoConcept) {
@@ -387,7 +480,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void subs() {
@@ -400,7 +493,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
         }
 
@@ -451,7 +544,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void players() {
@@ -464,7 +557,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
         }
 
@@ -483,7 +576,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void isAbstract() {
@@ -512,7 +605,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void attributes() {
@@ -525,7 +618,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void playing() {
@@ -538,7 +631,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void key(ConceptProto.Concept protoKey) {
@@ -619,7 +712,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void relates(ConceptProto.Concept protoRole) {
@@ -765,7 +858,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void attributes(List<ConceptProto.Concept> protoTypes) {
@@ -781,7 +874,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void relations(List<ConceptProto.Concept> protoRoles) {
@@ -797,7 +890,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void roles() {
@@ -810,7 +903,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void has(ConceptProto.Concept protoAttribute) {
@@ -850,7 +943,7 @@ public class ConceptMethod {
                     }
                 }
 
-                iterators.startBatchIterating(responses.build().iterator(), options);
+                iterate(responses.build().iterator());
             }
 
             private void rolePlayers(List<ConceptProto.Concept> protoRoles) {
@@ -866,7 +959,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
 
             private void assign(ConceptProto.Relation.Assign.Req request) {
@@ -909,7 +1002,7 @@ public class ConceptMethod {
                     return ResponseBuilder.Transaction.Iter.conceptMethod(res);
                 });
 
-                iterators.startBatchIterating(responses.iterator(), options);
+                iterate(responses.iterator());
             }
         }
     }
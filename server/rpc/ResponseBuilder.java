@@ -149,10 +149,14 @@ public class ResponseBuilder {
         static class Iter {
 
             static SessionProto.Transaction.Res query(Object object) {
+                return query(object, AnswerProjection.all());
+            }
+
+            static SessionProto.Transaction.Res query(Object object, AnswerProjection projection) {
                 return SessionProto.Transaction.Res.newBuilder()
                         .setIterRes(SessionProto.Transaction.Iter.Res.newBuilder()
                                 .setQueryIterRes(SessionProto.Transaction.Query.Iter.Res.newBuilder()
-                                        .setAnswer(Answer.answer(object)))).build();
+                                        .setAnswer(Answer.answer(object, projection)))).build();
             }
 
             static SessionProto.Transaction.Res getAttributes(grakn.core.kb.concept.api.Concept concept) {
@@ -184,20 +188,33 @@ public class ResponseBuilder {
         }
 
         public static ConceptProto.Concept conceptPrefilled(grakn.core.kb.concept.api.Concept concept) {
+            return conceptPrefilled(concept, AnswerProjection.all());
+        }
+
+        /**
+         * Build a concept response carrying the facets selected by the given projection
+         */
+        public static ConceptProto.Concept conceptPrefilled(grakn.core.kb.concept.api.Concept concept, AnswerProjection projection) {
             ConceptProto.Concept.Builder builder = ConceptProto.Concept.newBuilder()
                     .setId(concept.id().getValue())
                     .setBaseType(getBaseType(concept));
 
             if (concept.isSchemaConcept()) {
-                builder.setLabelRes(ConceptProto.SchemaConcept.GetLabel.Res.newBuilder()
-                        .setLabel(concept.asSchemaConcept().label().getValue()));
+                if (projection.includes(AnswerProjection.Facet.LABEL) || projection.includes(AnswerProjection.Facet.TYPE)) {
+                    builder.setLabelRes(ConceptProto.SchemaConcept.GetLabel.Res.newBuilder()
+                            .setLabel(concept.asSchemaConcept().label().getValue()));
+                }
             } else if (concept.isThing()) {
-                builder.setTypeRes(ConceptProto.Thing.Type.Res.newBuilder()
-                        .setType(conceptPrefilled(concept.asThing().type())));
-                builder.setInferredRes(ConceptProto.Thing.IsInferred.Res.newBuilder()
-                        .setInferred(concept.asThing().isInferred()));
+                if (projection.includes(AnswerProjection.Facet.TYPE)) {
+                    builder.setTypeRes(ConceptProto.Thing.Type.Res.newBuilder()
+                            .setType(projection.type(concept.asThing().type())));
+                }
+                if (projection.includes(AnswerProjection.Facet.INFERRED)) {
+                    builder.setInferredRes(ConceptProto.Thing.IsInferred.Res.newBuilder()
+                            .setInferred(concept.asThing().isInferred()));
+                }
 
-                if (concept.isAttribute()) {
+                if (concept.isAttribute() && projection.includes(AnswerProjection.Facet.VALUE)) {
                     builder.setValueRes(ConceptProto.Attribute.Value.Res.newBuilder()
                             .setValue(attributeValue(concept.asAttribute().value())));
                     builder.setValueTypeRes(ConceptProto.AttributeType.ValueType.Res.newBuilder()
@@ -304,12 +321,16 @@ public class ResponseBuilder {
     public static class Answer {
 
         public static AnswerProto.Answer answer(Object object) {
+            return answer(object, AnswerProjection.all());
+        }
+
+        public static AnswerProto.Answer answer(Object object, AnswerProjection projection) {
             AnswerProto.Answer.Builder answer = AnswerProto.Answer.newBuilder();
 
             if (object instanceof AnswerGroup) {
-                answer.setAnswerGroup(answerGroup((AnswerGroup) object));
+                answer.setAnswerGroup(answerGroup((AnswerGroup) object, projection));
             } else if (object instanceof ConceptMap) {
-                answer.setConceptMap(conceptMap((ConceptMap) object));
+                answer.setConceptMap(conceptMap((ConceptMap) object, projection));
             } else if (object instanceof ConceptList) {
                 answer.setConceptList(conceptList((ConceptList) object));
             } else if (object instanceof ConceptSetMeasure) {
@@ -326,18 +347,22 @@ public class ResponseBuilder {
         }
 
 
-        static AnswerProto.AnswerGroup answerGroup(AnswerGroup<?> answer) {
+        static AnswerProto.AnswerGroup answerGroup(AnswerGroup<?> answer, AnswerProjection projection) {
             AnswerProto.AnswerGroup.Builder answerGroupProto = AnswerProto.AnswerGroup.newBuilder()
                     .setOwner(ResponseBuilder.Concept.concept(answer.owner()))
-                    .addAllAnswers(answer.answers().stream().map(Answer::answer).collect(Collectors.toList()));
+                    .addAllAnswers(answer.answers().stream().map(groupAnswer -> answer(groupAnswer, projection)).collect(Collectors.toList()));
 
             return answerGroupProto.build();
         }
 
         static AnswerProto.ConceptMap conceptMap(ConceptMap answer) {
+            return conceptMap(answer, AnswerProjection.all());
+        }
+
+        static AnswerProto.ConceptMap conceptMap(ConceptMap answer, AnswerProjection projection) {
             AnswerProto.ConceptMap.Builder conceptMapProto = AnswerProto.ConceptMap.newBuilder();
             answer.map().forEach((var, concept) -> {
-                ConceptProto.Concept conceptProto = ResponseBuilder.Concept.conceptPrefilled(concept);
+                ConceptProto.Concept conceptProto = ResponseBuilder.Concept.conceptPrefilled(concept, projection);
                 conceptMapProto.putMap(var.name(), conceptProto);
             });
 
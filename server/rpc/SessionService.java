@@ -17,7 +17,6 @@
 
 package grakn.core.server.rpc;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import grabl.tracing.client.GrablTracing;
 import grabl.tracing.client.GrablTracingThreadStatic;
 import grabl.tracing.client.GrablTracingThreadStatic.ThreadTrace;
@@ -49,18 +48,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -81,7 +83,12 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
 
     private static final int DEFAULT_BATCH_SIZE = 50;
 
+    // Request metadata listing further concept IDs over which to evaluate a concept iterator method, see ConceptMethod#iterBatch
+    public static final String BATCH_IDS_METADATA_KEY = "concept-ids";
+
     private final OpenRequest requestOpener;
+    private final TransactionExecutorFactory executorFactory;
+    private final boolean prefetchAnswers;
     // Each client's connection obtains a unique ID, which we map to the shared session under the hood
     // if connecting to the same keyspace
     // Additionally, each client's remote session maps to a set of open transactions that we close when the client closes
@@ -94,7 +101,17 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
     private Map<String, Set<TransactionListener>> transactionListeners;
 
     public SessionService(OpenRequest requestOpener) {
+        this(requestOpener, new TransactionExecutorFactory(TransactionExecutorFactory.Mode.PLATFORM), false);
+    }
+
+    /**
+     * @param prefetchAnswers whether iterators should compute the next batch of answers ahead of the client's request
+     *                        and size batches adaptively, see Iterators
+     */
+    public SessionService(OpenRequest requestOpener, TransactionExecutorFactory executorFactory, boolean prefetchAnswers) {
         this.requestOpener = requestOpener;
+        this.executorFactory = executorFactory;
+        this.prefetchAnswers = prefetchAnswers;
         this.openSessions = new HashMap<>();
         this.transactionListeners = new HashMap<>();
     }
@@ -159,7 +176,7 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
         private final AtomicBoolean terminated = new AtomicBoolean(false);
         private final ExecutorService threadExecutor;
         private final Map<String, Session> openSessions;
-        private final Iterators iterators = new Iterators(this::onNextResponse);
+        private final Iterators iterators;
 
         @Nullable
         private grakn.core.kb.server.Transaction tx = null;
@@ -167,8 +184,8 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
 
         TransactionListener(StreamObserver<Transaction.Res> responseSender, Map<String, Session> openSessions) {
             this.responseSender = responseSender;
-            ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("transaction-listener").build();
-            this.threadExecutor = Executors.newSingleThreadExecutor(threadFactory);
+            this.threadExecutor = executorFactory.newExecutor();
+            this.iterators = prefetchAnswers ? new Iterators(this::onNextResponse, this::processInBackground) : new Iterators(this::onNextResponse);
             this.openSessions = openSessions;
         }
 
@@ -234,7 +251,7 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
                     commit();
                     break;
                 case ITER_REQ:
-                    handleIterRequest(request.getIterReq());
+                    handleIterRequest(request.getIterReq(), request.getMetadataMap());
                     break;
                 case GETSCHEMACONCEPT_REQ:
                     getSchemaConcept(request.getGetSchemaConceptReq());
@@ -269,16 +286,16 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
             }
         }
 
-        public void handleIterRequest(Transaction.Iter.Req request) {
+        public void handleIterRequest(Transaction.Iter.Req request, Map<String, String> metadata) {
             switch (request.getReqCase()) {
                 case ITERATORID:
                     iterators.resumeBatchIterating(request.getIteratorId(), request.getOptions());
                     break;
                 case QUERY_ITER_REQ:
-                    query(request.getQueryIterReq(), request.getOptions());
+                    query(request.getQueryIterReq(), request.getOptions(), AnswerProjection.of(metadata));
                     break;
                 case CONCEPTMETHOD_ITER_REQ:
-                    conceptIterMethod(request.getConceptMethodIterReq(), request.getOptions());
+                    conceptIterMethod(request.getConceptMethodIterReq(), request.getOptions(), metadata);
                     break;
                 case GETATTRIBUTES_ITER_REQ:
                     getAttributes(request.getGetAttributesIterReq(), request.getOptions());
@@ -292,7 +309,7 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
         public void close(@Nullable Throwable error) {
             if (!terminated.getAndSet(true)) {
                 if (tx != null) {
-                    tx.close();
+                    closeTransaction();
                 }
 
                 if (error != null) {
@@ -314,6 +331,24 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
             }
         }
 
+        /**
+         * Close the transaction on its thread, once any answers being prefetched from it have been computed
+         */
+        private void closeTransaction() {
+            try {
+                threadExecutor.submit(tx::close).get();
+            } catch (RejectedExecutionException e) {
+                // the thread of the transaction is gone, so nothing else is using it
+                tx.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tx.close();
+            } catch (ExecutionException e) {
+                // the listener still has to release the response stream and the thread of the transaction
+                LOG.error("Failed to close the transaction of an RPC TransactionListener: ", e.getCause());
+            }
+        }
+
         private void process(Runnable runnable) {
             try {
                 threadExecutor.submit(runnable).get();
@@ -322,6 +357,21 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
             }
         }
 
+        /**
+         * Queue work on the transaction thread without waiting for it, e.g. to prefetch answers.
+         * Any request received in the meantime is processed once this work is complete.
+         */
+        private void processInBackground(Runnable runnable) {
+            try {
+                threadExecutor.execute(() -> {
+                    // prefetches queued before the listener closed are dropped rather than delay closing it
+                    if (!terminated.get()) runnable.run();
+                });
+            } catch (RejectedExecutionException e) {
+                // the listener is closing, there is nobody left to prefetch for
+            }
+        }
+
         private void open(Transaction.Open.Req request) {
             if (tx != null) {
                 throw ResponseBuilder.exception(Status.FAILED_PRECONDITION);
@@ -354,7 +404,8 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
             onNextResponse(ResponseBuilder.Transaction.commit());
         }
 
-        private void query(SessionProto.Transaction.Query.Iter.Req request, SessionProto.Transaction.Iter.Req.Options options) {
+        private void query(SessionProto.Transaction.Query.Iter.Req request, SessionProto.Transaction.Iter.Req.Options options,
+                           AnswerProjection projection) {
             Transaction.Res response;
             try (ThreadTrace trace = traceOnThread("query")) {
                 GraqlQuery query;
@@ -386,7 +437,7 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
 
                     Stream<Transaction.Res> responseStream = tx()
                             .stream(query, infer, explain)
-                            .map(ResponseBuilder.Transaction.Iter::query);
+                            .map(answer -> ResponseBuilder.Transaction.Iter.query(answer, projection));
 
                     iterators.startBatchIterating(responseStream.iterator(), options);
                 }
@@ -459,9 +510,25 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
             ConceptMethod.run(concept, request.getMethod(), iterators, tx(), this::onNextResponse);
         }
 
-        private void conceptIterMethod(Transaction.ConceptMethod.Iter.Req request, Transaction.Iter.Req.Options options) {
+        /**
+         * Evaluates the method over the requested concept or, if the request metadata lists further concept IDs
+         * under BATCH_IDS_METADATA_KEY, over the requested concept followed by each of the listed concepts.
+         */
+        private void conceptIterMethod(Transaction.ConceptMethod.Iter.Req request, Transaction.Iter.Req.Options options,
+                                       Map<String, String> metadata) {
             Concept concept = nonNull(tx().getConcept(ConceptId.of(request.getId())));
-            ConceptMethod.iter(concept, request.getMethod(), iterators, tx(), this::onNextResponse, options);
+            String batchIds = metadata.get(BATCH_IDS_METADATA_KEY);
+            if (batchIds == null) {
+                ConceptMethod.iter(concept, request.getMethod(), iterators, tx(), this::onNextResponse, options);
+                return;
+            }
+
+            List<Concept> concepts = new ArrayList<>();
+            concepts.add(concept);
+            for (String id : batchIds.split(",")) {
+                if (!id.trim().isEmpty()) concepts.add(nonNull(tx().getConcept(ConceptId.of(id.trim()))));
+            }
+            ConceptMethod.iterBatch(concepts, request.getMethod(), iterators, tx(), this::onNextResponse, options);
         }
 
         /**
@@ -485,14 +552,28 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
      * lazy, streaming responses such as for Graql query results.
      *
      * The iterators operate by batching results to reduce total round-trips.
+     *
+     * If a prefetch scheduler is provided, the iterators additionally:
+     * - compute the next batch in the background as soon as the current batch has been sent, so that the
+     * server keeps producing answers while the previous batch is travelling to the client
+     * - size batches adaptively from the observed time and serialised size of each answer, when the client
+     * does not ask for a specific batch size
+     * Prefetching is scheduled on the transaction's own thread, as the underlying iterators are bound to it.
      */
     static class Iterators {
         private final Consumer<Transaction.Res> responseSender;
+        @Nullable
+        private final Consumer<Runnable> prefetchScheduler;
         private final AtomicInteger iteratorIdCounter = new AtomicInteger(0);
         private final Map<Integer, BatchingIterator> iterators = new ConcurrentHashMap<>();
 
         public Iterators(Consumer<Transaction.Res> responseSender) {
+            this(responseSender, null);
+        }
+
+        public Iterators(Consumer<Transaction.Res> responseSender, @Nullable Consumer<Runnable> prefetchScheduler) {
             this.responseSender = responseSender;
+            this.prefetchScheduler = prefetchScheduler;
         }
 
         /**
@@ -523,9 +604,17 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
             return id;
         }
 
+        private boolean isPrefetching() {
+            return prefetchScheduler != null;
+        }
+
         public class BatchingIterator {
             private int id = 0;
             private final Iterator<Transaction.Res> iterator;
+            private final Deque<Transaction.Res> prefetched = new ArrayDeque<>();
+            private final AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize();
+            @Nullable
+            private RuntimeException prefetchError = null;
 
             public BatchingIterator(Iterator<Transaction.Res> iterator) {
                 this.iterator = iterator;
@@ -547,17 +636,58 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
                 }
             }
 
+            private boolean hasNext() {
+                if (prefetched.isEmpty() && prefetchError == null) {
+                    Transaction.Res response = compute();
+                    if (response != null) prefetched.add(response);
+                }
+                if (!prefetched.isEmpty()) return true;
+                if (prefetchError != null) throw prefetchError;
+                return false;
+            }
+
+            private Transaction.Res next() {
+                return prefetched.poll();
+            }
+
+            /**
+             * Pull the next answer from the underlying iterator, recording its cost when sizing adaptively.
+             * Iterators backed by streams compute the answer in hasNext(), so it is timed together with next().
+             *
+             * @return the next answer, null if there are no more
+             */
+            @Nullable
+            private Transaction.Res compute() {
+                long start = System.nanoTime();
+                if (!iterator.hasNext()) return null;
+                Transaction.Res response = iterator.next();
+                if (isPrefetching()) {
+                    adaptiveBatchSize.record(System.nanoTime() - start, response.getSerializedSize());
+                }
+                return response;
+            }
+
+            private int batchSize(@Nullable Transaction.Iter.Req.Options options) {
+                if (isPrefetching() && (options == null || options.getBatchSizeCase() == Transaction.Iter.Req.Options.BatchSizeCase.BATCHSIZE_NOT_SET)) {
+                    return adaptiveBatchSize.get();
+                }
+                return getSizeFrom(options);
+            }
+
             public void iterateBatch(@Nullable Transaction.Iter.Req.Options options) {
-                int batchSize = getSizeFrom(options);
-                for (int i = 0; i < batchSize && iterator.hasNext(); i++) {
-                    responseSender.accept(iterator.next());
+                int batchSize = batchSize(options);
+                for (int i = 0; i < batchSize && hasNext(); i++) {
+                    responseSender.accept(next());
                 }
 
-                if (iterator.hasNext()) {
+                if (hasNext()) {
                     save();
                     responseSender.accept(SessionProto.Transaction.Res.newBuilder()
                             .setIterRes(SessionProto.Transaction.Iter.Res.newBuilder()
                                     .setIteratorId(id)).build());
+                    if (isPrefetching()) {
+                        prefetchScheduler.accept(() -> prefetch(batchSize(options)));
+                    }
                 } else {
                     end();
                     responseSender.accept(SessionProto.Transaction.Res.newBuilder()
@@ -565,6 +695,22 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
                                     .setDone(true)).build());
                 }
             }
+
+            /**
+             * Buffer up to one batch of answers ahead of the client's next request.
+             * Errors are retained and surfaced when the client reaches them, as they would be without prefetching.
+             */
+            private void prefetch(int batchSize) {
+                try {
+                    while (prefetched.size() < batchSize && prefetchError == null) {
+                        Transaction.Res response = compute();
+                        if (response == null) break;
+                        prefetched.add(response);
+                    }
+                } catch (RuntimeException e) {
+                    prefetchError = e;
+                }
+            }
         }
 
         private static int getSizeFrom(@Nullable Transaction.Iter.Req.Options options) {
@@ -579,4 +725,38 @@ public class SessionService extends SessionServiceGrpc.SessionServiceImplBase {
             }
         }
     }
+
+    /**
+     * Batch size derived from exponentially weighted averages of the time taken to compute an answer and of its
+     * serialised size: a batch should take about TARGET_BATCH_NANOS to compute and TARGET_BATCH_BYTES to send,
+     * whichever is reached first.
+     */
+    static class AdaptiveBatchSize {
+        private static final int MIN_BATCH_SIZE = 10;
+        private static final int MAX_BATCH_SIZE = 10_000;
+        private static final long TARGET_BATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+        private static final long TARGET_BATCH_BYTES = 1024 * 1024;
+        private static final double WEIGHT = 0.1;
+
+        private double averageNanos = -1;
+        private double averageBytes = -1;
+
+        void record(long nanos, int bytes) {
+            if (averageNanos < 0) {
+                averageNanos = nanos;
+                averageBytes = bytes;
+            } else {
+                averageNanos += WEIGHT * (nanos - averageNanos);
+                averageBytes += WEIGHT * (bytes - averageBytes);
+            }
+        }
+
+        int get() {
+            if (averageNanos < 0) return DEFAULT_BATCH_SIZE;
+            double byTime = TARGET_BATCH_NANOS / Math.max(averageNanos, 1D);
+            double byBytes = TARGET_BATCH_BYTES / Math.max(averageBytes, 1D);
+            long size = (long) Math.min(byTime, byBytes);
+            return (int) Math.max(MIN_BATCH_SIZE, Math.min(MAX_BATCH_SIZE, size));
+        }
+    }
 }
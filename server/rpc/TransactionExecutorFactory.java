@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.server.rpc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the executors on which each TransactionListener runs its transaction.
+ * <p>
+ * A Grakn transaction is bound to the thread that opened it (see SessionImpl and TransactionImpl), so every
+ * listener must execute all of its requests serially on one and the same thread. This factory preserves that
+ * affinity in every mode and only changes what kind of thread backs a listener:
+ * - PLATFORM: one dedicated OS thread per transaction
+ * - VIRTUAL: one virtual thread per transaction, multiplexed by the JVM over a small set of carrier threads.
+ * Requires JDK 21+; on older runtimes we fall back to PLATFORM.
+ */
+public class TransactionExecutorFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionExecutorFactory.class);
+    private static final String THREAD_NAME_PREFIX = "transaction-listener-";
+
+    public enum Mode {
+        PLATFORM, VIRTUAL;
+
+        public static Mode of(String name) {
+            return Mode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Mode mode;
+    private final ThreadFactory threadFactory;
+
+    public TransactionExecutorFactory(Mode mode) {
+        ThreadFactory virtualThreadFactory = mode == Mode.VIRTUAL ? virtualThreadFactory() : null;
+        if (mode == Mode.VIRTUAL && virtualThreadFactory == null) {
+            LOG.warn("Virtual threads are not supported by this JVM, transactions will run on platform threads");
+        }
+
+        if (virtualThreadFactory != null) {
+            this.mode = Mode.VIRTUAL;
+            this.threadFactory = virtualThreadFactory;
+        } else {
+            this.mode = Mode.PLATFORM;
+            this.threadFactory = new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_PREFIX + "%d").build();
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * @return a new single-threaded executor, to be owned and shut down by exactly one TransactionListener
+     */
+    ExecutorService newExecutor() {
+        return Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Virtual threads are looked up reflectively, as Grakn is compiled against Java 8
+     *
+     * @return a ThreadFactory producing virtual threads, or null if the running JVM does not support them
+     */
+    @Nullable
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
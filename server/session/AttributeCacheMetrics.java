@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.session;
+
+import com.google.common.cache.Cache;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.server.keyspace.Keyspace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Publishes the hit, miss and eviction counters of the committed attributes cache of a keyspace to the platform
+ * MBean server, under grakn.core:type=AttributeCache,keyspace=<keyspace>, for as long as the keyspace is open.
+ */
+class AttributeCacheMetrics implements AttributeCacheMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(AttributeCacheMetrics.class);
+
+    private final Cache<String, ConceptId> attributesCommitted;
+
+    private AttributeCacheMetrics(Cache<String, ConceptId> attributesCommitted) {
+        this.attributesCommitted = attributesCommitted;
+    }
+
+    static void register(Keyspace keyspace, Cache<String, ConceptId> attributesCommitted) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = objectName(keyspace);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(new AttributeCacheMetrics(attributesCommitted), name);
+        } catch (JMException e) {
+            LOG.warn("Could not publish the attribute cache metrics of keyspace {}", keyspace.name(), e);
+        }
+    }
+
+    static void unregister(Keyspace keyspace) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = objectName(keyspace);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException e) {
+            LOG.warn("Could not withdraw the attribute cache metrics of keyspace {}", keyspace.name(), e);
+        }
+    }
+
+    private static ObjectName objectName(Keyspace keyspace) throws JMException {
+        return new ObjectName("grakn.core:type=AttributeCache,keyspace=" + ObjectName.quote(keyspace.name()));
+    }
+
+    @Override
+    public long getHitCount() {
+        return attributesCommitted.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return attributesCommitted.stats().missCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        return attributesCommitted.stats().hitRate();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return attributesCommitted.stats().evictionCount();
+    }
+
+    @Override
+    public long getSize() {
+        return attributesCommitted.size();
+    }
+}
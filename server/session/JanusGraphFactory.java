@@ -28,8 +28,11 @@ import grakn.core.graph.core.RelationType;
 import grakn.core.graph.core.VertexLabel;
 import grakn.core.graph.core.schema.JanusGraphIndex;
 import grakn.core.graph.core.schema.JanusGraphManagement;
+import grakn.core.graph.diskstorage.configuration.ConfigElement;
+import grakn.core.graph.graphdb.configuration.GraphDatabaseConfiguration;
 import grakn.core.graph.graphdb.database.StandardJanusGraph;
 import grakn.core.graph.graphdb.transaction.StandardJanusGraphTx;
+import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.server.session.optimisation.JanusPreviousPropertyStepStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
@@ -63,8 +66,16 @@ final public class JanusGraphFactory {
     }
 
     public StandardJanusGraph openGraph(String keyspace) {
+        return openGraph(keyspace, true);
+    }
+
+    /**
+     * @param buildValueIndexes whether to backfill the value indexes enabled since the keyspace was last opened
+     */
+    private StandardJanusGraph openGraph(String keyspace, boolean buildValueIndexes) {
         StandardJanusGraph janusGraph = configureGraph(keyspace, config);
         buildJanusIndexes(janusGraph);
+        if (buildValueIndexes) janusGraph.buildValueIndexes();
         if (!strategiesApplied.getAndSet(true)) {
             TraversalStrategies strategies = TraversalStrategies.GlobalCache.getStrategies(StandardJanusGraphTx.class);
             strategies = strategies.clone().addStrategies(new JanusPreviousPropertyStepStrategy());
@@ -78,7 +89,8 @@ final public class JanusGraphFactory {
 
     public void drop(String keyspace) {
         try {
-            JanusGraph graph = openGraph(keyspace);
+            // the keyspace is dropped, so its value indexes are not worth building
+            JanusGraph graph = openGraph(keyspace, false);
             graph.close();
             grakn.core.graph.core.JanusGraphFactory.drop(graph);
         } catch (Exception e) {
@@ -96,6 +108,22 @@ final public class JanusGraphFactory {
             builder.set(key.toString(), value);
         });
 
+        // attributes are looked up by ranges of values from an ordered index, partitioned by attribute type
+        if (config.getProperty(ConfigKey.ORDERED_VALUE_INDEX)) {
+            String[] valueProperties = AttributeType.ValueType.values().stream()
+                    .filter(valueType -> !valueType.equals(AttributeType.ValueType.BOOLEAN))
+                    .map(valueType -> Schema.VertexProperty.ofValueType(valueType).name())
+                    .distinct().toArray(String[]::new);
+            builder.set(ConfigElement.getPath(GraphDatabaseConfiguration.ORDERED_INDEX_KEYS), valueProperties);
+            builder.set(ConfigElement.getPath(GraphDatabaseConfiguration.ORDERED_INDEX_PARTITION_KEY), Schema.VertexProperty.THING_TYPE_LABEL_ID.name());
+        }
+
+        // string attributes are looked up by substrings of their values from a token index, partitioned by attribute type
+        if (config.getProperty(ConfigKey.TOKEN_VALUE_INDEX)) {
+            builder.set(ConfigElement.getPath(GraphDatabaseConfiguration.TOKEN_INDEX_KEYS), new String[]{Schema.VertexProperty.VALUE_STRING.name()});
+            builder.set(ConfigElement.getPath(GraphDatabaseConfiguration.TOKEN_INDEX_PARTITION_KEY), Schema.VertexProperty.THING_TYPE_LABEL_ID.name());
+        }
+
         LOG.debug("Opening graph {}", keyspace);
         return builder.open();
     }
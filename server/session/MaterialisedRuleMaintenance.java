@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.session;
+
+import grakn.common.util.Pair;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.impl.ConceptVertex;
+import grakn.core.core.Schema;
+import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.atom.binary.AttributeAtom;
+import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
+import grakn.core.graql.reasoner.cache.RuleCacheImpl;
+import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.graql.reasoner.rule.InferenceRule;
+import grakn.core.graql.reasoner.rule.MaterialisedRules;
+import grakn.core.kb.concept.api.Attribute;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Rule;
+import grakn.core.kb.concept.api.Thing;
+import grakn.core.kb.concept.api.Type;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.kb.server.cache.TransactionCache;
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Maintains the facts of the materialised rules of a keyspace in storage as a transaction commits.
+ * <p>
+ * The rules maintained by a commit are the current rules concluding types which depend on instances the transaction
+ * modified. Insertions are propagated forward by resolving the bodies of these rules and materialising their heads,
+ * which has put behaviour, so facts already stored are kept. Facts are retracted by deletions, and through negation
+ * by insertions too. In these cases the stored facts of all the types that may reach are deleted first and then
+ * rederived (delete and rederive). Facts are deleted by type rather than by the derivations supporting them, which
+ * rederives more than needed but keeps no bookkeeping in storage.
+ * <p>
+ * The facts of rules which are not current may be out of date in any way, so they are deleted and rederived by a
+ * transaction of their own, which a commit starts once it is done, see MaterialisedRules#rederive.
+ * <p>
+ * Facts maintained are persisted still tagged as inferred, so that they are told apart from data and deleted once they
+ * no longer follow from it. Queries which do not infer leave them out of their answers.
+ * <p>
+ * Commits touching instances the rules depend on are serialised by the maintenance lock of its MaterialisedRules,
+ * held from the start of #maintain until the commit is acknowledged or fails. Other commits do not take it.
+ */
+class MaterialisedRuleMaintenance {
+
+    private final Session session;
+    private final ConceptManager conceptManager;
+    private final TransactionCache transactionCache;
+    private final RuleCacheImpl ruleCache;
+    private final MultilevelSemanticCache queryCache;
+    private final MaterialisedRules materialisedRules;
+
+    private long readVersion;
+    private boolean rederiving = false;
+    private Set<Label> maintained = Collections.emptySet();
+    private boolean rulesModified = false;
+    private boolean affected = false;
+    private boolean locked = false;
+
+    MaterialisedRuleMaintenance(Session session, ConceptManager conceptManager, TransactionCache transactionCache,
+                                RuleCacheImpl ruleCache, MultilevelSemanticCache queryCache, MaterialisedRules materialisedRules) {
+        this.session = session;
+        this.conceptManager = conceptManager;
+        this.transactionCache = transactionCache;
+        this.ruleCache = ruleCache;
+        this.queryCache = queryCache;
+        this.materialisedRules = materialisedRules;
+    }
+
+    /**
+     * Records the version of the materialised rules the transaction reads storage with
+     */
+    void open() {
+        readVersion = materialisedRules.version();
+    }
+
+    /**
+     * Makes the commit of the transaction rederive the rules which are not current, rather than maintain those its
+     * changes touch
+     */
+    void rederiveStaleRules() {
+        rederiving = true;
+    }
+
+    /**
+     * Brings the stored facts of the materialised rules in line with the changes of the transaction, before they are
+     * persisted. Changes to the rules leave the facts as they are, as the rules are all rederived after the commit.
+     */
+    void maintain() {
+        rulesModified = !transactionCache.getModifiedRules().isEmpty();
+        if (rulesModified) return;
+        List<InferenceRule> rules = ruleCache.getRules()
+                .filter(this::isMaintainable)
+                .map(ruleCache::getRule)
+                .collect(toList());
+        Set<Type> sources;
+        if (rederiving) {
+            sources = rules.stream()
+                    .filter(rule -> !materialisedRules.isCurrent(rule.getRule()))
+                    .map(MaterialisedRuleMaintenance::headType)
+                    .collect(toSet());
+        } else {
+            sources = transactionCache.getModifiedInstanceTypes();
+        }
+        Set<Type> affectedTypes = MaterialisedRules.dependentTypes(sources);
+        rules = rules.stream()
+                .filter(rule -> affectedTypes.contains(headType(rule)))
+                .collect(toList());
+        if (rules.isEmpty()) return;
+
+        materialisedRules.lockMaintenance();
+        locked = true;
+        affected = true;
+        //rules which are not current are left to the rederivation started once the commit is done
+        if (!rederiving) {
+            rules = rules.stream()
+                    .filter(rule -> materialisedRules.isCurrent(rule.getRule()))
+                    .collect(toList());
+            if (rules.isEmpty()) return;
+        }
+        Set<Type> retractionSources = new HashSet<>(transactionCache.getDeletedInstanceTypes());
+        rules.stream()
+                .filter(rule -> rederiving || hasNegation(rule.getRule()))
+                .forEach(rule -> retractionSources.add(headType(rule)));
+        Set<Type> retractedTypes = MaterialisedRules.dependentTypes(retractionSources);
+        rules.stream()
+                .map(MaterialisedRuleMaintenance::headType)
+                .filter(retractedTypes::contains)
+                .collect(toSet())
+                .forEach(this::deleteStoredFacts);
+        //answers resolved before the deletions may bind deleted facts
+        queryCache.clear();
+
+        Set<Label> rederived = new HashSet<>();
+        rules.forEach(rule -> {
+            rederive(rule);
+            rederived.add(rule.getRule().label());
+        });
+        maintained = rederived;
+    }
+
+    /**
+     * Acknowledges the maintained facts once they are persisted
+     */
+    void ackCommit() {
+        materialisedRules.ackCommit(readVersion, maintained, rulesModified, affected);
+    }
+
+    /**
+     * Lets other commits maintain the rules once this commit is acknowledged or has failed, then starts rederiving
+     * the rules which are not current, if any, in a transaction of its own
+     */
+    void release() {
+        if (locked) {
+            locked = false;
+            materialisedRules.unlockMaintenance();
+        }
+        //the rederivation holds the session only, not the caches of this transaction
+        Session session = this.session;
+        materialisedRules.rederive(() -> {
+            try (TransactionImpl tx = (TransactionImpl) session.transaction(Transaction.Type.WRITE)) {
+                tx.rederiveStaleRules();
+            }
+        });
+    }
+
+    private boolean isMaintainable(Rule rule) {
+        return materialisedRules.isMaterialised(rule)
+                && MaterialisedRules.dependencies(rule).stream()
+                .map(ruleCache::getRule)
+                .allMatch(MaterialisedRuleMaintenance::concludesStorableFacts);
+    }
+
+    /**
+     * @return true if the rule concludes new relations or ownerships, rather than role players added to existing
+     * relations, which cannot be persisted as inferred
+     */
+    private static boolean concludesStorableFacts(InferenceRule rule) {
+        Atom head = rule.getHead().getAtom();
+        if (head.getSchemaConcept() == null || !head.getSchemaConcept().isType()) return false;
+        if (head.isAttributeAtom()) return true;
+        return head.isRelationAtom() && !rule.redefinesType() && !rule.appendsRolePlayers();
+    }
+
+    private static boolean hasNegation(Rule rule) {
+        return MaterialisedRules.dependencies(rule).stream()
+                .anyMatch(dependency -> dependency.whenNegativeTypes().findFirst().isPresent());
+    }
+
+    private static Type headType(InferenceRule rule) {
+        return rule.getHead().getAtom().getSchemaConcept().asType();
+    }
+
+    /**
+     * Deletes the inferred instances of the type, and inferred ownerships of the attributes of the type.
+     * Only the inferred facts are kept as the instances are streamed, and they are deleted once all are read, as
+     * deleting them modifies the edges the instances are read from.
+     */
+    private void deleteStoredFacts(Type type) {
+        List<Pair<Thing, Attribute<?>>> ownerships = new ArrayList<>();
+        List<Thing> inferred = new ArrayList<>();
+        type.instances()
+                .filter(instance -> instance.type().equals(type))
+                .forEach(instance -> {
+                    Thing thing = instance.asThing();
+                    if (type.isAttributeType()) {
+                        ConceptVertex.from(thing).vertex()
+                                .getEdgesOfType(Direction.IN, Schema.EdgeLabel.ATTRIBUTE)
+                                .filter(edge -> edge.propertyBoolean(Schema.EdgeProperty.IS_INFERRED))
+                                .forEach(edge -> {
+                                    Thing owner = conceptManager.buildConcept(edge.source());
+                                    ownerships.add(new Pair<>(owner, thing.asAttribute()));
+                                });
+                    }
+                    if (thing.isInferred()) inferred.add(thing);
+                });
+        ownerships.forEach(ownership -> ownership.first().unhas(ownership.second()));
+        inferred.forEach(Concept::delete);
+        //inferred ownerships are removed without notice, so the type is acknowledged explicitly
+        transactionCache.instancesDeleted(type);
+    }
+
+    private void rederive(InferenceRule rule) {
+        ReasonerAtomicQuery head = rule.getHead();
+        //answers are collected first, as materialising the head modifies the instances they are read from
+        //bodies binding the same head variables conclude the same fact, so it is only materialised once
+        List<ConceptMap> answers = rule.getBody().resolve(true)
+                .map(answer -> answer.project(head.getVarNames()))
+                .distinct()
+                .collect(toList());
+        for (ConceptMap answer : answers) {
+            head.materialise(answer).forEach(fact -> persist(head.getAtom(), fact));
+        }
+    }
+
+    /**
+     * Marks a materialised fact for persistence, keeping it tagged as inferred
+     */
+    private void persist(Atom head, ConceptMap fact) {
+        Variable var = head.getVarName();
+        if (!fact.containsVar(var)) return;
+        if (head.isAttributeAtom()) {
+            Variable attributeVar = ((AttributeAtom) head).getAttributeVariable();
+            if (!fact.containsVar(attributeVar)) return;
+            Thing owner = fact.get(var).asThing();
+            Attribute<?> attribute = fact.get(attributeVar).asAttribute();
+            if (attribute.isInferred()) transactionCache.inferredInstanceToPersist(attribute);
+            transactionCache.inferredOwnershipToPersist(owner, attribute);
+        } else {
+            Thing relation = fact.get(var).asThing();
+            if (relation.isInferred()) transactionCache.inferredInstanceToPersist(relation);
+        }
+    }
+}
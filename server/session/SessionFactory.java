@@ -17,9 +17,14 @@
 
 package grakn.core.server.session;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import grakn.core.common.config.Config;
 import grakn.core.common.config.ConfigKey;
 import grakn.core.graph.graphdb.database.StandardJanusGraph;
+import grakn.core.graql.planning.TraversalPlanCache;
+import grakn.core.graql.reasoner.cache.SharedAnswerCache;
+import grakn.core.graql.reasoner.rule.MaterialisedRules;
+import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.keyspace.AttributeManager;
 import grakn.core.kb.keyspace.KeyspaceSchemaCache;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
@@ -32,11 +37,16 @@ import grakn.core.keyspace.KeyspaceStatisticsImpl;
 import grakn.core.keyspace.ShardManagerImpl;
 import grakn.core.server.util.LockManager;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -47,6 +57,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * it is possible to also update the Keyspace Store (which tracks all existing keyspaces).
  */
 public class SessionFactory {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionFactory.class);
 
     // Keep visibility to protected as this is used by KGMS
     protected final JanusGraphFactory janusGraphFactory;
@@ -57,6 +68,8 @@ public class SessionFactory {
     protected final LockManager lockManager;
 
     private final Map<Keyspace, SharedKeyspaceData> sharedKeyspaceDataMap;
+    // Number of workers of each keyspace resolving disjuncts in parallel, read once so that all keyspaces get the same
+    private final int reasonerParallelism;
 
     public SessionFactory(LockManager lockManager, JanusGraphFactory janusGraphFactory, HadoopGraphFactory hadoopGraphFactory, Config config) {
         this.janusGraphFactory = janusGraphFactory;
@@ -64,6 +77,7 @@ public class SessionFactory {
         this.lockManager = lockManager;
         this.config = config;
         this.sharedKeyspaceDataMap = new HashMap<>();
+        this.reasonerParallelism = config.getProperty(ConfigKey.REASONER_PARALLELISM);
     }
 
     /**
@@ -103,15 +117,19 @@ public class SessionFactory {
                 hadoopGraph = hadoopGraphFactory.getGraph(keyspace);
                 cache = new KeyspaceSchemaCache();
                 keyspaceStatistics = new KeyspaceStatisticsImpl();
-                attributeManager = new AttributeManagerImpl();
+                attributeManager = new AttributeManagerImpl(config.getProperty(ConfigKey.ATTRIBUTE_CACHE_MAX_BYTES));
                 shardManager = new ShardManagerImpl();
                 graphLock = new ReentrantReadWriteLock();
                 cacheContainer = new SharedKeyspaceData(cache, graph, keyspaceStatistics, attributeManager, shardManager, graphLock, hadoopGraph);
                 sharedKeyspaceDataMap.put(keyspace, cacheContainer);
+                AttributeCacheMetrics.register(keyspace, attributeManager.attributesCommitted());
             }
 
-            long typeShardThreshold = config.getProperty(ConfigKey.TYPE_SHARD_THRESHOLD);
-            TransactionProvider transactionProvider = new TransactionProviderImpl(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, graphLock, typeShardThreshold);
+            TransactionOptions options = TransactionOptions.fromConfig(config);
+            SharedAnswerCache sharedAnswerCache = options.sharedReasoningCache() ? cacheContainer.sharedAnswerCache() : null;
+            ExecutorService reasonerWorkers = reasonerParallelism > 0 ? cacheContainer.reasonerWorkers() : null;
+            MaterialisedRules materialisedRules = options.materialisedRules().isEmpty() ? null : cacheContainer.materialisedRules(options.materialisedRules());
+            TransactionProvider transactionProvider = new TransactionProviderImpl(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, graphLock, options, cacheContainer.traversalPlanCache(), sharedAnswerCache, reasonerWorkers, materialisedRules);
             Session session = new SessionImpl(keyspace, transactionProvider, cache, graph, keyspaceStatistics, attributeManager, shardManager);
             session.setOnClose(this::onSessionClose);
             cacheContainer.addSessionReference(session);
@@ -134,8 +152,9 @@ public class SessionFactory {
         try {
             if (sharedKeyspaceDataMap.containsKey(keyspace)) {
                 SharedKeyspaceData container = sharedKeyspaceDataMap.remove(keyspace);
-                container.graph().close();
-                container.hadoopGraph().close();
+                AttributeCacheMetrics.unregister(keyspace);
+                container.shutdownWorkers();
+                closeGraphs(container);
                 container.invalidateSessions();
             }
         } finally {
@@ -161,8 +180,12 @@ public class SessionFactory {
                 // If there are no more sessions associated to current keyspace,
                 // close graph and remove reference from cache.
                 if (cacheContainer.referenceCount() == 0) {
-                    cacheContainer.graph().close();
-                    cacheContainer.hadoopGraph().close();
+                    LOG.debug("Attribute cache of keyspace {}: {}", session.keyspace().name(), cacheContainer.attributeManager().attributesCommitted().stats());
+                    LOG.debug("Traversal plan cache of keyspace {}: {}", session.keyspace().name(), cacheContainer.traversalPlanCache().stats());
+                    LOG.debug("Shared answer cache of keyspace {}: {}", session.keyspace().name(), cacheContainer.sharedAnswerCache().stats());
+                    AttributeCacheMetrics.unregister(session.keyspace());
+                    cacheContainer.shutdownWorkers();
+                    closeGraphs(cacheContainer);
                     sharedKeyspaceDataMap.remove(session.keyspace());
                 }
             }
@@ -171,6 +194,21 @@ public class SessionFactory {
         }
     }
 
+    /**
+     * Commits only share the graph lock, holding the stripes of what they contend on exclusively.
+     * Closing the graphs takes the write lock, so that it waits for the locking commits in flight.
+     */
+    private static void closeGraphs(SharedKeyspaceData container) {
+        Lock graphWriteLock = container.graphLock().writeLock();
+        graphWriteLock.lock();
+        try {
+            container.graph().close();
+            container.hadoopGraph().close();
+        } finally {
+            graphWriteLock.unlock();
+        }
+    }
+
     /**
      * Helper class used to hold in memory a reference to a graph together with its schema cache
      * and a reference to all sessions open to the graph.
@@ -196,6 +234,18 @@ public class SessionFactory {
 
         private final ReadWriteLock graphLock;
 
+        // Plans of the queries run against the keyspace, shared so that queries of the same shape are planned once
+        private final TraversalPlanCache traversalPlanCache;
+
+        // Answers of complete reasoner queries, shared so that read transactions need not resolve them again
+        private final SharedAnswerCache sharedAnswerCache;
+
+        // Threads resolving the disjuncts of queries in parallel, as many as the server configures, created when first used
+        private ExecutorService reasonerWorkers;
+
+        // Rules whose inferred facts are kept in storage, created when a session first uses them
+        private MaterialisedRules materialisedRules;
+
         // Keep visibility to public as this is used by KGMS
         public SharedKeyspaceData(KeyspaceSchemaCache keyspaceSchemaCache, StandardJanusGraph graph, KeyspaceStatistics keyspaceStatistics,
                                   AttributeManager attributeManager, ShardManager shardManager, ReadWriteLock graphLock, HadoopGraph hadoopGraph) {
@@ -207,6 +257,8 @@ public class SessionFactory {
             this.attributeManager = attributeManager;
             this.shardManager = shardManager;
             this.graphLock = graphLock;
+            this.traversalPlanCache = new TraversalPlanCache(keyspaceSchemaCache);
+            this.sharedAnswerCache = new SharedAnswerCache(keyspaceSchemaCache);
         }
 
         // Keep visibility to public as this is used by KGMS
@@ -255,6 +307,32 @@ public class SessionFactory {
 
         public ShardManager shardManager(){ return shardManager;}
 
+        public TraversalPlanCache traversalPlanCache() {
+            return traversalPlanCache;
+        }
+
+        public SharedAnswerCache sharedAnswerCache() {
+            return sharedAnswerCache;
+        }
+
+        public synchronized ExecutorService reasonerWorkers() {
+            if (reasonerWorkers == null) {
+                reasonerWorkers = Executors.newFixedThreadPool(reasonerParallelism,
+                        new ThreadFactoryBuilder().setNameFormat("reasoner-worker-%d").setDaemon(true).build());
+            }
+            return reasonerWorkers;
+        }
+
+        public synchronized MaterialisedRules materialisedRules(Set<Label> labels) {
+            if (materialisedRules == null) materialisedRules = new MaterialisedRules(labels);
+            return materialisedRules;
+        }
+
+        synchronized void shutdownWorkers() {
+            if (reasonerWorkers != null) reasonerWorkers.shutdownNow();
+            if (materialisedRules != null) materialisedRules.shutdown();
+        }
+
         // Keep visibility to public as this is used by KGMS
         public HadoopGraph hadoopGraph() {
             return hadoopGraph;
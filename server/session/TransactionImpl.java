@@ -89,6 +89,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -96,6 +97,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -132,15 +134,18 @@ public class TransactionImpl implements Transaction {
     protected final JanusTraversalSourceProvider janusTraversalSourceProvider;
     protected final ReasonerQueryFactory reasonerQueryFactory;
     private final ReadWriteLock graphLock;
+    private final MaterialisedRuleMaintenance ruleMaintenance;
 
     private boolean skipValidationChecks = false;
+    private Runnable onClose;
 
     public TransactionImpl(Session session, JanusGraphTransaction janusTransaction, ConceptManager conceptManager,
                            JanusTraversalSourceProvider janusTraversalSourceProvider, TransactionCache transactionCache,
                            MultilevelSemanticCache queryCache, RuleCache ruleCache, ExplanationCache explanationCache,
                            StatisticsDeltaImpl statisticsDelta, ExecutorFactory executorFactory,
                            ReasonerQueryFactory reasonerQueryFactory,
-                           ReadWriteLock graphLock, long typeShardThreshold) {
+                           ReadWriteLock graphLock, long typeShardThreshold,
+                           @Nullable MaterialisedRuleMaintenance ruleMaintenance) {
         createdInCurrentThread.set(true);
 
         this.session = session;
@@ -161,6 +166,7 @@ public class TransactionImpl implements Transaction {
         this.uncomittedStatisticsDelta = statisticsDelta;
 
         this.typeShardThreshold = typeShardThreshold;
+        this.ruleMaintenance = ruleMaintenance;
     }
 
     @Override
@@ -168,6 +174,8 @@ public class TransactionImpl implements Transaction {
         this.txType = type;
         this.isTxOpen = true;
         this.transactionCache.updateSchemaCacheFromKeyspaceCache();
+        if (Type.READ.equals(type)) queryCache.readSharedAnswers();
+        if (ruleMaintenance != null) ruleMaintenance.open();
     }
 
     /**
@@ -178,7 +186,7 @@ public class TransactionImpl implements Transaction {
      * - use a lock if there is a tx that mutates "has" key ownerships
      * - otherwise do not lock
      *
-     * @return true if graph lock need to be acquired for commit
+     * @return true if commit locks need to be acquired for commit
      */
     @VisibleForTesting
     public boolean commitLockRequired() {
@@ -209,18 +217,48 @@ public class TransactionImpl implements Transaction {
         return lockRequired;
     }
 
+    /**
+     * Rather than serialising every locking commit of the keyspace, we only lock the attribute indices and types
+     * this transaction contends on. Two transactions then serialise their commits only if they share one of them,
+     * which is all that deduplicating attributes and creating shards needs.
+     * Attribute locks are always acquired before shard locks, and each group in stripe order, so that commits cannot deadlock.
+     *
+     * @return the locks that need to be acquired for commit, in acquisition order
+     */
+    private List<Lock> commitLocks() {
+        String txId = this.janusTransaction.toString();
+        Set<String> lockedIndices = new HashSet<>(transactionCache.getRemovedAttributes());
+        lockedIndices.addAll(transactionCache.getModifiedKeyIndices());
+        if (session.attributeManager().requiresLock(txId)) {
+            transactionCache.getNewAttributes().keySet().forEach(labelIndexPair -> lockedIndices.add(labelIndexPair.second()));
+        }
+        Set<Label> lockedShards = session.shardManager().requiresLock(txId) ? transactionCache.getNewShards().keySet() : Collections.emptySet();
+
+        List<Lock> locks = Lists.newArrayList(session.attributeManager().commitLocks(lockedIndices));
+        session.shardManager().commitLocks(lockedShards).forEach(locks::add);
+        return locks;
+    }
+
     private void commitInternal() throws InvalidKBException {
         boolean lockRequired = commitLockRequired();
-        if (lockRequired) graphLock.writeLock().lock();
+        List<Lock> commitLocks = lockRequired ? commitLocks() : Collections.emptyList();
+        // the graph lock is only shared here, so that closing the graph of the keyspace, which holds its write lock, waits for locking commits
+        if (lockRequired) graphLock.readLock().lock();
+        commitLocks.forEach(Lock::lock);
         try {
             createNewTypeShardsWhenThresholdReached();
             transactionCache.getRemovedAttributes().forEach(index -> session.attributeManager().attributesCommitted().invalidate(index));
             Set<String> deduplicatedIndices = mergeAttributes();
+            // the types are resolved before persisting, as the schema cannot be read once the janus transaction is committed
+            Set<Label> committedTypes = queryCache.committedTypes(transactionCache.getModifiedInstanceTypes(), transactionCache.getModifiedRules());
+            queryCache.ackCommit(committedTypes);
             persistInternal();
+            queryCache.ackCommit(committedTypes);
             ackCommit(deduplicatedIndices);
 
         } finally {
-            if (lockRequired) graphLock.writeLock().unlock();
+            Lists.reverse(commitLocks).forEach(Lock::unlock);
+            if (lockRequired) graphLock.readLock().unlock();
         }
     }
 
@@ -262,9 +300,11 @@ public class TransactionImpl implements Transaction {
             Label label = labelIndexPair.first();
             ConceptId targetId = session.attributeManager().attributesCommitted().getIfPresent(index);
             if (targetId != null) {
+                Object value = conceptManager.getConcept(conceptId).asAttribute().value();
                 merge(conceptId, targetId);
                 deduplicatesIndices.add(index);
                 uncomittedStatisticsDelta.decrementAttribute(label);
+                uncomittedStatisticsDelta.decrementValue(label, value);
             }
         }));
         return deduplicatesIndices;
@@ -1147,7 +1187,12 @@ public class TransactionImpl implements Transaction {
         }
         try {
             if (janusTransaction.isOpen()) {
-                janusTransaction.rollback();
+                try {
+                    // shared answers are read from the concepts of this transaction, so are shared before rolling it back
+                    queryCache.shareAnswers();
+                } finally {
+                    janusTransaction.rollback();
+                }
             }
         } finally {
             closeTransaction(closeMessage);
@@ -1167,28 +1212,48 @@ public class TransactionImpl implements Transaction {
         }
         try {
             checkMutationAllowed();
+            // facts of materialised rules are maintained before the inferred facts not marked for persistence are removed
+            if (ruleMaintenance != null) ruleMaintenance.maintain();
             removeInferredFacts();
             computeShardCandidates();
 
             // lock on the keyspace cache shared between concurrent tx's to the same keyspace
             // force serialized updates, keeping Janus and our KeyspaceCache in sync
             commitInternal();
+            if (ruleMaintenance != null) ruleMaintenance.ackCommit();
             transactionCache.flushSchemaLabelIdsToCache();
         } finally {
+            if (ruleMaintenance != null) ruleMaintenance.release();
             String closeMessage = ErrorMessage.TX_CLOSED_ON_ACTION.getMessage("committed", keyspace());
             closeTransaction(closeMessage);
         }
     }
 
+    /**
+     * Commits the rederivation of the facts of the materialised rules which are not current
+     */
+    void rederiveStaleRules() {
+        ruleMaintenance.rederiveStaleRules();
+        commit();
+    }
+
     public void disableCommitValidation() {
         skipValidationChecks = true;
     }
 
+    /**
+     * @param onClose invoked once the transaction is closed, whether committed or not
+     */
+    public void setOnClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
     private void closeTransaction(String closedReason) {
         this.closedReason = closedReason;
         this.isTxOpen = false;
         ruleCache.clear();
         queryCache.clear();
+        if (onClose != null) onClose.run();
     }
 
     private void removeInferredFacts() {
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.session;
+
+import grakn.core.common.config.Config;
+import grakn.core.common.config.ConfigKey;
+import grakn.core.common.config.SystemProperty;
+import grakn.core.graql.reasoner.rule.MaterialisedRules;
+import grakn.core.kb.concept.api.Label;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The options of the knowledge base the transactions of a keyspace are opened with, as read from the config
+ */
+public final class TransactionOptions {
+
+    private static final String GROUP_SPILL_SUBDIR = "group-spill";
+
+    private final long typeShardThreshold;
+    private final boolean nativeTraversal;
+    private final int exhaustivePlanningMaxVars;
+    private final int replanningDivergence;
+    private final boolean statisticsCount;
+    private final int groupAggregateMaxGroups;
+    private final Path groupSpillDirectory;
+    private final int writeChunkSize;
+    private final boolean sharedReasoningCache;
+    private final Set<Label> materialisedRules;
+
+    private TransactionOptions(long typeShardThreshold, boolean nativeTraversal, int exhaustivePlanningMaxVars,
+                               int replanningDivergence, boolean statisticsCount, int groupAggregateMaxGroups,
+                               @Nullable Path groupSpillDirectory, int writeChunkSize, boolean sharedReasoningCache,
+                               Set<Label> materialisedRules) {
+        this.typeShardThreshold = typeShardThreshold;
+        this.nativeTraversal = nativeTraversal;
+        this.exhaustivePlanningMaxVars = exhaustivePlanningMaxVars;
+        this.replanningDivergence = replanningDivergence;
+        this.statisticsCount = statisticsCount;
+        this.groupAggregateMaxGroups = groupAggregateMaxGroups;
+        this.groupSpillDirectory = groupSpillDirectory;
+        this.writeChunkSize = writeChunkSize;
+        this.sharedReasoningCache = sharedReasoningCache;
+        this.materialisedRules = materialisedRules;
+    }
+
+    public static TransactionOptions fromConfig(Config config) {
+        int groupAggregateMaxGroups = config.getProperty(ConfigKey.GROUP_AGGREGATE_MAX_GROUPS);
+        return new TransactionOptions(
+                config.getProperty(ConfigKey.TYPE_SHARD_THRESHOLD),
+                config.getProperty(ConfigKey.NATIVE_TRAVERSAL),
+                config.getProperty(ConfigKey.EXHAUSTIVE_PLANNING_MAX_VARS),
+                config.getProperty(ConfigKey.REPLANNING_DIVERGENCE),
+                config.getProperty(ConfigKey.STATISTICS_COUNT),
+                groupAggregateMaxGroups,
+                groupAggregateMaxGroups > 0 ? groupSpillDirectory(config) : null,
+                config.getProperty(ConfigKey.WRITE_CHUNK_SIZE),
+                config.getProperty(ConfigKey.SHARED_REASONING_CACHE),
+                MaterialisedRules.labels(config.getProperty(ConfigKey.MATERIALISED_RULES))
+        );
+    }
+
+    /**
+     * @return the options with all the optimisations which are configurable turned off
+     */
+    public static TransactionOptions defaults(long typeShardThreshold) {
+        return new TransactionOptions(typeShardThreshold, false, 0, 0, false, 0, null, 0, false, Collections.emptySet());
+    }
+
+    /**
+     * @return the directory under the data directory that group aggregates spill answers to, resolved against the
+     * Grakn home directory if relative
+     */
+    private static Path groupSpillDirectory(Config config) {
+        Path dataDir = Paths.get(config.getProperty(ConfigKey.DATA_DIR));
+        String graknHome = SystemProperty.CURRENT_DIRECTORY.value();
+        if (!dataDir.isAbsolute() && graknHome != null) dataDir = Paths.get(graknHome).resolve(dataDir);
+        return dataDir.resolve(GROUP_SPILL_SUBDIR);
+    }
+
+    public long typeShardThreshold() {
+        return typeShardThreshold;
+    }
+
+    public boolean nativeTraversal() {
+        return nativeTraversal;
+    }
+
+    public int exhaustivePlanningMaxVars() {
+        return exhaustivePlanningMaxVars;
+    }
+
+    public int replanningDivergence() {
+        return replanningDivergence;
+    }
+
+    public boolean statisticsCount() {
+        return statisticsCount;
+    }
+
+    public int groupAggregateMaxGroups() {
+        return groupAggregateMaxGroups;
+    }
+
+    /**
+     * @return the directory group aggregates spill answers to, null if they never spill
+     */
+    @Nullable
+    public Path groupSpillDirectory() {
+        return groupSpillDirectory;
+    }
+
+    public int writeChunkSize() {
+        return writeChunkSize;
+    }
+
+    public boolean sharedReasoningCache() {
+        return sharedReasoningCache;
+    }
+
+    /**
+     * @return labels of the rules listed as materialised
+     */
+    public Set<Label> materialisedRules() {
+        return materialisedRules;
+    }
+}
@@ -28,13 +28,17 @@ import grakn.core.core.JanusTraversalSourceProvider;
 import grakn.core.graph.core.JanusGraphTransaction;
 import grakn.core.graph.graphdb.database.StandardJanusGraph;
 import grakn.core.graql.executor.ExecutorFactoryImpl;
+import grakn.core.graql.executor.ParallelResolver;
 import grakn.core.graql.executor.TraversalExecutorImpl;
 import grakn.core.graql.executor.property.PropertyExecutorFactoryImpl;
+import grakn.core.graql.planning.TraversalPlanCache;
 import grakn.core.graql.planning.TraversalPlanFactoryImpl;
 import grakn.core.graql.reasoner.atom.PropertyAtomicFactory;
 import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
 import grakn.core.graql.reasoner.cache.RuleCacheImpl;
+import grakn.core.graql.reasoner.cache.SharedAnswerCache;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
+import grakn.core.graql.reasoner.rule.MaterialisedRules;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.concept.manager.ConceptNotificationChannel;
 import grakn.core.kb.graql.executor.TraversalExecutor;
@@ -51,8 +55,10 @@ import grakn.core.keyspace.StatisticsDeltaImpl;
 import grakn.core.server.cache.ExplanationCacheImpl;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
@@ -65,18 +71,43 @@ public class TransactionProviderImpl implements TransactionProvider {
     private final KeyspaceStatistics keyspaceStatistics;
     private final AttributeManager attributeManager;
     private ReadWriteLock graphLock;
-    private final long typeShardThreshold;
+    private final TransactionOptions options;
+    private final TraversalPlanCache traversalPlanCache;
+    private final SharedAnswerCache sharedAnswerCache;
+    private final ExecutorService reasonerWorkers;
+    private final MaterialisedRules materialisedRules;
 
     public TransactionProviderImpl(StandardJanusGraph graph, HadoopGraph hadoopGraph,
                                    KeyspaceSchemaCache keyspaceSchemaCache, KeyspaceStatistics keyspaceStatistics,
                                    AttributeManager attributeManager, ReadWriteLock graphLock, long typeShardThreshold) {
+        this(graph, hadoopGraph, keyspaceSchemaCache, keyspaceStatistics, attributeManager, graphLock,
+                TransactionOptions.defaults(typeShardThreshold), new TraversalPlanCache(keyspaceSchemaCache), null, null, null);
+    }
+
+    /**
+     * @param options            the options the transactions are opened with
+     * @param traversalPlanCache the plans of the keyspace shared by its transactions
+     * @param sharedAnswerCache  the answers of the keyspace shared by its transactions, given if the options enable it
+     * @param reasonerWorkers    the workers of the keyspace resolving disjuncts in parallel, given if the options enable
+     *                           them
+     * @param materialisedRules  the rules of the keyspace whose facts are stored, given if the options list any
+     */
+    public TransactionProviderImpl(StandardJanusGraph graph, HadoopGraph hadoopGraph,
+                                   KeyspaceSchemaCache keyspaceSchemaCache, KeyspaceStatistics keyspaceStatistics,
+                                   AttributeManager attributeManager, ReadWriteLock graphLock, TransactionOptions options,
+                                   TraversalPlanCache traversalPlanCache, @Nullable SharedAnswerCache sharedAnswerCache,
+                                   @Nullable ExecutorService reasonerWorkers, @Nullable MaterialisedRules materialisedRules) {
         this.graph = graph;
         this.hadoopGraph = hadoopGraph;
         this.keyspaceSchemaCache = keyspaceSchemaCache;
         this.keyspaceStatistics = keyspaceStatistics;
         this.attributeManager = attributeManager;
         this.graphLock = graphLock;
-        this.typeShardThreshold = typeShardThreshold;
+        this.options = options;
+        this.traversalPlanCache = traversalPlanCache;
+        this.sharedAnswerCache = sharedAnswerCache;
+        this.reasonerWorkers = reasonerWorkers;
+        this.materialisedRules = materialisedRules;
     }
 
     /*
@@ -99,11 +130,11 @@ public class TransactionProviderImpl implements TransactionProvider {
         // Grakn elements
         PropertyExecutorFactory propertyExecutorFactory = new PropertyExecutorFactoryImpl();
         ConceptManager conceptManager = new ConceptManagerImpl(elementFactory, transactionCache, conceptNotificationChannel, attributeManager);
-        TraversalPlanFactory traversalPlanFactory = new TraversalPlanFactoryImpl(janusTraversalSourceProvider, conceptManager, propertyExecutorFactory, typeShardThreshold, keyspaceStatistics);
-        TraversalExecutor traversalExecutor = new TraversalExecutorImpl(traversalPlanFactory, conceptManager);
-        ExecutorFactoryImpl executorFactory = new ExecutorFactoryImpl(conceptManager, hadoopGraph, keyspaceStatistics, traversalPlanFactory, traversalExecutor, explanationCache);
-        RuleCacheImpl ruleCache = new RuleCacheImpl(conceptManager, keyspaceStatistics);
-        MultilevelSemanticCache queryCache = new MultilevelSemanticCache(traversalPlanFactory, traversalExecutor);
+        TraversalPlanFactory traversalPlanFactory = new TraversalPlanFactoryImpl(janusTraversalSourceProvider, conceptManager, propertyExecutorFactory, options.typeShardThreshold(), keyspaceStatistics, traversalPlanCache, options.exhaustivePlanningMaxVars(), options.replanningDivergence());
+        TraversalExecutor traversalExecutor = new TraversalExecutorImpl(traversalPlanFactory, conceptManager, options.nativeTraversal());
+        ExecutorFactoryImpl executorFactory = new ExecutorFactoryImpl(conceptManager, hadoopGraph, keyspaceStatistics, traversalPlanFactory, traversalExecutor, explanationCache, statisticsDelta, options.statisticsCount(), options.groupAggregateMaxGroups(), options.groupSpillDirectory(), options.writeChunkSize());
+        RuleCacheImpl ruleCache = new RuleCacheImpl(conceptManager, keyspaceStatistics, transactionCache, materialisedRules);
+        MultilevelSemanticCache queryCache = new MultilevelSemanticCache(traversalPlanFactory, traversalExecutor, sharedAnswerCache);
 
 
         PropertyAtomicFactory propertyAtomicFactory = new PropertyAtomicFactory(conceptManager, ruleCache, queryCache, keyspaceStatistics);
@@ -111,15 +142,27 @@ public class TransactionProviderImpl implements TransactionProvider {
         executorFactory.setReasonerQueryFactory(reasonerQueryFactory);
         propertyAtomicFactory.setReasonerQueryFactory(reasonerQueryFactory);
         ruleCache.setReasonerQueryFactory(reasonerQueryFactory);
+        MaterialisedRuleMaintenance ruleMaintenance = null;
+        if (materialisedRules != null) {
+            ruleMaintenance = new MaterialisedRuleMaintenance(session, conceptManager, transactionCache, ruleCache, queryCache, materialisedRules);
+            executorFactory.setMaterialisedRules(materialisedRules);
+        }
 
         TransactionImpl tx = new TransactionImpl(
                 session, janusGraphTransaction, conceptManager,
                 janusTraversalSourceProvider, transactionCache, queryCache,
                 ruleCache,  explanationCache, statisticsDelta,
                 executorFactory, reasonerQueryFactory,
-                graphLock, typeShardThreshold
+                graphLock, options.typeShardThreshold(), ruleMaintenance
         );
 
+        if (reasonerWorkers != null) {
+            ParallelResolver parallelResolver = new ParallelResolver(session, tx, conceptManager, reasonerWorkers);
+            executorFactory.setParallelResolver(parallelResolver);
+            // workers still resolving for the transaction are stopped rather than left to fill their queues
+            tx.setOnClose(parallelResolver::close);
+        }
+
         ConceptListenerImpl conceptListener = new ConceptListenerImpl(transactionCache, queryCache, ruleCache, statisticsDelta, attributeManager, janusGraphTransaction.toString());
         conceptNotificationChannel.subscribe(conceptListener);
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.rpc;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveBatchSizeTest {
+
+    @Test
+    public void whenNothingIsRecorded_DefaultBatchSizeIsUsed() {
+        assertEquals(50, new SessionService.AdaptiveBatchSize().get());
+    }
+
+    @Test
+    public void whenAnswersAreSlowToCompute_BatchIsSizedByTime() {
+        SessionService.AdaptiveBatchSize batchSize = new SessionService.AdaptiveBatchSize();
+        batchSize.record(TimeUnit.MILLISECONDS.toNanos(1), 10);
+
+        assertEquals(50, batchSize.get());
+    }
+
+    @Test
+    public void whenAnswersAreLarge_BatchIsSizedByBytes() {
+        SessionService.AdaptiveBatchSize batchSize = new SessionService.AdaptiveBatchSize();
+        batchSize.record(1, 1024 * 64);
+
+        assertEquals(16, batchSize.get());
+    }
+
+    @Test
+    public void whenAnswersAreCheapAndSmall_BatchSizeIsCapped() {
+        SessionService.AdaptiveBatchSize batchSize = new SessionService.AdaptiveBatchSize();
+        batchSize.record(1, 1);
+
+        assertEquals(10_000, batchSize.get());
+    }
+
+    @Test
+    public void whenAnswersAreVerySlow_BatchSizeHasAMinimum() {
+        SessionService.AdaptiveBatchSize batchSize = new SessionService.AdaptiveBatchSize();
+        batchSize.record(TimeUnit.SECONDS.toNanos(1), 10);
+
+        assertEquals(10, batchSize.get());
+    }
+
+    @Test
+    public void whenCostsChange_BatchSizeFollowsTheirAverage() {
+        SessionService.AdaptiveBatchSize batchSize = new SessionService.AdaptiveBatchSize();
+        batchSize.record(TimeUnit.MILLISECONDS.toNanos(1), 10);
+        int initial = batchSize.get();
+        for (int i = 0; i < 100; i++) {
+            batchSize.record(TimeUnit.MILLISECONDS.toNanos(5), 10);
+        }
+
+        assertEquals(50, initial);
+        assertEquals(10, batchSize.get());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.rpc;
+
+import com.google.common.collect.ImmutableMap;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Entity;
+import grakn.core.kb.concept.api.EntityType;
+import grakn.core.kb.concept.api.Label;
+import grakn.protocol.session.AnswerProto;
+import grakn.protocol.session.ConceptProto;
+import graql.lang.statement.Variable;
+import io.grpc.StatusRuntimeException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AnswerProjectionTest {
+
+    private EntityType person;
+    private Entity alice;
+    private Entity bob;
+
+    @Before
+    public void setUp() {
+        person = mock(EntityType.class);
+        when(person.id()).thenReturn(ConceptId.of("V1"));
+        when(person.isSchemaConcept()).thenReturn(true);
+        when(person.isType()).thenReturn(true);
+        when(person.isEntityType()).thenReturn(true);
+        when(person.asSchemaConcept()).thenReturn(person);
+        when(person.label()).thenReturn(Label.of("person"));
+        alice = entity("V2");
+        bob = entity("V3");
+    }
+
+    private Entity entity(String id) {
+        Entity entity = mock(Entity.class);
+        when(entity.id()).thenReturn(ConceptId.of(id));
+        when(entity.isThing()).thenReturn(true);
+        when(entity.isEntity()).thenReturn(true);
+        when(entity.asThing()).thenReturn(entity);
+        when(entity.type()).thenReturn(person);
+        when(entity.isInferred()).thenReturn(true);
+        return entity;
+    }
+
+    private ConceptMap answer() {
+        return new ConceptMap(ImmutableMap.of(new Variable("x"), alice, new Variable("y"), bob));
+    }
+
+    @Test
+    public void whenNoProjectionIsRequested_AllFacetsAreShipped() {
+        assertEquals(EnumSet.allOf(AnswerProjection.Facet.class), AnswerProjection.of(Collections.emptyMap()).facets());
+
+        ConceptProto.Concept concept = ResponseBuilder.Answer.conceptMap(answer()).getMapMap().get("x");
+
+        assertEquals("V2", concept.getId());
+        assertEquals(ConceptProto.Concept.BASE_TYPE.ENTITY, concept.getBaseType());
+        assertEquals("person", concept.getTypeRes().getType().getLabelRes().getLabel());
+        assertTrue(concept.getInferredRes().getInferred());
+    }
+
+    @Test
+    public void whenProjectingFacets_OnlyThoseAreShipped() {
+        AnswerProjection projection = AnswerProjection.of(ImmutableMap.of(AnswerProjection.PROJECTION_METADATA_KEY, " inferred "));
+
+        ConceptProto.Concept concept = ResponseBuilder.Answer.conceptMap(answer(), projection).getMapMap().get("x");
+
+        assertEquals("V2", concept.getId());
+        assertFalse(concept.hasTypeRes());
+        assertTrue(concept.hasInferredRes());
+        verify(alice, times(0)).type();
+    }
+
+    @Test
+    public void whenProjectingNone_OnlyIdsAndBaseTypesAreShipped() {
+        AnswerProto.ConceptMap conceptMap = ResponseBuilder.Answer.conceptMap(answer(), AnswerProjection.of("none"));
+
+        ConceptProto.Concept concept = conceptMap.getMapMap().get("y");
+        assertEquals("V3", concept.getId());
+        assertEquals(ConceptProto.Concept.BASE_TYPE.ENTITY, concept.getBaseType());
+        assertFalse(concept.hasTypeRes());
+        assertFalse(concept.hasInferredRes());
+    }
+
+    @Test
+    public void whenProjectingTypes_TheLabelOfEachTypeIsReadOncePerStream() {
+        AnswerProjection projection = AnswerProjection.of("type");
+
+        ResponseBuilder.Answer.conceptMap(answer(), projection);
+        ResponseBuilder.Answer.conceptMap(answer(), projection);
+
+        verify(person, times(1)).label();
+    }
+
+    @Test(expected = StatusRuntimeException.class)
+    public void whenProjectingAnUnknownFacet_RequestIsRejected() {
+        AnswerProjection.of("label,colour");
+    }
+}
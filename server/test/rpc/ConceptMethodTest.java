@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.rpc;
+
+import com.google.common.collect.ImmutableList;
+import grakn.core.kb.concept.api.Attribute;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Entity;
+import grakn.core.kb.server.Transaction;
+import grakn.protocol.session.ConceptProto;
+import grakn.protocol.session.SessionProto;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConceptMethodTest {
+
+    private static final ConceptProto.Method.Iter.Req ATTRIBUTES = ConceptProto.Method.Iter.Req.newBuilder()
+            .setThingAttributesIterReq(ConceptProto.Thing.Attributes.Iter.Req.getDefaultInstance()).build();
+    private static final SessionProto.Transaction.Iter.Req.Options ALL = SessionProto.Transaction.Iter.Req.Options.newBuilder()
+            .setNumber(100).build();
+
+    private final List<SessionProto.Transaction.Res> sent = new ArrayList<>();
+
+    private static Entity entity(String id, Attribute<?>... attributes) {
+        Entity entity = mock(Entity.class);
+        when(entity.id()).thenReturn(ConceptId.of(id));
+        when(entity.isThing()).thenReturn(true);
+        when(entity.isEntity()).thenReturn(true);
+        when(entity.asThing()).thenReturn(entity);
+        when(entity.attributes()).thenAnswer(invocation -> Stream.of(attributes));
+        return entity;
+    }
+
+    private static Attribute<?> attribute(String id) {
+        Attribute<?> attribute = mock(Attribute.class);
+        when(attribute.id()).thenReturn(ConceptId.of(id));
+        when(attribute.isThing()).thenReturn(true);
+        when(attribute.isAttribute()).thenReturn(true);
+        return attribute;
+    }
+
+    private List<ConceptProto.Method.Iter.Res> methodResponses() {
+        return sent.stream()
+                .filter(res -> res.getIterRes().hasConceptMethodIterRes())
+                .map(res -> res.getIterRes().getConceptMethodIterRes().getResponse())
+                .collect(Collectors.toList());
+    }
+
+    private String groupEnd(int response) {
+        List<SessionProto.Transaction.Res> methodResponses = sent.stream()
+                .filter(res -> res.getIterRes().hasConceptMethodIterRes())
+                .collect(Collectors.toList());
+        return methodResponses.get(response).getMetadataOrDefault(ConceptMethod.BATCH_GROUP_END_METADATA_KEY, null);
+    }
+
+    @Test
+    public void whenEvaluatingAMethodOverManyConcepts_ResponsesAreGroupedByConceptInOrder() {
+        Entity alice = entity("V1", attribute("V10"), attribute("V11"));
+        Entity bob = entity("V2");
+        Entity carol = entity("V3", attribute("V12"));
+        SessionService.Iterators iterators = new SessionService.Iterators(sent::add);
+
+        ConceptMethod.iterBatch(ImmutableList.<Concept>of(alice, bob, carol), ATTRIBUTES, iterators, mock(Transaction.class), sent::add, ALL);
+
+        List<ConceptProto.Method.Iter.Res> responses = methodResponses();
+        assertEquals(6, responses.size());
+        assertEquals("V10", responses.get(0).getThingAttributesIterRes().getAttribute().getId());
+        assertEquals("V11", responses.get(1).getThingAttributesIterRes().getAttribute().getId());
+        assertEquals("V1", groupEnd(2));
+        // a concept without responses still ends its group, so that clients can tell it apart from the next
+        assertEquals("V2", groupEnd(3));
+        assertEquals("V12", responses.get(4).getThingAttributesIterRes().getAttribute().getId());
+        assertEquals("V3", groupEnd(5));
+        assertTrue(sent.get(sent.size() - 1).getIterRes().getDone());
+    }
+
+    @Test
+    public void whenEvaluatingAMethodOverOneConcept_NoGroupEndIsSent() {
+        Entity alice = entity("V1", attribute("V10"));
+        SessionService.Iterators iterators = new SessionService.Iterators(sent::add);
+
+        ConceptMethod.iter(alice, ATTRIBUTES, iterators, mock(Transaction.class), sent::add, ALL);
+
+        List<ConceptProto.Method.Iter.Res> responses = methodResponses();
+        assertEquals(1, responses.size());
+        assertFalse(sent.stream().anyMatch(res -> res.containsMetadata(ConceptMethod.BATCH_GROUP_END_METADATA_KEY)));
+    }
+}
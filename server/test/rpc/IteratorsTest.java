@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.rpc;
+
+import grakn.protocol.session.SessionProto.Transaction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IteratorsTest {
+
+    private static final Transaction.Iter.Req.Options ADAPTIVE = Transaction.Iter.Req.Options.getDefaultInstance();
+
+    private final List<Transaction.Res> sent = new ArrayList<>();
+
+    @Test
+    public void whenPrefetching_NextBatchIsComputedBeforeItIsRequested() {
+        CountingIterator answers = new CountingIterator(200, 0);
+        SessionService.Iterators iterators = new SessionService.Iterators(sent::add, Runnable::run);
+
+        iterators.startBatchIterating(answers, ADAPTIVE);
+
+        assertEquals(50, answersSent());
+        assertTrue(answers.pulled > 50);
+        assertEquals(1, iteratorId());
+    }
+
+    @Test
+    public void whenAnswersAreComputedInHasNext_BatchIsSizedByTheirCost() {
+        CountingIterator answers = new CountingIterator(200, 2);
+        SessionService.Iterators iterators = new SessionService.Iterators(sent::add, Runnable::run);
+
+        iterators.startBatchIterating(answers, ADAPTIVE);
+        sent.clear();
+        iterators.resumeBatchIterating(iteratorId(), ADAPTIVE);
+
+        // answers taking 2ms each fill the 50ms budget of a batch in at most 25 of them
+        assertTrue(answersSent() <= 25);
+    }
+
+    @Test
+    public void whenPrefetchFails_ErrorIsThrownOnceItsAnswerIsReached() {
+        CountingIterator answers = new CountingIterator(200, 0);
+        answers.failAt = 60;
+        SessionService.Iterators iterators = new SessionService.Iterators(sent::add, Runnable::run);
+
+        iterators.startBatchIterating(answers, ADAPTIVE);
+        int id = iteratorId();
+        sent.clear();
+        try {
+            iterators.resumeBatchIterating(id, Transaction.Iter.Req.Options.newBuilder().setNumber(50).build());
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(10, answersSent());
+        }
+    }
+
+    @Test
+    public void whenNotPrefetching_AnswersAreSentInBatchesOfRequestedSize() {
+        CountingIterator answers = new CountingIterator(120, 0);
+        SessionService.Iterators iterators = new SessionService.Iterators(sent::add);
+
+        iterators.startBatchIterating(answers, ADAPTIVE);
+        assertEquals(50, answersSent());
+        assertEquals(51, answers.pulled);
+
+        int id = iteratorId();
+        sent.clear();
+        iterators.resumeBatchIterating(id, Transaction.Iter.Req.Options.newBuilder().setNumber(100).build());
+        assertEquals(70, answersSent());
+        assertTrue(sent.get(sent.size() - 1).getIterRes().getDone());
+    }
+
+    private int answersSent() {
+        return (int) sent.stream().filter(res -> !res.hasIterRes()).count();
+    }
+
+    private int iteratorId() {
+        return sent.get(sent.size() - 1).getIterRes().getIteratorId();
+    }
+
+    /**
+     * An iterator computing each answer in hasNext(), as iterators backed by streams do
+     */
+    private static class CountingIterator implements Iterator<Transaction.Res> {
+        private final int size;
+        private final long millisPerAnswer;
+        private int pulled = 0;
+        private int failAt = -1;
+        private boolean computed = false;
+
+        CountingIterator(int size, long millisPerAnswer) {
+            this.size = size;
+            this.millisPerAnswer = millisPerAnswer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (computed) return true;
+            if (pulled == size) return false;
+            if (pulled == failAt) throw new IllegalStateException();
+            try {
+                Thread.sleep(millisPerAnswer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            computed = true;
+            return true;
+        }
+
+        @Override
+        public Transaction.Res next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            computed = false;
+            pulled++;
+            return Transaction.Res.getDefaultInstance();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.executor;
+
+import grakn.core.common.config.Config;
+import grakn.core.common.config.ConfigKey;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.server.keyspace.KeyspaceImpl;
+import grakn.core.server.session.HadoopGraphFactory;
+import grakn.core.server.session.JanusGraphFactory;
+import grakn.core.server.session.SessionFactory;
+import grakn.core.server.util.LockManager;
+import grakn.core.test.rule.GraknTestStorage;
+import graql.lang.Graql;
+import graql.lang.query.GraqlGet;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Read queries with disjunctions are resolved by the workers of the keyspace when reasoner parallelism is configured,
+ * so their answers are checked against resolving the disjuncts in turn, each as a query of its own
+ */
+public class ParallelResolutionIT {
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    private static Session session;
+
+    @BeforeClass
+    public static void loadData() {
+        Config config = storage.createCompatibleServerConfig();
+        config.setConfigProperty(ConfigKey.REASONER_PARALLELISM, 2);
+        SessionFactory sessionFactory = new SessionFactory(new LockManager(), new JanusGraphFactory(config), new HadoopGraphFactory(config), config);
+        session = sessionFactory.session(new KeyspaceImpl("a" + UUID.randomUUID().toString().replaceAll("-", "")));
+
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "person sub entity, has name, plays friend; " +
+                    "name sub attribute, value string; " +
+                    "friendship sub relation, relates friend; " +
+                    "friends-of-alice sub rule, " +
+                    "when { $a isa person, has name 'alice'; $b isa person; $a != $b; }, " +
+                    "then { (friend: $a, friend: $b) isa friendship; };").asDefine());
+            for (String name : new String[]{"alice", "bob", "carol", "dave", "erin"}) {
+                tx.execute(Graql.parse("insert $p isa person, has name '" + name + "';").asInsert());
+            }
+            tx.commit();
+        }
+    }
+
+    @AfterClass
+    public static void closeSession() {
+        session.close();
+    }
+
+    @Test
+    public void whenDisjunctsAreLookedUp_answersAreThoseOfTheDisjunctsInTurn() {
+        assertSameAsDisjunctsInTurn(
+                "match {$x isa person, has name 'bob';} or {$x isa person, has name 'carol';}; get;",
+                "match $x isa person, has name 'bob'; get;",
+                "match $x isa person, has name 'carol'; get;");
+    }
+
+    @Test
+    public void whenDisjunctsInferConcepts_answersAreThoseOfTheDisjunctsInTurn() {
+        assertSameAsDisjunctsInTurn(
+                "match {$r (friend: $x) isa friendship;} or {$x isa person, has name 'dave';}; get $x;",
+                "match $r (friend: $x) isa friendship; get $x;",
+                "match $x isa person, has name 'dave'; get $x;");
+    }
+
+    @Test
+    public void whenTheQueryIsRunMoreThanOnce_theSameAnswersAreReturned() {
+        String query = "match {$x isa person, has name 'alice';} or {$x isa name;}; get;";
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            Set<ConceptMap> first = answers(tx, query).collect(Collectors.toSet());
+            Set<ConceptMap> second = answers(tx, query).collect(Collectors.toSet());
+            assertFalse(first.isEmpty());
+            assertEquals(first, second);
+        }
+    }
+
+    private void assertSameAsDisjunctsInTurn(String query, String... disjuncts) {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> parallel = answers(tx, query).collect(Collectors.toList());
+            Set<ConceptMap> inTurn = Stream.of(disjuncts).flatMap(disjunct -> answers(tx, disjunct)).collect(Collectors.toSet());
+
+            assertFalse(inTurn.isEmpty());
+            assertEquals(inTurn.size(), parallel.size());
+            assertEquals(inTurn, parallel.stream().collect(Collectors.toSet()));
+        }
+    }
+
+    private static Stream<ConceptMap> answers(Transaction tx, String query) {
+        return tx.stream(Graql.parse(query).asGet());
+    }
+}
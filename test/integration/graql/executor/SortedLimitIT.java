@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.executor;
+
+import grakn.core.common.config.Config;
+import grakn.core.common.config.ConfigKey;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.test.rule.GraknTestStorage;
+import grakn.core.test.rule.SessionUtil;
+import graql.lang.Graql;
+import graql.lang.query.GraqlGet;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sorted and limited get queries keep only the first answers in order, and are read in order of the ordered value
+ * index when it is enabled, so their answers are checked against sorting all answers and then limiting them
+ */
+public class SortedLimitIT {
+
+    private static final int PEOPLE = 30;
+    private static final int AGES = 10;
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    private static Session session;
+    private static Session indexedSession;
+
+    @BeforeClass
+    public static void loadData() {
+        session = SessionUtil.serverlessSessionWithNewKeyspace(storage.createCompatibleServerConfig());
+        Config indexedConfig = storage.createCompatibleServerConfig();
+        indexedConfig.setConfigProperty(ConfigKey.ORDERED_VALUE_INDEX, true);
+        indexedSession = SessionUtil.serverlessSessionWithNewKeyspace(indexedConfig);
+
+        for (Session s : new Session[]{session, indexedSession}) {
+            try (Transaction tx = s.transaction(Transaction.Type.WRITE)) {
+                tx.execute(Graql.parse("define person sub entity, has age; age sub attribute, value long;").asDefine());
+                // every age is owned by several people, so the answers tie on it
+                for (int i = 0; i < PEOPLE; i++) {
+                    tx.execute(Graql.parse("insert $p isa person, has age " + (i % AGES) + ";").asInsert());
+                }
+                tx.commit();
+            }
+        }
+    }
+
+    @AfterClass
+    public static void closeSessions() {
+        session.close();
+        indexedSession.close();
+    }
+
+    @Test
+    public void whenLimitCutsThroughTies_theLowestAnswersAreKept() {
+        assertSameAsSortThenLimit("match $p isa person, has age $a; get; sort $a; limit 7;");
+        assertSameAsSortThenLimit("match $p isa person, has age $a; get; sort $a asc; offset 4; limit 7;");
+    }
+
+    @Test
+    public void whenSortIsDescending_theHighestAnswersAreKept() {
+        assertSameAsSortThenLimit("match $p isa person, has age $a; get; sort $a desc; limit 7;");
+        assertSameAsSortThenLimit("match $p isa person, has age $a; get; sort $a desc; offset 4; limit 7;");
+    }
+
+    @Test
+    public void whenSortingTheAttributesThemselves_theyAreKeptInOrder() {
+        assertSameAsSortThenLimit("match $a isa age; get; sort $a; limit 3;");
+        assertSameAsSortThenLimit("match $a isa age; get; sort $a desc; limit 3;");
+    }
+
+    @Test
+    public void whenLimitExceedsTheAnswers_allAnswersAreSorted() {
+        assertSameAsSortThenLimit("match $p isa person, has age $a; get; sort $a; limit 100;");
+        assertSameAsSortThenLimit("match $p isa person, has age $a; get; sort $a; offset 100; limit 7;");
+    }
+
+    private static void assertSameAsSortThenLimit(String query) {
+        for (Session s : new Session[]{session, indexedSession}) {
+            try (Transaction tx = s.transaction(Transaction.Type.READ)) {
+                GraqlGet sortedLimited = Graql.parse(query).asGet();
+                List<ConceptMap> answers = tx.execute(sortedLimited);
+
+                GraqlGet unsorted = sortedLimited.match().get();
+                List<ConceptMap> expected = new ArrayList<>(tx.execute(unsorted));
+                String var = sortedLimited.sort().get().var().name();
+                Comparator<ConceptMap> byValue = Comparator.comparingLong(answer -> (Long) answer.get(var).asAttribute().value());
+                expected.sort(sortedLimited.sort().get().order() == Graql.Token.Order.DESC ? byValue.reversed() : byValue);
+                long offset = sortedLimited.offset().orElse(0L);
+                expected = expected.stream().skip(offset).limit(sortedLimited.limit().get()).collect(Collectors.toList());
+
+                // answers tied on the value may be any of the tied answers, but the values are the same in order
+                assertEquals(query, values(expected, var), values(answers, var));
+                assertEquals(query, answers.size(), new HashSet<>(answers).size());
+                assertTrue(query, tx.execute(unsorted).containsAll(answers));
+            }
+        }
+    }
+
+    private static List<Object> values(List<ConceptMap> answers, String var) {
+        return answers.stream().map(answer -> answer.get(var).asAttribute().value()).collect(Collectors.toList());
+    }
+}
@@ -19,13 +19,17 @@ package grakn.core.graql.planning;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import grakn.core.common.config.Config;
 import grakn.core.common.util.Streams;
+import grakn.core.concept.answer.ConceptMap;
 import grakn.core.core.Schema;
+import grakn.core.graql.executor.TraversalExecutorImpl;
 import grakn.core.graql.executor.property.PropertyExecutorFactoryImpl;
 import grakn.core.graql.planning.gremlin.fragment.Fragments;
 import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.api.EntityType;
 import grakn.core.kb.concept.api.RelationType;
@@ -80,6 +84,7 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -397,4 +402,39 @@ public class GraqlTraversalIT {
     private <T> Matcher<T> matches(String regex) {
         return feature(satisfies(string -> string.matches(regex)), "matching " + regex, Object::toString);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenExecutingNatively_answersAreTheSameAsWithGremlin() {
+        AttributeType<String> name = tx.putAttributeType("name", AttributeType.ValueType.STRING);
+        tx.getEntityType("person").has(name);
+        tx.execute(Graql.parse("insert " +
+                "$a isa person, has name \"alice\"; $b isa person, has name \"bob\"; $c isa person, has name \"carol\"; " +
+                "(wife: $a, wife: $b) isa marriage; (wife: $c) isa marriage;").asInsert());
+
+        Statement r = var("r");
+        assertNativeEquivalent(x.isa("person"));
+        assertNativeEquivalent(x.isa("person").has("name", z));
+        assertNativeEquivalent(x.has("name", "alice"));
+        assertNativeEquivalent(and(x.isa(y), y.sub("person")));
+        assertNativeEquivalent(r.rel("wife", x).isa("marriage"));
+        assertNativeEquivalent(r.rel("wife", x).rel("wife", y).isa("marriage"));
+        assertNativeEquivalent(and(r.rel(x).rel(y), x.has("name", "alice"), y.has("name", z)));
+    }
+
+    /**
+     * Asserts that the native executor returns the same non-empty answers as the Gremlin traversal of the same plan
+     */
+    private static void assertNativeEquivalent(Pattern pattern) {
+        TestTransactionProvider.TestTransaction testTx = (TestTransactionProvider.TestTransaction) tx;
+        Conjunction<Statement> conjunction = Iterables.getOnlyElement(pattern.getDisjunctiveNormalForm().getPatterns());
+        GraqlTraversal traversal = testTx.traversalPlanFactory().createTraversal(conjunction);
+
+        Set<ConceptMap> gremlinAnswers = new TraversalExecutorImpl(testTx.traversalPlanFactory(), testTx.conceptManager(), false)
+                .traverse(conjunction, traversal).collect(toSet());
+        Set<ConceptMap> nativeAnswers = new TraversalExecutorImpl(testTx.traversalPlanFactory(), testTx.conceptManager(), true)
+                .traverse(conjunction, traversal).collect(toSet());
+
+        assertFalse(pattern.toString(), gremlinAnswers.isEmpty());
+        assertEquals(pattern.toString(), gremlinAnswers, nativeAnswers);
+    }
+}
@@ -22,6 +22,7 @@ import grakn.core.common.config.Config;
 import grakn.core.graql.planning.gremlin.fragment.InIsaFragment;
 import grakn.core.graql.planning.gremlin.fragment.LabelFragment;
 import grakn.core.graql.planning.gremlin.fragment.OutIsaFragment;
+import grakn.core.graql.planning.gremlin.fragment.ValueFragment;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Entity;
 import grakn.core.kb.concept.api.EntityType;
@@ -48,6 +49,7 @@ import java.util.List;
 import static graql.lang.Graql.and;
 import static graql.lang.Graql.var;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -332,6 +334,19 @@ public class QueryPlannerIT {
         }
     }
 
+    @Test
+    public void whenTheOrderedValueIndexIsOff_rangesOfValuesDoNotStartThePlan() {
+        // the ordered value index is off by default, so a range cannot be looked up and is only tested
+        Pattern pattern = and(
+                x.isa(thingy4),
+                x.has(resourceType, y),
+                y.gt("someString"));
+
+        List<? extends Fragment> plan = getPlan(pattern);
+        assertTrue(plan.get(0).hasFixedFragmentCost());
+        assertFalse(plan.get(0) instanceof ValueFragment);
+        assertTrue(plan.stream().filter(ValueFragment.class::isInstance).noneMatch(Fragment::hasFixedFragmentCost));
+    }
 
     @Test
     public void sameLabelFragmentShouldNotBeAddedTwice() {
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.reasoner.cache;
+
+import grakn.core.common.config.Config;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.explanation.LookupExplanation;
+import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Type;
+import grakn.core.kb.keyspace.KeyspaceSchemaCache;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.test.rule.GraknTestStorage;
+import grakn.core.test.rule.SessionUtil;
+import grakn.core.test.rule.TestTransactionProvider;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import static grakn.core.test.common.GraqlTestUtil.loadFromFileAndCommit;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class SharedAnswerCacheIT {
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    private static final String PATTERN = "(role: $x, role: $y) isa ternary;";
+
+    private static Session genericSchemaSession;
+
+    private SharedAnswerCache sharedCache;
+
+    @BeforeClass
+    public static void loadContext() {
+        Config mockServerConfig = storage.createCompatibleServerConfig();
+        genericSchemaSession = SessionUtil.serverlessSessionWithNewKeyspace(mockServerConfig);
+        String resourcePath = "test/integration/graql/reasoner/resources/";
+        loadFromFileAndCommit(resourcePath, "genericSchemaRefactored.gql", genericSchemaSession);
+    }
+
+    @AfterClass
+    public static void closeSession() {
+        genericSchemaSession.close();
+    }
+
+    @Before
+    public void setUp() {
+        sharedCache = new SharedAnswerCache(new KeyspaceSchemaCache());
+    }
+
+    @Test
+    public void whenATransactionSharesCompleteAnswers_laterTransactionsReuseThem() {
+        Set<Map<Variable, Concept>> answers = resolveAndShare();
+        assertFalse(answers.isEmpty());
+
+        try (Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction) tx);
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor(), sharedCache);
+            cache.readSharedAnswers();
+            ReasonerAtomicQuery query = testTx.reasonerQueryFactory().atomic(conjunction(PATTERN));
+
+            assertTrue(cache.isComplete(query));
+            assertEquals(answers, cache.getAnswers(query).stream().map(ConceptMap::map).collect(toSet()));
+        }
+    }
+
+    @Test
+    public void whenATransactionDoesNotReadSharedAnswers_sharedAnswersAreNotReused() {
+        resolveAndShare();
+
+        try (Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction) tx);
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor(), sharedCache);
+            ReasonerAtomicQuery query = testTx.reasonerQueryFactory().atomic(conjunction(PATTERN));
+
+            assertFalse(cache.isComplete(query));
+            assertFalse(cache.contains(query));
+        }
+    }
+
+    @Test
+    public void whenACommitTouchesTheTypeOfSharedAnswers_theyAreNoLongerReused() {
+        resolveAndShare();
+
+        try (Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction) tx);
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor(), sharedCache);
+            Set<Type> committed = Collections.singleton(tx.getType(Label.of("ternary")));
+            Set<Label> committedTypes = cache.committedTypes(committed, Collections.emptySet());
+            assertTrue(committedTypes.contains(Label.of("ternary")));
+
+            long version = sharedCache.version();
+            cache.ackCommit(committedTypes);
+            assertEquals(version + 1, sharedCache.version());
+        }
+
+        try (Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction) tx);
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor(), sharedCache);
+            cache.readSharedAnswers();
+            ReasonerAtomicQuery query = testTx.reasonerQueryFactory().atomic(conjunction(PATTERN));
+
+            assertFalse(cache.isComplete(query));
+        }
+    }
+
+    @Test
+    public void whenACommitHappensWhileATransactionResolves_itsAnswersAreNotShared() {
+        try (Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction) tx);
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor(), sharedCache);
+            cache.readSharedAnswers();
+            ReasonerAtomicQuery query = testTx.reasonerQueryFactory().atomic(conjunction(PATTERN));
+            recordComplete(tx, cache, query);
+
+            sharedCache.ackCommit(Collections.emptySet());
+            cache.shareAnswers();
+        }
+
+        try (Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction) tx);
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor(), sharedCache);
+            cache.readSharedAnswers();
+            ReasonerAtomicQuery query = testTx.reasonerQueryFactory().atomic(conjunction(PATTERN));
+
+            assertFalse(cache.isComplete(query));
+        }
+    }
+
+    /**
+     * Resolves the query in a transaction reading shared answers and shares them when it closes.
+     * @return the answers shared
+     */
+    private Set<Map<Variable, Concept>> resolveAndShare() {
+        try (Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction) tx);
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor(), sharedCache);
+            cache.readSharedAnswers();
+            ReasonerAtomicQuery query = testTx.reasonerQueryFactory().atomic(conjunction(PATTERN));
+            Set<Map<Variable, Concept>> answers = recordComplete(tx, cache, query);
+            cache.shareAnswers();
+            return answers;
+        }
+    }
+
+    private static Set<Map<Variable, Concept>> recordComplete(Transaction tx, MultilevelSemanticCache cache, ReasonerAtomicQuery query) {
+        Set<Map<Variable, Concept>> answers = tx.execute(query.getQuery()).stream()
+                .map(ans -> ans.explain(new LookupExplanation()))
+                .peek(ans -> cache.record(query, ans))
+                .map(ConceptMap::map)
+                .collect(toSet());
+        cache.ackCompleteness(query);
+        return answers;
+    }
+
+    private Conjunction<Statement> conjunction(String patternString) {
+        Set<Statement> vars = Graql.parsePattern(patternString)
+                .getDisjunctiveNormalForm().getPatterns()
+                .stream().flatMap(p -> p.getPatterns().stream()).collect(toSet());
+        return Graql.and(vars);
+    }
+}
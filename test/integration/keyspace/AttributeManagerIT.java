@@ -18,7 +18,12 @@
 
 package grakn.core.keyspace;
 
+import com.google.common.collect.Iterables;
+import grakn.core.core.Schema;
 import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.keyspace.AttributeManager;
 import grakn.core.kb.server.Session;
 import grakn.core.kb.server.Transaction;
 import grakn.core.test.rule.GraknTestServer;
@@ -31,14 +36,19 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class AttributeManagerIT {
@@ -310,4 +320,88 @@ public class AttributeManagerIT {
         assertFalse(session.attributeManager().lockCandidatesPresent());
         assertFalse(session.attributeManager().ephemeralAttributesPresent());
     }
+
+    @Test
+    public void whenCommittedAttributesExceedTheCacheBound_theCacheEvictsToStayWithinIt() {
+        long maxBytes = 64 * 1024;
+        AttributeManager attributeManager = new AttributeManagerImpl(maxBytes);
+        int attributes = 10_000;
+        for (int i = 0; i < attributes; i++) {
+            attributeManager.attributesCommitted().put(Schema.generateAttributeIndex(Label.of("someAttribute"), String.valueOf(i)), ConceptId.of("V" + i));
+        }
+
+        // every entry is estimated to take more than 160 bytes
+        long cached = attributeManager.attributesCommitted().size();
+        assertTrue(cached > 0);
+        assertTrue(cached <= maxBytes / 160);
+        assertEquals(attributes - cached, attributeManager.attributesCommitted().stats().evictionCount());
+    }
+
+    @Test
+    public void whenLookingUpCommittedAttributes_hitsAndMissesAreRecorded() {
+        AttributeManager attributeManager = new AttributeManagerImpl();
+        String index = Schema.generateAttributeIndex(Label.of("someAttribute"), "1337");
+        attributeManager.attributesCommitted().put(index, ConceptId.of("V1337"));
+
+        assertEquals(ConceptId.of("V1337"), attributeManager.attributesCommitted().getIfPresent(index));
+        assertNull(attributeManager.attributesCommitted().getIfPresent(Schema.generateAttributeIndex(Label.of("someAttribute"), "1667")));
+
+        assertEquals(1, attributeManager.attributesCommitted().stats().hitCount());
+        assertEquals(1, attributeManager.attributesCommitted().stats().missCount());
+    }
+
+    /**
+     * Deleting an attribute requires its commit to lock the index of the attribute, which we hold here
+     * as if another commit held it.
+     */
+    @Test
+    public void whenCommitsLockDifferentStripes_theyRunConcurrently_andConflictingOnesSerialise() throws Exception {
+        Label label = Label.of("someAttribute");
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            AttributeType<Long> someAttribute = tx.putAttributeType(label, AttributeType.ValueType.LONG);
+            someAttribute.create(0L);
+            for (long value = 1; value < 100; value++) someAttribute.create(value);
+            tx.commit();
+        }
+        String heldIndex = Schema.generateAttributeIndex(label, "0");
+        Lock heldLock = Iterables.getOnlyElement(session.attributeManager().commitLocks(Collections.singleton(heldIndex)));
+        long otherValue = 1;
+        while (heldLock == Iterables.getOnlyElement(session.attributeManager().commitLocks(
+                Collections.singleton(Schema.generateAttributeIndex(label, String.valueOf(otherValue)))))) {
+            otherValue++;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        heldLock.lock();
+        CompletableFuture<Void> conflictingDelete;
+        try {
+            long otherStripeValue = otherValue;
+            // a commit on another stripe completes while the lock is held
+            CompletableFuture.runAsync(() -> deleteAttribute(label, otherStripeValue), executorService).get();
+
+            conflictingDelete = CompletableFuture.runAsync(() -> deleteAttribute(label, 0L), executorService);
+            while (!((ReentrantLock) heldLock).hasQueuedThreads()) {
+                assertFalse(conflictingDelete.isDone());
+                Thread.yield();
+            }
+            assertFalse(conflictingDelete.isDone());
+        } finally {
+            heldLock.unlock();
+        }
+        conflictingDelete.get();
+        executorService.shutdown();
+
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertNull(tx.getAttributeType(label.getValue()).attribute(0L));
+            assertNull(tx.getAttributeType(label.getValue()).attribute(otherValue));
+        }
+    }
+
+    private void deleteAttribute(Label label, long value) {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.getAttributeType(label.getValue()).attribute(value).delete();
+            assertTrue(((TransactionImpl) tx).commitLockRequired());
+            tx.commit();
+        }
+    }
 }
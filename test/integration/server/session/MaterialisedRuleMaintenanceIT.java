@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.server.session;
+
+import grakn.core.common.config.Config;
+import grakn.core.common.config.ConfigKey;
+import grakn.core.graql.reasoner.cache.RuleCacheImpl;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Thing;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.server.keyspace.KeyspaceImpl;
+import grakn.core.server.util.LockManager;
+import grakn.core.test.rule.GraknTestStorage;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The facts of materialised rules are checked in storage, where they are instances still tagged as inferred, as
+ * commits maintain them and as they are rederived after the rules change
+ */
+public class MaterialisedRuleMaintenanceIT {
+
+    private static final String RULE = "friends-of-alice";
+    private static final String FRIENDS = "match (friend: $x, friend: $y) isa friendship; get;";
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    private static SessionFactory sessionFactory;
+
+    private Session session;
+
+    @BeforeClass
+    public static void createSessionFactory() {
+        Config config = storage.createCompatibleServerConfig();
+        config.setConfigProperty(ConfigKey.MATERIALISED_RULES, RULE);
+        sessionFactory = new SessionFactory(new LockManager(), new JanusGraphFactory(config), new HadoopGraphFactory(config), config);
+    }
+
+    @Before
+    public void loadData() {
+        session = sessionFactory.session(new KeyspaceImpl("a" + UUID.randomUUID().toString().replaceAll("-", "")));
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "name sub attribute, value string; " +
+                    "person sub entity, has name, plays friend; " +
+                    "company sub entity, has name; " +
+                    "friendship sub relation, relates friend; " +
+                    RULE + " sub rule, " +
+                    "when { $a isa person, has name 'alice'; $b isa person; $a != $b; }, " +
+                    "then { (friend: $a, friend: $b) isa friendship; };").asDefine());
+            tx.commit();
+        }
+        insert("insert $a isa person, has name 'alice'; $b isa person, has name 'bob'; $c isa person, has name 'carol';");
+        // the rule is rederived once the commits are done, in a transaction of its own
+        waitUntil(this::isReadFromStorage);
+    }
+
+    @After
+    public void closeSession() {
+        session.close();
+    }
+
+    @Test
+    public void whenTheRuleIsRederived_itsFactsAreStoredAsInferred() {
+        assertEquals(2, storedFacts().size());
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(4, tx.execute(Graql.parse(FRIENDS).asGet()).size());
+        }
+    }
+
+    @Test
+    public void whenInferenceIsOff_storedFactsAreLeftOut() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertTrue(tx.execute(Graql.parse(FRIENDS).asGet(), false).isEmpty());
+            assertTrue(tx.execute(Graql.parse("match $r isa friendship; get;").asGet(), false).isEmpty());
+            assertEquals(3, tx.execute(Graql.parse("match $x isa person; get;").asGet(), false).size());
+        }
+    }
+
+    @Test
+    public void whenACommitInsertsInstancesTheRuleDependsOn_theCommitStoresTheNewFacts() {
+        insert("insert $d isa person, has name 'dave';");
+
+        assertEquals(3, storedFacts().size());
+        assertTrue(isReadFromStorage());
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(6, tx.execute(Graql.parse(FRIENDS).asGet()).size());
+        }
+    }
+
+    @Test
+    public void whenACommitDeletesInstancesTheRuleDependsOn_theCommitDeletesTheFactsNoLongerDerived() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("match $b isa person, has name 'bob'; delete $b isa person;").asDelete());
+            tx.commit();
+        }
+
+        assertEquals(1, storedFacts().size());
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(2, tx.execute(Graql.parse(FRIENDS).asGet()).size());
+        }
+    }
+
+    @Test
+    public void whenACommitDoesNotTouchInstancesTheRuleDependsOn_storedFactsAreLeftAsTheyAre() {
+        Set<ConceptId> stored = storedFacts();
+        insert("insert $c isa company, has name 'acme';");
+
+        assertEquals(stored, storedFacts());
+        assertTrue(isReadFromStorage());
+    }
+
+    @Test
+    public void whenACommitChangesRules_theRuleIsRederivedAfterTheCommit() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define company plays friend;").asDefine());
+            tx.execute(Graql.parse("define unlisted-rule sub rule, " +
+                    "when { $a isa person, has name 'alice'; $c isa company; }, " +
+                    "then { (friend: $a, friend: $c) isa friendship; };").asDefine());
+            tx.commit();
+        }
+        insert("insert $c isa company, has name 'acme';");
+
+        waitUntil(this::isReadFromStorage);
+        assertEquals(2, storedFacts().size());
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            // the unlisted rule is still resolved
+            assertEquals(6, tx.execute(Graql.parse(FRIENDS).asGet()).size());
+        }
+    }
+
+    private void insert(String query) {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse(query).asInsert());
+            tx.commit();
+        }
+    }
+
+    /**
+     * @return ids of the friendships stored as inferred
+     */
+    private Set<ConceptId> storedFacts() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            return tx.getRelationType("friendship").instances()
+                    .filter(Thing::isInferred)
+                    .map(Concept::id)
+                    .collect(toSet());
+        }
+    }
+
+    /**
+     * @return true if the facts of the rule are current in storage, so that transactions read rather than infer them
+     */
+    private boolean isReadFromStorage() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            RuleCacheImpl ruleCache = (RuleCacheImpl) ((TransactionImpl) tx).ruleCache;
+            return ruleCache.isReadFromStorage(tx.getRule(RULE));
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("Timed out waiting for the rule to be rederived");
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting for the rule to be rederived");
+            }
+        }
+    }
+}